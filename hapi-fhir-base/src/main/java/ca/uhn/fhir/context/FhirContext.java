@@ -17,6 +17,7 @@ import ca.uhn.fhir.parser.IParserErrorHandler;
 import ca.uhn.fhir.parser.JsonParser;
 import ca.uhn.fhir.parser.LenientErrorHandler;
 import ca.uhn.fhir.parser.NDJsonParser;
+import ca.uhn.fhir.parser.ParserCache;
 import ca.uhn.fhir.parser.RDFParser;
 import ca.uhn.fhir.parser.XmlParser;
 import ca.uhn.fhir.rest.api.IVersionSpecificBundleFactory;
@@ -107,6 +108,7 @@ public class FhirContext {
 	private final Map<String, Class<? extends IBaseResource>> myDefaultTypeForProfile = new HashMap<>();
 	private final Set<PerformanceOptionsEnum> myPerformanceOptions = new HashSet<>();
 	private final Collection<Class<? extends IBaseResource>> myResourceTypesToScan;
+	private final ParserCache myParserCache = new ParserCache();
 	private AddProfileTagEnum myAddProfileTagWhenEncoding = AddProfileTagEnum.ONLY_FOR_CUSTOM;
 	private volatile Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> myClassToElementDefinition = Collections.emptyMap();
 	private ArrayList<Class<? extends IBase>> myCustomTypes;
@@ -664,6 +666,16 @@ public class FhirContext {
 		this.myRestfulClientFactory = theRestfulClientFactory;
 	}
 
+	/**
+	 * Returns the state shared by all parsers created by this context. The returned object
+	 * is opaque, and is used internally by HAPI FHIR.
+	 *
+	 * @since 6.3.0
+	 */
+	public ParserCache getParserCache() {
+		return myParserCache;
+	}
+
 	public RuntimeChildUndeclaredExtensionDefinition getRuntimeChildUndeclaredExtensionDefinition() {
 		validateInitialized();
 		return myRuntimeChildUndeclaredExtensionDefinition;
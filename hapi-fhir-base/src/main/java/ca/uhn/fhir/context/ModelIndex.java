@@ -0,0 +1,231 @@
+package ca.uhn.fhir.context;
+
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.api.RestSearchParameterTypeEnum;
+import ca.uhn.fhir.util.IoUtil;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A precomputed index of model metadata which would otherwise need to be
+ * discovered by {@link ModelScanner} using reflection. The index is generated at
+ * build time by {@link ModelIndexGenerator} and stored alongside the model classes
+ * in a file named {@value #INDEX_FILE_NAME}.
+ * <p>
+ * The index only contains strings (never {@link Class} references) so that it can
+ * safely be cached for the life of the JVM. If no index is found for a given model
+ * package, or the index can't be read, the model is scanned using reflection as usual.
+ * </p>
+ */
+final class ModelIndex {
+
+	static final String INDEX_FILE_NAME = "fhirmodelindex.bin";
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ModelIndex.class);
+	private static final int FORMAT_VERSION = 1;
+	private static final ModelIndex EMPTY = new ModelIndex(Collections.emptyMap());
+	private static final Map<String, ModelIndex> ourUrlToModelIndex = new ConcurrentHashMap<>();
+
+	private final Map<String, List<SearchParam>> myClassNameToSearchParams;
+
+	ModelIndex(Map<String, List<SearchParam>> theClassNameToSearchParams) {
+		myClassNameToSearchParams = theClassNameToSearchParams;
+	}
+
+	/**
+	 * Returns the search parameters declared by the given resource class, or <code>null</code>
+	 * if the index does not contain the class
+	 */
+	List<SearchParam> getSearchParams(String theClassName) {
+		return myClassNameToSearchParams.get(theClassName);
+	}
+
+	boolean isEmpty() {
+		return myClassNameToSearchParams.isEmpty();
+	}
+
+	void write(OutputStream theOutputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(theOutputStream);
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(myClassNameToSearchParams.size());
+		for (Map.Entry<String, List<SearchParam>> nextEntry : myClassNameToSearchParams.entrySet()) {
+			out.writeUTF(nextEntry.getKey());
+			out.writeInt(nextEntry.getValue().size());
+			for (SearchParam next : nextEntry.getValue()) {
+				out.writeUTF(next.getName());
+				out.writeUTF(next.getDescription());
+				out.writeUTF(next.getPath());
+				out.writeUTF(next.getParamType().getCode());
+				writeStrings(out, next.getTargets());
+				writeStrings(out, next.getProvidesMembershipInCompartments());
+				writeStrings(out, next.getCompositeOf());
+			}
+		}
+		out.flush();
+	}
+
+	static ModelIndex read(InputStream theInputStream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(theInputStream));
+		int formatVersion = in.readInt();
+		if (formatVersion != FORMAT_VERSION) {
+			throw new IOException(Msg.code(2232) + "Unsupported model index format version: " + formatVersion);
+		}
+
+		int classCount = in.readInt();
+		Map<String, List<SearchParam>> classNameToSearchParams = new HashMap<>(classCount * 2);
+		for (int i = 0; i < classCount; i++) {
+			String className = in.readUTF();
+			int paramCount = in.readInt();
+			List<SearchParam> searchParams = new ArrayList<>(paramCount);
+			for (int j = 0; j < paramCount; j++) {
+				String name = in.readUTF();
+				String description = in.readUTF();
+				String path = in.readUTF();
+				RestSearchParameterTypeEnum paramType = RestSearchParameterTypeEnum.forCode(in.readUTF());
+				Set<String> targets = new LinkedHashSet<>(readStrings(in));
+				Set<String> compartments = new LinkedHashSet<>(readStrings(in));
+				List<String> compositeOf = readStrings(in);
+				searchParams.add(new SearchParam(name, description, path, paramType, targets, compartments, compositeOf));
+			}
+			classNameToSearchParams.put(className, searchParams);
+		}
+		return new ModelIndex(classNameToSearchParams);
+	}
+
+	/**
+	 * Returns the index for the package containing the given class. Never returns <code>null</code>,
+	 * an empty index is returned if none is available.
+	 */
+	static ModelIndex forPackageOf(Class<?> theClass) {
+		ClassLoader classLoader = theClass.getClassLoader();
+		if (classLoader == null) {
+			return EMPTY;
+		}
+
+		String path = theClass.getPackage().getName().replace('.', '/') + "/" + INDEX_FILE_NAME;
+		URL url = classLoader.getResource(path);
+		if (url == null) {
+			return EMPTY;
+		}
+
+		return ourUrlToModelIndex.computeIfAbsent(url.toString(), t -> load(url));
+	}
+
+	private static ModelIndex load(URL theUrl) {
+		InputStream inputStream = null;
+		try {
+			inputStream = theUrl.openStream();
+			ModelIndex retVal = read(inputStream);
+			ourLog.debug("Loaded model index from {}", theUrl);
+			return retVal;
+		} catch (IOException e) {
+			ourLog.warn("Failed to load model index from {}, model will be scanned instead: {}", theUrl, e.toString());
+			return EMPTY;
+		} finally {
+			IoUtil.closeQuietly(inputStream);
+		}
+	}
+
+	private static void writeStrings(DataOutputStream theOutputStream, Collection<String> theStrings) throws IOException {
+		theOutputStream.writeInt(theStrings.size());
+		for (String next : theStrings) {
+			theOutputStream.writeUTF(next);
+		}
+	}
+
+	private static List<String> readStrings(DataInputStream theInputStream) throws IOException {
+		int count = theInputStream.readInt();
+		List<String> retVal = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			retVal.add(theInputStream.readUTF());
+		}
+		return retVal;
+	}
+
+	/**
+	 * The contents of a {@link ca.uhn.fhir.model.api.annotation.SearchParamDefinition} annotation,
+	 * with target types and compartments already resolved to names
+	 */
+	static final class SearchParam {
+		private final String myName;
+		private final String myDescription;
+		private final String myPath;
+		private final RestSearchParameterTypeEnum myParamType;
+		private final Set<String> myTargets;
+		private final Set<String> myProvidesMembershipInCompartments;
+		private final List<String> myCompositeOf;
+
+		SearchParam(String theName, String theDescription, String thePath, RestSearchParameterTypeEnum theParamType, Set<String> theTargets, Set<String> theProvidesMembershipInCompartments, List<String> theCompositeOf) {
+			myName = theName;
+			myDescription = theDescription;
+			myPath = thePath;
+			myParamType = theParamType;
+			myTargets = theTargets;
+			myProvidesMembershipInCompartments = theProvidesMembershipInCompartments;
+			myCompositeOf = theCompositeOf;
+		}
+
+		String getName() {
+			return myName;
+		}
+
+		String getDescription() {
+			return myDescription;
+		}
+
+		String getPath() {
+			return myPath;
+		}
+
+		RestSearchParameterTypeEnum getParamType() {
+			return myParamType;
+		}
+
+		Set<String> getTargets() {
+			return myTargets;
+		}
+
+		Set<String> getProvidesMembershipInCompartments() {
+			return myProvidesMembershipInCompartments;
+		}
+
+		List<String> getCompositeOf() {
+			return myCompositeOf;
+		}
+	}
+
+}
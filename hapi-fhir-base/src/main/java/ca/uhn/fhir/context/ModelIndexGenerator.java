@@ -0,0 +1,93 @@
+package ca.uhn.fhir.context;
+
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.i18n.Msg;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Generates the precomputed model index (see {@link ModelIndex}) for the structures
+ * of a given FHIR version. This is invoked at build time by the structures modules,
+ * with two arguments:
+ * <ol>
+ *    <li>The {@link FhirVersionEnum} name, e.g. <code>R4</code></li>
+ *    <li>The output directory, e.g. <code>target/classes</code>. The index will be written
+ *    into the subdirectory corresponding to the package of the model classes.</li>
+ * </ol>
+ *
+ * @since 6.3.0
+ */
+public class ModelIndexGenerator {
+
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ModelIndexGenerator.class);
+
+	/**
+	 * Non instantiable
+	 */
+	private ModelIndexGenerator() {
+		// nothing
+	}
+
+	public static void main(String[] theArgs) throws IOException {
+		Validate.isTrue(theArgs.length == 2, "Usage: ModelIndexGenerator [FHIR version] [output directory]");
+		FhirVersionEnum version = FhirVersionEnum.valueOf(theArgs[0]);
+		File outputDirectory = new File(theArgs[1]);
+
+		Map<String, Class<? extends IBaseResource>> nameToResourceType = new HashMap<>();
+		ModelScanner.scanVersionPropertyFile(null, nameToResourceType, version, new HashMap<>());
+		Validate.isTrue(!nameToResourceType.isEmpty(), "No resource types found for version %s", version);
+
+		String packageName = null;
+		Map<String, List<ModelIndex.SearchParam>> classNameToSearchParams = new TreeMap<>();
+		for (Class<? extends IBaseResource> next : nameToResourceType.values()) {
+			if (packageName == null) {
+				packageName = next.getPackage().getName();
+			} else if (!packageName.equals(next.getPackage().getName())) {
+				throw new ConfigurationException(Msg.code(2212) + "Resource types for version " + version + " are not all in package " + packageName + ": " + next.getName());
+			}
+			classNameToSearchParams.put(next.getName(), ModelScanner.scanSearchParamDefinitions(next));
+		}
+
+		File targetDirectory = new File(outputDirectory, packageName.replace('.', File.separatorChar));
+		if (!targetDirectory.exists() && !targetDirectory.mkdirs()) {
+			throw new IOException(Msg.code(2213) + "Failed to create directory: " + targetDirectory.getAbsolutePath());
+		}
+		File targetFile = new File(targetDirectory, ModelIndex.INDEX_FILE_NAME);
+
+		try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(targetFile, false))) {
+			new ModelIndex(classNameToSearchParams).write(outputStream);
+		}
+
+		ourLog.info("Wrote model index for {} resource types to {}", classNameToSearchParams.size(), targetFile.getAbsolutePath());
+	}
+
+}
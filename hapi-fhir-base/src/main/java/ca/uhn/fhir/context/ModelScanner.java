@@ -63,7 +63,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -85,6 +84,7 @@ class ModelScanner {
 	private FhirVersionEnum myVersion;
 
 	private Set<Class<? extends IBase>> myVersionTypes;
+	private Map<String, ModelIndex> myPackageNameToModelIndex = new HashMap<>();
 
 	ModelScanner(FhirContext theContext, FhirVersionEnum theVersion, Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theExistingDefinitions,
 					 @Nonnull Collection<Class<? extends IBase>> theResourceTypes) throws ConfigurationException {
@@ -363,8 +363,53 @@ class ModelScanner {
 
 	private void scanResourceForSearchParams(Class<? extends IBaseResource> theClass, RuntimeResourceDefinition theResourceDef) {
 
-		Map<String, RuntimeSearchParam> nameToParam = new HashMap<>();
-		Map<Field, SearchParamDefinition> compositeFields = new LinkedHashMap<>();
+		/*
+		 * Standard model types will usually have their search parameters in a
+		 * precomputed index (see ModelIndexGenerator), which saves us from reflecting
+		 * over every field in the class. Custom types are always scanned since they
+		 * may declare their own search parameters.
+		 */
+		List<ModelIndex.SearchParam> searchParams = null;
+		if (theResourceDef.isStandardType()) {
+			searchParams = getModelIndex(theClass).getSearchParams(theClass.getName());
+		}
+		if (searchParams == null) {
+			searchParams = scanSearchParamDefinitions(theClass);
+		}
+
+		for (ModelIndex.SearchParam searchParam : searchParams) {
+			List<RuntimeSearchParam.Component> components = null;
+			if (searchParam.getParamType() == RestSearchParameterTypeEnum.COMPOSITE) {
+				components = new ArrayList<>();
+				for (String name : searchParam.getCompositeOf()) {
+					String ref = toCanonicalSearchParameterUri(theResourceDef, name);
+					components.add(new RuntimeSearchParam.Component(null, ref));
+				}
+			}
+
+			Collection<String> base = Collections.singletonList(theResourceDef.getName());
+			String url = null;
+			if (theResourceDef.isStandardType()) {
+				String name = searchParam.getName();
+				url = toCanonicalSearchParameterUri(theResourceDef, name);
+			}
+			Set<String> providesMembershipInCompartments = new HashSet<>(searchParam.getProvidesMembershipInCompartments());
+			Set<String> targets = new HashSet<>(searchParam.getTargets());
+			RuntimeSearchParam param = new RuntimeSearchParam(null, url, searchParam.getName(), searchParam.getDescription(), searchParam.getPath(), searchParam.getParamType(), providesMembershipInCompartments, targets, RuntimeSearchParamStatusEnum.ACTIVE, null, components, base);
+			theResourceDef.addSearchParam(param);
+		}
+
+	}
+
+	private ModelIndex getModelIndex(Class<?> theClass) {
+		return myPackageNameToModelIndex.computeIfAbsent(theClass.getPackage().getName(), t -> ModelIndex.forPackageOf(theClass));
+	}
+
+	/**
+	 * Reflectively scans a resource class for {@link SearchParamDefinition} annotations
+	 */
+	static List<ModelIndex.SearchParam> scanSearchParamDefinitions(Class<? extends IBaseResource> theClass) {
+		List<ModelIndex.SearchParam> retVal = new ArrayList<>();
 
 		/*
 		 * Make sure we pick up fields in interfaces too.. This ensures that we
@@ -411,34 +456,23 @@ class ModelScanner {
 					providesMembershipInCompartments.add(name);
 				}
 
-				List<RuntimeSearchParam.Component> components = null;
+				List<String> compositeOf = Collections.emptyList();
 				if (paramType == RestSearchParameterTypeEnum.COMPOSITE) {
-					components = new ArrayList<>();
-					for (String name : searchParam.compositeOf()) {
-						String ref = toCanonicalSearchParameterUri(theResourceDef, name);
-						components.add(new RuntimeSearchParam.Component(null, ref));
-					}
+					compositeOf = Arrays.asList(searchParam.compositeOf());
 				}
 
-				Collection<String> base = Collections.singletonList(theResourceDef.getName());
-				String url = null;
-				if (theResourceDef.isStandardType()) {
-					String name = searchParam.name();
-					url = toCanonicalSearchParameterUri(theResourceDef, name);
-				}
-				RuntimeSearchParam param = new RuntimeSearchParam(null, url, searchParam.name(), searchParam.description(), searchParam.path(), paramType, providesMembershipInCompartments, toTargetList(searchParam.target()), RuntimeSearchParamStatusEnum.ACTIVE, null, components, base);
-				theResourceDef.addSearchParam(param);
-				nameToParam.put(param.getName(), param);
+				retVal.add(new ModelIndex.SearchParam(searchParam.name(), searchParam.description(), searchParam.path(), paramType, toTargetList(searchParam.target()), providesMembershipInCompartments, compositeOf));
 			}
 		}
 
+		return retVal;
 	}
 
 	private String toCanonicalSearchParameterUri(RuntimeResourceDefinition theResourceDef, String theName) {
 		return "http://hl7.org/fhir/SearchParameter/" + theResourceDef.getName() + "-" + theName;
 	}
 
-	private Set<String> toTargetList(Class<? extends IBaseResource>[] theTarget) {
+	private static Set<String> toTargetList(Class<? extends IBaseResource>[] theTarget) {
 		HashSet<String> retVal = new HashSet<>();
 
 		for (Class<? extends IBaseResource> nextType : theTarget) {
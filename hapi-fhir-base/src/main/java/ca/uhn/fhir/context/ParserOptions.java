@@ -43,6 +43,8 @@ public class ParserOptions {
 	private Set<String> myDontStripVersionsFromReferencesAtPaths = Collections.emptySet();
 	private boolean myOverrideResourceIdWithBundleEntryFullUrl = true;
 	private boolean myAutoContainReferenceTargetsWithNoId = true;
+	private boolean myStreamingJsonParsing = false;
+	private boolean myDstu2JsonLightweightNarrativeParsing = false;
 
 	/**
 	 * If set to {@literal true} (which is the default), contained resources may be specified by
@@ -206,4 +208,71 @@ public class ParserOptions {
 		return this;
 	}
 
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the JSON parser will read resources directly
+	 * from the token stream of the document instead of first loading the entire document into an in-memory
+	 * JSON tree. This reduces the memory required to parse large documents (e.g. large transaction Bundles)
+	 * and produces the same resources as the default mode.
+	 * <p>
+	 * Note that a resource whose <code>resourceType</code> is not the first property of its JSON object
+	 * is still buffered in memory before being parsed, since its type must be known before any of its
+	 * other properties can be processed.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public boolean isStreamingJsonParsing() {
+		return myStreamingJsonParsing;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the JSON parser will read resources directly
+	 * from the token stream of the document instead of first loading the entire document into an in-memory
+	 * JSON tree. This reduces the memory required to parse large documents (e.g. large transaction Bundles)
+	 * and produces the same resources as the default mode.
+	 * <p>
+	 * Note that a resource whose <code>resourceType</code> is not the first property of its JSON object
+	 * is still buffered in memory before being parsed, since its type must be known before any of its
+	 * other properties can be processed.
+	 * </p>
+	 *
+	 * @param theStreamingJsonParsing Should the JSON parser stream content instead of loading it into a tree
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 6.3.0
+	 */
+	public ParserOptions setStreamingJsonParsing(boolean theStreamingJsonParsing) {
+		myStreamingJsonParsing = theStreamingJsonParsing;
+		return this;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), XHTML narratives in DSTU2 JSON content are
+	 * stored as the original text. See {@link #setDstu2JsonLightweightNarrativeParsing(boolean)} for details.
+	 *
+	 * @since 6.3.0
+	 */
+	public boolean isDstu2JsonLightweightNarrativeParsing() {
+		return myDstu2JsonLightweightNarrativeParsing;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), XHTML narratives in DSTU2 JSON content
+	 * (where <code>Narrative.div</code> is an {@link ca.uhn.fhir.model.primitive.XhtmlDt}) are stored as the
+	 * original text. By default, these narratives are parsed into a list of StAX events and then serialized back
+	 * into a string. When enabled, the narrative is only checked for well-formedness using a streaming reader
+	 * which does not create or retain any events, and it is encoded back out unchanged.
+	 * <p>
+	 * This setting only applies to the JSON parser and to DSTU2 structures. It has no effect on the XML parser,
+	 * or on structures which store the narrative as an XHTML DOM (DSTU3, R4 and R5).
+	 * </p>
+	 *
+	 * @param theDstu2JsonLightweightNarrativeParsing Should DSTU2 JSON narratives be kept as the original text
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 6.3.0
+	 */
+	public ParserOptions setDstu2JsonLightweightNarrativeParsing(boolean theDstu2JsonLightweightNarrativeParsing) {
+		myDstu2JsonLightweightNarrativeParsing = theDstu2JsonLightweightNarrativeParsing;
+		return this;
+	}
+
 }
@@ -47,9 +47,97 @@ public interface IFhirPath {
 	 */
 	<T extends IBase> Optional<T> evaluateFirst(IBase theInput, String thePath, Class<T> theReturnType);
 
+	/**
+	 * Apply the given parsed FhirPath expression against the given input and return
+	 * all results in a list. This is more efficient than {@link #evaluate(IBase, String, Class)}
+	 * when the same expression is evaluated repeatedly, since the expression does not need to be
+	 * parsed again.
+	 * <p>
+	 * The default implementation simply evaluates the string form of the expression.
+	 * </p>
+	 *
+	 * @param theInput            The input object (generally a resource or datatype)
+	 * @param theParsedExpression A parsed FhirPath expression returned by {@link #parseExpression(String)}
+	 * @param theReturnType       The type to return (in order to avoid casting)
+	 * @since 6.3.0
+	 */
+	default <T extends IBase> List<T> evaluate(IBase theInput, IParsedExpression theParsedExpression, Class<T> theReturnType) {
+		return evaluate(theInput, theParsedExpression.getExpression(), theReturnType);
+	}
+
+	/**
+	 * Apply the given parsed FhirPath expression against the given input and return
+	 * the first match (if any)
+	 * <p>
+	 * The default implementation simply evaluates the string form of the expression.
+	 * </p>
+	 *
+	 * @param theInput            The input object (generally a resource or datatype)
+	 * @param theParsedExpression A parsed FhirPath expression returned by {@link #parseExpression(String)}
+	 * @param theReturnType       The type to return (in order to avoid casting)
+	 * @since 6.3.0
+	 */
+	default <T extends IBase> Optional<T> evaluateFirst(IBase theInput, IParsedExpression theParsedExpression, Class<T> theReturnType) {
+		return evaluateFirst(theInput, theParsedExpression.getExpression(), theReturnType);
+	}
 
 	/**
 	 * Parses the expression and throws an exception if it can not parse correctly
 	 */
 	void parse(String theExpression) throws Exception;
+
+	/**
+	 * Parses the expression and returns the parsed form, which can be passed to
+	 * {@link #evaluate(IBase, IParsedExpression, Class)} and {@link #evaluateFirst(IBase, IParsedExpression, Class)}
+	 * to evaluate it any number of times without parsing it again. Throws an exception if the
+	 * expression can not be parsed.
+	 * <p>
+	 * The built-in implementations cache parsed expressions (up to a fixed number of distinct
+	 * expressions) and share them between all instances, so parsing an expression which has
+	 * been seen before is cheap. The default implementation validates the expression using
+	 * {@link #parse(String)} and returns a parsed expression which holds only its string form.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	default IParsedExpression parseExpression(String theExpression) throws Exception {
+		parse(theExpression);
+		return new StringParsedExpression(theExpression);
+	}
+
+	/**
+	 * This interface represents a parsed FHIRPath expression. Instances are immutable and
+	 * thread safe, and may be reused and evaluated any number of times by any {@link IFhirPath}
+	 * instance created by a {@link ca.uhn.fhir.context.FhirContext} for the same FHIR version.
+	 *
+	 * @since 6.3.0
+	 */
+	interface IParsedExpression {
+
+		/**
+		 * Returns the expression in its original string form
+		 */
+		String getExpression();
+
+	}
+
+	/**
+	 * Parsed expression used by the default implementation of {@link #parseExpression(String)},
+	 * which holds only the string form of the expression
+	 */
+	final class StringParsedExpression implements IParsedExpression {
+
+		private final String myExpression;
+
+		StringParsedExpression(String theExpression) {
+			myExpression = theExpression;
+		}
+
+		@Override
+		public String getExpression() {
+			return myExpression;
+		}
+
+	}
+
 }
@@ -52,4 +52,32 @@ public @interface Hook {
 	 * </p>
 	 */
 	int order() default Interceptor.DEFAULT_ORDER;
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), this hook method is invoked
+	 * asynchronously by the interceptor service's
+	 * {@link IBaseInterceptorService#setAsyncHookExecutor(java.util.concurrent.Executor) async hook executor}
+	 * instead of on the thread which triggered the pointcut, so that a slow hook (e.g. one which writes
+	 * to an audit log) does not delay the caller.
+	 * <p>
+	 * Asynchronous hooks are only permitted on pointcuts which purely notify interceptors about something
+	 * which has already happened (see {@link IPointcut#isAsyncPermitted()}), such as
+	 * {@link Pointcut#SERVER_PROCESSING_COMPLETED} or the <code>JPA_PERFTRACE_xxx</code> pointcuts. They
+	 * should only be used by hooks which observe the pointcut without modifying any of its parameters, and
+	 * which do not depend on state tied to the calling thread (such as an open database transaction). Note
+	 * that the hook may be invoked after the caller has moved on, so parameters may have been modified
+	 * by the time the hook sees them. Exceptions thrown by asynchronous hooks are logged and discarded.
+	 * </p>
+	 * <p>
+	 * Because the request details keep changing after the pointcut has been invoked, and the servlet
+	 * container recycles the request and response objects once a request has completed, asynchronous hooks
+	 * may not declare <code>RequestDetails</code> (or any subclass such as <code>ServletRequestDetails</code>),
+	 * <code>HttpServletRequest</code> or <code>HttpServletResponse</code> parameters. Hooks which need
+	 * information about the request should be synchronous, and may hand a copy of the values they need to
+	 * their own executor.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	boolean async() default false;
 }
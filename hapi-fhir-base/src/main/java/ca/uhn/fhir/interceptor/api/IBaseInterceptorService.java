@@ -20,9 +20,12 @@ package ca.uhn.fhir.interceptor.api;
  * #L%
  */
 
+import ca.uhn.fhir.i18n.Msg;
+
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
 public interface IBaseInterceptorService<POINTCUT extends IPointcut> extends IBaseInterceptorBroadcaster<POINTCUT> {
@@ -112,4 +115,85 @@ public interface IBaseInterceptorService<POINTCUT extends IPointcut> extends IBa
 	 * Unregisters all anonymous interceptors (i.e. all interceptors registered with <code>registerAnonymousInterceptor</code>)
 	 */
 	void unregisterAllAnonymousInterceptors();
+
+	/**
+	 * Sets a sink which will be notified of the time taken by each hook invocation, e.g. an
+	 * {@link ca.uhn.fhir.interceptor.executor.InMemoryInterceptorMetricsSink}. By default no sink
+	 * is set and no timing information is collected.
+	 *
+	 * <p>
+	 * The default implementation does not collect metrics, and throws {@link UnsupportedOperationException}
+	 * if a sink is supplied.
+	 * </p>
+	 *
+	 * @param theMetricsSink The sink, or <code>null</code> to disable metrics collection
+	 * @see #setMetricsSampleInterval(int)
+	 * @since 6.3.0
+	 */
+	default void setMetricsSink(@Nullable IInterceptorMetricsSink theMetricsSink) {
+		if (theMetricsSink != null) {
+			throw new UnsupportedOperationException(Msg.code(2234) + "Interceptor metrics are not supported by " + getClass().getName());
+		}
+	}
+
+	/**
+	 * Returns the sink set using {@link #setMetricsSink(IInterceptorMetricsSink)}, if any
+	 *
+	 * @since 6.3.0
+	 */
+	@Nullable
+	default IInterceptorMetricsSink getMetricsSink() {
+		return null;
+	}
+
+	/**
+	 * If set to a value greater than 1 (which is the default), only a random sample of approximately
+	 * one in this many hook invocations will be timed and reported to the
+	 * {@link #setMetricsSink(IInterceptorMetricsSink) metrics sink}. Each reported invocation
+	 * carries a weight equal to this interval so that invocation counts remain approximately
+	 * correct. This can be used to reduce the overhead of metrics collection on very busy systems.
+	 *
+	 * <p>
+	 * The default implementation does nothing, since it does not collect metrics.
+	 * </p>
+	 *
+	 * @param theMetricsSampleInterval The sample interval, must be 1 or greater
+	 * @since 6.3.0
+	 */
+	default void setMetricsSampleInterval(int theMetricsSampleInterval) {
+		// nothing
+	}
+
+	/**
+	 * Sets the executor used to invoke hook methods which are declared as {@link Hook#async() asynchronous}.
+	 * If no executor is set, an {@link ca.uhn.fhir.interceptor.executor.AsyncHookExecutor} with default
+	 * settings is created the first time an asynchronous hook is invoked. The executor should be bounded
+	 * so that a slow hook can not cause invocations to accumulate without limit. If the executor rejects
+	 * an invocation, the hook is invoked synchronously instead.
+	 *
+	 * <p>
+	 * The default implementation invokes all hooks synchronously, and throws
+	 * {@link UnsupportedOperationException} if an executor is supplied.
+	 * </p>
+	 *
+	 * @param theAsyncHookExecutor The executor, or <code>null</code> to use the default
+	 * @since 6.3.0
+	 */
+	default void setAsyncHookExecutor(@Nullable Executor theAsyncHookExecutor) {
+		if (theAsyncHookExecutor != null) {
+			throw new UnsupportedOperationException(Msg.code(2235) + "Asynchronous hooks are not supported by " + getClass().getName());
+		}
+	}
+
+	/**
+	 * Returns the executor used to invoke asynchronous hook methods, or <code>null</code> if none has been
+	 * set and no asynchronous hook has been invoked yet
+	 *
+	 * @since 6.3.0
+	 */
+	@Nullable
+	default Executor getAsyncHookExecutor() {
+		return null;
+	}
+
 }
@@ -0,0 +1,52 @@
+package ca.uhn.fhir.interceptor.api;
+
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Receives timing information about individual hook invocations from an interceptor
+ * service. See {@link IBaseInterceptorService#setMetricsSink(IInterceptorMetricsSink)}.
+ * <p>
+ * Implementations are called synchronously on the thread invoking the hook, so they must be
+ * thread safe and should do as little work as possible.
+ * </p>
+ *
+ * @see ca.uhn.fhir.interceptor.executor.InMemoryInterceptorMetricsSink
+ * @see ca.uhn.fhir.interceptor.executor.MicrometerInterceptorMetricsSink
+ * @since 6.3.0
+ */
+public interface IInterceptorMetricsSink {
+
+	/**
+	 * Invoked after a hook method has been invoked (or threw an exception)
+	 *
+	 * @param thePointcut    The pointcut that was invoked
+	 * @param theHookName    The name of the hook, consisting of the interceptor class name and the hook method name,
+	 *                       e.g. <code>com.example.MyInterceptor#incomingRequestPreHandled</code>. The same String instance
+	 *                       is supplied every time a given hook is invoked.
+	 * @param theElapsedNanos The time taken by the hook method in nanoseconds
+	 * @param theFailed      Was an exception thrown by the hook method?
+	 * @param theWeight      The number of invocations this sample represents. This is 1 unless the interceptor service
+	 *                       is configured to only sample a fraction of invocations (see
+	 *                       {@link IBaseInterceptorService#setMetricsSampleInterval(int)}).
+	 */
+	void recordHookInvocation(IPointcut thePointcut, String theHookName, long theElapsedNanos, boolean theFailed, int theWeight);
+
+}
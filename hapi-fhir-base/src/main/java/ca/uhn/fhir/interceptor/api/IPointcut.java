@@ -34,4 +34,16 @@ public interface IPointcut {
 	String name();
 
 	boolean isShouldLogAndSwallowException(Throwable theException);
+
+	/**
+	 * May hooks against this pointcut be declared as {@link Hook#async() asynchronous}? This
+	 * should only be <code>true</code> for pointcuts which purely notify interceptors about
+	 * something which has already happened, where the caller does not depend on the hook
+	 * having completed.
+	 *
+	 * @since 6.3.0
+	 */
+	default boolean isAsyncPermitted() {
+		return false;
+	}
 }
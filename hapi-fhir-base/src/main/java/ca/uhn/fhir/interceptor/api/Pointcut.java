@@ -32,6 +32,7 @@ import javax.annotation.Nonnull;
 import java.io.Writer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -96,6 +97,10 @@ public enum Pointcut implements IPointcut {
 	 * <li>
 	 *    ca.uhn.fhir.rest.client.api.IRestfulClient - The client object making the request
 	 * </li>
+	 * <li>
+	 * ca.uhn.fhir.rest.client.api.ClientResponseContext - Contains the same request and response as above,
+	 * and allows the hook to replace the response which will be processed by the client (since 6.3.0)
+	 * </li>
 	 * </ul>
 	 * </p>
 	 * Hook methods must return <code>void</code>.
@@ -103,7 +108,8 @@ public enum Pointcut implements IPointcut {
 	CLIENT_RESPONSE(void.class,
 		"ca.uhn.fhir.rest.client.api.IHttpRequest",
 		"ca.uhn.fhir.rest.client.api.IHttpResponse",
-		"ca.uhn.fhir.rest.client.api.IRestfulClient"
+		"ca.uhn.fhir.rest.client.api.IRestfulClient",
+		"ca.uhn.fhir.rest.client.api.ClientResponseContext"
 	),
 
 	/**
@@ -2539,7 +2545,35 @@ public enum Pointcut implements IPointcut {
 	 * This pointcut is used only for unit tests. Do not use in production code as it may be changed or
 	 * removed at any time.
 	 */
-	TEST_RO(BaseServerResponseException.class, String.class.getName(), String.class.getName());
+	TEST_RO(BaseServerResponseException.class, String.class.getName(), String.class.getName()),
+
+	/**
+	 * This pointcut is used only for unit tests. Do not use in production code as it may be changed or
+	 * removed at any time.
+	 */
+	TEST_RV(void.class, String.class.getName(), String.class.getName());
+
+	/**
+	 * Pointcuts which are invoked only to notify interceptors about something which has already
+	 * happened, so hooks against them may be declared as {@link Hook#async() asynchronous}
+	 */
+	private static final Set<Pointcut> ASYNC_PERMITTED_POINTCUTS = Collections.unmodifiableSet(EnumSet.of(
+		SERVER_PROCESSING_COMPLETED,
+		SERVER_PROCESSING_COMPLETED_NORMALLY,
+		SUBSCRIPTION_AFTER_DELIVERY,
+		SUBSCRIPTION_AFTER_REST_HOOK_DELIVERY,
+		SUBSCRIPTION_AFTER_MESSAGE_DELIVERY,
+		SUBSCRIPTION_AFTER_ACTIVE_SUBSCRIPTION_UNREGISTERED,
+		JPA_PERFTRACE_INFO,
+		JPA_PERFTRACE_WARNING,
+		JPA_PERFTRACE_SEARCH_FIRST_RESULT_LOADED,
+		JPA_PERFTRACE_SEARCH_SELECT_COMPLETE,
+		JPA_PERFTRACE_SEARCH_FAILED,
+		JPA_PERFTRACE_SEARCH_PASS_COMPLETE,
+		JPA_PERFTRACE_INDEXSEARCH_QUERY_COMPLETE,
+		JPA_PERFTRACE_SEARCH_COMPLETE,
+		TEST_RV
+	));
 
 	private final List<String> myParameterTypes;
 	private final Class<?> myReturnType;
@@ -2569,6 +2603,11 @@ public enum Pointcut implements IPointcut {
 		return false;
 	}
 
+	@Override
+	public boolean isAsyncPermitted() {
+		return ASYNC_PERMITTED_POINTCUTS.contains(this);
+	}
+
 	@Override
 	@Nonnull
 	public Class<?> getReturnType() {
@@ -0,0 +1,198 @@
+package ca.uhn.fhir.interceptor.executor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded {@link Executor} used by the interceptor service to invoke hooks which are declared as
+ * {@link ca.uhn.fhir.interceptor.api.Hook#async() asynchronous}. Invocations are placed on a queue
+ * with a fixed capacity and processed by a fixed number of daemon threads. What happens when the
+ * queue is full is determined by the {@link AsyncHookOverflowPolicyEnum overflow policy}.
+ * <p>
+ * This class implements {@link IAsyncHookExecutorMXBean}, so the queue depth and related counters
+ * can be monitored using JMX.
+ * </p>
+ *
+ * @see ca.uhn.fhir.interceptor.api.IBaseInterceptorService#setAsyncHookExecutor(Executor)
+ * @since 6.3.0
+ */
+public class AsyncHookExecutor implements Executor, IAsyncHookExecutorMXBean {
+
+	public static final int DEFAULT_THREAD_COUNT = 2;
+	public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+	public static final AsyncHookOverflowPolicyEnum DEFAULT_OVERFLOW_POLICY = AsyncHookOverflowPolicyEnum.CALLER_RUNS;
+	private static final Logger ourLog = LoggerFactory.getLogger(AsyncHookExecutor.class);
+	private static final AtomicInteger ourExecutorCount = new AtomicInteger(0);
+
+	private final ThreadPoolExecutor myThreadPool;
+	private final int myQueueCapacity;
+	private final AsyncHookOverflowPolicyEnum myOverflowPolicy;
+	private final LongAdder myDiscardedCount = new LongAdder();
+	private final LongAdder myCallerRunsCount = new LongAdder();
+
+	/**
+	 * Constructor which uses {@link #DEFAULT_THREAD_COUNT}, {@link #DEFAULT_QUEUE_CAPACITY} and
+	 * {@link #DEFAULT_OVERFLOW_POLICY}
+	 */
+	public AsyncHookExecutor() {
+		this(DEFAULT_THREAD_COUNT, DEFAULT_QUEUE_CAPACITY, DEFAULT_OVERFLOW_POLICY);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theThreadCount    The number of threads used to invoke hooks
+	 * @param theQueueCapacity  The maximum number of hook invocations which can be waiting for a thread
+	 * @param theOverflowPolicy What to do with a hook invocation when the queue is full
+	 */
+	public AsyncHookExecutor(int theThreadCount, int theQueueCapacity, AsyncHookOverflowPolicyEnum theOverflowPolicy) {
+		Validate.isTrue(theThreadCount >= 1, "theThreadCount must be 1 or greater");
+		Validate.isTrue(theQueueCapacity >= 1, "theQueueCapacity must be 1 or greater");
+		Validate.notNull(theOverflowPolicy, "theOverflowPolicy must not be null");
+		myQueueCapacity = theQueueCapacity;
+		myOverflowPolicy = theOverflowPolicy;
+
+		String threadPrefix = "hapi-fhir-async-hook-" + ourExecutorCount.incrementAndGet() + "-";
+		AtomicInteger threadCount = new AtomicInteger(0);
+		ThreadFactory threadFactory = r -> {
+			Thread t = new Thread(r);
+			t.setName(threadPrefix + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		};
+		myThreadPool = new ThreadPoolExecutor(theThreadCount, theThreadCount,
+			0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(theQueueCapacity),
+			threadFactory,
+			new OverflowHandler());
+	}
+
+	@Override
+	public void execute(Runnable theTask) {
+		myThreadPool.execute(theTask);
+	}
+
+	public AsyncHookOverflowPolicyEnum getOverflowPolicy() {
+		return myOverflowPolicy;
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return myThreadPool.getQueue().size();
+	}
+
+	@Override
+	public int getQueueCapacity() {
+		return myQueueCapacity;
+	}
+
+	@Override
+	public int getActiveCount() {
+		return myThreadPool.getActiveCount();
+	}
+
+	@Override
+	public long getCompletedCount() {
+		return myThreadPool.getCompletedTaskCount();
+	}
+
+	@Override
+	public long getDiscardedCount() {
+		return myDiscardedCount.sum();
+	}
+
+	@Override
+	public long getCallerRunsCount() {
+		return myCallerRunsCount.sum();
+	}
+
+	/**
+	 * Stops accepting new hook invocations and waits up to the given time for queued
+	 * invocations to complete. Hooks invoked after this method is called run on the
+	 * calling thread.
+	 *
+	 * @return Returns <code>true</code> if all queued invocations completed
+	 */
+	public boolean shutdown(long theTimeout, TimeUnit theTimeUnit) throws InterruptedException {
+		myThreadPool.shutdown();
+		return myThreadPool.awaitTermination(theTimeout, theTimeUnit);
+	}
+
+	private class OverflowHandler implements RejectedExecutionHandler {
+
+		@Override
+		public void rejectedExecution(Runnable theTask, ThreadPoolExecutor theExecutor) {
+			if (theExecutor.isShutdown()) {
+				theTask.run();
+				return;
+			}
+
+			switch (myOverflowPolicy) {
+				case BLOCK:
+					try {
+						// Wait for space in the queue, but never block indefinitely on an
+						// executor which has been shut down since its queue will not drain
+						while (!theExecutor.getQueue().offer(theTask, 100, TimeUnit.MILLISECONDS)) {
+							if (theExecutor.isShutdown()) {
+								myCallerRunsCount.increment();
+								theTask.run();
+								return;
+							}
+						}
+						if (theExecutor.isShutdown() && theExecutor.remove(theTask)) {
+							myCallerRunsCount.increment();
+							theTask.run();
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						myCallerRunsCount.increment();
+						theTask.run();
+					}
+					break;
+				case CALLER_RUNS:
+					myCallerRunsCount.increment();
+					theTask.run();
+					break;
+				case DISCARD:
+					myDiscardedCount.increment();
+					long discarded = myDiscardedCount.sum();
+					if (discarded == 1 || discarded % 1000 == 0) {
+						ourLog.warn("Asynchronous hook queue is full (capacity {}), {} hook invocation(s) have been discarded", myQueueCapacity, discarded);
+					}
+					break;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,50 @@
+package ca.uhn.fhir.interceptor.executor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Determines what happens when an asynchronous hook invocation is submitted to
+ * an {@link AsyncHookExecutor} whose queue is full.
+ *
+ * @since 6.3.0
+ */
+public enum AsyncHookOverflowPolicyEnum {
+
+	/**
+	 * The calling thread blocks until space is available in the queue. This
+	 * applies backpressure to the caller and never loses an invocation.
+	 */
+	BLOCK,
+
+	/**
+	 * The hook is invoked synchronously on the calling thread, as though it was
+	 * not asynchronous. This applies backpressure to the caller and never loses
+	 * an invocation.
+	 */
+	CALLER_RUNS,
+
+	/**
+	 * The invocation is discarded and a warning is logged. The caller is never
+	 * slowed down, but hook invocations may be lost.
+	 */
+	DISCARD
+
+}
@@ -24,6 +24,7 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IBaseInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.IBaseInterceptorService;
+import ca.uhn.fhir.interceptor.api.IInterceptorMetricsSink;
 import ca.uhn.fhir.interceptor.api.IPointcut;
 import ca.uhn.fhir.interceptor.api.Interceptor;
 import ca.uhn.fhir.interceptor.api.Pointcut;
@@ -31,8 +32,11 @@ import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.util.ReflectionUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Sets;
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -43,19 +47,27 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -66,10 +78,20 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 	private final ListMultimap<POINTCUT, BaseInvoker> myGlobalInvokers = ArrayListMultimap.create();
 	private final ListMultimap<POINTCUT, BaseInvoker> myAnonymousInvokers = ArrayListMultimap.create();
 	private final Object myRegistryMutex = new Object();
+	/**
+	 * An immutable snapshot of the global and anonymous invokers for each pointcut, already
+	 * merged and sorted. This is replaced (while holding {@link #myRegistryMutex}) whenever
+	 * the registered interceptors change, so that hooks can be called without locking.
+	 */
+	private volatile ImmutableListMultimap<POINTCUT, BaseInvoker> myInvokers = ImmutableListMultimap.of();
 	private final ThreadLocal<ListMultimap<POINTCUT, BaseInvoker>> myThreadlocalInvokers = new ThreadLocal<>();
 	private String myName;
 	private boolean myThreadlocalInvokersEnabled = false;
 	private boolean myWarnOnInterceptorWithNoHooks = true;
+	private volatile IInterceptorMetricsSink myMetricsSink;
+	private volatile int myMetricsSampleInterval = 1;
+	private volatile Executor myAsyncHookExecutor;
+	private AsyncHookExecutor myDefaultAsyncHookExecutor;
 
 	/**
 	 * Constructor which uses a default name of "default"
@@ -112,6 +134,75 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 		myThreadlocalInvokersEnabled = theThreadlocalInvokersEnabled;
 	}
 
+	@Override
+	public void setMetricsSink(@Nullable IInterceptorMetricsSink theMetricsSink) {
+		myMetricsSink = theMetricsSink;
+	}
+
+	@Nullable
+	@Override
+	public IInterceptorMetricsSink getMetricsSink() {
+		return myMetricsSink;
+	}
+
+	@Override
+	public void setMetricsSampleInterval(int theMetricsSampleInterval) {
+		Validate.isTrue(theMetricsSampleInterval >= 1, "theMetricsSampleInterval must be 1 or greater");
+		myMetricsSampleInterval = theMetricsSampleInterval;
+	}
+
+	@Override
+	public void setAsyncHookExecutor(@Nullable Executor theAsyncHookExecutor) {
+		myAsyncHookExecutor = theAsyncHookExecutor;
+	}
+
+	@Nullable
+	@Override
+	public Executor getAsyncHookExecutor() {
+		return myAsyncHookExecutor;
+	}
+
+	private Executor getOrCreateAsyncHookExecutor() {
+		Executor retVal = myAsyncHookExecutor;
+		if (retVal == null) {
+			synchronized (myRegistryMutex) {
+				retVal = myAsyncHookExecutor;
+				if (retVal == null) {
+					myDefaultAsyncHookExecutor = new AsyncHookExecutor();
+					retVal = myDefaultAsyncHookExecutor;
+					myAsyncHookExecutor = retVal;
+				}
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Shuts down the {@link AsyncHookExecutor} which is created automatically when an
+	 * asynchronous hook is first invoked and no executor has been set using
+	 * {@link #setAsyncHookExecutor(Executor)}, waiting up to the given time for queued hook
+	 * invocations to complete. Executors supplied by the caller are not affected and remain
+	 * the responsibility of the caller. The threads used by the automatically created executor
+	 * are daemon threads, so calling this method is not required in order for the JVM to exit.
+	 *
+	 * @return Returns <code>true</code> if all queued invocations completed (or no executor had been created)
+	 * @since 6.3.0
+	 */
+	public boolean shutdownDefaultAsyncHookExecutor(long theTimeout, TimeUnit theTimeUnit) throws InterruptedException {
+		AsyncHookExecutor executor;
+		synchronized (myRegistryMutex) {
+			executor = myDefaultAsyncHookExecutor;
+			myDefaultAsyncHookExecutor = null;
+			if (myAsyncHookExecutor == executor) {
+				myAsyncHookExecutor = null;
+			}
+		}
+		if (executor == null) {
+			return true;
+		}
+		return executor.shutdown(theTimeout, theTimeUnit);
+	}
+
 	@VisibleForTesting
 	List<Object> getGlobalInterceptorsForUnitTest() {
 		return myInterceptors;
@@ -130,6 +221,7 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 			if (!isInterceptorAlreadyRegistered(theInterceptor)) {
 				myInterceptors.add(theInterceptor);
 			}
+			rebuildInvokers();
 		}
 	}
 
@@ -236,6 +328,7 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 			// Add to the global list
 			myInterceptors.add(theInterceptor);
 			sortByOrderAnnotation(myInterceptors);
+			rebuildInvokers();
 
 			return true;
 		}
@@ -256,10 +349,31 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 			boolean removed = myInterceptors.removeIf(t -> t == theInterceptor);
 			removed |= myGlobalInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
 			removed |= myAnonymousInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
+			if (removed) {
+				rebuildInvokers();
+			}
 			return removed;
 		}
 	}
 
+	/**
+	 * Replaces the invoker snapshot. Must be called while holding {@link #myRegistryMutex}.
+	 */
+	private void rebuildInvokers() {
+		Set<POINTCUT> pointcuts = new LinkedHashSet<>();
+		pointcuts.addAll(myGlobalInvokers.keySet());
+		pointcuts.addAll(myAnonymousInvokers.keySet());
+
+		ImmutableListMultimap.Builder<POINTCUT, BaseInvoker> invokers = ImmutableListMultimap.builder();
+		for (POINTCUT nextPointcut : pointcuts) {
+			List<BaseInvoker> nextInvokers = new ArrayList<>(myGlobalInvokers.get(nextPointcut));
+			nextInvokers.addAll(myAnonymousInvokers.get(nextPointcut));
+			nextInvokers.sort(Comparator.naturalOrder());
+			invokers.putAll(nextPointcut, nextInvokers);
+		}
+		myInvokers = invokers.build();
+	}
+
 	private void sortByOrderAnnotation(List<Object> theObjects) {
 		IdentityHashMap<Object, Integer> interceptorToOrder = new IdentityHashMap<>();
 		for (Object next : theObjects) {
@@ -285,8 +399,7 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 
 	@Override
 	public boolean hasHooks(POINTCUT thePointcut) {
-		return myGlobalInvokers.containsKey(thePointcut)
-			|| myAnonymousInvokers.containsKey(thePointcut)
+		return myInvokers.containsKey(thePointcut)
 			|| hasThreadLocalHooks(thePointcut);
 	}
 
@@ -305,15 +418,27 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 	}
 
 	private Object doCallHooks(POINTCUT thePointcut, HookParams theParams, Object theRetVal) {
-		// use new list for loop to avoid ConcurrentModificationException in case invoker gets added while looping
-		List<BaseInvoker> invokers = new ArrayList<>(getInvokersForPointcut(thePointcut));
+		// The returned list is never modified, so no copy is needed even if an invoker gets added while looping
+		List<BaseInvoker> invokers = getInvokersForPointcut(thePointcut);
+		Class<?> pointcutReturnType = thePointcut.getReturnType();
+		IInterceptorMetricsSink metricsSink = myMetricsSink;
 
 		/*
 		 * Call each hook in order
 		 */
-		for (BaseInvoker nextInvoker : invokers) {
-			Object nextOutcome = nextInvoker.invoke(theParams);
-			Class<?> pointcutReturnType = thePointcut.getReturnType();
+		for (int i = 0; i < invokers.size(); i++) {
+			BaseInvoker nextInvoker = invokers.get(i);
+			if (nextInvoker.isAsync()) {
+				invokeAsync(metricsSink, thePointcut, nextInvoker, theParams);
+				continue;
+			}
+
+			Object nextOutcome;
+			if (metricsSink != null) {
+				nextOutcome = invokeAndRecordMetrics(metricsSink, thePointcut, nextInvoker, theParams);
+			} else {
+				nextOutcome = nextInvoker.invoke(theParams);
+			}
 			if (pointcutReturnType.equals(boolean.class)) {
 				Boolean nextOutcomeAsBoolean = (Boolean) nextOutcome;
 				if (Boolean.FALSE.equals(nextOutcomeAsBoolean)) {
@@ -332,6 +457,48 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 		return theRetVal;
 	}
 
+	/**
+	 * Hands a hook invocation off to the async hook executor. Async hooks are only permitted
+	 * on pointcuts with a void return type, so there is no outcome to wait for.
+	 */
+	private void invokeAsync(@Nullable IInterceptorMetricsSink theMetricsSink, POINTCUT thePointcut, BaseInvoker theInvoker, HookParams theParams) {
+		Runnable task = () -> {
+			try {
+				if (theMetricsSink != null) {
+					invokeAndRecordMetrics(theMetricsSink, thePointcut, theInvoker, theParams);
+				} else {
+					theInvoker.invoke(theParams);
+				}
+			} catch (RuntimeException e) {
+				ourLog.error("Exception thrown by asynchronous hook {} for pointcut {}: {}", theInvoker.getHookName(), thePointcut, e.toString(), e);
+			}
+		};
+
+		try {
+			getOrCreateAsyncHookExecutor().execute(task);
+		} catch (RejectedExecutionException e) {
+			ourLog.debug("Async hook executor rejected invocation of {}, invoking synchronously", theInvoker.getHookName());
+			task.run();
+		}
+	}
+
+	private Object invokeAndRecordMetrics(IInterceptorMetricsSink theMetricsSink, POINTCUT thePointcut, BaseInvoker theInvoker, HookParams theParams) {
+		int sampleInterval = myMetricsSampleInterval;
+		if (sampleInterval > 1 && ThreadLocalRandom.current().nextInt(sampleInterval) != 0) {
+			return theInvoker.invoke(theParams);
+		}
+
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			Object retVal = theInvoker.invoke(theParams);
+			failed = false;
+			return retVal;
+		} finally {
+			theMetricsSink.recordHookInvocation(thePointcut, theInvoker.getHookName(), System.nanoTime() - start, failed, sampleInterval);
+		}
+	}
+
 	@VisibleForTesting
 	List<Object> getInterceptorsWithInvokersForPointcut(POINTCUT thePointcut) {
 		return getInvokersForPointcut(thePointcut)
@@ -341,78 +508,28 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 	}
 
 	/**
-	 * Returns an ordered list of invokers for the given pointcut. Note that
-	 * a new and stable list is returned to.. do whatever you want with it.
+	 * Returns an ordered list of invokers for the given pointcut. The returned
+	 * list is immutable, and is not affected by subsequent registration changes.
 	 */
 	private List<BaseInvoker> getInvokersForPointcut(POINTCUT thePointcut) {
-		List<BaseInvoker> invokers;
-
-		synchronized (myRegistryMutex) {
-			List<BaseInvoker> globalInvokers = myGlobalInvokers.get(thePointcut);
-			List<BaseInvoker> anonymousInvokers = myAnonymousInvokers.get(thePointcut);
-			List<BaseInvoker> threadLocalInvokers = null;
-			if (myThreadlocalInvokersEnabled) {
-				ListMultimap<POINTCUT, BaseInvoker> pointcutToInvokers = myThreadlocalInvokers.get();
-				if (pointcutToInvokers != null) {
-					threadLocalInvokers = pointcutToInvokers.get(thePointcut);
+		List<BaseInvoker> invokers = myInvokers.get(thePointcut);
+
+		if (myThreadlocalInvokersEnabled) {
+			ListMultimap<POINTCUT, BaseInvoker> pointcutToInvokers = myThreadlocalInvokers.get();
+			if (pointcutToInvokers != null) {
+				List<BaseInvoker> threadLocalInvokers = pointcutToInvokers.get(thePointcut);
+				if (!threadLocalInvokers.isEmpty()) {
+					List<BaseInvoker> retVal = new ArrayList<>(invokers);
+					retVal.addAll(threadLocalInvokers);
+					retVal.sort(Comparator.naturalOrder());
+					invokers = Collections.unmodifiableList(retVal);
 				}
 			}
-			invokers = union(globalInvokers, anonymousInvokers, threadLocalInvokers);
 		}
 
 		return invokers;
 	}
 
-	/**
-	 * First argument must be the global invoker list!!
-	 */
-	@SafeVarargs
-	private final List<BaseInvoker> union(List<BaseInvoker>... theInvokersLists) {
-		List<BaseInvoker> haveOne = null;
-		boolean haveMultiple = false;
-		for (List<BaseInvoker> nextInvokerList : theInvokersLists) {
-			if (nextInvokerList == null || nextInvokerList.isEmpty()) {
-				continue;
-			}
-
-			if (haveOne == null) {
-				haveOne = nextInvokerList;
-			} else {
-				haveMultiple = true;
-			}
-		}
-
-		if (haveOne == null) {
-			return Collections.emptyList();
-		}
-
-		List<BaseInvoker> retVal;
-
-		if (haveMultiple == false) {
-
-			// The global list doesn't need to be sorted every time since it's sorted on
-			// insertion each time. Doing so is a waste of cycles..
-			if (haveOne == theInvokersLists[0]) {
-				retVal = haveOne;
-			} else {
-				retVal = new ArrayList<>(haveOne);
-				retVal.sort(Comparator.naturalOrder());
-			}
-
-		} else {
-
-			retVal = Arrays
-				.stream(theInvokersLists)
-				.filter(t -> t != null)
-				.flatMap(t -> t.stream())
-				.sorted()
-				.collect(Collectors.toList());
-
-		}
-
-		return retVal;
-	}
-
 	/**
 	 * Only call this when assertions are enabled, it's expensive
 	 */
@@ -519,16 +636,36 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 
 		private final int myOrder;
 		private final Object myInterceptor;
+		private final String myHookName;
 
 		BaseInvoker(Object theInterceptor, int theOrder) {
+			this(theInterceptor, theOrder, theInterceptor.getClass().getName());
+		}
+
+		BaseInvoker(Object theInterceptor, int theOrder, String theHookName) {
 			myInterceptor = theInterceptor;
 			myOrder = theOrder;
+			myHookName = theHookName;
 		}
 
 		public Object getInterceptor() {
 			return myInterceptor;
 		}
 
+		/**
+		 * Returns the name used to identify this hook in metrics
+		 */
+		String getHookName() {
+			return myHookName;
+		}
+
+		/**
+		 * Should this hook be invoked using the async hook executor?
+		 */
+		boolean isAsync() {
+			return false;
+		}
+
 		abstract Object invoke(HookParams theParams);
 
 		@Override
@@ -539,16 +676,37 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 
 	private static class HookInvoker extends BaseInvoker {
 
+		/**
+		 * Parameter types (including their subtypes) which are not safe to use after the
+		 * request has completed, so asynchronous hooks can not declare them. The request
+		 * details are live objects which keep being modified (and delegate to the servlet
+		 * request) after the pointcut has been invoked. These are referred to by name since
+		 * neither the servlet API nor the server framework is a dependency of this module.
+		 */
+		private static final Set<String> ASYNC_PROHIBITED_PARAMETER_TYPES = Sets.newHashSet(
+			"javax.servlet.ServletRequest",
+			"javax.servlet.ServletResponse",
+			"ca.uhn.fhir.rest.api.server.RequestDetails"
+		);
+
+		/**
+		 * Hook methods with up to this many parameters are invoked without
+		 * allocating an argument array
+		 */
+		private static final int MAX_UNSPREAD_PARAMETERS = 4;
+
 		private final Method myMethod;
+		private final MethodHandle myMethodHandle;
 		private final Class<?>[] myParameterTypes;
 		private final int[] myParameterIndexes;
 		private final IPointcut myPointcut;
+		private final boolean myAsync;
 
 		/**
 		 * Constructor
 		 */
 		private HookInvoker(HookDescriptor theHook, @Nonnull Object theInterceptor, @Nonnull Method theHookMethod, int theOrder) {
-			super(theInterceptor, theOrder);
+			super(theInterceptor, theOrder, theInterceptor.getClass().getName() + "#" + theHookMethod.getName());
 			myPointcut = theHook.getPointcut();
 			myParameterTypes = theHookMethod.getParameterTypes();
 			myMethod = theHookMethod;
@@ -562,6 +720,15 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 				Validate.isTrue(myPointcut.getReturnType().isAssignableFrom(returnType) || void.class.equals(returnType), "Method does not return %s or void: %s", myPointcut.getReturnType(), theHookMethod);
 			}
 
+			myAsync = theHook.isAsync();
+			if (myAsync) {
+				Validate.isTrue(myPointcut.getReturnType().equals(void.class), "Method can not be async because pointcut %s does not have a void return type: %s", myPointcut, theHookMethod);
+				Validate.isTrue(myPointcut.isAsyncPermitted(), "Method can not be async because pointcut %s does not permit asynchronous hooks: %s", myPointcut, theHookMethod);
+				for (Class<?> next : myParameterTypes) {
+					Validate.isTrue(!isAsyncProhibitedParameterType(next), "Method can not be async because parameter type %s is tied to the request, which may be modified or recycled before the hook is invoked: %s", next.getName(), theHookMethod);
+				}
+			}
+
 			myParameterIndexes = new int[myParameterTypes.length];
 			Map<Class<?>, AtomicInteger> typeToCount = new HashMap<>();
 			for (int i = 0; i < myParameterTypes.length; i++) {
@@ -570,6 +737,21 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 			}
 
 			myMethod.setAccessible(true);
+			myMethodHandle = createMethodHandle(theInterceptor, theHookMethod);
+		}
+
+		private static boolean isAsyncProhibitedParameterType(Class<?> theType) {
+			for (Class<?> next = theType; next != null; next = next.getSuperclass()) {
+				if (ASYNC_PROHIBITED_PARAMETER_TYPES.contains(next.getName())) {
+					return true;
+				}
+			}
+			for (Class<?> next : ClassUtils.getAllInterfaces(theType)) {
+				if (ASYNC_PROHIBITED_PARAMETER_TYPES.contains(next.getName())) {
+					return true;
+				}
+			}
+			return false;
 		}
 
 		@Override
@@ -583,43 +765,81 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 			return myPointcut;
 		}
 
+		@Override
+		boolean isAsync() {
+			return myAsync;
+		}
+
 		/**
 		 * @return Returns true/false if the hook method returns a boolean, returns true otherwise
 		 */
 		@Override
 		Object invoke(HookParams theParams) {
-
-			Object[] args = new Object[myParameterTypes.length];
-			for (int i = 0; i < myParameterTypes.length; i++) {
-				Class<?> nextParamType = myParameterTypes[i];
-				if (nextParamType.equals(Pointcut.class)) {
-					args[i] = myPointcut;
-				} else {
-					int nextParamIndex = myParameterIndexes[i];
-					Object nextParamValue = theParams.get(nextParamType, nextParamIndex);
-					args[i] = nextParamValue;
-				}
-			}
-
-			// Invoke the method
 			try {
-				return myMethod.invoke(getInterceptor(), args);
-			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getTargetException();
-				if (myPointcut.isShouldLogAndSwallowException(targetException)) {
-					ourLog.error("Exception thrown by interceptor: " + targetException.toString(), targetException);
+				switch (myParameterTypes.length) {
+					case 0:
+						return (Object) myMethodHandle.invokeExact();
+					case 1:
+						return (Object) myMethodHandle.invokeExact(getArgument(theParams, 0));
+					case 2:
+						return (Object) myMethodHandle.invokeExact(getArgument(theParams, 0), getArgument(theParams, 1));
+					case 3:
+						return (Object) myMethodHandle.invokeExact(getArgument(theParams, 0), getArgument(theParams, 1), getArgument(theParams, 2));
+					case 4:
+						return (Object) myMethodHandle.invokeExact(getArgument(theParams, 0), getArgument(theParams, 1), getArgument(theParams, 2), getArgument(theParams, 3));
+					default:
+						Object[] args = new Object[myParameterTypes.length];
+						for (int i = 0; i < myParameterTypes.length; i++) {
+							args[i] = getArgument(theParams, i);
+						}
+						return (Object) myMethodHandle.invokeExact(args);
+				}
+			} catch (Throwable e) {
+				if (myPointcut.isShouldLogAndSwallowException(e)) {
+					ourLog.error("Exception thrown by interceptor: " + e.toString(), e);
 					return null;
 				}
 
-				if (targetException instanceof RuntimeException) {
-					throw ((RuntimeException) targetException);
+				if (e instanceof RuntimeException) {
+					throw ((RuntimeException) e);
 				} else {
-					throw new InternalErrorException(Msg.code(1910) + "Failure invoking interceptor for pointcut(s) " + getPointcut(), targetException);
+					throw new InternalErrorException(Msg.code(1910) + "Failure invoking interceptor for pointcut(s) " + getPointcut(), e);
 				}
-			} catch (Exception e) {
+			}
+		}
+
+		private Object getArgument(HookParams theParams, int theIndex) {
+			Class<?> paramType = myParameterTypes[theIndex];
+			if (paramType.equals(Pointcut.class)) {
+				return myPointcut;
+			}
+			return theParams.get(paramType, myParameterIndexes[theIndex]);
+		}
+
+		/**
+		 * Creates a method handle for the hook method which is bound to the interceptor instance, and
+		 * adapted to accept its parameters as {@link Object}s (or as an {@link Object} array if there
+		 * are more than {@link #MAX_UNSPREAD_PARAMETERS}) and to return an {@link Object}. A void
+		 * method returns <code>null</code>.
+		 */
+		private static MethodHandle createMethodHandle(Object theInterceptor, Method theHookMethod) {
+			MethodHandle retVal;
+			try {
+				retVal = MethodHandles.lookup().unreflect(theHookMethod);
+			} catch (IllegalAccessException e) {
 				throw new InternalErrorException(Msg.code(1911) + e);
 			}
 
+			if (!Modifier.isStatic(theHookMethod.getModifiers())) {
+				retVal = retVal.bindTo(theInterceptor);
+			}
+
+			int parameterCount = theHookMethod.getParameterCount();
+			if (parameterCount > MAX_UNSPREAD_PARAMETERS) {
+				retVal = retVal.asSpreader(Object[].class, parameterCount);
+				return retVal.asType(MethodType.methodType(Object.class, Object[].class));
+			}
+			return retVal.asType(MethodType.genericMethodType(parameterCount));
 		}
 
 	}
@@ -628,10 +848,19 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 
 		private final IPointcut myPointcut;
 		private final int myOrder;
+		private final boolean myAsync;
 
 		public HookDescriptor(IPointcut thePointcut, int theOrder) {
+			this(thePointcut, theOrder, false);
+		}
+
+		/**
+		 * @since 6.3.0
+		 */
+		public HookDescriptor(IPointcut thePointcut, int theOrder, boolean theAsync) {
 			myPointcut = thePointcut;
 			myOrder = theOrder;
+			myAsync = theAsync;
 		}
 
 		IPointcut getPointcut() {
@@ -642,6 +871,10 @@ public abstract class BaseInterceptorService<POINTCUT extends IPointcut> impleme
 			return myOrder;
 		}
 
+		boolean isAsync() {
+			return myAsync;
+		}
+
 	}
 
 }
@@ -0,0 +1,60 @@
+package ca.uhn.fhir.interceptor.executor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * JMX management interface for an {@link AsyncHookExecutor}
+ *
+ * @since 6.3.0
+ */
+public interface IAsyncHookExecutorMXBean {
+
+	/**
+	 * Returns the number of hook invocations waiting in the queue
+	 */
+	int getQueueDepth();
+
+	/**
+	 * Returns the maximum number of hook invocations which can wait in the queue
+	 */
+	int getQueueCapacity();
+
+	/**
+	 * Returns the number of threads currently invoking hooks
+	 */
+	int getActiveCount();
+
+	/**
+	 * Returns the number of asynchronous hook invocations which have completed
+	 */
+	long getCompletedCount();
+
+	/**
+	 * Returns the number of hook invocations which were discarded because the queue was full
+	 */
+	long getDiscardedCount();
+
+	/**
+	 * Returns the number of hook invocations which were run on the calling thread because the queue was full
+	 */
+	long getCallerRunsCount();
+
+}
@@ -0,0 +1,43 @@
+package ca.uhn.fhir.interceptor.executor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+/**
+ * JMX management interface for {@link InMemoryInterceptorMetricsSink}
+ *
+ * @since 6.3.0
+ */
+public interface IInterceptorMetricsMXBean {
+
+	/**
+	 * Returns the metrics collected for each hook, sorted so that the hooks with the highest
+	 * total time appear first
+	 */
+	List<InterceptorHookMetrics> getHookMetrics();
+
+	/**
+	 * Discards all collected metrics
+	 */
+	void reset();
+
+}
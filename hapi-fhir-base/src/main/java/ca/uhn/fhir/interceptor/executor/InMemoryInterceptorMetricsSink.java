@@ -0,0 +1,178 @@
+package ca.uhn.fhir.interceptor.executor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.interceptor.api.IInterceptorMetricsSink;
+import ca.uhn.fhir.interceptor.api.IPointcut;
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link IInterceptorMetricsSink} which keeps invocation counts and latency histograms for
+ * each hook in memory. Recording an invocation does not lock or allocate (other than the first
+ * time a given hook is seen), so this sink is suitable for leaving enabled in production.
+ * <p>
+ * The collected metrics can be retrieved using {@link #getHookMetrics()}. This class also
+ * implements {@link IInterceptorMetricsMXBean}, so it can be exposed using JMX, e.g.
+ * </p>
+ * <pre>
+ * InMemoryInterceptorMetricsSink sink = new InMemoryInterceptorMetricsSink();
+ * interceptorService.setMetricsSink(sink);
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(sink, new ObjectName("ca.uhn.fhir:type=InterceptorMetrics"));
+ * </pre>
+ *
+ * @since 6.3.0
+ */
+public class InMemoryInterceptorMetricsSink implements IInterceptorMetricsSink, IInterceptorMetricsMXBean {
+
+	private final Map<IPointcut, Map<String, HookRecorder>> myPointcutToHookNameToRecorder = new ConcurrentHashMap<>();
+
+	@Override
+	public void recordHookInvocation(IPointcut thePointcut, String theHookName, long theElapsedNanos, boolean theFailed, int theWeight) {
+		Map<String, HookRecorder> hookNameToRecorder = myPointcutToHookNameToRecorder.get(thePointcut);
+		if (hookNameToRecorder == null) {
+			hookNameToRecorder = myPointcutToHookNameToRecorder.computeIfAbsent(thePointcut, t -> new ConcurrentHashMap<>());
+		}
+
+		HookRecorder recorder = hookNameToRecorder.get(theHookName);
+		if (recorder == null) {
+			recorder = hookNameToRecorder.computeIfAbsent(theHookName, t -> new HookRecorder());
+		}
+
+		recorder.record(theElapsedNanos, theFailed, theWeight);
+	}
+
+	@Override
+	public List<InterceptorHookMetrics> getHookMetrics() {
+		List<InterceptorHookMetrics> retVal = new ArrayList<>();
+		for (Map.Entry<IPointcut, Map<String, HookRecorder>> nextPointcutEntry : myPointcutToHookNameToRecorder.entrySet()) {
+			for (Map.Entry<String, HookRecorder> nextHookEntry : nextPointcutEntry.getValue().entrySet()) {
+				retVal.add(nextHookEntry.getValue().toMetrics(nextPointcutEntry.getKey().name(), nextHookEntry.getKey()));
+			}
+		}
+		retVal.sort(Comparator.comparing(InterceptorHookMetrics::getTotalMillis).reversed());
+		return retVal;
+	}
+
+	@Override
+	public void reset() {
+		myPointcutToHookNameToRecorder.clear();
+	}
+
+	/**
+	 * Returns the index of the histogram bucket for the given value. Values below 4 each have
+	 * their own bucket, and each power of two above that is divided into 4 buckets, so the
+	 * width of a bucket is never more than 25% of its lower bound.
+	 */
+	@VisibleForTesting
+	static int bucketIndex(long theValue) {
+		if (theValue < HookRecorder.SUB_BUCKET_COUNT) {
+			return (int) theValue;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(theValue);
+		int subBucket = (int) (theValue >>> (exponent - HookRecorder.SUB_BUCKET_BITS)) & (HookRecorder.SUB_BUCKET_COUNT - 1);
+		return (exponent - HookRecorder.SUB_BUCKET_BITS + 1) * HookRecorder.SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * Returns a representative value (the midpoint) for the histogram bucket with the given index
+	 */
+	@VisibleForTesting
+	static long bucketValue(int theIndex) {
+		if (theIndex < HookRecorder.SUB_BUCKET_COUNT) {
+			return theIndex;
+		}
+		int exponent = theIndex / HookRecorder.SUB_BUCKET_COUNT + HookRecorder.SUB_BUCKET_BITS - 1;
+		int subBucket = theIndex % HookRecorder.SUB_BUCKET_COUNT;
+		long width = 1L << (exponent - HookRecorder.SUB_BUCKET_BITS);
+		long lowerBound = (HookRecorder.SUB_BUCKET_COUNT + subBucket) * width;
+		return lowerBound + width / 2;
+	}
+
+	private static double nanosToMillis(double theNanos) {
+		return theNanos / 1_000_000.0;
+	}
+
+	private static class HookRecorder {
+
+		private static final int SUB_BUCKET_BITS = 2;
+		private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+		private static final int BUCKET_COUNT = 64 * SUB_BUCKET_COUNT;
+
+		private final LongAdder myInvocationCount = new LongAdder();
+		private final LongAdder myFailureCount = new LongAdder();
+		private final LongAdder myTotalNanos = new LongAdder();
+		private final LongAccumulator myMaxNanos = new LongAccumulator(Math::max, 0);
+		private final AtomicLongArray myBuckets = new AtomicLongArray(BUCKET_COUNT);
+
+		void record(long theElapsedNanos, boolean theFailed, int theWeight) {
+			long elapsedNanos = Math.max(theElapsedNanos, 0);
+			myInvocationCount.add(theWeight);
+			if (theFailed) {
+				myFailureCount.add(theWeight);
+			}
+			myTotalNanos.add(elapsedNanos * theWeight);
+			myMaxNanos.accumulate(elapsedNanos);
+			myBuckets.addAndGet(bucketIndex(elapsedNanos), theWeight);
+		}
+
+		InterceptorHookMetrics toMetrics(String thePointcutName, String theHookName) {
+			long[] buckets = new long[BUCKET_COUNT];
+			long total = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				buckets[i] = myBuckets.get(i);
+				total += buckets[i];
+			}
+
+			long maxNanos = myMaxNanos.get();
+			double p50 = nanosToMillis(Math.min(percentile(buckets, total, 0.50), maxNanos));
+			double p95 = nanosToMillis(Math.min(percentile(buckets, total, 0.95), maxNanos));
+			double p99 = nanosToMillis(Math.min(percentile(buckets, total, 0.99), maxNanos));
+
+			return new InterceptorHookMetrics(thePointcutName, theHookName, myInvocationCount.sum(), myFailureCount.sum(), nanosToMillis(myTotalNanos.sum()), p50, p95, p99, nanosToMillis(maxNanos));
+		}
+
+		private static long percentile(long[] theBuckets, long theTotal, double thePercentile) {
+			if (theTotal == 0) {
+				return 0;
+			}
+			long target = Math.max(1, (long) Math.ceil(theTotal * thePercentile));
+			long cumulative = 0;
+			for (int i = 0; i < theBuckets.length; i++) {
+				cumulative += theBuckets[i];
+				if (cumulative >= target) {
+					return bucketValue(i);
+				}
+			}
+			return bucketValue(theBuckets.length - 1);
+		}
+
+	}
+
+}
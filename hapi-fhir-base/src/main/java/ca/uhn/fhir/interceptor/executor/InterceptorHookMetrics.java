@@ -0,0 +1,117 @@
+package ca.uhn.fhir.interceptor.executor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A snapshot of the metrics collected by {@link InMemoryInterceptorMetricsSink} for a single hook
+ * method on a single pointcut. Percentiles are approximate (within roughly 12%).
+ *
+ * @since 6.3.0
+ */
+public class InterceptorHookMetrics {
+
+	private final String myPointcut;
+	private final String myHookName;
+	private final long myInvocationCount;
+	private final long myFailureCount;
+	private final double myTotalMillis;
+	private final double myP50Millis;
+	private final double myP95Millis;
+	private final double myP99Millis;
+	private final double myMaxMillis;
+
+	InterceptorHookMetrics(String thePointcut, String theHookName, long theInvocationCount, long theFailureCount, double theTotalMillis, double theP50Millis, double theP95Millis, double theP99Millis, double theMaxMillis) {
+		myPointcut = thePointcut;
+		myHookName = theHookName;
+		myInvocationCount = theInvocationCount;
+		myFailureCount = theFailureCount;
+		myTotalMillis = theTotalMillis;
+		myP50Millis = theP50Millis;
+		myP95Millis = theP95Millis;
+		myP99Millis = theP99Millis;
+		myMaxMillis = theMaxMillis;
+	}
+
+	/**
+	 * The pointcut name, e.g. <code>SERVER_INCOMING_REQUEST_PRE_HANDLED</code>
+	 */
+	public String getPointcut() {
+		return myPointcut;
+	}
+
+	/**
+	 * The interceptor class and hook method name, e.g. <code>com.example.MyInterceptor#preHandled</code>
+	 */
+	public String getHookName() {
+		return myHookName;
+	}
+
+	public long getInvocationCount() {
+		return myInvocationCount;
+	}
+
+	/**
+	 * The number of invocations where the hook method threw an exception
+	 */
+	public long getFailureCount() {
+		return myFailureCount;
+	}
+
+	public double getTotalMillis() {
+		return myTotalMillis;
+	}
+
+	public double getMeanMillis() {
+		return myInvocationCount > 0 ? myTotalMillis / myInvocationCount : 0;
+	}
+
+	public double getP50Millis() {
+		return myP50Millis;
+	}
+
+	public double getP95Millis() {
+		return myP95Millis;
+	}
+
+	public double getP99Millis() {
+		return myP99Millis;
+	}
+
+	public double getMaxMillis() {
+		return myMaxMillis;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+			.append("pointcut", myPointcut)
+			.append("hook", myHookName)
+			.append("count", myInvocationCount)
+			.append("failures", myFailureCount)
+			.append("meanMillis", getMeanMillis())
+			.append("p99Millis", myP99Millis)
+			.append("maxMillis", myMaxMillis)
+			.toString();
+	}
+}
@@ -53,7 +53,7 @@ public class InterceptorService extends BaseInterceptorService<Pointcut> impleme
 
 	@Override
 	protected Optional<HookDescriptor> scanForHook(Method nextMethod) {
-		return findAnnotation(nextMethod, Hook.class).map(t -> new HookDescriptor(t.value(), t.order()));
+		return findAnnotation(nextMethod, Hook.class).map(t -> new HookDescriptor(t.value(), t.order(), t.async()));
 	}
 
 
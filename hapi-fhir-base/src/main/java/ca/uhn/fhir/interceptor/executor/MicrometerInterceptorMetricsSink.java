@@ -0,0 +1,140 @@
+package ca.uhn.fhir.interceptor.executor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.interceptor.api.IInterceptorMetricsSink;
+import ca.uhn.fhir.interceptor.api.IPointcut;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link IInterceptorMetricsSink} which reports hook invocations to a
+ * <a href="https://micrometer.io">Micrometer</a> {@link MeterRegistry}. This class requires
+ * <code>micrometer-core</code> to be on the classpath, which is an optional dependency of HAPI FHIR.
+ * <p>
+ * The following meters are registered for each hook, tagged with <code>pointcut</code>,
+ * <code>hook</code> and <code>outcome</code> (<code>success</code> or <code>failure</code>):
+ * </p>
+ * <ul>
+ *    <li><code>{@value #TIMER_NAME}</code> - A timer recording the time taken by the hook. If the
+ *    interceptor service is configured to sample invocations, only sampled invocations are recorded.</li>
+ *    <li><code>{@value #COUNTER_NAME}</code> - A counter of the (estimated, if sampling) number of invocations</li>
+ * </ul>
+ *
+ * @since 6.3.0
+ */
+public class MicrometerInterceptorMetricsSink implements IInterceptorMetricsSink {
+
+	public static final String TIMER_NAME = "hapi.fhir.interceptor.hook";
+	public static final String COUNTER_NAME = "hapi.fhir.interceptor.hook.invocations";
+	private static final String TAG_POINTCUT = "pointcut";
+	private static final String TAG_HOOK = "hook";
+	private static final String TAG_OUTCOME = "outcome";
+
+	private final MeterRegistry myMeterRegistry;
+	private final Map<IPointcut, Map<String, HookMeters>> myPointcutToHookNameToMeters = new ConcurrentHashMap<>();
+	private boolean myPublishPercentileHistogram;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMeterRegistry The registry to register meters with
+	 */
+	public MicrometerInterceptorMetricsSink(MeterRegistry theMeterRegistry) {
+		Validate.notNull(theMeterRegistry, "theMeterRegistry must not be null");
+		myMeterRegistry = theMeterRegistry;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the timers will publish a percentile
+	 * histogram which can be used by monitoring systems to compute aggregable percentiles. This must
+	 * be set before any hooks are invoked.
+	 */
+	public MicrometerInterceptorMetricsSink setPublishPercentileHistogram(boolean thePublishPercentileHistogram) {
+		myPublishPercentileHistogram = thePublishPercentileHistogram;
+		return this;
+	}
+
+	@Override
+	public void recordHookInvocation(IPointcut thePointcut, String theHookName, long theElapsedNanos, boolean theFailed, int theWeight) {
+		Map<String, HookMeters> hookNameToMeters = myPointcutToHookNameToMeters.get(thePointcut);
+		if (hookNameToMeters == null) {
+			hookNameToMeters = myPointcutToHookNameToMeters.computeIfAbsent(thePointcut, t -> new ConcurrentHashMap<>());
+		}
+
+		HookMeters meters = hookNameToMeters.get(theHookName);
+		if (meters == null) {
+			meters = hookNameToMeters.computeIfAbsent(theHookName, t -> new HookMeters(thePointcut, theHookName));
+		}
+
+		if (theFailed) {
+			meters.myFailureTimer.record(theElapsedNanos, TimeUnit.NANOSECONDS);
+			meters.myFailureCounter.increment(theWeight);
+		} else {
+			meters.mySuccessTimer.record(theElapsedNanos, TimeUnit.NANOSECONDS);
+			meters.mySuccessCounter.increment(theWeight);
+		}
+	}
+
+	private class HookMeters {
+
+		private final Timer mySuccessTimer;
+		private final Timer myFailureTimer;
+		private final Counter mySuccessCounter;
+		private final Counter myFailureCounter;
+
+		private HookMeters(IPointcut thePointcut, String theHookName) {
+			mySuccessTimer = createTimer(thePointcut, theHookName, "success");
+			myFailureTimer = createTimer(thePointcut, theHookName, "failure");
+			mySuccessCounter = createCounter(thePointcut, theHookName, "success");
+			myFailureCounter = createCounter(thePointcut, theHookName, "failure");
+		}
+
+		private Timer createTimer(IPointcut thePointcut, String theHookName, String theOutcome) {
+			return Timer
+				.builder(TIMER_NAME)
+				.description("Time taken by interceptor hook methods")
+				.tag(TAG_POINTCUT, thePointcut.name())
+				.tag(TAG_HOOK, theHookName)
+				.tag(TAG_OUTCOME, theOutcome)
+				.publishPercentileHistogram(myPublishPercentileHistogram)
+				.register(myMeterRegistry);
+		}
+
+		private Counter createCounter(IPointcut thePointcut, String theHookName, String theOutcome) {
+			return Counter
+				.builder(COUNTER_NAME)
+				.description("Number of interceptor hook method invocations")
+				.tag(TAG_POINTCUT, thePointcut.name())
+				.tag(TAG_HOOK, theHookName)
+				.tag(TAG_OUTCOME, theOutcome)
+				.register(myMeterRegistry);
+		}
+
+	}
+
+}
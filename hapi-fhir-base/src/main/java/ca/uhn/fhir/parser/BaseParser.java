@@ -65,10 +65,13 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -100,6 +103,7 @@ public abstract class BaseParser implements IParser {
 	private static final Set<String> notEncodeForContainedResource = new HashSet<>(Arrays.asList("security", "versionId", "lastUpdated"));
 
 	private FhirTerser.ContainedResources myContainedResources;
+	private CompiledElementFilter myCompiledElementFilter;
 	private boolean myEncodeElementsAppliesToChildResourcesOnly;
 	private FhirContext myContext;
 	private List<EncodeContextPath> myDontEncodeElements;
@@ -141,6 +145,7 @@ public abstract class BaseParser implements IParser {
 				.map(EncodeContextPath::new)
 				.collect(Collectors.toList());
 		}
+		myCompiledElementFilter = null;
 		return this;
 	}
 
@@ -176,39 +181,85 @@ public abstract class BaseParser implements IParser {
 
 		}
 
+		myCompiledElementFilter = null;
 		return this;
 	}
 
+	/**
+	 * Returns the compiled form of the element filtering settings on this parser. Compiled filters
+	 * are shared between parser instances with identical settings via the {@link FhirContext}.
+	 */
+	private CompiledElementFilter getCompiledElementFilter() {
+		CompiledElementFilter retVal = myCompiledElementFilter;
+		if (retVal == null) {
+			StringBuilder key = new StringBuilder();
+			key.append(getClass().getName());
+			key.append("|encode=").append(toSortedPaths(myEncodeElements));
+			key.append("|dontEncode=").append(toSortedPaths(myDontEncodeElements));
+			key.append("|childResourcesOnly=").append(isEncodeElementsAppliesToChildResourcesOnly());
+			key.append("|summary=").append(isSummaryMode());
+			key.append("|suppressNarratives=").append(isSuppressNarratives());
+			retVal = myContext.getParserCache().getCompiledElementFilter(key.toString());
+			myCompiledElementFilter = retVal;
+		}
+		return retVal;
+	}
+
+	private static String toSortedPaths(List<EncodeContextPath> thePaths) {
+		if (thePaths == null) {
+			return "";
+		}
+		return thePaths
+			.stream()
+			.map(EncodeContextPath::toString)
+			.sorted()
+			.collect(Collectors.joining(","));
+	}
+
 	protected Iterable<CompositeChildElement> compositeChildIterator(IBase theCompositeElement, final boolean theContainedResource, final CompositeChildElement theParent, EncodeContext theEncodeContext) {
 		BaseRuntimeElementCompositeDefinition<?> elementDef = (BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theCompositeElement.getClass());
-		return theEncodeContext.getCompositeChildrenCache().computeIfAbsent(new Key(elementDef, theContainedResource, theParent, theEncodeContext), (k) -> {
+		if (theParent == null) {
+			return computeCompositeChildren(elementDef, theContainedResource, null, theEncodeContext);
+		}
+
+		CompositeChildElement parent = theParent;
+		if (parent.myResDef != null) {
+			/*
+			 * Every resource being encoded gets its own root element, so use a single
+			 * canonical root per resource type in order for the children computed for
+			 * one resource to be reused by the next one
+			 */
+			parent = theEncodeContext.getCanonicalRoot(parent);
+		}
+		return parent.getChildren(elementDef, theContainedResource);
+	}
 
-			final List<BaseRuntimeChildDefinition> children = elementDef.getChildrenAndExtension();
-			final List<CompositeChildElement> result = new ArrayList<>(children.size());
+	private List<CompositeChildElement> computeCompositeChildren(BaseRuntimeElementCompositeDefinition<?> theElementDef, boolean theContainedResource, CompositeChildElement theParent, EncodeContext theEncodeContext) {
+		final List<BaseRuntimeChildDefinition> children = theElementDef.getChildrenAndExtension();
+		final List<CompositeChildElement> result = new ArrayList<>(children.size());
 
-			for (final BaseRuntimeChildDefinition child : children) {
-				CompositeChildElement myNext = new CompositeChildElement(theParent, child, theEncodeContext);
+		for (final BaseRuntimeChildDefinition child : children) {
+			CompositeChildElement myNext = new CompositeChildElement(theParent, child, theEncodeContext, theElementDef);
 
-				/*
-				 * There are lots of reasons we might skip encoding a particular child
-				 */
-				if (myNext.getDef().getElementName().equals("id")) {
+			/*
+			 * There are lots of reasons we might skip encoding a particular child
+			 */
+			if (myNext.getDef().getElementName().equals("id")) {
+				continue;
+			} else if (!myNext.shouldBeEncoded(theContainedResource)) {
+				continue;
+			} else if (myNext.getDef() instanceof RuntimeChildNarrativeDefinition) {
+				if (isSuppressNarratives() || isSummaryMode()) {
 					continue;
-				} else if (!myNext.shouldBeEncoded(theContainedResource)) {
+				}
+			} else if (myNext.getDef() instanceof RuntimeChildContainedResources) {
+				if (theContainedResource) {
 					continue;
-				} else if (myNext.getDef() instanceof RuntimeChildNarrativeDefinition) {
-					if (isSuppressNarratives() || isSummaryMode()) {
-						continue;
-					}
-				} else if (myNext.getDef() instanceof RuntimeChildContainedResources) {
-					if (theContainedResource) {
-						continue;
-					}
 				}
-				result.add(myNext);
 			}
-			return result;
-		});
+			result.add(myNext);
+		}
+		return result;
 	}
 
 
@@ -263,6 +314,16 @@ public abstract class BaseParser implements IParser {
 
 	protected abstract void doEncodeResourceToWriter(IBaseResource theResource, Writer theWriter, EncodeContext theEncodeContext) throws IOException, DataFormatException;
 
+	/**
+	 * Encodes a resource as UTF-8 bytes. Subclasses which can write bytes directly should
+	 * override this method, the default implementation wraps the stream in a {@link Writer}.
+	 */
+	protected void doEncodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext) throws IOException, DataFormatException {
+		Writer writer = new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8);
+		doEncodeResourceToWriter(theResource, writer, theEncodeContext);
+		writer.flush();
+	}
+
 	protected abstract <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) throws DataFormatException;
 
 	@Override
@@ -288,12 +349,7 @@ public abstract class BaseParser implements IParser {
 		Validate.notNull(theWriter, "theWriter can not be null");
 		Validate.notNull(theEncodeContext, "theEncodeContext can not be null");
 
-		if (myContext.getVersion().getVersion() == FhirVersionEnum.R4B && theResource.getStructureFhirVersionEnum() == FhirVersionEnum.R5) {
-			// TODO: remove once we've bumped the core lib version
-		} else
-		if (theResource.getStructureFhirVersionEnum() != myContext.getVersion().getVersion()) {
-			throw new IllegalArgumentException(Msg.code(1829) + "This parser is for FHIR version " + myContext.getVersion().getVersion() + " - Can not encode a structure for version " + theResource.getStructureFhirVersionEnum());
-		}
+		validateStructureVersion(theResource);
 
 		String resourceName = myContext.getResourceType(theResource);
 		theEncodeContext.pushPath(resourceName, true);
@@ -303,6 +359,31 @@ public abstract class BaseParser implements IParser {
 		theEncodeContext.popPath();
 	}
 
+	@Override
+	public final void encodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream) throws IOException, DataFormatException {
+		Validate.notNull(theResource, "theResource can not be null");
+		Validate.notNull(theOutputStream, "theOutputStream can not be null");
+
+		validateStructureVersion(theResource);
+
+		EncodeContext encodeContext = new EncodeContext();
+		String resourceName = myContext.getResourceType(theResource);
+		encodeContext.pushPath(resourceName, true);
+
+		doEncodeResourceToOutputStream(theResource, theOutputStream, encodeContext);
+
+		encodeContext.popPath();
+	}
+
+	private void validateStructureVersion(IBaseResource theResource) {
+		if (myContext.getVersion().getVersion() == FhirVersionEnum.R4B && theResource.getStructureFhirVersionEnum() == FhirVersionEnum.R5) {
+			// TODO: remove once we've bumped the core lib version
+		} else
+		if (theResource.getStructureFhirVersionEnum() != myContext.getVersion().getVersion()) {
+			throw new IllegalArgumentException(Msg.code(1829) + "This parser is for FHIR version " + myContext.getVersion().getVersion() + " - Can not encode a structure for version " + theResource.getStructureFhirVersionEnum());
+		}
+	}
+
 	private void filterCodingsWithNoCodeOrSystem(List<? extends IBaseCoding> tagList) {
 		for (int i = 0; i < tagList.size(); i++) {
 			if (isBlank(tagList.get(i).getCode()) && isBlank(tagList.get(i).getSystem())) {
@@ -527,6 +608,7 @@ public abstract class BaseParser implements IParser {
 	@Override
 	public void setEncodeElementsAppliesToChildResourcesOnly(boolean theEncodeElementsAppliesToChildResourcesOnly) {
 		myEncodeElementsAppliesToChildResourcesOnly = theEncodeElementsAppliesToChildResourcesOnly;
+		myCompiledElementFilter = null;
 	}
 
 	@Override
@@ -815,12 +897,14 @@ public abstract class BaseParser implements IParser {
 	@Override
 	public IParser setSummaryMode(boolean theSummaryMode) {
 		mySummaryMode = theSummaryMode;
+		myCompiledElementFilter = null;
 		return this;
 	}
 
 	@Override
 	public IParser setSuppressNarratives(boolean theSuppressNarratives) {
 		mySuppressNarratives = theSuppressNarratives;
+		myCompiledElementFilter = null;
 		return this;
 	}
 
@@ -938,10 +1022,20 @@ public abstract class BaseParser implements IParser {
 	 * encode process
 	 */
 	public class EncodeContext extends EncodeContextPath {
-		private final Map<Key, List<BaseParser.CompositeChildElement>> myCompositeChildrenCache = new HashMap<>();
+		private final Map<RuntimeResourceDefinition, CompositeChildElement> myTopLevelRoots = new HashMap<>();
+		private final Map<RuntimeResourceDefinition, CompositeChildElement> myNestedRoots = new HashMap<>();
+
+		/**
+		 * Returns the first root element seen in this context for the same resource type and
+		 * nesting level as the given one
+		 */
+		CompositeChildElement getCanonicalRoot(CompositeChildElement theRoot) {
+			Map<RuntimeResourceDefinition, CompositeChildElement> roots = isTopLevelResource() ? myTopLevelRoots : myNestedRoots;
+			return roots.computeIfAbsent(theRoot.myResDef, t -> theRoot);
+		}
 
-		public Map<Key, List<BaseParser.CompositeChildElement>> getCompositeChildrenCache() {
-			return myCompositeChildrenCache;
+		boolean isTopLevelResource() {
+			return getResourcePath().size() < 2;
 		}
 
 	}
@@ -952,12 +1046,21 @@ public abstract class BaseParser implements IParser {
 		private final CompositeChildElement myParent;
 		private final RuntimeResourceDefinition myResDef;
 		private final EncodeContext myEncodeContext;
+		private final BaseRuntimeElementCompositeDefinition<?> myParentElementDef;
+		private CompiledElementFilter.Node myFilterNode;
+		private Map<BaseRuntimeElementCompositeDefinition<?>, List<CompositeChildElement>> myChildren;
+		private Map<BaseRuntimeElementCompositeDefinition<?>, List<CompositeChildElement>> myChildrenInContained;
 
 		public CompositeChildElement(CompositeChildElement theParent, @Nullable BaseRuntimeChildDefinition theDef, EncodeContext theEncodeContext) {
+			this(theParent, theDef, theEncodeContext, null);
+		}
+
+		private CompositeChildElement(CompositeChildElement theParent, @Nullable BaseRuntimeChildDefinition theDef, EncodeContext theEncodeContext, @Nullable BaseRuntimeElementCompositeDefinition<?> theParentElementDef) {
 			myDef = theDef;
 			myParent = theParent;
 			myResDef = null;
 			myEncodeContext = theEncodeContext;
+			myParentElementDef = theParentElementDef;
 
 			if (ourLog.isTraceEnabled()) {
 				if (theParent != null) {
@@ -979,6 +1082,71 @@ public abstract class BaseParser implements IParser {
 			myDef = null;
 			myParent = null;
 			myEncodeContext = theEncodeContext;
+			myParentElementDef = null;
+		}
+
+		/**
+		 * Returns the children of this element which should be encoded, given that the value
+		 * of this element has type <code>theElementDef</code>. The result is cached on this
+		 * element for the remainder of the encode, and the decision about which children are
+		 * allowed is cached in the shared {@link CompiledElementFilter} so that it can be reused
+		 * by subsequent encodes using the same parser settings.
+		 */
+		List<CompositeChildElement> getChildren(BaseRuntimeElementCompositeDefinition<?> theElementDef, boolean theContainedResource) {
+			Map<BaseRuntimeElementCompositeDefinition<?>, List<CompositeChildElement>> cache;
+			if (theContainedResource) {
+				if (myChildrenInContained == null) {
+					myChildrenInContained = new HashMap<>();
+				}
+				cache = myChildrenInContained;
+			} else {
+				if (myChildren == null) {
+					myChildren = new HashMap<>();
+				}
+				cache = myChildren;
+			}
+
+			List<CompositeChildElement> retVal = cache.get(theElementDef);
+			if (retVal == null) {
+				CompiledElementFilter.Node filterNode = getFilterNode();
+				List<BaseRuntimeChildDefinition> allowedChildren = filterNode != null ? filterNode.getAllowedChildren(theElementDef, theContainedResource) : null;
+				if (allowedChildren != null) {
+					retVal = new ArrayList<>(allowedChildren.size());
+					for (BaseRuntimeChildDefinition next : allowedChildren) {
+						retVal.add(new CompositeChildElement(this, next, myEncodeContext, theElementDef));
+					}
+				} else {
+					retVal = computeCompositeChildren(theElementDef, theContainedResource, this, myEncodeContext);
+					if (filterNode != null) {
+						List<BaseRuntimeChildDefinition> allowed = retVal
+							.stream()
+							.map(CompositeChildElement::getDef)
+							.collect(Collectors.toList());
+						filterNode.setAllowedChildren(theElementDef, theContainedResource, Collections.unmodifiableList(allowed));
+					}
+				}
+				cache.put(theElementDef, retVal);
+			}
+			return retVal;
+		}
+
+		/**
+		 * Returns the node in the shared compiled filter corresponding to this element's position,
+		 * or <code>null</code> if this element was not created by walking down from a resource root
+		 */
+		@Nullable
+		private CompiledElementFilter.Node getFilterNode() {
+			if (myFilterNode == null) {
+				if (myResDef != null) {
+					myFilterNode = getCompiledElementFilter().getRoot(myResDef, myEncodeContext.isTopLevelResource());
+				} else if (myParent != null && myParentElementDef != null) {
+					CompiledElementFilter.Node parentNode = myParent.getFilterNode();
+					if (parentNode != null) {
+						myFilterNode = parentNode.getChild(myParentElementDef, myDef);
+					}
+				}
+			}
+			return myFilterNode;
 		}
 
         @Override
@@ -1177,47 +1345,6 @@ public abstract class BaseParser implements IParser {
 		}
 	}
 
-	private static class Key {
-		private final BaseRuntimeElementCompositeDefinition<?> resDef;
-		private final boolean theContainedResource;
-		private final BaseParser.CompositeChildElement theParent;
-		private final BaseParser.EncodeContext theEncodeContext;
-
-		public Key(BaseRuntimeElementCompositeDefinition<?> resDef, final boolean theContainedResource, final BaseParser.CompositeChildElement theParent, BaseParser.EncodeContext theEncodeContext) {
-			this.resDef = resDef;
-			this.theContainedResource = theContainedResource;
-			this.theParent = theParent;
-			this.theEncodeContext = theEncodeContext;
-		}
-
-		@Override
-		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = prime * result + ((resDef == null) ? 0 : resDef.hashCode());
-			result = prime * result + (theContainedResource ? 1231 : 1237);
-			result = prime * result + ((theParent == null) ? 0 : theParent.hashCode());
-			result = prime * result + ((theEncodeContext == null) ? 0 : theEncodeContext.hashCode());
-			return result;
-		}
-
-		@Override
-		public boolean equals(final Object obj) {
-			if (this == obj) {
-				return true;
-			}
-			if (obj instanceof Key) {
-				final Key that = (Key) obj;
-				return Objects.equals(this.resDef, that.resDef) &&
-					this.theContainedResource == that.theContainedResource &&
-					Objects.equals(this.theParent, that.theParent) &&
-					Objects.equals(this.theEncodeContext, that.theEncodeContext);
-			}
-			return false;
-		}
-	}
-
-
 	protected static <T> List<T> extractMetadataListNotNull(IResource resource, ResourceMetadataKeyEnum<List<T>> key) {
 		List<? extends T> securityLabels = key.get(resource);
 		if (securityLabels == null) {
@@ -0,0 +1,91 @@
+package ca.uhn.fhir.parser;
+
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled form of the element filtering settings on a parser (i.e. the
+ * <code>_elements</code>, <code>_summary</code> and narrative suppression settings).
+ * The filter is a tree mirroring the structure of the resources being encoded, where
+ * each node remembers which children of a given composite type are allowed to be
+ * encoded at that position. Once a position has been visited, subsequent encodes using
+ * the same settings do not need to evaluate the path matching rules again.
+ * <p>
+ * Instances are shared between parsers (and therefore between threads) via the
+ * {@link ParserCache} of the context, so they only ever hold runtime definitions and
+ * never any model instances.
+ * </p>
+ */
+final class CompiledElementFilter {
+
+	private final Map<RuntimeResourceDefinition, Node> myTopLevelRoots = new ConcurrentHashMap<>();
+	private final Map<RuntimeResourceDefinition, Node> myNestedRoots = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor
+	 */
+	CompiledElementFilter() {
+		super();
+	}
+
+	/**
+	 * @param theResourceDefinition The resource being encoded
+	 * @param theTopLevel           Is the resource the outermost resource being encoded (as opposed to a resource in a Bundle or a contained resource)
+	 */
+	Node getRoot(RuntimeResourceDefinition theResourceDefinition, boolean theTopLevel) {
+		Map<RuntimeResourceDefinition, Node> roots = theTopLevel ? myTopLevelRoots : myNestedRoots;
+		return roots.computeIfAbsent(theResourceDefinition, t -> new Node());
+	}
+
+	static final class Node {
+
+		private final Map<BaseRuntimeElementCompositeDefinition<?>, List<BaseRuntimeChildDefinition>> myAllowedChildren = new ConcurrentHashMap<>();
+		private final Map<BaseRuntimeElementCompositeDefinition<?>, List<BaseRuntimeChildDefinition>> myAllowedChildrenInContained = new ConcurrentHashMap<>();
+		private final Map<BaseRuntimeElementCompositeDefinition<?>, Map<BaseRuntimeChildDefinition, Node>> myChildren = new ConcurrentHashMap<>();
+
+		/**
+		 * Returns the children of the given type which are allowed at this position, or <code>null</code>
+		 * if this hasn't been determined yet
+		 */
+		List<BaseRuntimeChildDefinition> getAllowedChildren(BaseRuntimeElementCompositeDefinition<?> theElementDefinition, boolean theContainedResource) {
+			return (theContainedResource ? myAllowedChildrenInContained : myAllowedChildren).get(theElementDefinition);
+		}
+
+		void setAllowedChildren(BaseRuntimeElementCompositeDefinition<?> theElementDefinition, boolean theContainedResource, List<BaseRuntimeChildDefinition> theAllowedChildren) {
+			(theContainedResource ? myAllowedChildrenInContained : myAllowedChildren).putIfAbsent(theElementDefinition, theAllowedChildren);
+		}
+
+		Node getChild(BaseRuntimeElementCompositeDefinition<?> theElementDefinition, BaseRuntimeChildDefinition theChildDefinition) {
+			return myChildren
+				.computeIfAbsent(theElementDefinition, t -> new ConcurrentHashMap<>())
+				.computeIfAbsent(theChildDefinition, t -> new Node());
+		}
+
+	}
+
+}
@@ -25,17 +25,23 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.ParserOptions;
 import ca.uhn.fhir.model.api.IResource;
 import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.util.IoUtil;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * A parser, which can be used to convert between HAPI FHIR model/structure objects, and their respective String wire
@@ -51,6 +57,29 @@ public interface IParser {
 
 	void encodeResourceToWriter(IBaseResource theResource, Writer theWriter) throws IOException, DataFormatException;
 
+	/**
+	 * Encodes a resource as UTF-8 and writes it to the given stream. This avoids the intermediate
+	 * <code>String</code> and character buffer copies which are needed when encoding to a
+	 * {@link Writer} or {@link #encodeResourceToString(IBaseResource) a String} and then converting
+	 * the result to bytes. The JSON parser writes bytes directly to the stream using recycled
+	 * buffers. Note that characters outside of the Basic Multilingual Plane may be written as
+	 * escaped surrogate pairs, which is equivalent JSON.
+	 * <p>
+	 * The stream is flushed but not closed by this method.
+	 * </p>
+	 * <p>
+	 * The default implementation encodes through an {@link OutputStreamWriter}, so it offers no benefit
+	 * over {@link #encodeResourceToWriter(IBaseResource, Writer)} for parsers which do not override it.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	default void encodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream) throws IOException, DataFormatException {
+		Writer writer = new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8);
+		encodeResourceToWriter(theResource, writer);
+		writer.flush();
+	}
+
 	/**
 	 * If not set to null (as is the default) this ID will be used as the ID in any
 	 * resources encoded by this parser
@@ -229,6 +258,40 @@ public interface IParser {
 	 */
 	IBaseResource parseResource(String theMessageString) throws ConfigurationException, DataFormatException;
 
+	/**
+	 * Lazily parses a document which may contain any number of resources, such as an NDJSON file.
+	 * Resources are parsed as the returned stream is consumed, so only the resource currently being
+	 * consumed needs to be held in memory. This is supported by the parser returned by
+	 * {@link FhirContext#newNDJsonParser()}.
+	 * <p>
+	 * The returned stream must be closed by the caller (e.g. using a try-with-resources block),
+	 * which also closes the supplied reader.
+	 * </p>
+	 * <p>
+	 * The default implementation is for formats which hold a single resource per document, and
+	 * returns a stream containing that one resource.
+	 * </p>
+	 *
+	 * @param theReader The reader to parse input from
+	 * @throws DataFormatException If a resource can not be parsed. This exception is thrown while the stream is being consumed.
+	 * @since 6.3.0
+	 */
+	default Stream<IBaseResource> parseResourceStream(Reader theReader) {
+		return Stream.of(theReader)
+			.map(this::parseResource)
+			.onClose(() -> IoUtil.closeQuietly(theReader));
+	}
+
+	/**
+	 * Lazily parses a UTF-8 encoded document which may contain any number of resources.
+	 * See {@link #parseResourceStream(Reader)} for details.
+	 *
+	 * @since 6.3.0
+	 */
+	default Stream<IBaseResource> parseResourceStream(InputStream theInputStream) {
+		return parseResourceStream(new InputStreamReader(theInputStream, StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * If provided, specifies the elements which should NOT be encoded. Valid values for this
 	 * field would include:
@@ -47,6 +47,8 @@ import ca.uhn.fhir.model.primitive.InstantDt;
 import ca.uhn.fhir.narrative.INarrativeGenerator;
 import ca.uhn.fhir.parser.json.BaseJsonLikeArray;
 import ca.uhn.fhir.parser.json.BaseJsonLikeObject;
+import ca.uhn.fhir.parser.json.BaseJsonLikeTokenReader;
+import ca.uhn.fhir.parser.json.BaseJsonLikeTokenReader.TokenType;
 import ca.uhn.fhir.parser.json.BaseJsonLikeValue;
 import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ScalarType;
 import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ValueType;
@@ -72,12 +74,15 @@ import org.hl7.fhir.instance.model.api.INarrative;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -190,6 +195,11 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		return jsonStructure.getJsonLikeWriter(theWriter);
 	}
 
+	private BaseJsonLikeWriter createJsonWriter(OutputStream theOutputStream) throws IOException {
+		JacksonStructure jsonStructure = new JacksonStructure();
+		return jsonStructure.getJsonLikeWriter(theOutputStream);
+	}
+
 	public void doEncodeResourceToJsonLikeWriter(IBaseResource theResource, BaseJsonLikeWriter theEventWriter, EncodeContext theEncodeContext) throws IOException {
 		if (myPrettyPrint) {
 			theEventWriter.setPrettyPrint(myPrettyPrint);
@@ -208,8 +218,23 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		eventWriter.close();
 	}
 
+	/**
+	 * Jackson encodes directly to UTF-8 bytes here, using its own recycled buffers,
+	 * instead of going through an {@link java.io.OutputStreamWriter}
+	 */
+	@Override
+	protected void doEncodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext) throws IOException {
+		BaseJsonLikeWriter eventWriter = createJsonWriter(theOutputStream);
+		doEncodeResourceToJsonLikeWriter(theResource, eventWriter, theEncodeContext);
+		eventWriter.close();
+	}
+
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
+		if (getContext().getParserOptions().isStreamingJsonParsing()) {
+			return doParseResourceStreaming(theResourceType, theReader);
+		}
+
 		JsonLikeStructure jsonStructure = new JacksonStructure();
 		jsonStructure.load(theReader);
 
@@ -222,9 +247,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		BaseJsonLikeObject object = theJsonStructure.getRootObject();
 
 		BaseJsonLikeValue resourceTypeObj = object.get("resourceType");
-		if (resourceTypeObj == null || !resourceTypeObj.isString() || isBlank(resourceTypeObj.getAsString())) {
-			throw new DataFormatException(Msg.code(1838) + "Invalid JSON content detected, missing required element: 'resourceType'");
-		}
+		validateResourceType(resourceTypeObj, true);
 
 		String resourceType = resourceTypeObj.getAsString();
 
@@ -242,6 +265,273 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		return retVal;
 	}
 
+	private <T extends IBaseResource> T doParseResourceStreaming(Class<T> theResourceType, Reader theReader) {
+		ParserState<? extends IBaseResource> state = ParserState.getPreResourceInstance(this, theResourceType, getContext(), true, getErrorHandler());
+
+		try (BaseJsonLikeTokenReader reader = new JacksonStructure().getTokenReader(theReader)) {
+			reader.nextToken();
+			streamResource(reader, state, true);
+
+			if (reader.nextToken() != TokenType.END_OF_INPUT) {
+				throw new DataFormatException(Msg.code(2209) + "Failed to parse JSON encoded FHIR content: Unexpected content found after the end of the resource");
+			}
+		}
+
+		state.endingElement();
+
+		@SuppressWarnings("unchecked")
+		T retVal = (T) state.getObject();
+
+		return retVal;
+	}
+
+	/**
+	 * Parses the resource whose {@link TokenType#START_OBJECT} is the current token of the reader.
+	 * The resource is streamed if <code>resourceType</code> is its first property, otherwise
+	 * it needs to be buffered since we can't start populating the model before we know its type.
+	 */
+	private void streamResource(BaseJsonLikeTokenReader theReader, ParserState<?> theState, boolean theRootResource) {
+		TokenType token = theReader.nextToken();
+		if (token == TokenType.FIELD_NAME && "resourceType".equals(theReader.getFieldName())) {
+			theReader.nextToken();
+			BaseJsonLikeValue resourceTypeObj = theReader.readValue();
+			validateResourceType(resourceTypeObj, theRootResource);
+			theState.enteringNewElement(null, resourceTypeObj.getAsString());
+			streamChildren(theReader, theState);
+			theState.endingElement();
+		} else {
+			BaseJsonLikeObject object = theReader.readRemainingObject();
+			BaseJsonLikeValue resourceTypeObj = object.get("resourceType");
+			validateResourceType(resourceTypeObj, theRootResource);
+			theState.enteringNewElement(null, resourceTypeObj.getAsString());
+			parseChildren(object, theState);
+			theState.endingElement();
+		}
+	}
+
+	private void validateResourceType(BaseJsonLikeValue theResourceTypeObj, boolean theRootResource) {
+		if (theRootResource) {
+			if (theResourceTypeObj == null || !theResourceTypeObj.isString() || isBlank(theResourceTypeObj.getAsString())) {
+				throw new DataFormatException(Msg.code(1838) + "Invalid JSON content detected, missing required element: 'resourceType'");
+			}
+		} else if (theResourceTypeObj == null || !theResourceTypeObj.isString()) {
+			throw new DataFormatException(Msg.code(1843) + "Missing required element 'resourceType' from JSON resource object, unable to parse");
+		}
+	}
+
+	/**
+	 * Streaming equivalent of {@link #parseChildren(BaseJsonLikeObject, ParserState)}. Object values
+	 * (and arrays of objects) are streamed into the parser state as they are encountered. Primitive
+	 * values are buffered until the end of the containing object, since their <code>_name</code>
+	 * counterpart (holding extensions and element IDs) may appear either before or after them.
+	 * A <code>_name</code> counterpart for a non-primitive value is applied while the value is
+	 * streamed if it appears first, or by re-entering the already populated element(s) if it
+	 * appears afterwards.
+	 */
+	private void streamChildren(BaseJsonLikeTokenReader theReader, ParserState<?> theState) {
+		Map<String, BaseJsonLikeValue> primitives = null;
+		Map<String, BaseJsonLikeValue> alternates = null;
+		Map<String, StreamedElement> streamed = null;
+
+		while (theReader.nextToken() == TokenType.FIELD_NAME) {
+			String nextName = theReader.getFieldName();
+			TokenType valueToken = theReader.nextToken();
+
+			if ("resourceType".equals(nextName)) {
+				theReader.readValue();
+			} else if ("extension".equals(nextName)) {
+				BaseJsonLikeArray array = grabJsonArray(theReader.readValue(), "extension");
+				parseExtension(theState, array, false);
+			} else if ("modifierExtension".equals(nextName)) {
+				BaseJsonLikeArray array = grabJsonArray(theReader.readValue(), "modifierExtension");
+				parseExtension(theState, array, true);
+			} else if ("fhir_comments".equals(nextName)) {
+				parseFhirComments(theReader.readValue(), theState);
+			} else if (nextName.charAt(0) == '_') {
+				if (alternates == null) {
+					alternates = new LinkedHashMap<>();
+				}
+				BaseJsonLikeValue alternateVal = theReader.readValue();
+				alternates.put(nextName, alternateVal);
+				StreamedElement streamedElement = streamed != null ? streamed.get(nextName.substring(1)) : null;
+				if (streamedElement != null) {
+					// The value this belongs to has already been streamed
+					applyLateAlternates(theState, streamedElement, alternateVal, nextName);
+				}
+			} else if (valueToken == TokenType.START_OBJECT && !"id".equals(nextName)) {
+				if (streamed == null) {
+					streamed = new HashMap<>();
+				}
+				String alternateName = '_' + nextName;
+				BaseJsonLikeValue alternateVal = alternates != null ? alternates.get(alternateName) : null;
+				Object handle = streamObject(theReader, theState, nextName, alternateVal, alternateName, false);
+				streamed.put(nextName, new StreamedElement(false, Collections.singletonList(handle)));
+			} else if (valueToken == TokenType.START_ARRAY && !"id".equals(nextName)) {
+				if (theReader.nextToken() == TokenType.START_OBJECT) {
+					if (streamed == null) {
+						streamed = new HashMap<>();
+					}
+					String alternateName = '_' + nextName;
+					BaseJsonLikeValue alternateVal = alternates != null ? alternates.get(alternateName) : null;
+					List<Object> handles = streamArray(theReader, theState, nextName, alternateVal, alternateName);
+					streamed.put(nextName, new StreamedElement(true, handles));
+				} else {
+					if (primitives == null) {
+						primitives = new LinkedHashMap<>();
+					}
+					primitives.put(nextName, readRemainingArray(theReader));
+				}
+			} else {
+				if (primitives == null) {
+					primitives = new LinkedHashMap<>();
+				}
+				primitives.put(nextName, theReader.readValue());
+			}
+		}
+
+		if (primitives != null) {
+			for (Map.Entry<String, BaseJsonLikeValue> next : primitives.entrySet()) {
+				String alternateName = '_' + next.getKey();
+				BaseJsonLikeValue alternateVal = alternates != null ? alternates.get(alternateName) : null;
+				parseChildren(theState, next.getKey(), next.getValue(), alternateVal, alternateName, false);
+			}
+		}
+
+		if (alternates != null) {
+			int handledUnderscoreNames = 0;
+			for (String alternateName : alternates.keySet()) {
+				if (isStreamedOrBuffered(alternateName.substring(1), primitives, streamed)) {
+					handledUnderscoreNames++;
+				}
+			}
+
+			/*
+			 * This happens if an element has an extension but no actual value. I.e.
+			 * if a resource has a "_status" element but no corresponding "status"
+			 * element. This could be used to handle a null value with an extension
+			 * for example.
+			 */
+			if (alternates.size() > handledUnderscoreNames) {
+				for (Map.Entry<String, BaseJsonLikeValue> next : alternates.entrySet()) {
+					String alternateName = next.getKey();
+					if (alternateName.length() > 1) {
+						BaseJsonLikeValue nextValue = next.getValue();
+						if (nextValue.isObject()) {
+							String nextName = alternateName.substring(1);
+							if (!isStreamedOrBuffered(nextName, primitives, streamed)) {
+								theState.enteringNewElement(null, nextName);
+								parseAlternates(nextValue, theState, alternateName, alternateName);
+								theState.endingElement();
+							}
+						} else {
+							getErrorHandler().incorrectJsonType(null, alternateName, ValueType.OBJECT, null, nextValue.getJsonType(), null);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean isStreamedOrBuffered(String theName, Map<String, BaseJsonLikeValue> thePrimitives, Map<String, StreamedElement> theStreamed) {
+		return (thePrimitives != null && thePrimitives.containsKey(theName)) || (theStreamed != null && theStreamed.containsKey(theName));
+	}
+
+	/**
+	 * Applies a <code>_name</code> counterpart which appeared after the (already streamed) value it belongs to
+	 */
+	private void applyLateAlternates(ParserState<?> theState, StreamedElement theStreamedElement, BaseJsonLikeValue theAlternateVal, String theAlternateName) {
+		if (theAlternateVal == null || theAlternateVal.isNull()) {
+			return;
+		}
+
+		if (!theStreamedElement.myArray) {
+			applyLateAlternate(theState, theStreamedElement.myHandles.get(0), theAlternateVal, theAlternateName);
+			return;
+		}
+
+		if (theAlternateVal.isArray() == false) {
+			getErrorHandler().incorrectJsonType(null, theAlternateName, ValueType.ARRAY, null, theAlternateVal.getJsonType(), null);
+			return;
+		}
+		BaseJsonLikeArray alternateArray = theAlternateVal.getAsArray();
+		for (int i = 0; i < theStreamedElement.myHandles.size() && i < alternateArray.size(); i++) {
+			applyLateAlternate(theState, theStreamedElement.myHandles.get(i), alternateArray.get(i), theAlternateName);
+		}
+	}
+
+	private void applyLateAlternate(ParserState<?> theState, Object theHandle, BaseJsonLikeValue theAlternateVal, String theAlternateName) {
+		if (theHandle != null) {
+			theState.reenteringElement(theHandle);
+			parseAlternates(theAlternateVal, theState, theAlternateName, theAlternateName);
+			theState.endingElement();
+		}
+	}
+
+	/**
+	 * Streaming equivalent of the object handling in {@link #parseChildren(ParserState, String, BaseJsonLikeValue, BaseJsonLikeValue, String, boolean)}.
+	 * The current token of the reader must be the {@link TokenType#START_OBJECT} of the value.
+	 *
+	 * @return A handle for re-entering the populated element (see {@link ParserState#getPreviousElementHandle()}), or <code>null</code>
+	 */
+	private Object streamObject(BaseJsonLikeTokenReader theReader, ParserState<?> theState, String theName, BaseJsonLikeValue theAlternateVal, String theAlternateName, boolean theInArray) {
+		if (!theInArray && theState.elementIsRepeating(theName)) {
+			getErrorHandler().incorrectJsonType(null, theName, ValueType.ARRAY, null, ValueType.OBJECT, null);
+		}
+
+		theState.enteringNewElement(null, theName);
+		parseAlternates(theAlternateVal, theState, theAlternateName, theAlternateName);
+		if (theState.isPreResource()) {
+			streamResource(theReader, theState, false);
+		} else {
+			streamChildren(theReader, theState);
+		}
+		theState.endingElement();
+		return theState.getPreviousElementHandle();
+	}
+
+	/**
+	 * Streams the elements of an array whose first element is an object. The current token
+	 * of the reader must be the {@link TokenType#START_OBJECT} of the first element.
+	 *
+	 * @return A handle for re-entering each element (<code>null</code> for elements which can not be re-entered)
+	 */
+	private List<Object> streamArray(BaseJsonLikeTokenReader theReader, ParserState<?> theState, String theName, BaseJsonLikeValue theAlternateVal, String theAlternateName) {
+		BaseJsonLikeValue alternateVal = theAlternateVal;
+		if (alternateVal != null && alternateVal.isArray() == false) {
+			getErrorHandler().incorrectJsonType(null, theAlternateName, ValueType.ARRAY, null, alternateVal.getJsonType(), null);
+			alternateVal = null;
+		}
+		BaseJsonLikeArray alternateArray = BaseJsonLikeValue.asArray(alternateVal); // could be null
+
+		List<Object> retVal = new ArrayList<>();
+		int index = 0;
+		for (TokenType token = theReader.getCurrentToken(); token != TokenType.END_ARRAY; token = theReader.nextToken(), index++) {
+			BaseJsonLikeValue nextAlternate = null;
+			if (alternateArray != null && alternateArray.size() >= (index + 1)) {
+				nextAlternate = alternateArray.get(index);
+			}
+			if (token == TokenType.START_OBJECT) {
+				retVal.add(streamObject(theReader, theState, theName, nextAlternate, theAlternateName, true));
+			} else {
+				parseChildren(theState, theName, theReader.readValue(), nextAlternate, theAlternateName, true);
+				retVal.add(null);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Buffers the remaining elements of the array currently being traversed. The current token
+	 * of the reader must be the first token of an element, or the {@link TokenType#END_ARRAY}.
+	 */
+	private BaseJsonLikeArray readRemainingArray(BaseJsonLikeTokenReader theReader) {
+		List<BaseJsonLikeValue> values = new ArrayList<>();
+		for (TokenType token = theReader.getCurrentToken(); token != TokenType.END_ARRAY; token = theReader.nextToken()) {
+			values.add(theReader.readValue());
+		}
+		return new BufferedJsonArray(values);
+	}
+
 	private void encodeChildElementToStreamWriter(RuntimeResourceDefinition theResDef, IBaseResource theResource, BaseJsonLikeWriter theEventWriter, IBase theNextValue,
 																 BaseRuntimeElementDefinition<?> theChildDef, String theChildName, boolean theContainedResource, CompositeChildElement theChildElem,
 																 boolean theForceEmpty, EncodeContext theEncodeContext) throws IOException {
@@ -922,7 +1212,10 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 	}
 
 	private BaseJsonLikeArray grabJsonArray(BaseJsonLikeObject theObject, String nextName, String thePosition) {
-		BaseJsonLikeValue object = theObject.get(nextName);
+		return grabJsonArray(theObject.get(nextName), thePosition);
+	}
+
+	private BaseJsonLikeArray grabJsonArray(BaseJsonLikeValue object, String thePosition) {
 		if (object == null || object.isNull()) {
 			return null;
 		}
@@ -1089,9 +1382,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 			boolean preResource = false;
 			if (theState.isPreResource()) {
 				BaseJsonLikeValue resType = nextObject.get("resourceType");
-				if (resType == null || !resType.isString()) {
-					throw new DataFormatException(Msg.code(1843) + "Missing required element 'resourceType' from JSON resource object, unable to parse");
-				}
+				validateResourceType(resType, false);
 				theState.enteringNewElement(null, resType.getAsString());
 				preResource = true;
 			}
@@ -1383,6 +1674,39 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		theWriter.write(theName, theValue);
 	}
 
+	private static class StreamedElement {
+		private final boolean myArray;
+		private final List<Object> myHandles;
+
+		private StreamedElement(boolean theArray, List<Object> theHandles) {
+			myArray = theArray;
+			myHandles = theHandles;
+		}
+	}
+
+	private static class BufferedJsonArray extends BaseJsonLikeArray {
+		private final List<BaseJsonLikeValue> myValues;
+
+		private BufferedJsonArray(List<BaseJsonLikeValue> theValues) {
+			myValues = theValues;
+		}
+
+		@Override
+		public Object getValue() {
+			return null;
+		}
+
+		@Override
+		public int size() {
+			return myValues.size();
+		}
+
+		@Override
+		public BaseJsonLikeValue get(int index) {
+			return myValues.get(index);
+		}
+	}
+
 	private class HeldExtension implements Comparable<HeldExtension> {
 
 		private CompositeChildElement myChildElem;
@@ -25,14 +25,22 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.util.BundleBuilder;
 import ca.uhn.fhir.util.BundleUtil;
+import ca.uhn.fhir.util.IoUtil;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -81,16 +89,74 @@ public class NDJsonParser extends BaseParser {
                 List<IBaseResource> theBundleResources = BundleUtil.toListOfResources(myFhirContext, (IBaseBundle) theResource);
 
                 // Now we write each one in turn.
-                // Use newline only as a line separator, not at the end of the file.
-                boolean isFirstResource = true;
-                for (IBaseResource theBundleEntryResource : theBundleResources) {
-                        if (!(isFirstResource)) {
-                                theWriter.write("\n");
-                        }
-                        isFirstResource = false;
+                encodeResourcesToWriter(theBundleResources.iterator(), theWriter);
+	}
 
-                        myJsonParser.encodeResourceToWriter(theBundleEntryResource, theWriter);
-                }
+	/**
+	 * Encodes a sequence of resources as NDJSON, writing each resource to the given writer as soon
+	 * as it is obtained from the iterator. Unlike {@link #encodeResourceToWriter(IBaseResource, Writer)},
+	 * this does not require all of the resources to be collected into a Bundle first, so it can
+	 * be used to produce NDJSON files of any size.
+	 * <p>
+	 * A newline is used only as a line separator, not at the end of the output. The writer is
+	 * not closed by this method.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public void encodeResourcesToWriter(Iterator<? extends IBaseResource> theResources, Writer theWriter) throws IOException, DataFormatException {
+		boolean isFirstResource = true;
+		while (theResources.hasNext()) {
+			if (!isFirstResource) {
+				theWriter.write("\n");
+			}
+			isFirstResource = false;
+
+			myJsonParser.encodeResourceToWriter(theResources.next(), theWriter);
+		}
+	}
+
+	/**
+	 * Encodes a sequence of resources as UTF-8 NDJSON, writing each resource to the given stream as soon
+	 * as it is obtained from the iterator. See {@link #encodeResourcesToWriter(Iterator, Writer)}
+	 * for details.
+	 * <p>
+	 * The stream is flushed but not closed by this method.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public void encodeResourcesToOutputStream(Iterator<? extends IBaseResource> theResources, OutputStream theOutputStream) throws IOException, DataFormatException {
+		boolean isFirstResource = true;
+		while (theResources.hasNext()) {
+			if (!isFirstResource) {
+				theOutputStream.write('\n');
+			}
+			isFirstResource = false;
+
+			myJsonParser.encodeResourceToOutputStream(theResources.next(), theOutputStream);
+		}
+		theOutputStream.flush();
+	}
+
+	/**
+	 * Lazily parses an NDJSON document, one line at a time. Unlike {@link #parseResource(Reader)}, which
+	 * collects every resource into a single Bundle, only the resource currently being consumed is held
+	 * in memory, so this can be used to consume NDJSON files of any size. Blank lines are ignored.
+	 * <p>
+	 * The returned stream must be closed by the caller (e.g. using a try-with-resources block),
+	 * which also closes the supplied reader.
+	 * </p>
+	 *
+	 * @throws DataFormatException If a line can not be read or parsed. This exception is thrown while the stream is being consumed.
+	 * @since 6.3.0
+	 */
+	@Override
+	public Stream<IBaseResource> parseResourceStream(Reader theReader) {
+		ResourceIterator iterator = new ResourceIterator(theReader);
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.onClose(iterator::close);
 	}
 
 	@Override
@@ -119,4 +185,48 @@ public class NDJsonParser extends BaseParser {
                         throw new DataFormatException(Msg.code(1835) + err.getMessage());
                 }
 	}
+
+	private class ResourceIterator implements Iterator<IBaseResource> {
+
+		private final BufferedReader myReader;
+		private String myNextLine;
+
+		private ResourceIterator(Reader theReader) {
+			myReader = theReader instanceof BufferedReader ? (BufferedReader) theReader : new BufferedReader(theReader);
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				while (myNextLine == null) {
+					String line = myReader.readLine();
+					if (line == null) {
+						return false;
+					}
+					// The string must be trimmed, as per the NDJson spec 3.2
+					line = line.trim();
+					if (!line.isEmpty()) {
+						myNextLine = line;
+					}
+				}
+				return true;
+			} catch (IOException err) {
+				throw new DataFormatException(Msg.code(2210) + err.getMessage(), err);
+			}
+		}
+
+		@Override
+		public IBaseResource next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException(Msg.code(2231) + "No more resources in NDJSON document");
+			}
+			String line = myNextLine;
+			myNextLine = null;
+			return myJsonParser.parseResource(line);
+		}
+
+		private void close() {
+			IoUtil.closeQuietly(myReader);
+		}
+	}
 }
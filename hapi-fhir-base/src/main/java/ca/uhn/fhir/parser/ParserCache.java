@@ -0,0 +1,80 @@
+package ca.uhn.fhir.parser;
+
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds state which is shared by all of the parsers created by a single
+ * {@link ca.uhn.fhir.context.FhirContext}, such as the compiled form of the
+ * <code>_elements</code> and <code>_summary</code> filtering settings used by the
+ * encoder. Each {@link ca.uhn.fhir.context.FhirContext} holds one instance, which
+ * is available to parsers via {@link ca.uhn.fhir.context.FhirContext#getParserCache()}.
+ * <p>
+ * This class has no public methods. It is used internally by HAPI FHIR and is not
+ * intended to be used by user code.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+public final class ParserCache {
+
+	/**
+	 * The filter keys contain client supplied values (e.g. <code>_elements</code>), so the
+	 * number of compiled filters kept is bounded, discarding the least recently used first
+	 */
+	static final int MAX_COMPILED_ELEMENT_FILTERS = 1000;
+
+	private final Map<String, CompiledElementFilter> myCompiledElementFilters = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompiledElementFilter> theEldest) {
+			return size() > MAX_COMPILED_ELEMENT_FILTERS;
+		}
+	};
+
+	/**
+	 * Constructor
+	 */
+	public ParserCache() {
+		super();
+	}
+
+	/**
+	 * Returns the compiled element filter for the given parser settings, creating it if needed
+	 *
+	 * @param theFilterKey A key uniquely identifying the parser settings
+	 */
+	CompiledElementFilter getCompiledElementFilter(String theFilterKey) {
+		synchronized (myCompiledElementFilters) {
+			return myCompiledElementFilters.computeIfAbsent(theFilterKey, t -> new CompiledElementFilter());
+		}
+	}
+
+	int getCompiledElementFilterCount() {
+		synchronized (myCompiledElementFilters) {
+			return myCompiledElementFilters.size();
+		}
+	}
+
+}
@@ -51,6 +51,7 @@ import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ValueType;
 import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.fhir.util.ReflectionUtil;
+import ca.uhn.fhir.util.XmlDetectionUtil;
 import ca.uhn.fhir.util.XmlUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -83,6 +84,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
@@ -96,6 +98,7 @@ class ParserState<T> {
 	private List<String> myComments = new ArrayList<String>(2);
 	private T myObject;
 	private IBase myPreviousElement;
+	private BaseState myPreviousState;
 	private BaseState myState;
 	private List<IBaseResource> myGlobalResources = new ArrayList<>();
 	private List<IBaseReference> myGlobalReferences = new ArrayList<>();
@@ -144,6 +147,30 @@ class ParserState<T> {
 		return myObject;
 	}
 
+	/**
+	 * Returns a handle for the element which was most recently completed by {@link #endingElement()},
+	 * which can be passed to {@link #reenteringElement(Object)}. Returns <code>null</code> if that
+	 * element was not a composite datatype or block.
+	 */
+	Object getPreviousElementHandle() {
+		if (myPreviousState instanceof ParserState.ElementCompositeState && !(myPreviousState instanceof ParserState.ResourceStateHapi) && !(myPreviousState instanceof ParserState.ResourceStateHl7Org)) {
+			return myPreviousState;
+		}
+		return null;
+	}
+
+	/**
+	 * Makes an element which has already been completed the current element again, so that content
+	 * which appears after it in the source document (e.g. a JSON <code>_name</code> counterpart which
+	 * follows the value it belongs to) can still be applied. Must be followed by a call to
+	 * {@link #endingElement()}.
+	 *
+	 * @param theHandle A handle returned by {@link #getPreviousElementHandle()}
+	 */
+	void reenteringElement(Object theHandle) {
+		push((BaseState) theHandle);
+	}
+
 	boolean isPreResource() {
 		return myState.isPreResource();
 	}
@@ -155,6 +182,7 @@ class ParserState<T> {
 	@SuppressWarnings("unchecked")
 	private void pop() {
 		myPreviousElement = myState.getCurrentElement();
+		myPreviousState = myState;
 		if (myState.myStack != null) {
 			myState = myState.myStack;
 			myState.wereBack();
@@ -1572,12 +1600,30 @@ class ParserState<T> {
 		@Override
 		public void attributeValue(String theName, String theValue) throws DataFormatException {
 			if (myJsonMode) {
-				myDt.setValueAsString(theValue);
+				if (myContext.getParserOptions().isDstu2JsonLightweightNarrativeParsing() && isDstu2JsonLightweightNarrativeParsingSupported()) {
+					if (isBlank(theValue)) {
+						myDt.setValue(null);
+					} else {
+						if (XmlDetectionUtil.isStaxPresent()) {
+							XmlUtil.validateWellFormed(theValue);
+						}
+						myDt.setValue(XhtmlDt.preprocessXhtmlNamespaceDeclaration(theValue.trim()));
+					}
+				} else {
+					myDt.setValueAsString(theValue);
+				}
 			} else {
 				// IGNORE - don't handle this as an error, we process these as XML events
 			}
 		}
 
+		/**
+		 * Can {@link ca.uhn.fhir.context.ParserOptions#isDstu2JsonLightweightNarrativeParsing()} be applied to this narrative
+		 */
+		protected boolean isDstu2JsonLightweightNarrativeParsingSupported() {
+			return true;
+		}
+
 		protected void doPop() {
 			pop();
 		}
@@ -1647,6 +1693,15 @@ class ParserState<T> {
 			super.doPop();
 		}
 
+		/**
+		 * The narrative is always parsed into the structure's XHTML DOM, so the
+		 * text can't be kept as-is
+		 */
+		@Override
+		protected boolean isDstu2JsonLightweightNarrativeParsingSupported() {
+			return false;
+		}
+
 	}
 
 	/**
@@ -0,0 +1,84 @@
+package ca.uhn.fhir.parser.json;
+
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.parser.DataFormatException;
+
+import java.io.Closeable;
+
+/**
+ * This is a forward-only cursor over the tokens of a JSON document. It is used
+ * by the parser to process large documents without first loading the entire
+ * document into a {@link JsonLikeStructure}.
+ * <p>
+ * The cursor starts before the first token. Callers advance it with {@link #nextToken()}
+ * and may at any point buffer the value at the current position (and everything nested
+ * within it) using {@link #readValue()}.
+ * </p>
+ */
+public abstract class BaseJsonLikeTokenReader implements Closeable {
+
+	public enum TokenType {
+		START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, FIELD_NAME, SCALAR, NULL, END_OF_INPUT
+	}
+
+	/**
+	 * Advances the cursor to the next token and returns its type. Returns
+	 * {@link TokenType#END_OF_INPUT} once the end of the document is reached.
+	 *
+	 * @throws DataFormatException when invalid JSON is encountered
+	 */
+	public abstract TokenType nextToken() throws DataFormatException;
+
+	/**
+	 * Returns the type of the token at the current cursor position
+	 */
+	public abstract TokenType getCurrentToken();
+
+	/**
+	 * Returns the name of the property at the current cursor position. Only valid
+	 * when the current token is {@link TokenType#FIELD_NAME}.
+	 */
+	public abstract String getFieldName();
+
+	/**
+	 * Reads the value starting at the current token (which must be {@link TokenType#START_OBJECT},
+	 * {@link TokenType#START_ARRAY}, {@link TokenType#SCALAR} or {@link TokenType#NULL}) into memory.
+	 * After this method returns, the cursor is positioned on the last token of the value.
+	 *
+	 * @throws DataFormatException when invalid JSON is encountered
+	 */
+	public abstract BaseJsonLikeValue readValue() throws DataFormatException;
+
+	/**
+	 * Reads the remaining properties of the object currently being traversed into memory.
+	 * The current token must be a {@link TokenType#FIELD_NAME} or the {@link TokenType#END_OBJECT}
+	 * of that object. After this method returns, the cursor is positioned on the
+	 * {@link TokenType#END_OBJECT} of the object.
+	 *
+	 * @throws DataFormatException when invalid JSON is encountered
+	 */
+	public abstract BaseJsonLikeObject readRemainingObject() throws DataFormatException;
+
+	@Override
+	public abstract void close();
+
+}
@@ -24,6 +24,7 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.json.BaseJsonLikeArray;
 import ca.uhn.fhir.parser.json.BaseJsonLikeObject;
+import ca.uhn.fhir.parser.json.BaseJsonLikeTokenReader;
 import ca.uhn.fhir.parser.json.BaseJsonLikeValue;
 import ca.uhn.fhir.parser.json.BaseJsonLikeWriter;
 import ca.uhn.fhir.parser.json.JsonLikeStructure;
@@ -32,6 +33,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.DecimalNode;
@@ -39,6 +41,7 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.Writer;
@@ -52,6 +55,7 @@ import java.util.Map;
 public class JacksonStructure implements JsonLikeStructure {
 
 	private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+	private static final ObjectReader TREE_READER = OBJECT_MAPPER.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
 	private JacksonWriter jacksonWriter;
 	private ROOT_TYPE rootType = null;
 	private JsonNode nativeRoot = null;
@@ -80,42 +84,68 @@ public class JacksonStructure implements JsonLikeStructure {
 	@Override
 	public void load(Reader theReader, boolean allowArray) throws DataFormatException {
 		PushbackReader pbr = new PushbackReader(theReader);
-		int nextInt;
 		try {
-			while (true) {
-				nextInt = pbr.read();
-				if (nextInt == -1) {
-					throw new DataFormatException(Msg.code(1857) + "Did not find any content to parse");
-				}
-				if (nextInt == '{') {
-					pbr.unread(nextInt);
-					break;
-				}
-				if (Character.isWhitespace(nextInt)) {
-					continue;
-				}
-				if (allowArray) {
-					if (nextInt == '[') {
-						pbr.unread(nextInt);
-						break;
-					}
-					throw new DataFormatException(Msg.code(1858) + "Content does not appear to be FHIR JSON, first non-whitespace character was: '" + (char) nextInt + "' (must be '{' or '[')");
-				}
-				throw new DataFormatException(Msg.code(1859) + "Content does not appear to be FHIR JSON, first non-whitespace character was: '" + (char) nextInt + "' (must be '{')");
-			}
-
+			int nextInt = skipToStartOfContent(pbr, allowArray);
 			if (nextInt == '{') {
 				setNativeObject((ObjectNode) OBJECT_MAPPER.readTree(pbr));
 			} else {
 				setNativeArray((ArrayNode) OBJECT_MAPPER.readTree(pbr));
 			}
 		} catch (Exception e) {
-			if (e.getMessage().startsWith("Unexpected char 39")) {
-				throw new DataFormatException(Msg.code(1860) + "Failed to parse JSON encoded FHIR content: " + e.getMessage() + " - " +
-					"This may indicate that single quotes are being used as JSON escapes where double quotes are required", e);
+			throw toDataFormatException(e);
+		}
+	}
+
+	/**
+	 * Creates a reader which walks the tokens of a JSON document one at a time, instead
+	 * of loading the entire document into memory the way {@link #load(Reader)} does.
+	 *
+	 * @param theReader a <code>Reader</code> that will
+	 *                  process the JSON input stream
+	 * @throws DataFormatException when the content does not start with a JSON object
+	 */
+	public BaseJsonLikeTokenReader getTokenReader(Reader theReader) throws DataFormatException {
+		PushbackReader pbr = new PushbackReader(theReader);
+		try {
+			skipToStartOfContent(pbr, false);
+			return new JacksonTokenReader(OBJECT_MAPPER.getFactory().createParser(pbr), OBJECT_MAPPER, TREE_READER);
+		} catch (Exception e) {
+			throw toDataFormatException(e);
+		}
+	}
+
+	private static int skipToStartOfContent(PushbackReader thePushbackReader, boolean theAllowArray) throws IOException {
+		int nextInt;
+		while (true) {
+			nextInt = thePushbackReader.read();
+			if (nextInt == -1) {
+				throw new DataFormatException(Msg.code(1857) + "Did not find any content to parse");
+			}
+			if (nextInt == '{') {
+				thePushbackReader.unread(nextInt);
+				break;
+			}
+			if (Character.isWhitespace(nextInt)) {
+				continue;
 			}
-			throw new DataFormatException(Msg.code(1861) + "Failed to parse JSON encoded FHIR content: " + e.getMessage(), e);
+			if (theAllowArray) {
+				if (nextInt == '[') {
+					thePushbackReader.unread(nextInt);
+					break;
+				}
+				throw new DataFormatException(Msg.code(1858) + "Content does not appear to be FHIR JSON, first non-whitespace character was: '" + (char) nextInt + "' (must be '{' or '[')");
+			}
+			throw new DataFormatException(Msg.code(1859) + "Content does not appear to be FHIR JSON, first non-whitespace character was: '" + (char) nextInt + "' (must be '{')");
+		}
+		return nextInt;
+	}
+
+	static DataFormatException toDataFormatException(Exception theException) {
+		if (theException.getMessage().startsWith("Unexpected char 39")) {
+			return new DataFormatException(Msg.code(1860) + "Failed to parse JSON encoded FHIR content: " + theException.getMessage() + " - " +
+				"This may indicate that single quotes are being used as JSON escapes where double quotes are required", theException);
 		}
+		return new DataFormatException(Msg.code(1861) + "Failed to parse JSON encoded FHIR content: " + theException.getMessage(), theException);
 	}
 
 	@Override
@@ -127,6 +157,20 @@ public class JacksonStructure implements JsonLikeStructure {
 		return jacksonWriter;
 	}
 
+	/**
+	 * Returns a writer which encodes UTF-8 JSON directly to the given stream. The stream
+	 * is not closed when the writer is closed.
+	 *
+	 * @since 6.3.0
+	 */
+	public BaseJsonLikeWriter getJsonLikeWriter(OutputStream theOutputStream) throws IOException {
+		if (null == jacksonWriter) {
+			jacksonWriter = new JacksonWriter(OBJECT_MAPPER.getFactory(), theOutputStream);
+		}
+
+		return jacksonWriter;
+	}
+
 	@Override
 	public BaseJsonLikeWriter getJsonLikeWriter() {
 		if (null == jacksonWriter) {
@@ -150,7 +194,7 @@ public class JacksonStructure implements JsonLikeStructure {
 
 	private enum ROOT_TYPE {OBJECT, ARRAY}
 
-	private static class JacksonJsonObject extends BaseJsonLikeObject {
+	static class JacksonJsonObject extends BaseJsonLikeObject {
 		private final ObjectNode nativeObject;
 
 		public JacksonJsonObject(ObjectNode json) {
@@ -257,7 +301,7 @@ public class JacksonStructure implements JsonLikeStructure {
 		}
 	}
 
-	private static class JacksonJsonValue extends BaseJsonLikeValue {
+	static class JacksonJsonValue extends BaseJsonLikeValue {
 		private final JsonNode nativeValue;
 		private BaseJsonLikeObject jsonLikeObject = null;
 		private BaseJsonLikeArray jsonLikeArray = null;
@@ -0,0 +1,146 @@
+package ca.uhn.fhir.parser.json.jackson;
+
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.DataFormatException;
+import ca.uhn.fhir.parser.json.BaseJsonLikeObject;
+import ca.uhn.fhir.parser.json.BaseJsonLikeTokenReader;
+import ca.uhn.fhir.parser.json.BaseJsonLikeValue;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+
+/**
+ * Jackson based implementation of {@link BaseJsonLikeTokenReader}. Instances are
+ * created using {@link JacksonStructure#getTokenReader(java.io.Reader)}.
+ */
+public class JacksonTokenReader extends BaseJsonLikeTokenReader {
+
+	private final JsonParser myJsonParser;
+	private final ObjectMapper myObjectMapper;
+	private final ObjectReader myTreeReader;
+
+	JacksonTokenReader(JsonParser theJsonParser, ObjectMapper theObjectMapper, ObjectReader theTreeReader) {
+		myJsonParser = theJsonParser;
+		myObjectMapper = theObjectMapper;
+		myTreeReader = theTreeReader;
+	}
+
+	@Override
+	public TokenType nextToken() throws DataFormatException {
+		try {
+			return toTokenType(myJsonParser.nextToken());
+		} catch (IOException e) {
+			throw JacksonStructure.toDataFormatException(e);
+		}
+	}
+
+	@Override
+	public TokenType getCurrentToken() {
+		return toTokenType(myJsonParser.currentToken());
+	}
+
+	@Override
+	public String getFieldName() {
+		try {
+			return myJsonParser.getCurrentName();
+		} catch (IOException e) {
+			throw JacksonStructure.toDataFormatException(e);
+		}
+	}
+
+	@Override
+	public BaseJsonLikeValue readValue() throws DataFormatException {
+		try {
+			JsonNode node = myTreeReader.readTree(myJsonParser);
+			return new JacksonStructure.JacksonJsonValue(node);
+		} catch (IOException e) {
+			throw JacksonStructure.toDataFormatException(e);
+		}
+	}
+
+	@Override
+	public BaseJsonLikeObject readRemainingObject() throws DataFormatException {
+		ObjectNode object = myObjectMapper.createObjectNode();
+		try {
+			JsonToken token = myJsonParser.currentToken();
+			while (token == JsonToken.FIELD_NAME) {
+				String name = myJsonParser.getCurrentName();
+				myJsonParser.nextToken();
+				JsonNode value = myTreeReader.readTree(myJsonParser);
+				object.set(name, value);
+				token = myJsonParser.nextToken();
+			}
+			if (token != JsonToken.END_OBJECT) {
+				throw new DataFormatException(Msg.code(2208) + "Failed to parse JSON encoded FHIR content: Expected a property name or the end of an object, found: " + token);
+			}
+		} catch (IOException e) {
+			throw JacksonStructure.toDataFormatException(e);
+		}
+		return new JacksonStructure.JacksonJsonObject(object);
+	}
+
+	@Override
+	public void close() {
+		try {
+			myJsonParser.close();
+		} catch (IOException e) {
+			throw JacksonStructure.toDataFormatException(e);
+		}
+	}
+
+	private static TokenType toTokenType(JsonToken theToken) {
+		if (theToken == null) {
+			return TokenType.END_OF_INPUT;
+		}
+		switch (theToken) {
+			case START_OBJECT:
+				return TokenType.START_OBJECT;
+			case END_OBJECT:
+				return TokenType.END_OBJECT;
+			case START_ARRAY:
+				return TokenType.START_ARRAY;
+			case END_ARRAY:
+				return TokenType.END_ARRAY;
+			case FIELD_NAME:
+				return TokenType.FIELD_NAME;
+			case VALUE_NULL:
+				return TokenType.NULL;
+			case NOT_AVAILABLE:
+				return TokenType.END_OF_INPUT;
+			case VALUE_EMBEDDED_OBJECT:
+			case VALUE_STRING:
+			case VALUE_NUMBER_INT:
+			case VALUE_NUMBER_FLOAT:
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+			default:
+				return TokenType.SCALAR;
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package ca.uhn.fhir.rest.client.api;
+
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Passed to {@link ca.uhn.fhir.interceptor.api.Pointcut#CLIENT_RESPONSE} hooks. In addition to
+ * exposing the request and response, this allows an interceptor to replace the response which
+ * the client will go on to process (e.g. with a copy served from a cache).
+ * <p>
+ * If the response is replaced, the client still closes the original response and will also
+ * close the replacement once it has been processed.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+public class ClientResponseContext {
+
+	private final IHttpRequest myHttpRequest;
+	private final IRestfulClient myRestfulClient;
+	private IHttpResponse myHttpResponse;
+
+	public ClientResponseContext(IHttpRequest theHttpRequest, IHttpResponse theHttpResponse, IRestfulClient theRestfulClient) {
+		myHttpRequest = theHttpRequest;
+		myHttpResponse = theHttpResponse;
+		myRestfulClient = theRestfulClient;
+	}
+
+	public IHttpRequest getHttpRequest() {
+		return myHttpRequest;
+	}
+
+	/**
+	 * Returns the response which will be processed by the client. This is the response
+	 * which was received from the server unless a hook has replaced it.
+	 */
+	public IHttpResponse getHttpResponse() {
+		return myHttpResponse;
+	}
+
+	/**
+	 * Replaces the response which will be processed by the client
+	 */
+	public void setHttpResponse(IHttpResponse theHttpResponse) {
+		Validate.notNull(theHttpResponse, "theHttpResponse must not be null");
+		myHttpResponse = theHttpResponse;
+	}
+
+	public IRestfulClient getRestfulClient() {
+		return myRestfulClient;
+	}
+
+}
@@ -20,6 +20,7 @@ package ca.uhn.fhir.rest.client.api;
  * #L%
  */
 
+import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.model.primitive.IdDt;
 import ca.uhn.fhir.model.primitive.UriDt;
 import ca.uhn.fhir.rest.api.MethodOutcome;
@@ -160,6 +161,36 @@ public interface IGenericClient extends IRestfulClient {
 	 */
 	<T extends IBaseBundle> IUntypedQuery<T> search();
 
+	/**
+	 * Enables transparent batching of reads and searches. When enabled, reads and searches
+	 * invoked using {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()}
+	 * which are issued within <code>theMaxDelayMillis</code> of each other are combined into a single
+	 * <code>batch</code> Bundle, which is sent as soon as it contains <code>theMaxBatchSize</code>
+	 * entries or the delay has elapsed. Each invocation still receives its own result, or its own
+	 * exception if the corresponding batch entry failed.
+	 * <p>
+	 * Only invocations which use the client defaults are batched. Invocations which specify
+	 * custom headers, an encoding, a summary mode, element subsetting, an ETag or custom
+	 * response types are always sent individually, as are invocations using the blocking
+	 * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#execute()} (which would otherwise wait up to
+	 * <code>theMaxDelayMillis</code> each time). The server must support batch processing.
+	 * </p>
+	 * <p>
+	 * The default implementation does not support batching, and throws {@link UnsupportedOperationException}
+	 * if batching is requested.
+	 * </p>
+	 *
+	 * @param theMaxBatchSize   The maximum number of requests to combine into one batch. A value
+	 *                          of 1 or less disables batching (this is the default).
+	 * @param theMaxDelayMillis How long to wait for further requests before sending a batch
+	 * @since 6.3.0
+	 */
+	default void setAutoBatching(int theMaxBatchSize, int theMaxDelayMillis) {
+		if (theMaxBatchSize > 1) {
+			throw new UnsupportedOperationException(Msg.code(2230) + "Auto-batching is not supported by " + getClass().getName());
+		}
+	}
+
 	/**
 	 * If set to <code>true</code>, the client will log all requests and all responses. This is probably not a good production setting since it will result in a lot of extra logging, but it can be
 	 * useful for troubleshooting.
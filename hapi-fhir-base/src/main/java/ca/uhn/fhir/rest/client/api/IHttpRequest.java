@@ -20,9 +20,14 @@ package ca.uhn.fhir.rest.client.api;
  * #L%
  */
 
+import ca.uhn.fhir.i18n.Msg;
+
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Http Request. Allows addition of headers and execution of the request.
@@ -44,6 +49,27 @@ public interface IHttpRequest {
 	 */
 	IHttpResponse execute() throws IOException;
 
+	/**
+	 * Execute the request asynchronously. Implementations backed by a non-blocking transport
+	 * should override this method so that no thread is held while waiting for the server
+	 * to respond. The default implementation simply runs the blocking {@link #execute()} on
+	 * the given executor.
+	 *
+	 * @param theExecutor the executor to run blocking work on, such as {@link #execute()}
+	 * @return a future which is completed with the response, or completed exceptionally
+	 * with the {@link IOException} thrown by the transport
+	 * @since 6.3.0
+	 */
+	default CompletableFuture<IHttpResponse> executeAsync(Executor theExecutor) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return execute();
+			} catch (IOException e) {
+				throw new CompletionException(Msg.code(2237) + e.getMessage(), e);
+			}
+		}, theExecutor);
+	}
+
 	/**
 	 * @return all request headers in lower case. Note that this method
 	 * returns an <b>immutable</b> Map
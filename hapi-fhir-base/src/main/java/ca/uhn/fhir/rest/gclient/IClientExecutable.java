@@ -7,6 +7,7 @@ import ca.uhn.fhir.rest.api.SummaryEnum;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /*
  * #%L
@@ -108,6 +109,29 @@ public interface IClientExecutable<T extends IClientExecutable<?, Y>, Y> {
 	 */
 	Y execute();
 
+	/**
+	 * Execute the client operation asynchronously, returning a future which is completed with the
+	 * same value {@link #execute()} would have returned (or completed exceptionally with the
+	 * exception it would have thrown).
+	 * <p>
+	 * Read, search, transaction and operation invocations built by the generic client are
+	 * non-blocking when the underlying transport supports it (see
+	 * {@link ca.uhn.fhir.rest.client.api.IHttpRequest#executeAsync(java.util.concurrent.Executor)}).
+	 * Other invocations built by the generic client run {@link #execute()} on the executor of the
+	 * client. Implementations which do not override this method simply run {@link #execute()} on
+	 * the calling thread and return a future which is already complete.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	default CompletableFuture<Y> executeAsync() {
+		try {
+			return CompletableFuture.completedFuture(execute());
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
 	/**
 	 * Explicitly specify a custom structure type to attempt to use when parsing the response. This
 	 * is useful for invocations where the response is a Bundle/Parameters containing nested resources,
@@ -7,10 +7,13 @@ import ca.uhn.fhir.rest.api.SortSpec;
 import ca.uhn.fhir.rest.api.SummaryEnum;
 import ca.uhn.fhir.rest.param.DateRangeParam;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /*
  * #%L
@@ -59,6 +62,41 @@ public interface IQuery<Y> extends IBaseQuery<IQuery<Y>>, IClientExecutable<IQue
 	 */
 	IQuery<Y> offset(int theOffset);
 
+	/**
+	 * Sets the number of result pages which {@link #iterator()} and {@link #stream()} will request
+	 * in the background ahead of the page currently being consumed, so that walking a large result
+	 * set is not limited by the round trip time for each page. The default is 1. Set to 0 to only
+	 * request each page once the previous page has been fully consumed.
+	 *
+	 * @since 6.3.0
+	 */
+	IQuery<Y> prefetchPages(int thePageCount);
+
+	/**
+	 * Performs the search and returns an iterator over the resources in all pages of the results.
+	 * Subsequent pages are loaded lazily by following the <code>next</code> link of each page (see
+	 * {@link #prefetchPages(int)}), and the iterator includes any resources returned because of an
+	 * <code>_include</code> or <code>_revinclude</code>.
+	 * <p>
+	 * The first page is requested when this method is called. The returned iterator is not thread safe.
+	 * </p>
+	 *
+	 * @see #stream()
+	 * @since 6.3.0
+	 */
+	Iterator<IBaseResource> iterator();
+
+	/**
+	 * Performs the search and returns a sequential stream of the resources in all pages of the results.
+	 * This behaves the same way as {@link #iterator()}. Closing the stream stops any further pages from
+	 * being requested, so a stream which may not be fully consumed should be closed, e.g. by using
+	 * a try-with-resources block.
+	 *
+	 * @see #iterator()
+	 * @since 6.3.0
+	 */
+	Stream<IBaseResource> stream();
+
 	/**
 	 * Add an "_include" specification or an "_include:recurse" specification. If you are using
 	 * a constant from one of the built-in structures you can select whether you want recursive
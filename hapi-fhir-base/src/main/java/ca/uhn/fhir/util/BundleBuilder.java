@@ -300,19 +300,36 @@ public class BundleBuilder {
 
 	@Nonnull
 	private DeleteBuilder addDeleteEntry(String theDeleteUrl) {
+		addRequestOnlyEntry(theDeleteUrl, "DELETE");
+		return new DeleteBuilder();
+	}
+
+	/**
+	 * Adds an entry containing a read or search (GET) request, as used in a <code>batch</code> Bundle.
+	 * Unlike the transaction methods, this method does not set the <code>Bundle.type</code>, so callers
+	 * will typically also call {@link #setType(String) setType("batch")}.
+	 *
+	 * @param theUrl The request URL, e.g. <code>Patient/123</code> or <code>Patient?identifier=http://foo|123</code>
+	 * @since 6.3.0
+	 */
+	public GetBuilder addGetEntry(String theUrl) {
+		Validate.notBlank(theUrl, "theUrl must not be null or blank");
+		addRequestOnlyEntry(theUrl, "GET");
+		return new GetBuilder();
+	}
+
+	private void addRequestOnlyEntry(String theUrl, String theMethod) {
 		IBase request = addEntryAndReturnRequest();
 
 		// Bundle.entry.request.url
 		IPrimitiveType<?> url = (IPrimitiveType<?>) myContext.getElementDefinition("uri").newInstance();
-		url.setValueAsString(theDeleteUrl);
+		url.setValueAsString(theUrl);
 		myEntryRequestUrlChild.getMutator().setValue(request, url);
 
 		// Bundle.entry.request.method
 		IPrimitiveType<?> method = (IPrimitiveType<?>) myEntryRequestMethodDef.newInstance(myEntryRequestMethodChild.getInstanceConstructorArguments());
-		method.setValueAsString("DELETE");
+		method.setValueAsString(theMethod);
 		myEntryRequestMethodChild.getMutator().setValue(request, method);
-
-		return new DeleteBuilder();
 	}
 
 
@@ -468,6 +485,13 @@ public class BundleBuilder {
 	}
 
 
+	public class GetBuilder extends BaseOperationBuilder {
+
+		// nothing yet
+
+	}
+
+
 	public class PatchBuilder extends BaseOperationBuilderWithConditionalUrl<PatchBuilder> {
 
 		PatchBuilder(IPrimitiveType<?> theUrl) {
@@ -304,6 +304,20 @@ public class FhirTerser {
 	public <T extends IBase> T getSingleValueOrNull(IBase theTarget, String thePath, Class<T> theWantedType) {
 		Validate.notNull(theTarget, "theTarget must not be null");
 		Validate.notBlank(thePath, "thePath must not be empty");
+		return getSingleValueOrNull(theTarget, TerserPath.compile(thePath), theWantedType);
+	}
+
+	/**
+	 * Returns the first value at the given compiled path, or <code>null</code> if there is none
+	 *
+	 * @param theTarget     The element to be accessed. Must not be null.
+	 * @param thePath       The compiled path for the element to be accessed
+	 * @param theWantedType The desired type of the returned value
+	 * @since 6.3.0
+	 */
+	public <T extends IBase> T getSingleValueOrNull(IBase theTarget, TerserPath thePath, Class<T> theWantedType) {
+		Validate.notNull(theTarget, "theTarget must not be null");
+		Validate.notNull(thePath, "thePath must not be null");
 
 		BaseRuntimeElementDefinition<?> def = myContext.getElementDefinition(theTarget.getClass());
 		if (!(def instanceof BaseRuntimeElementCompositeDefinition)) {
@@ -312,9 +326,9 @@ public class FhirTerser {
 
 		BaseRuntimeElementCompositeDefinition<?> currentDef = (BaseRuntimeElementCompositeDefinition<?>) def;
 
-		List<String> parts = parsePath(currentDef, thePath);
+		List<TerserPath.Step> steps = thePath.getSteps(currentDef);
 
-		List<T> retVal = getValues(currentDef, theTarget, parts, theWantedType);
+		List<T> retVal = getValues(currentDef, theTarget, steps, theWantedType);
 		if (retVal.isEmpty()) {
 			return null;
 		}
@@ -333,25 +347,34 @@ public class FhirTerser {
 		return Optional.ofNullable(getSingleValueOrNull(theTarget, thePath, theWantedType));
 	}
 
-	private <T extends IBase> List<T> getValues(BaseRuntimeElementCompositeDefinition<?> theCurrentDef, IBase theCurrentObj, List<String> theSubList, Class<T> theWantedClass) {
+	/**
+	 * Returns the first value at the given compiled path, if any
+	 *
+	 * @param theTarget     The element to be accessed. Must not be null.
+	 * @param thePath       The compiled path for the element to be accessed
+	 * @param theWantedType The desired type of the returned value
+	 * @since 6.3.0
+	 */
+	public <T extends IBase> Optional<T> getSingleValue(IBase theTarget, TerserPath thePath, Class<T> theWantedType) {
+		return Optional.ofNullable(getSingleValueOrNull(theTarget, thePath, theWantedType));
+	}
+
+	private <T extends IBase> List<T> getValues(BaseRuntimeElementCompositeDefinition<?> theCurrentDef, IBase theCurrentObj, List<TerserPath.Step> theSubList, Class<T> theWantedClass) {
 		return getValues(theCurrentDef, theCurrentObj, theSubList, theWantedClass, false, false);
 	}
 
 	@SuppressWarnings("unchecked")
-	private <T extends IBase> List<T> getValues(BaseRuntimeElementCompositeDefinition<?> theCurrentDef, IBase theCurrentObj, List<String> theSubList, Class<T> theWantedClass, boolean theCreate, boolean theAddExtension) {
+	private <T extends IBase> List<T> getValues(BaseRuntimeElementCompositeDefinition<?> theCurrentDef, IBase theCurrentObj, List<TerserPath.Step> theSubList, Class<T> theWantedClass, boolean theCreate, boolean theAddExtension) {
 		if (theSubList.isEmpty()) {
 			return Collections.emptyList();
 		}
 
-		String name = theSubList.get(0);
+		TerserPath.Step step = theSubList.get(0);
+		String name = step.getName();
 		List<T> retVal = new ArrayList<>();
 
-		if (name.startsWith("extension('")) {
-			String extensionUrl = name.substring("extension('".length());
-			int endIndex = extensionUrl.indexOf('\'');
-			if (endIndex != -1) {
-				extensionUrl = extensionUrl.substring(0, endIndex);
-			}
+		if (step.isExtension()) {
+			String extensionUrl = step.getExtensionUrl();
 
 			if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
 				// DTSU2
@@ -430,12 +453,8 @@ public class FhirTerser {
 			return retVal;
 		}
 
-		if (name.startsWith("modifierExtension('")) {
-			String extensionUrl = name.substring("modifierExtension('".length());
-			int endIndex = extensionUrl.indexOf('\'');
-			if (endIndex != -1) {
-				extensionUrl = extensionUrl.substring(0, endIndex);
-			}
+		if (step.isModifierExtension()) {
+			String extensionUrl = step.getExtensionUrl();
 
 			if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
 				// DSTU2
@@ -515,7 +534,7 @@ public class FhirTerser {
 			return retVal;
 		}
 
-		BaseRuntimeChildDefinition nextDef = theCurrentDef.getChildByNameOrThrowDataFormatException(name);
+		BaseRuntimeChildDefinition nextDef = step.getChild(theCurrentDef);
 		List<? extends IBase> values = nextDef.getAccessor().getValues(theCurrentObj);
 
 		if (values.isEmpty() && theCreate) {
@@ -537,13 +556,13 @@ public class FhirTerser {
 			if (nextDef instanceof RuntimeChildChoiceDefinition) {
 				for (IBase next : values) {
 					if (next != null) {
-						if (name.endsWith("[x]")) {
+						if (step.isChoiceWildcard()) {
 							if (theWantedClass == null || theWantedClass.isAssignableFrom(next.getClass())) {
 								retVal.add((T) next);
 							}
 						} else {
 							String childName = nextDef.getChildNameByDatatype(next.getClass());
-							if (theSubList.get(0).equals(childName)) {
+							if (name.equals(childName)) {
 								if (theWantedClass == null || theWantedClass.isAssignableFrom(next.getClass())) {
 									retVal.add((T) next);
 								}
@@ -626,9 +645,7 @@ public class FhirTerser {
 	 * @return A list of values of type <code>theWantedClass</code>.
 	 */
 	public <T extends IBase> List<T> getValues(IBase theElement, String thePath, Class<T> theWantedClass) {
-		BaseRuntimeElementCompositeDefinition<?> def = (BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass);
+		return getValues(theElement, TerserPath.compile(thePath), theWantedClass);
 	}
 
 	/**
@@ -643,9 +660,7 @@ public class FhirTerser {
 	 * @return A list of values of type <code>theWantedClass</code>.
 	 */
 	public <T extends IBase> List<T> getValues(IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate) {
-		BaseRuntimeElementCompositeDefinition<?> def = (BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass, theCreate, false);
+		return getValues(theElement, TerserPath.compile(thePath), theWantedClass, theCreate, false);
 	}
 
 	/**
@@ -661,48 +676,69 @@ public class FhirTerser {
 	 * @return A list of values of type <code>theWantedClass</code>.
 	 */
 	public <T extends IBase> List<T> getValues(IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate, boolean theAddExtension) {
-		BaseRuntimeElementCompositeDefinition<?> def = (BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass, theCreate, theAddExtension);
+		return getValues(theElement, TerserPath.compile(thePath), theWantedClass, theCreate, theAddExtension);
 	}
 
-	private List<String> parsePath(BaseRuntimeElementCompositeDefinition<?> theElementDef, String thePath) {
-		List<String> parts = new ArrayList<>();
-
-		int currentStart = 0;
-		boolean inSingleQuote = false;
-		for (int i = 0; i < thePath.length(); i++) {
-			switch (thePath.charAt(i)) {
-				case '\'':
-					inSingleQuote = !inSingleQuote;
-					break;
-				case '.':
-					if (!inSingleQuote) {
-						parts.add(thePath.substring(currentStart, i));
-						currentStart = i + 1;
-					}
-					break;
-			}
-		}
+	/**
+	 * Returns values stored in an element identified by a compiled path.
+	 *
+	 * @param theElement The element to be accessed. Must not be null.
+	 * @param thePath    The compiled path for the element to be accessed.
+	 * @return A list of values of type {@link IBase}.
+	 * @since 6.3.0
+	 */
+	public List<IBase> getValues(IBase theElement, TerserPath thePath) {
+		return getValues(theElement, thePath, IBase.class);
+	}
 
-		parts.add(thePath.substring(currentStart));
+	/**
+	 * Returns values stored in an element identified by a compiled path. The list of values is of
+	 * type <code>theWantedClass</code>.
+	 *
+	 * @param theElement     The element to be accessed. Must not be null.
+	 * @param thePath        The compiled path for the element to be accessed.
+	 * @param theWantedClass The desired class to be returned in a list.
+	 * @param <T>            Type declared by <code>theWantedClass</code>
+	 * @return A list of values of type <code>theWantedClass</code>.
+	 * @since 6.3.0
+	 */
+	public <T extends IBase> List<T> getValues(IBase theElement, TerserPath thePath, Class<T> theWantedClass) {
+		return getValues(theElement, thePath, theWantedClass, false, false);
+	}
 
-		String firstPart = parts.get(0);
-		if (Character.isUpperCase(firstPart.charAt(0)) && theElementDef instanceof RuntimeResourceDefinition) {
-			if (firstPart.equals(theElementDef.getName())) {
-				parts = parts.subList(1, parts.size());
-			} else {
-				parts = Collections.emptyList();
-				return parts;
-			}
-		} else if (firstPart.equals(theElementDef.getName())) {
-			parts = parts.subList(1, parts.size());
-		}
+	/**
+	 * Returns values stored in an element identified by a compiled path. The list of values is of
+	 * type <code>theWantedClass</code>.
+	 *
+	 * @param theElement     The element to be accessed. Must not be null.
+	 * @param thePath        The compiled path for the element to be accessed.
+	 * @param theWantedClass The desired class to be returned in a list.
+	 * @param theCreate      When set to <code>true</code>, the terser will create a null-valued element where none exists.
+	 * @param <T>            Type declared by <code>theWantedClass</code>
+	 * @return A list of values of type <code>theWantedClass</code>.
+	 * @since 6.3.0
+	 */
+	public <T extends IBase> List<T> getValues(IBase theElement, TerserPath thePath, Class<T> theWantedClass, boolean theCreate) {
+		return getValues(theElement, thePath, theWantedClass, theCreate, false);
+	}
 
-		if (parts.size() < 1) {
-			throw new ConfigurationException(Msg.code(1792) + "Invalid path: " + thePath);
-		}
-		return parts;
+	/**
+	 * Returns values stored in an element identified by a compiled path. The list of values is of
+	 * type <code>theWantedClass</code>.
+	 *
+	 * @param theElement      The element to be accessed. Must not be null.
+	 * @param thePath         The compiled path for the element to be accessed.
+	 * @param theWantedClass  The desired class to be returned in a list.
+	 * @param theCreate       When set to <code>true</code>, the terser will create a null-valued element where none exists.
+	 * @param theAddExtension When set to <code>true</code>, the terser will add a null-valued extension where one or more such extensions already exist.
+	 * @param <T>             Type declared by <code>theWantedClass</code>
+	 * @return A list of values of type <code>theWantedClass</code>.
+	 * @since 6.3.0
+	 */
+	public <T extends IBase> List<T> getValues(IBase theElement, TerserPath thePath, Class<T> theWantedClass, boolean theCreate, boolean theAddExtension) {
+		BaseRuntimeElementCompositeDefinition<?> def = (BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
+		List<TerserPath.Step> steps = thePath.getSteps(def);
+		return getValues(def, theElement, steps, theWantedClass, theCreate, theAddExtension);
 	}
 
 	/**
@@ -1254,24 +1290,43 @@ public class FhirTerser {
 	@SuppressWarnings("unchecked")
 	@Nonnull
 	public <T extends IBase> T addElement(@Nonnull IBase theTarget, @Nonnull String thePath) {
+		return (T) doAddElement(theTarget, TerserPath.compile(thePath), 1).get(0);
+	}
+
+	/**
+	 * Adds and returns a new element at the given compiled path within the given structure.
+	 * This method follows all of the same semantics as {@link #addElement(IBase, String)}.
+	 *
+	 * @param theTarget The element to add to. This will often be a {@link IBaseResource resource}
+	 *                  instance, but does not need to be.
+	 * @param thePath   The compiled path.
+	 * @return The newly added element
+	 * @throws DataFormatException If the path is invalid or does not end with either a repeatable element, or
+	 *                             an element that is non-repeatable but not already populated.
+	 * @since 6.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	@Nonnull
+	public <T extends IBase> T addElement(@Nonnull IBase theTarget, @Nonnull TerserPath thePath) {
 		return (T) doAddElement(theTarget, thePath, 1).get(0);
 	}
 
 	@SuppressWarnings("unchecked")
-	private <T extends IBase> List<T> doAddElement(IBase theTarget, String thePath, int theElementsToAdd) {
+	private <T extends IBase> List<T> doAddElement(IBase theTarget, TerserPath thePath, int theElementsToAdd) {
 		if (theElementsToAdd == 0) {
 			return Collections.emptyList();
 		}
 
 		IBase target = theTarget;
 		BaseRuntimeElementCompositeDefinition<?> def = (BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(target.getClass());
-		List<String> parts = parsePath(def, thePath);
+		List<TerserPath.Step> parts = thePath.getSteps(def);
 
 		for (int i = 0, partsSize = parts.size(); ; i++) {
-			String nextPart = parts.get(i);
+			TerserPath.Step nextStep = parts.get(i);
+			String nextPart = nextStep.getName();
 			boolean lastPart = i == partsSize - 1;
 
-			BaseRuntimeChildDefinition nextChild = def.getChildByName(nextPart);
+			BaseRuntimeChildDefinition nextChild = nextStep.getChildOrNull(def);
 			if (nextChild == null) {
 				throw new DataFormatException(Msg.code(1796) + "Invalid path " + thePath + ": Element of type " + def.getName() + " has no child named " + nextPart + ". Valid names: " + def.getChildrenAndExtension().stream().map(t -> t.getElementName()).sorted().collect(Collectors.joining(", ")));
 			}
@@ -1352,7 +1407,7 @@ public class FhirTerser {
 	@SuppressWarnings("unchecked")
 	@Nonnull
 	public <T extends IBase> T addElement(@Nonnull IBase theTarget, @Nonnull String thePath, @Nullable String theValue) {
-		T value = (T) doAddElement(theTarget, thePath, 1).get(0);
+		T value = (T) doAddElement(theTarget, TerserPath.compile(thePath), 1).get(0);
 		if (!(value instanceof IPrimitiveType)) {
 			throw new DataFormatException(Msg.code(1800) + "Element at path " + thePath + " is not a primitive datatype. Found: " + myContext.getElementDefinition(value.getClass()).getName());
 		}
@@ -1383,7 +1438,7 @@ public class FhirTerser {
 	@SuppressWarnings("unchecked")
 	@Nonnull
 	public <T extends IBase> T setElement(@Nonnull IBase theTarget, @Nonnull String thePath, @Nullable String theValue) {
-		T value = (T) doAddElement(theTarget, thePath, -1).get(0);
+		T value = (T) doAddElement(theTarget, TerserPath.compile(thePath), -1).get(0);
 		if (!(value instanceof IPrimitiveType)) {
 			throw new DataFormatException(Msg.code(1801) + "Element at path " + thePath + " is not a primitive datatype. Found: " + myContext.getElementDefinition(value.getClass()).getName());
 		}
@@ -1404,7 +1459,7 @@ public class FhirTerser {
 	 * @param theValues The values to set, or <code>null</code>.
 	 */
 	public void addElements(IBase theTarget, String thePath, Collection<String> theValues) {
-		List<IBase> targets = doAddElement(theTarget, thePath, theValues.size());
+		List<IBase> targets = doAddElement(theTarget, TerserPath.compile(thePath), theValues.size());
 		Iterator<String> valuesIter = theValues.iterator();
 		for (IBase target : targets) {
 
@@ -56,6 +56,9 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  */
 public class ParametersUtil {
 
+	private static final TerserPath PART_NAME_PATH = TerserPath.compile("name");
+	private static final TerserPath PART_VALUE_PATH = TerserPath.compile("value[x]");
+
 	public static Optional<String> getNamedParameterValueAsString(FhirContext theCtx, IBaseParameters theParameters, String theParameterName) {
 		Function<IPrimitiveType<?>, String> mapper = t -> defaultIfBlank(t.getValueAsString(), null);
 		return extractNamedParameters(theCtx, theParameters, theParameterName, mapper).stream().findFirst();
@@ -108,7 +111,7 @@ public class ParametersUtil {
 		List<IBase> parts = valueChild.getAccessor().getValues(theParameter);
 
 		for (IBase nextPart : parts) {
-			Optional<IPrimitiveType> name = theCtx.newTerser().getSingleValue(nextPart, "name", IPrimitiveType.class);
+			Optional<IPrimitiveType> name = theCtx.newTerser().getSingleValue(nextPart, PART_NAME_PATH, IPrimitiveType.class);
 			if (name.isPresent() && theParameterName.equals(name.get().getValueAsString())) {
 				return Optional.of(nextPart);
 			}
@@ -120,7 +123,7 @@ public class ParametersUtil {
 	public static Optional<IBase> getParameterPartValue(FhirContext theCtx, IBase theParameter, String theParameterName) {
 		Optional<IBase> part = getParameterPart(theCtx, theParameter, theParameterName);
 		if (part.isPresent()) {
-			return theCtx.newTerser().getSingleValue(part.get(), "value[x]", IBase.class);
+			return theCtx.newTerser().getSingleValue(part.get(), PART_VALUE_PATH, IBase.class);
 		} else {
 			return Optional.empty();
 		}
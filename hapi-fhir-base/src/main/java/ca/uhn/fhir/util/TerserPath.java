@@ -0,0 +1,222 @@
+package ca.uhn.fhir.util;
+
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.ConfigurationException;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.i18n.Msg;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A precompiled simple dot-separated path (<b>not a FHIRPath expression</b>) which can be
+ * used with the {@link FhirTerser} methods that accept one, e.g.
+ * {@link FhirTerser#getValues(org.hl7.fhir.instance.model.api.IBase, TerserPath, Class)}.
+ * <p>
+ * Using a compiled path avoids tokenizing the path string on every call, and the
+ * child definition for each step of the path is resolved once per element type and
+ * then reused. This is useful for code which applies the same path to many resources.
+ * </p>
+ * <p>
+ * Instances are immutable (other than internal caching) and thread safe, and are not tied
+ * to a specific {@link ca.uhn.fhir.context.FhirContext} so they may be stored in constants.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+public final class TerserPath {
+
+	private static final String EXTENSION_PREFIX = "extension('";
+	private static final String MODIFIER_EXTENSION_PREFIX = "modifierExtension('";
+
+	private final String myPath;
+	private final List<Step> mySteps;
+
+	private TerserPath(String thePath, List<Step> theSteps) {
+		myPath = thePath;
+		mySteps = theSteps;
+	}
+
+	/**
+	 * Returns the path string this path was compiled from
+	 */
+	public String getPath() {
+		return myPath;
+	}
+
+	@Override
+	public String toString() {
+		return myPath;
+	}
+
+	/**
+	 * Returns the steps to apply to an element with the given definition. If the
+	 * path starts with the name of the element type it is skipped, and if the path
+	 * starts with the name of a different resource type no steps are returned.
+	 */
+	List<Step> getSteps(BaseRuntimeElementCompositeDefinition<?> theElementDef) {
+		List<Step> retVal = mySteps;
+
+		String firstPart = retVal.get(0).getName();
+		if (Character.isUpperCase(firstPart.charAt(0)) && theElementDef instanceof RuntimeResourceDefinition) {
+			if (firstPart.equals(theElementDef.getName())) {
+				retVal = retVal.subList(1, retVal.size());
+			} else {
+				return Collections.emptyList();
+			}
+		} else if (firstPart.equals(theElementDef.getName())) {
+			retVal = retVal.subList(1, retVal.size());
+		}
+
+		if (retVal.size() < 1) {
+			throw new ConfigurationException(Msg.code(1792) + "Invalid path: " + myPath);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Compiles a simple dot-separated path, e.g. <code>Patient.name.given</code> or
+	 * <code>extension('http://foo').value[x]</code>
+	 *
+	 * @param thePath The path, must not be blank
+	 */
+	public static TerserPath compile(String thePath) {
+		Validate.notBlank(thePath, "thePath must not be empty");
+
+		List<Step> steps = new ArrayList<>();
+
+		int currentStart = 0;
+		boolean inSingleQuote = false;
+		for (int i = 0; i < thePath.length(); i++) {
+			switch (thePath.charAt(i)) {
+				case '\'':
+					inSingleQuote = !inSingleQuote;
+					break;
+				case '.':
+					if (!inSingleQuote) {
+						steps.add(new Step(thePath.substring(currentStart, i)));
+						currentStart = i + 1;
+					}
+					break;
+			}
+		}
+
+		steps.add(new Step(thePath.substring(currentStart)));
+
+		return new TerserPath(thePath, Collections.unmodifiableList(steps));
+	}
+
+	/**
+	 * A single part of a compiled path
+	 */
+	static final class Step {
+
+		private final String myName;
+		private final boolean myExtension;
+		private final boolean myModifierExtension;
+		private final boolean myChoiceWildcard;
+		private final String myExtensionUrl;
+		private volatile ResolvedChild myResolvedChild;
+
+		private Step(String theName) {
+			myName = theName;
+			myExtension = theName.startsWith(EXTENSION_PREFIX);
+			myModifierExtension = theName.startsWith(MODIFIER_EXTENSION_PREFIX);
+			myChoiceWildcard = theName.endsWith("[x]");
+
+			if (myExtension || myModifierExtension) {
+				String extensionUrl = theName.substring(myExtension ? EXTENSION_PREFIX.length() : MODIFIER_EXTENSION_PREFIX.length());
+				int endIndex = extensionUrl.indexOf('\'');
+				if (endIndex != -1) {
+					extensionUrl = extensionUrl.substring(0, endIndex);
+				}
+				myExtensionUrl = extensionUrl;
+			} else {
+				myExtensionUrl = null;
+			}
+		}
+
+		String getName() {
+			return myName;
+		}
+
+		boolean isExtension() {
+			return myExtension;
+		}
+
+		boolean isModifierExtension() {
+			return myModifierExtension;
+		}
+
+		boolean isChoiceWildcard() {
+			return myChoiceWildcard;
+		}
+
+		String getExtensionUrl() {
+			return myExtensionUrl;
+		}
+
+		/**
+		 * Returns the child of the given definition named by this step, or <code>null</code>
+		 * if there is no such child. The most recently resolved child is cached, since a
+		 * given step is almost always applied to elements of the same type.
+		 */
+		BaseRuntimeChildDefinition getChildOrNull(BaseRuntimeElementCompositeDefinition<?> theElementDef) {
+			ResolvedChild resolvedChild = myResolvedChild;
+			if (resolvedChild == null || resolvedChild.myElementDef != theElementDef) {
+				resolvedChild = new ResolvedChild(theElementDef, theElementDef.getChildByName(myName));
+				myResolvedChild = resolvedChild;
+			}
+			return resolvedChild.myChildDef;
+		}
+
+		/**
+		 * As {@link #getChildOrNull(BaseRuntimeElementCompositeDefinition)}, but throws a
+		 * {@link ca.uhn.fhir.parser.DataFormatException} if there is no such child
+		 */
+		BaseRuntimeChildDefinition getChild(BaseRuntimeElementCompositeDefinition<?> theElementDef) {
+			BaseRuntimeChildDefinition retVal = getChildOrNull(theElementDef);
+			if (retVal == null) {
+				return theElementDef.getChildByNameOrThrowDataFormatException(myName);
+			}
+			return retVal;
+		}
+
+	}
+
+	private static final class ResolvedChild {
+
+		private final BaseRuntimeElementCompositeDefinition<?> myElementDef;
+		private final BaseRuntimeChildDefinition myChildDef;
+
+		private ResolvedChild(BaseRuntimeElementCompositeDefinition<?> theElementDef, BaseRuntimeChildDefinition theChildDef) {
+			myElementDef = theElementDef;
+			myChildDef = theChildDef;
+		}
+
+	}
+
+}
@@ -47,6 +47,7 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLResolver;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.stream.events.XMLEvent;
 import javax.xml.transform.OutputKeys;
@@ -1855,6 +1856,45 @@ public class XmlUtil {
 		ourNextException = theException;
 	}
 
+	/**
+	 * Verifies that an XML/XHTML string is well formed, using the same rules as {@link #parse(String)}
+	 * but without creating or retaining any StAX events. This is considerably cheaper than
+	 * {@link #parse(String)} when the events themselves are not needed.
+	 *
+	 * @throws DataFormatException If the string is not well formed
+	 * @since 6.3.0
+	 */
+	public static void validateWellFormed(String theValue) throws DataFormatException {
+		if (isBlank(theValue)) {
+			return;
+		}
+
+		String val = theValue.trim();
+		if (!val.startsWith("<")) {
+			val = XhtmlDt.DIV_OPEN_FIRST + val + "</div>";
+		}
+		boolean hasProcessingInstruction = val.startsWith("<?");
+		if (hasProcessingInstruction && val.endsWith("?>")) {
+			return;
+		}
+
+		try {
+			throwUnitTestExceptionIfConfiguredToDoSo();
+			XMLStreamReader reader = getOrCreateInputFactory().createXMLStreamReader(new StringReader(val));
+			try {
+				while (reader.hasNext()) {
+					reader.next();
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new DataFormatException(Msg.code(2215) + "String does not appear to be valid XML/XHTML (error is \"" + e.getMessage() + "\"): " + theValue, e);
+		} catch (FactoryConfigurationError e) {
+			throw new ConfigurationException(Msg.code(2216) + e);
+		}
+	}
+
 	private static void throwUnitTestExceptionIfConfiguredToDoSo() throws FactoryConfigurationError, XMLStreamException {
 		if (ourNextException != null) {
 			if (ourNextException instanceof javax.xml.stream.FactoryConfigurationError) {
@@ -0,0 +1,68 @@
+package ca.uhn.fhir.interceptor.executor;
+
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class InMemoryInterceptorMetricsSinkTest {
+
+	@Test
+	public void testBucketIndexIsMonotonic() {
+		int previous = -1;
+		for (long value = 0; value < 100_000; value++) {
+			int index = InMemoryInterceptorMetricsSink.bucketIndex(value);
+			assertThat(index, greaterThanOrEqualTo(previous));
+			previous = index;
+		}
+		assertThat(InMemoryInterceptorMetricsSink.bucketIndex(Long.MAX_VALUE), lessThanOrEqualTo(255));
+	}
+
+	@Test
+	public void testBucketValueWithinBucket() {
+		for (long value : new long[]{0, 1, 3, 4, 7, 100, 1_000, 123_456, 10_000_000_000L}) {
+			long bucketValue = InMemoryInterceptorMetricsSink.bucketValue(InMemoryInterceptorMetricsSink.bucketIndex(value));
+			assertEquals(InMemoryInterceptorMetricsSink.bucketIndex(value), InMemoryInterceptorMetricsSink.bucketIndex(bucketValue), "Value " + value);
+			assertThat((double) bucketValue, closeTo(value, value * 0.25));
+		}
+	}
+
+	@Test
+	public void testRecordAndSummarize() {
+		InMemoryInterceptorMetricsSink sink = new InMemoryInterceptorMetricsSink();
+		for (int i = 1; i <= 100; i++) {
+			sink.recordHookInvocation(Pointcut.TEST_RB, "Slow#hook", TimeUnit.MILLISECONDS.toNanos(i), false, 1);
+		}
+		sink.recordHookInvocation(Pointcut.TEST_RB, "Fast#hook", 1000, true, 5);
+		sink.recordHookInvocation(Pointcut.TEST_RO, "Slow#hook", 1000, false, 1);
+
+		List<InterceptorHookMetrics> metrics = sink.getHookMetrics();
+		assertEquals(3, metrics.size());
+
+		// Sorted by total time
+		InterceptorHookMetrics slow = metrics.get(0);
+		assertEquals("TEST_RB", slow.getPointcut());
+		assertEquals("Slow#hook", slow.getHookName());
+		assertEquals(100, slow.getInvocationCount());
+		assertEquals(0, slow.getFailureCount());
+		assertThat(slow.getTotalMillis(), closeTo(5050, 0.001));
+		assertThat(slow.getMeanMillis(), closeTo(50.5, 0.001));
+		assertThat(slow.getP50Millis(), closeTo(50, 50 * 0.25));
+		assertThat(slow.getP95Millis(), closeTo(95, 95 * 0.25));
+		assertThat(slow.getP99Millis(), closeTo(99, 99 * 0.25));
+		assertThat(slow.getMaxMillis(), closeTo(100, 0.001));
+
+		InterceptorHookMetrics fast = metrics.stream().filter(t -> t.getHookName().equals("Fast#hook")).findFirst().orElseThrow();
+		assertEquals(5, fast.getInvocationCount());
+		assertEquals(5, fast.getFailureCount());
+		assertThat(fast.getTotalMillis(), closeTo(0.005, 0.0001));
+	}
+
+}
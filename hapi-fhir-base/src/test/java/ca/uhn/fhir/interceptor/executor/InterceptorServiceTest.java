@@ -17,13 +17,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -295,6 +302,303 @@ public class InterceptorServiceTest {
 		assertSame(null, interceptor1.myLastString1);
 	}
 
+	@Test
+	public void testRegisterInterceptorWhileCallingHooks() {
+		InterceptorService svc = new InterceptorService();
+
+		@Interceptor(order = 200)
+		class SecondInterceptor {
+			@Hook(Pointcut.TEST_RB)
+			public void testRb(String theString0, String theString1) {
+				myInvocations.add("second");
+			}
+		}
+
+		@Interceptor(order = 100)
+		class FirstInterceptor {
+			private final SecondInterceptor mySecondInterceptor = new SecondInterceptor();
+
+			@Hook(Pointcut.TEST_RB)
+			public void testRb(String theString0, String theString1) {
+				myInvocations.add("first");
+				svc.registerInterceptor(mySecondInterceptor);
+			}
+		}
+
+		svc.registerInterceptor(new FirstInterceptor());
+		assertTrue(svc.hasHooks(Pointcut.TEST_RB));
+
+		// The newly registered interceptor isn't invoked until the next call
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(myInvocations, contains("first"));
+
+		myInvocations.clear();
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(myInvocations, contains("first", "second"));
+
+		svc.unregisterAllInterceptors();
+		assertFalse(svc.hasHooks(Pointcut.TEST_RB));
+	}
+
+	@Test
+	public void testCallHooksWithManyParameters() {
+		InterceptorService svc = new InterceptorService();
+
+		class ManyParameterInterceptor {
+			@Hook(Pointcut.TEST_RB)
+			public boolean testRb(String theString0, String theString1, Pointcut thePointcut, String theString2, String theString3) {
+				myInvocations.add(theString0 + theString1 + thePointcut + theString2 + theString3);
+				return false;
+			}
+		}
+
+		svc.registerInterceptor(new ManyParameterInterceptor());
+		assertFalse(svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")));
+		assertThat(myInvocations, contains("AB" + Pointcut.TEST_RB + "nullnull"));
+	}
+
+	@Test
+	public void testMetricsSinkRecordsInvocations() {
+		InterceptorService svc = new InterceptorService();
+		InMemoryInterceptorMetricsSink sink = new InMemoryInterceptorMetricsSink();
+		svc.setMetricsSink(sink);
+		assertSame(sink, svc.getMetricsSink());
+
+		class MetricsInterceptor {
+			@Hook(Pointcut.TEST_RB)
+			public void testRb(String theString0) {
+				if ("FAIL".equals(theString0)) {
+					throw new InvalidRequestException("FAILED");
+				}
+			}
+		}
+		svc.registerInterceptor(new MetricsInterceptor());
+
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		try {
+			svc.callHooks(Pointcut.TEST_RB, new HookParams("FAIL", "B"));
+			fail();
+		} catch (InvalidRequestException e) {
+			// good
+		}
+
+		List<InterceptorHookMetrics> metrics = sink.getHookMetrics();
+		assertEquals(1, metrics.size());
+		assertEquals("TEST_RB", metrics.get(0).getPointcut());
+		assertEquals(MetricsInterceptor.class.getName() + "#testRb", metrics.get(0).getHookName());
+		assertEquals(3, metrics.get(0).getInvocationCount());
+		assertEquals(1, metrics.get(0).getFailureCount());
+
+		// Removing the sink stops collection
+		svc.setMetricsSink(null);
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertEquals(3, sink.getHookMetrics().get(0).getInvocationCount());
+
+		sink.reset();
+		assertTrue(sink.getHookMetrics().isEmpty());
+	}
+
+	@Test
+	public void testMetricsSinkWithSampling() {
+		InterceptorService svc = new InterceptorService();
+		List<Integer> weights = new ArrayList<>();
+		svc.setMetricsSink((thePointcut, theHookName, theElapsedNanos, theFailed, theWeight) -> weights.add(theWeight));
+		svc.setMetricsSampleInterval(10);
+
+		class SampledInterceptor {
+			@Hook(Pointcut.TEST_RB)
+			public void testRb(String theString0) {
+				myInvocations.add(theString0);
+			}
+		}
+		svc.registerInterceptor(new SampledInterceptor());
+
+		for (int i = 0; i < 1000; i++) {
+			svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		}
+
+		// Every invocation still happens, but only roughly 1 in 10 is timed
+		assertEquals(1000, myInvocations.size());
+		assertTrue(weights.size() > 0 && weights.size() < 500, "Sampled " + weights.size());
+		assertTrue(weights.stream().allMatch(t -> t == 10));
+	}
+
+	@Test
+	public void testMetricsSampleIntervalInvalid() {
+		InterceptorService svc = new InterceptorService();
+		try {
+			svc.setMetricsSampleInterval(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// good
+		}
+	}
+
+	@Test
+	public void testAsyncHook() throws InterruptedException {
+		InterceptorService svc = new InterceptorService();
+		AsyncHookExecutor executor = new AsyncHookExecutor();
+		svc.setAsyncHookExecutor(executor);
+		assertSame(executor, svc.getAsyncHookExecutor());
+
+		CountDownLatch latch = new CountDownLatch(1);
+		List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+
+		class AsyncInterceptor {
+			@Hook(value = Pointcut.TEST_RV, async = true)
+			public void testRv(String theString0) {
+				threadNames.add(Thread.currentThread().getName());
+				latch.countDown();
+			}
+		}
+
+		class SyncInterceptor {
+			@Hook(Pointcut.TEST_RV)
+			public void testRv(String theString0) {
+				threadNames.add(Thread.currentThread().getName());
+			}
+		}
+
+		svc.registerInterceptor(new AsyncInterceptor());
+		svc.registerInterceptor(new SyncInterceptor());
+		assertTrue(svc.callHooks(Pointcut.TEST_RV, new HookParams("A", "B")));
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(2, threadNames.size());
+		assertThat(threadNames, hasItem(Thread.currentThread().getName()));
+		assertThat(threadNames, hasItem(startsWith("hapi-fhir-async-hook-")));
+		assertTrue(executor.shutdown(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testAsyncHookCreatesDefaultExecutor() throws InterruptedException {
+		InterceptorService svc = new InterceptorService();
+		assertNull(svc.getAsyncHookExecutor());
+
+		CountDownLatch latch = new CountDownLatch(1);
+
+		class AsyncInterceptor {
+			@Hook(value = Pointcut.TEST_RV, async = true)
+			public void testRv() {
+				latch.countDown();
+				throw new IllegalStateException("This is logged and swallowed");
+			}
+		}
+
+		svc.registerInterceptor(new AsyncInterceptor());
+		svc.callHooks(Pointcut.TEST_RV, new HookParams("A", "B"));
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertThat(svc.getAsyncHookExecutor(), instanceOf(AsyncHookExecutor.class));
+	}
+
+	@Test
+	public void testAsyncHookNotPermittedOnPointcutWithReturnValue() {
+		InterceptorService svc = new InterceptorService();
+
+		class AsyncInterceptor {
+			@Hook(value = Pointcut.TEST_RB, async = true)
+			public boolean testRb(String theString0) {
+				return true;
+			}
+		}
+
+		try {
+			svc.registerInterceptor(new AsyncInterceptor());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertThat(e.getMessage(), containsString("Method can not be async because pointcut TEST_RB does not have a void return type"));
+		}
+	}
+
+	@Test
+	public void testAsyncHookNotPermittedOnNonNotificationPointcut() {
+		InterceptorService svc = new InterceptorService();
+
+		class AsyncInterceptor {
+			@Hook(value = Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED, async = true)
+			public void preHandled() {
+				// nothing
+			}
+		}
+
+		try {
+			svc.registerInterceptor(new AsyncInterceptor());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertThat(e.getMessage(), containsString("Method can not be async because pointcut SERVER_INCOMING_REQUEST_PRE_HANDLED does not permit asynchronous hooks"));
+		}
+	}
+
+	@Test
+	public void testAsyncPermittedPointcuts() {
+		assertTrue(Pointcut.SERVER_PROCESSING_COMPLETED.isAsyncPermitted());
+		assertTrue(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY.isAsyncPermitted());
+		assertFalse(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED.isAsyncPermitted());
+		assertFalse(Pointcut.STORAGE_PRESTORAGE_RESOURCE_CREATED.isAsyncPermitted());
+		assertFalse(Pointcut.STORAGE_PRECOMMIT_RESOURCE_CREATED.isAsyncPermitted());
+	}
+
+	@Test
+	public void testShutdownDefaultAsyncHookExecutor() throws InterruptedException {
+		InterceptorService svc = new InterceptorService();
+		assertTrue(svc.shutdownDefaultAsyncHookExecutor(10, TimeUnit.SECONDS));
+
+		BlockingAsyncInterceptor interceptor = new BlockingAsyncInterceptor();
+		svc.registerInterceptor(interceptor);
+		svc.callHooks(Pointcut.TEST_RV, new HookParams("A", "B"));
+		assertThat(svc.getAsyncHookExecutor(), instanceOf(AsyncHookExecutor.class));
+
+		assertTrue(svc.shutdownDefaultAsyncHookExecutor(10, TimeUnit.SECONDS));
+		assertNull(svc.getAsyncHookExecutor());
+		assertThat(interceptor.myInvocations.get(0), startsWith("A hapi-fhir-async-hook-"));
+	}
+
+	@Test
+	public void testAsyncHookOverflowPolicyDiscard() throws InterruptedException {
+		AsyncHookExecutor executor = new AsyncHookExecutor(1, 1, AsyncHookOverflowPolicyEnum.DISCARD);
+		InterceptorService svc = new InterceptorService();
+		svc.setAsyncHookExecutor(executor);
+		BlockingAsyncInterceptor interceptor = new BlockingAsyncInterceptor();
+		svc.registerInterceptor(interceptor);
+
+		// Occupy the only thread, then fill the queue
+		svc.callHooks(Pointcut.TEST_RV, new HookParams("BLOCK", "B"));
+		assertTrue(interceptor.myBlockedLatch.await(10, TimeUnit.SECONDS));
+		svc.callHooks(Pointcut.TEST_RV, new HookParams("QUEUED", "B"));
+		assertEquals(1, executor.getQueueDepth());
+
+		svc.callHooks(Pointcut.TEST_RV, new HookParams("DISCARDED", "B"));
+		assertEquals(1, executor.getDiscardedCount());
+
+		interceptor.myReleaseLatch.countDown();
+		assertTrue(executor.shutdown(10, TimeUnit.SECONDS));
+		assertThat(interceptor.myInvocations, contains(startsWith("QUEUED hapi-fhir-async-hook-")));
+	}
+
+	@Test
+	public void testAsyncHookOverflowPolicyCallerRuns() throws InterruptedException {
+		AsyncHookExecutor executor = new AsyncHookExecutor(1, 1, AsyncHookOverflowPolicyEnum.CALLER_RUNS);
+		InterceptorService svc = new InterceptorService();
+		svc.setAsyncHookExecutor(executor);
+		BlockingAsyncInterceptor interceptor = new BlockingAsyncInterceptor();
+		svc.registerInterceptor(interceptor);
+
+		// Occupy the only thread, then fill the queue
+		svc.callHooks(Pointcut.TEST_RV, new HookParams("BLOCK", "B"));
+		assertTrue(interceptor.myBlockedLatch.await(10, TimeUnit.SECONDS));
+		svc.callHooks(Pointcut.TEST_RV, new HookParams("QUEUED", "B"));
+
+		svc.callHooks(Pointcut.TEST_RV, new HookParams("CALLER", "B"));
+		assertEquals(1, executor.getCallerRunsCount());
+		assertThat(interceptor.myInvocations, contains("CALLER " + Thread.currentThread().getName()));
+
+		interceptor.myReleaseLatch.countDown();
+		assertTrue(executor.shutdown(10, TimeUnit.SECONDS));
+		assertThat(interceptor.myInvocations, contains("CALLER " + Thread.currentThread().getName(), "QUEUED " + interceptor.myBlockedThreadName));
+	}
+
 	@Test
 	public void testCallHooksInvokedWithNullParameters() {
 		InterceptorService svc = new InterceptorService();
@@ -678,5 +982,28 @@ public class InterceptorServiceTest {
 
 	}
 
+	/**
+	 * Async interceptor which blocks its thread when invoked with "BLOCK" until released
+	 */
+	public static class BlockingAsyncInterceptor {
+
+		private final CountDownLatch myBlockedLatch = new CountDownLatch(1);
+		private final CountDownLatch myReleaseLatch = new CountDownLatch(1);
+		private final List<String> myInvocations = Collections.synchronizedList(new ArrayList<>());
+		private volatile String myBlockedThreadName;
+
+		@Hook(value = Pointcut.TEST_RV, async = true)
+		public void testRv(String theString0) throws InterruptedException {
+			if ("BLOCK".equals(theString0)) {
+				myBlockedThreadName = Thread.currentThread().getName();
+				myBlockedLatch.countDown();
+				myReleaseLatch.await();
+			} else {
+				myInvocations.add(theString0 + " " + Thread.currentThread().getName());
+			}
+		}
+
+	}
+
 
 }
@@ -0,0 +1,38 @@
+package ca.uhn.fhir.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ParserCacheTest {
+
+	@Test
+	public void testCompiledElementFilterIsShared() {
+		ParserCache cache = new ParserCache();
+		CompiledElementFilter filter = cache.getCompiledElementFilter("A");
+		assertSame(filter, cache.getCompiledElementFilter("A"));
+		assertNotSame(filter, cache.getCompiledElementFilter("B"));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedCompiledElementFilterIsDiscarded() {
+		ParserCache cache = new ParserCache();
+		CompiledElementFilter first = cache.getCompiledElementFilter("0");
+		CompiledElementFilter second = cache.getCompiledElementFilter("1");
+		for (int i = 2; i < ParserCache.MAX_COMPILED_ELEMENT_FILTERS; i++) {
+			cache.getCompiledElementFilter(Integer.toString(i));
+		}
+		assertEquals(ParserCache.MAX_COMPILED_ELEMENT_FILTERS, cache.getCompiledElementFilterCount());
+
+		// Using the first filter makes the second one the least recently used
+		assertSame(first, cache.getCompiledElementFilter("0"));
+		cache.getCompiledElementFilter("new");
+
+		assertEquals(ParserCache.MAX_COMPILED_ELEMENT_FILTERS, cache.getCompiledElementFilterCount());
+		assertSame(first, cache.getCompiledElementFilter("0"));
+		assertNotSame(second, cache.getCompiledElementFilter("1"));
+	}
+
+}
@@ -0,0 +1,177 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.hl7.fhir.r4.model.Address;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.hl7.fhir.r4.model.DateTimeType;
+import org.hl7.fhir.r4.model.DateType;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.InstantType;
+import org.hl7.fhir.r4.model.Narrative;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.StringType;
+
+/**
+ * Creates the resources used by the benchmarks. The resources are modelled on typical
+ * US Core data so that they contain a realistic mix of primitives, composites,
+ * extensions and narrative.
+ */
+public class BenchmarkData {
+
+	public static final String EXT_RACE = "http://hl7.org/fhir/us/core/StructureDefinition/us-core-race";
+	public static final String EXT_BIRTH_SEX = "http://hl7.org/fhir/us/core/StructureDefinition/us-core-birthsex";
+
+	/**
+	 * Non instantiable
+	 */
+	private BenchmarkData() {
+		// nothing
+	}
+
+	public static Patient createPatient(int theIndex) {
+		Patient patient = new Patient();
+		patient.setId("Patient/" + theIndex);
+		patient.getMeta().setVersionId("1");
+		patient.getMeta().setLastUpdatedElement(new InstantType("2022-11-01T10:15:30.000-05:00"));
+		patient.getMeta().addProfile("http://hl7.org/fhir/us/core/StructureDefinition/us-core-patient");
+
+		patient.getText().setStatus(Narrative.NarrativeStatus.GENERATED);
+		patient.getText().setDivAsString("<div xmlns=\"http://www.w3.org/1999/xhtml\"><p><b>Jane Smith " + theIndex + "</b></p><table><tbody><tr><td>MRN</td><td>MRN" + theIndex + "</td></tr><tr><td>Date of birth</td><td>1970-02-03</td></tr></tbody></table></div>");
+
+		Extension race = patient.addExtension().setUrl(EXT_RACE);
+		race.addExtension("ombCategory", new Coding("urn:oid:2.16.840.1.113883.6.238", "2106-3", "White"));
+		race.addExtension("text", new StringType("White"));
+		patient.addExtension(EXT_BIRTH_SEX, new Coding("http://terminology.hl7.org/CodeSystem/v3-AdministrativeGender", "F", "Female"));
+
+		patient.addIdentifier()
+			.setSystem("http://hospital.example.org/mrn")
+			.setValue("MRN" + theIndex)
+			.getType().addCoding().setSystem("http://terminology.hl7.org/CodeSystem/v2-0203").setCode("MR");
+		patient.addIdentifier()
+			.setSystem("http://hl7.org/fhir/sid/us-ssn")
+			.setValue("999-00-" + theIndex);
+		patient.setActive(true);
+
+		patient.addName()
+			.setUse(HumanName.NameUse.OFFICIAL)
+			.setFamily("Smith")
+			.addGiven("Jane")
+			.addGiven("Marie")
+			.addPrefix("Ms.");
+		patient.addName()
+			.setUse(HumanName.NameUse.MAIDEN)
+			.setFamily("Jones")
+			.addGiven("Jane");
+
+		patient.addTelecom().setSystem(ContactPoint.ContactPointSystem.PHONE).setValue("555-555-" + theIndex).setUse(ContactPoint.ContactPointUse.HOME);
+		patient.addTelecom().setSystem(ContactPoint.ContactPointSystem.EMAIL).setValue("jane.smith" + theIndex + "@example.com");
+		patient.setGender(Enumerations.AdministrativeGender.FEMALE);
+		patient.setBirthDateElement(new DateType("1970-02-03"));
+
+		patient.addAddress()
+			.setUse(Address.AddressUse.HOME)
+			.addLine(theIndex + " Main Street")
+			.addLine("Apartment 4")
+			.setCity("Springfield")
+			.setState("MA")
+			.setPostalCode("01101")
+			.setCountry("US");
+
+		patient.addContact()
+			.setName(new HumanName().setFamily("Smith").addGiven("John"))
+			.addRelationship(new CodeableConcept().addCoding(new Coding("http://terminology.hl7.org/CodeSystem/v2-0131", "N", "Next-of-Kin")))
+			.addTelecom(new ContactPoint().setSystem(ContactPoint.ContactPointSystem.PHONE).setValue("555-555-0000"));
+
+		patient.addCommunication().setPreferred(true).getLanguage().addCoding().setSystem("urn:ietf:bcp:47").setCode("en-US");
+		patient.setManagingOrganization(new Reference("Organization/1").setDisplay("Springfield General Hospital"));
+
+		return patient;
+	}
+
+	public static Observation createObservation(int theIndex, String thePatientId) {
+		Observation observation = new Observation();
+		observation.setId("Observation/" + theIndex);
+		observation.getMeta().setVersionId("1");
+		observation.getMeta().setLastUpdatedElement(new InstantType("2022-11-01T10:15:30.000-05:00"));
+		observation.setStatus(Observation.ObservationStatus.FINAL);
+		observation.addCategory().addCoding()
+			.setSystem("http://terminology.hl7.org/CodeSystem/observation-category")
+			.setCode("vital-signs")
+			.setDisplay("Vital Signs");
+		observation.getCode().addCoding()
+			.setSystem("http://loinc.org")
+			.setCode("85354-9")
+			.setDisplay("Blood pressure panel with all children optional");
+		observation.getCode().setText("Blood pressure");
+		observation.setSubject(new Reference(thePatientId));
+		observation.setEffective(new DateTimeType("2022-10-3" + (theIndex % 2) + "T08:30:00-05:00"));
+		observation.addPerformer(new Reference("Practitioner/1"));
+
+		observation.addComponent()
+			.setCode(new CodeableConcept().addCoding(new Coding("http://loinc.org", "8480-6", "Systolic blood pressure")))
+			.setValue(new Quantity().setValue(100 + (theIndex % 40)).setUnit("mmHg").setSystem("http://unitsofmeasure.org").setCode("mm[Hg]"));
+		observation.addComponent()
+			.setCode(new CodeableConcept().addCoding(new Coding("http://loinc.org", "8462-4", "Diastolic blood pressure")))
+			.setValue(new Quantity().setValue(60 + (theIndex % 30)).setUnit("mmHg").setSystem("http://unitsofmeasure.org").setCode("mm[Hg]"));
+
+		return observation;
+	}
+
+	/**
+	 * Creates a searchset Bundle containing the given number of entries, alternating
+	 * between Patient and Observation resources
+	 */
+	public static Bundle createBundle(int theSize) {
+		Bundle bundle = new Bundle();
+		bundle.setId("bundle-" + theSize);
+		bundle.setType(Bundle.BundleType.SEARCHSET);
+		bundle.setTotal(theSize);
+		bundle.addLink().setRelation("self").setUrl("http://example.com/fhir/Patient?_revinclude=Observation:subject");
+		bundle.addLink().setRelation("next").setUrl("http://example.com/fhir?_getpages=abc&_getpagesoffset=" + theSize + "&_count=" + theSize);
+
+		String patientId = null;
+		for (int i = 0; i < theSize; i++) {
+			Bundle.BundleEntryComponent entry = bundle.addEntry();
+			if (i % 2 == 0) {
+				Patient patient = createPatient(i);
+				patientId = patient.getIdElement().getValue();
+				entry.setResource(patient);
+				entry.getSearch().setMode(Bundle.SearchEntryMode.MATCH);
+			} else {
+				entry.setResource(createObservation(i, patientId));
+				entry.getSearch().setMode(Bundle.SearchEntryMode.INCLUDE);
+			}
+			entry.setFullUrl("http://example.com/fhir/" + entry.getResource().getIdElement().getValue());
+		}
+
+		return bundle;
+	}
+
+}
@@ -0,0 +1,68 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.util.VersionUtil;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmarks JAR. This accepts the same arguments as the standard
+ * JMH runner, but unless a result format and/or result file are specified, results are
+ * written as JSON to a file named after the HAPI FHIR version being benchmarked
+ * (e.g. <code>jmh-result-6.3.0.json</code>). This means that the results from several
+ * versions can be collected in one directory and compared.
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Non instantiable
+	 */
+	private BenchmarkRunner() {
+		// nothing
+	}
+
+	public static void main(String[] theArgs) throws Exception {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(theArgs);
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListWithParams() || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(theArgs);
+			return;
+		}
+
+		ResultFormatType resultFormat = ResultFormatType.JSON;
+		if (commandLineOptions.getResultFormat().hasValue()) {
+			resultFormat = commandLineOptions.getResultFormat().get();
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder()
+			.parent(commandLineOptions)
+			.resultFormat(resultFormat);
+		if (!commandLineOptions.getResult().hasValue()) {
+			options.result("jmh-result-" + VersionUtil.getVersion() + "." + resultFormat.name().toLowerCase());
+		}
+
+		new Runner(options.build()).run();
+	}
+
+}
@@ -0,0 +1,100 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import org.hl7.fhir.r4.model.Bundle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and encoding of searchset Bundles of various sizes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BundleParserBenchmark {
+
+	@Param({"JSON", "JSON_STREAMING", "XML"})
+	public ParserType myParserType;
+
+	@Param({"10", "100", "1000"})
+	public int myBundleSize;
+
+	private IParser myParser;
+	private Bundle myBundle;
+	private String myEncodedBundle;
+	private byte[] myEncodedBundleBytes;
+	private ByteArrayOutputStream myOutputStream;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = myParserType.newContext();
+		myParser = myParserType.newParser(ctx);
+
+		myBundle = BenchmarkData.createBundle(myBundleSize);
+		myEncodedBundle = myParser.encodeResourceToString(myBundle);
+		myEncodedBundleBytes = myEncodedBundle.getBytes(StandardCharsets.UTF_8);
+		myOutputStream = new ByteArrayOutputStream(myEncodedBundleBytes.length * 2);
+	}
+
+	@Benchmark
+	public Bundle parseBundleFromString() {
+		return myParser.parseResource(Bundle.class, myEncodedBundle);
+	}
+
+	@Benchmark
+	public Bundle parseBundleFromInputStream() {
+		return myParser.parseResource(Bundle.class, new ByteArrayInputStream(myEncodedBundleBytes));
+	}
+
+	@Benchmark
+	public String encodeBundleToString() {
+		return myParser.encodeResourceToString(myBundle);
+	}
+
+	@Benchmark
+	public int encodeBundleToOutputStream() throws IOException {
+		myOutputStream.reset();
+		myParser.encodeResourceToOutputStream(myBundle, myOutputStream);
+		return myOutputStream.size();
+	}
+
+}
@@ -0,0 +1,93 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.util.BundleUtil;
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
+import ca.uhn.fhir.util.bundle.SearchBundleEntryParts;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only {@link BundleUtil} operations against searchset Bundles of various sizes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BundleUtilBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int myBundleSize;
+
+	private FhirContext myCtx;
+	private Bundle myBundle;
+
+	@Setup
+	public void setup() {
+		myCtx = FhirContext.forR4Cached();
+		myBundle = BenchmarkData.createBundle(myBundleSize);
+	}
+
+	@Benchmark
+	public List<IBaseResource> toListOfResources() {
+		return BundleUtil.toListOfResources(myCtx, myBundle);
+	}
+
+	@Benchmark
+	public List<Patient> toListOfResourcesOfType() {
+		return BundleUtil.toListOfResourcesOfType(myCtx, myBundle, Patient.class);
+	}
+
+	@Benchmark
+	public List<BundleEntryParts> toListOfEntries() {
+		return BundleUtil.toListOfEntries(myCtx, myBundle);
+	}
+
+	@Benchmark
+	public List<SearchBundleEntryParts> getSearchBundleEntryParts() {
+		return BundleUtil.getSearchBundleEntryParts(myCtx, myBundle);
+	}
+
+	@Benchmark
+	public String getLinkUrlOfType() {
+		return BundleUtil.getLinkUrlOfType(myCtx, myBundle, "next");
+	}
+
+}
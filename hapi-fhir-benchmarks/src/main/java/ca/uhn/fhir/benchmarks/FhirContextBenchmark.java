@@ -0,0 +1,62 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of a {@link FhirContext} and scanning of the model. The first context created in
+ * a JVM also pays for class loading, which is measured by {@link Mode#SingleShotTime} runs
+ * across several forks.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SingleShotTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(3)
+public class FhirContextBenchmark {
+
+	@Benchmark
+	public RuntimeResourceDefinition createContextAndScanPatient() {
+		FhirContext ctx = FhirContext.forR4();
+		return ctx.getResourceDefinition("Patient");
+	}
+
+	@Benchmark
+	public void createContextAndScanAllResources(Blackhole theBlackhole) {
+		FhirContext ctx = FhirContext.forR4();
+		for (String next : ctx.getResourceTypes()) {
+			theBlackhole.consume(ctx.getResourceDefinition(next));
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.interceptor.executor.InterceptorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of hooks by {@link InterceptorService}, from a single thread and from
+ * many threads concurrently
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorServiceBenchmark {
+
+	private InterceptorService myInterceptorService;
+	private HookParams myParams;
+
+	@Setup
+	public void setup() {
+		myInterceptorService = new InterceptorService();
+		myInterceptorService.registerInterceptor(new BooleanInterceptor());
+		myInterceptorService.registerInterceptor(new VoidInterceptor());
+		myInterceptorService.registerInterceptor(new PointcutInterceptor());
+		myParams = new HookParams("A", "B");
+	}
+
+	@Benchmark
+	@Threads(1)
+	public boolean callHooks() {
+		return myInterceptorService.callHooks(Pointcut.TEST_RB, myParams);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public boolean callHooksContended() {
+		return myInterceptorService.callHooks(Pointcut.TEST_RB, myParams);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public boolean hasHooks() {
+		return myInterceptorService.hasHooks(Pointcut.TEST_RB);
+	}
+
+	@Interceptor(order = 100)
+	public static class BooleanInterceptor {
+
+		@Hook(Pointcut.TEST_RB)
+		public boolean testRb(String theString0, String theString1) {
+			return theString0 != null;
+		}
+
+	}
+
+	@Interceptor(order = 200)
+	public static class VoidInterceptor {
+
+		@Hook(Pointcut.TEST_RB)
+		public void testRb(String theString0) {
+			// nothing
+		}
+
+	}
+
+	@Interceptor(order = 300)
+	public static class PointcutInterceptor {
+
+		@Hook(Pointcut.TEST_RB)
+		public boolean testRb(Pointcut thePointcut, String theString0, String theString1) {
+			return thePointcut == Pointcut.TEST_RB;
+		}
+
+	}
+
+}
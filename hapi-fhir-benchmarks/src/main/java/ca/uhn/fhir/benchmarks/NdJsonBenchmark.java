@@ -0,0 +1,110 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.NDJsonParser;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Parsing and encoding of NDJSON (as used by bulk import and export), comparing the
+ * Bundle based API with the streaming API
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NdJsonBenchmark {
+
+	@Param({"100", "1000"})
+	public int myResourceCount;
+
+	private NDJsonParser myParser;
+	private Bundle myBundle;
+	private List<IBaseResource> myResources;
+	private byte[] myEncoded;
+	private ByteArrayOutputStream myOutputStream;
+
+	@Setup
+	public void setup() throws IOException {
+		FhirContext ctx = FhirContext.forR4Cached();
+		myParser = (NDJsonParser) ctx.newNDJsonParser();
+
+		myBundle = BenchmarkData.createBundle(myResourceCount);
+		myResources = myBundle
+			.getEntry()
+			.stream()
+			.map(Bundle.BundleEntryComponent::getResource)
+			.collect(Collectors.toList());
+
+		myOutputStream = new ByteArrayOutputStream();
+		myParser.encodeResourcesToOutputStream(myResources.iterator(), myOutputStream);
+		myEncoded = myOutputStream.toByteArray();
+	}
+
+	@Benchmark
+	public Bundle parseToBundle() {
+		return myParser.parseResource(Bundle.class, new ByteArrayInputStream(myEncoded));
+	}
+
+	@Benchmark
+	public void parseToStream(Blackhole theBlackhole) {
+		myParser
+			.parseResourceStream(new ByteArrayInputStream(myEncoded))
+			.forEach(theBlackhole::consume);
+	}
+
+	@Benchmark
+	public String encodeBundleToString() {
+		return myParser.encodeResourceToString(myBundle);
+	}
+
+	@Benchmark
+	public int encodeIteratorToOutputStream() throws IOException {
+		myOutputStream.reset();
+		myParser.encodeResourcesToOutputStream(myResources.iterator(), myOutputStream);
+		return myOutputStream.size();
+	}
+
+}
@@ -0,0 +1,103 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and encoding of individual resources
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param({"JSON", "JSON_STREAMING", "XML"})
+	public ParserType myParserType;
+
+	private IParser myParser;
+	private Patient myPatient;
+	private String myEncodedPatient;
+	private Observation myObservation;
+	private String myEncodedObservation;
+	private ByteArrayOutputStream myOutputStream;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = myParserType.newContext();
+		myParser = myParserType.newParser(ctx);
+
+		myPatient = BenchmarkData.createPatient(1);
+		myEncodedPatient = myParser.encodeResourceToString(myPatient);
+		myObservation = BenchmarkData.createObservation(2, "Patient/1");
+		myEncodedObservation = myParser.encodeResourceToString(myObservation);
+		myOutputStream = new ByteArrayOutputStream(myEncodedPatient.length() * 2);
+	}
+
+	@Benchmark
+	public Patient parsePatient() {
+		return myParser.parseResource(Patient.class, myEncodedPatient);
+	}
+
+	@Benchmark
+	public Observation parseObservation() {
+		return myParser.parseResource(Observation.class, myEncodedObservation);
+	}
+
+	@Benchmark
+	public String encodePatientToString() {
+		return myParser.encodeResourceToString(myPatient);
+	}
+
+	@Benchmark
+	public String encodeObservationToString() {
+		return myParser.encodeResourceToString(myObservation);
+	}
+
+	@Benchmark
+	public int encodePatientToOutputStream() throws IOException {
+		myOutputStream.reset();
+		myParser.encodeResourceToOutputStream(myPatient, myOutputStream);
+		return myOutputStream.size();
+	}
+
+}
@@ -0,0 +1,73 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+
+/**
+ * The parser configurations compared by the parser benchmarks
+ */
+public enum ParserType {
+
+	JSON {
+		@Override
+		public IParser newParser(FhirContext theContext) {
+			return theContext.newJsonParser();
+		}
+	},
+
+	/**
+	 * The JSON parser with {@link ca.uhn.fhir.context.ParserOptions#setStreamingJsonParsing(boolean) streaming parsing}
+	 * enabled. Encoding is the same as {@link #JSON}.
+	 */
+	JSON_STREAMING {
+		@Override
+		public FhirContext newContext() {
+			FhirContext retVal = super.newContext();
+			retVal.getParserOptions().setStreamingJsonParsing(true);
+			return retVal;
+		}
+
+		@Override
+		public IParser newParser(FhirContext theContext) {
+			return theContext.newJsonParser();
+		}
+	},
+
+	XML {
+		@Override
+		public IParser newParser(FhirContext theContext) {
+			return theContext.newXmlParser();
+		}
+	};
+
+	/**
+	 * Creates a new R4 context configured for this parser type. A new context is used
+	 * (rather than a cached one) since some parser types change the parser options.
+	 */
+	public FhirContext newContext() {
+		return FhirContext.forR4();
+	}
+
+	public abstract IParser newParser(FhirContext theContext);
+
+}
@@ -0,0 +1,230 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.annotation.Create;
+import ca.uhn.fhir.rest.annotation.Delete;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
+import ca.uhn.fhir.rest.annotation.OptionalParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.RequiredParam;
+import ca.uhn.fhir.rest.annotation.ResourceParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.annotation.Update;
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.param.DateParam;
+import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.ResourceBinding;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import ca.uhn.fhir.rest.server.method.BaseMethodBinding;
+import ca.uhn.fhir.rest.server.method.MethodMatchEnum;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selection of the method binding which handles an incoming request, against a resource provider
+ * with a realistic number of operations and searches. {@link #linearScan()} tests every binding
+ * for the resource type, which is how bindings were selected before the dispatch index was added.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestfulServerDispatchBenchmark {
+
+	@Param({"read", "search", "operation"})
+	public String myRequest;
+
+	private ServletRequestDetails myRequestDetails;
+	private ResourceBinding myResourceBinding;
+	private List<BaseMethodBinding> myMethodBindings;
+
+	@Setup
+	public void setup() throws Exception {
+		RestfulServer server = new RestfulServer(FhirContext.forR4Cached());
+		server.registerProvider(new PatientProvider());
+		server.init();
+
+		myResourceBinding = server
+			.getResourceBindings()
+			.stream()
+			.filter(t -> t.getResourceName().equals("Patient"))
+			.findFirst()
+			.orElseThrow();
+		myMethodBindings = new ArrayList<>(myResourceBinding.getMethodBindings());
+
+		myRequestDetails = new ServletRequestDetails();
+		myRequestDetails.setResourceName("Patient");
+		Map<String, String[]> parameters = new HashMap<>();
+		switch (myRequest) {
+			case "read":
+				myRequestDetails.setRequestType(RequestTypeEnum.GET);
+				myRequestDetails.setId(new IdType("Patient/123"));
+				break;
+			case "search":
+				myRequestDetails.setRequestType(RequestTypeEnum.GET);
+				parameters.put("family", new String[]{"Smith"});
+				parameters.put("birthdate", new String[]{"ge1970"});
+				break;
+			case "operation":
+				myRequestDetails.setRequestType(RequestTypeEnum.POST);
+				myRequestDetails.setId(new IdType("Patient/123"));
+				myRequestDetails.setOperation("$op20");
+				break;
+			default:
+				throw new IllegalArgumentException(Msg.code(2233) + "Unknown request: " + myRequest);
+		}
+		myRequestDetails.setParameters(parameters);
+	}
+
+	@Benchmark
+	public BaseMethodBinding indexed() {
+		return myResourceBinding.getMethod(myRequestDetails);
+	}
+
+	@Benchmark
+	public BaseMethodBinding linearScan() {
+		BaseMethodBinding matchedMethod = null;
+		MethodMatchEnum matchedMethodStrength = null;
+		for (BaseMethodBinding next : myMethodBindings) {
+			MethodMatchEnum nextMethodMatch = next.incomingServerRequestMatchesMethod(myRequestDetails);
+			if (nextMethodMatch != MethodMatchEnum.NONE) {
+				if (matchedMethodStrength == null || matchedMethodStrength.ordinal() < nextMethodMatch.ordinal()) {
+					matchedMethod = next;
+					matchedMethodStrength = nextMethodMatch;
+				}
+				if (matchedMethodStrength == MethodMatchEnum.EXACT) {
+					break;
+				}
+			}
+		}
+		return matchedMethod;
+	}
+
+	@SuppressWarnings("unused")
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<? extends IBaseResource> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read(version = true)
+		public Patient read(@IdParam IdType theId) {
+			return null;
+		}
+
+		@Create
+		public MethodOutcome create(@ResourceParam Patient thePatient) {
+			return null;
+		}
+
+		@Update
+		public MethodOutcome update(@IdParam IdType theId, @ResourceParam Patient thePatient) {
+			return null;
+		}
+
+		@Delete
+		public MethodOutcome delete(@IdParam IdType theId) {
+			return null;
+		}
+
+		@Search
+		public List<Patient> searchAll() {
+			return null;
+		}
+
+		@Search
+		public List<Patient> searchByIdentifier(@RequiredParam(name = Patient.SP_IDENTIFIER) TokenParam theIdentifier) {
+			return null;
+		}
+
+		@Search
+		public List<Patient> searchByName(@RequiredParam(name = Patient.SP_FAMILY) StringParam theFamily, @OptionalParam(name = Patient.SP_GIVEN) StringParam theGiven, @OptionalParam(name = Patient.SP_BIRTHDATE) DateParam theBirthDate) {
+			return null;
+		}
+
+		@Search
+		public List<Patient> searchByGender(@RequiredParam(name = Patient.SP_GENDER) TokenParam theGender, @OptionalParam(name = Patient.SP_ADDRESS_POSTALCODE) StringParam thePostalCode) {
+			return null;
+		}
+
+		@Search(queryName = "named")
+		public List<Patient> searchNamed(@OptionalParam(name = "value") StringParam theValue) {
+			return null;
+		}
+
+		// @formatter:off
+		@Operation(name = "$op1") public Parameters op1(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op2") public Parameters op2(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op3") public Parameters op3(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op4") public Parameters op4(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op5") public Parameters op5(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op6") public Parameters op6(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op7") public Parameters op7(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op8") public Parameters op8(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op9") public Parameters op9(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op10") public Parameters op10(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op11") public Parameters op11(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op12") public Parameters op12(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op13") public Parameters op13(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op14") public Parameters op14(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op15") public Parameters op15(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op16") public Parameters op16(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op17") public Parameters op17(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op18") public Parameters op18(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op19") public Parameters op19(@OperationParam(name = "value") StringType theValue) { return null; }
+		@Operation(name = "$op20") public Parameters op20(@IdParam IdType theId, @OperationParam(name = "value") StringType theValue) { return null; }
+		// @formatter:on
+
+	}
+
+}
@@ -0,0 +1,94 @@
+package ca.uhn.fhir.benchmarks;
+
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.util.FhirTerser;
+import ca.uhn.fhir.util.TerserPath;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.r4.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path access using {@link FhirTerser}, comparing string paths with precompiled
+ * {@link TerserPath paths}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TerserBenchmark {
+
+	@Param({
+		"Patient.name.given",
+		"Patient.address.line",
+		"Patient.identifier.type.coding.code",
+		"Patient.extension('" + BenchmarkData.EXT_RACE + "').extension('ombCategory').value[x]"
+	})
+	public String myPath;
+
+	private FhirTerser myTerser;
+	private TerserPath myCompiledPath;
+	private Patient myPatient;
+
+	@Setup
+	public void setup() {
+		myTerser = FhirContext.forR4Cached().newTerser();
+		myCompiledPath = TerserPath.compile(myPath);
+		myPatient = BenchmarkData.createPatient(1);
+	}
+
+	@Benchmark
+	public List<IBase> getValuesWithStringPath() {
+		return myTerser.getValues(myPatient, myPath);
+	}
+
+	@Benchmark
+	public List<IBase> getValuesWithCompiledPath() {
+		return myTerser.getValues(myPatient, myCompiledPath);
+	}
+
+	@Benchmark
+	public IBase getSingleValueWithStringPath() {
+		return myTerser.getSingleValueOrNull(myPatient, myPath, IBase.class);
+	}
+
+	@Benchmark
+	public IBase getSingleValueWithCompiledPath() {
+		return myTerser.getSingleValueOrNull(myPatient, myCompiledPath, IBase.class);
+	}
+
+}
@@ -75,7 +75,7 @@ public abstract class BaseHttpClient implements IHttpClient {
 			}
 		}
 
-		theHttpRequest.addHeader("User-Agent", HttpClientUtil.createUserAgentString(theContext, "apache"));
+		theHttpRequest.addHeader("User-Agent", HttpClientUtil.createUserAgentString(theContext, getUserAgentClientType()));
 		theHttpRequest.addHeader("Accept-Charset", "utf-8");
 		theHttpRequest.addHeader("Accept-Encoding", "gzip");
 
@@ -110,6 +110,15 @@ public abstract class BaseHttpClient implements IHttpClient {
 
 	protected abstract IHttpRequest createHttpRequest();
 
+	/**
+	 * Returns the client type which is reported in the <code>User-Agent</code> header
+	 *
+	 * @since 6.3.0
+	 */
+	protected String getUserAgentClientType() {
+		return "apache";
+	}
+
 	protected abstract IHttpRequest createHttpRequest(byte[] theContent);
 
 	protected abstract IHttpRequest createHttpRequest(Map<String, List<String>> theParams);
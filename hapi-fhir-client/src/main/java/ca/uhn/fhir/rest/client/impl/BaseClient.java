@@ -37,6 +37,7 @@ import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.rest.api.RequestFormatParamStyleEnum;
 import ca.uhn.fhir.rest.api.SummaryEnum;
+import ca.uhn.fhir.rest.client.api.ClientResponseContext;
 import ca.uhn.fhir.rest.client.api.IHttpClient;
 import ca.uhn.fhir.rest.client.api.IHttpRequest;
 import ca.uhn.fhir.rest.client.api.IHttpResponse;
@@ -80,6 +81,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -100,6 +104,7 @@ public abstract class BaseClient implements IRestfulClient {
 	private SummaryEnum mySummary;
 	private RequestFormatParamStyleEnum myRequestFormatParamStyle = RequestFormatParamStyleEnum.SHORT;
 	private IInterceptorService myInterceptorService;
+	private Executor myAsyncResponseExecutor;
 
 	BaseClient(IHttpClient theClient, String theUrlBase, RestfulClientFactory theFactory) {
 		super();
@@ -251,181 +256,252 @@ public abstract class BaseClient implements IRestfulClient {
 		IHttpRequest httpRequest = null;
 		IHttpResponse response = null;
 		try {
-			Map<String, List<String>> params = createExtraParams(theCustomAcceptHeader);
-
-			if (clientInvocation instanceof HttpGetClientInvocation) {
-				if (myRequestFormatParamStyle == RequestFormatParamStyleEnum.SHORT && isBlank(theCustomAcceptHeader)) {
-					if (theEncoding == EncodingEnum.XML) {
-						params.put(Constants.PARAM_FORMAT, Collections.singletonList("xml"));
-					} else if (theEncoding == EncodingEnum.JSON) {
-						params.put(Constants.PARAM_FORMAT, Collections.singletonList("json"));
-					}
-				}
-			}
+			httpRequest = createHttpRequest(clientInvocation, theEncoding, thePrettyPrint, theLogRequestAndResponse, theSummaryMode, theSubsetElements, theCacheControlDirective, theCustomAcceptHeader, theCustomHeaders);
 
-			if (theSummaryMode != null) {
-				params.put(Constants.PARAM_SUMMARY, Collections.singletonList(theSummaryMode.getCode()));
-			} else if (mySummary != null) {
-				params.put(Constants.PARAM_SUMMARY, Collections.singletonList(mySummary.getCode()));
-			}
-
-			if (thePrettyPrint == Boolean.TRUE) {
-				params.put(Constants.PARAM_PRETTY, Collections.singletonList(Constants.PARAM_PRETTY_VALUE_TRUE));
-			}
+			response = httpRequest.execute();
 
-			if (theSubsetElements != null && theSubsetElements.isEmpty() == false) {
-				params.put(Constants.PARAM_ELEMENTS, Collections.singletonList(StringUtils.join(theSubsetElements, ',')));
-			}
+			return handleResponse(theContext, binding, httpRequest, response, theLogRequestAndResponse);
 
-			EncodingEnum encoding = getEncoding();
-			if (theEncoding != null) {
-				encoding = theEncoding;
+		} catch (Exception e) {
+			throw toClientException(e, httpRequest);
+		} finally {
+			if (response != null) {
+				response.close();
 			}
+		}
+	}
 
-			httpRequest = clientInvocation.asHttpRequest(myUrlBase, params, encoding, thePrettyPrint);
+	/**
+	 * Asynchronous counterpart to {@link #invokeClient(FhirContext, IClientResponseHandler, BaseHttpClientInvocation, EncodingEnum, Boolean, boolean, SummaryEnum, Set, CacheControlDirective, String, Map)}.
+	 * The request is built and the {@link Pointcut#CLIENT_REQUEST} hooks are invoked on the calling thread, the request
+	 * is then sent using {@link IHttpRequest#executeAsync(Executor)} and the response is handled (including the
+	 * {@link Pointcut#CLIENT_RESPONSE} hooks and parsing) on the {@link #setAsyncResponseExecutor(Executor) async response executor},
+	 * so that parsing large responses does not tie up the threads used by the HTTP transport.
+	 *
+	 * @since 6.3.0
+	 */
+	protected <T> CompletableFuture<T> invokeClientAsync(FhirContext theContext, IClientResponseHandler<T> binding, BaseHttpClientInvocation clientInvocation, EncodingEnum theEncoding, Boolean thePrettyPrint,
+																		  boolean theLogRequestAndResponse, SummaryEnum theSummaryMode, Set<String> theSubsetElements, CacheControlDirective theCacheControlDirective, String theCustomAcceptHeader,
+																		  Map<String, List<String>> theCustomHeaders) {
 
-			if (isNotBlank(theCustomAcceptHeader)) {
-				httpRequest.removeHeaders(Constants.HEADER_ACCEPT);
-				httpRequest.addHeader(Constants.HEADER_ACCEPT, theCustomAcceptHeader);
+		IHttpRequest httpRequest;
+		try {
+			if (!myDontValidateConformance) {
+				myFactory.validateServerBaseIfConfiguredToDoSo(myUrlBase, myClient, this);
 			}
+			httpRequest = createHttpRequest(clientInvocation, theEncoding, thePrettyPrint, theLogRequestAndResponse, theSummaryMode, theSubsetElements, theCacheControlDirective, theCustomAcceptHeader, theCustomHeaders);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(toClientException(e, null));
+		}
 
-			if (theCacheControlDirective != null) {
-				StringBuilder b = new StringBuilder();
-				addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_CACHE, theCacheControlDirective.isNoCache());
-				addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_STORE, theCacheControlDirective.isNoStore());
-				if (theCacheControlDirective.getMaxResults() != null) {
-					addToCacheControlHeader(b, Constants.CACHE_CONTROL_MAX_RESULTS + "=" + theCacheControlDirective.getMaxResults().intValue(), true);
+		Executor executor = getAsyncResponseExecutor();
+		return httpRequest
+			.executeAsync(executor)
+			.handleAsync((response, failure) -> {
+				if (failure != null) {
+					Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+					if (cause instanceof Exception) {
+						throw new CompletionException(Msg.code(2238) + cause.getMessage(), toClientException((Exception) cause, httpRequest));
+					}
+					throw new CompletionException(Msg.code(2239) + cause.getMessage(), cause);
 				}
-				if (b.length() > 0) {
-					httpRequest.addHeader(Constants.HEADER_CACHE_CONTROL, b.toString());
+				try {
+					return handleResponse(theContext, binding, httpRequest, response, theLogRequestAndResponse);
+				} catch (Exception e) {
+					throw new CompletionException(Msg.code(2240) + e.getMessage(), toClientException(e, httpRequest));
+				} finally {
+					response.close();
 				}
-			}
+			}, executor);
+	}
 
-			if (theLogRequestAndResponse) {
-				ourLog.info("Client invoking: {}", httpRequest);
-				String body = httpRequest.getRequestBodyFromStream();
-				if (body != null) {
-					ourLog.info("Client request body: {}", body);
+	private IHttpRequest createHttpRequest(BaseHttpClientInvocation clientInvocation, EncodingEnum theEncoding, Boolean thePrettyPrint, boolean theLogRequestAndResponse, SummaryEnum theSummaryMode,
+													  Set<String> theSubsetElements, CacheControlDirective theCacheControlDirective, String theCustomAcceptHeader, Map<String, List<String>> theCustomHeaders) throws IOException {
+		Map<String, List<String>> params = createExtraParams(theCustomAcceptHeader);
+
+		if (clientInvocation instanceof HttpGetClientInvocation) {
+			if (myRequestFormatParamStyle == RequestFormatParamStyleEnum.SHORT && isBlank(theCustomAcceptHeader)) {
+				if (theEncoding == EncodingEnum.XML) {
+					params.put(Constants.PARAM_FORMAT, Collections.singletonList("xml"));
+				} else if (theEncoding == EncodingEnum.JSON) {
+					params.put(Constants.PARAM_FORMAT, Collections.singletonList("json"));
 				}
 			}
+		}
 
-			if (theCustomHeaders != null) {
-				AdditionalRequestHeadersInterceptor interceptor = new AdditionalRequestHeadersInterceptor(theCustomHeaders);
-				interceptor.interceptRequest(httpRequest);
-			}
+		if (theSummaryMode != null) {
+			params.put(Constants.PARAM_SUMMARY, Collections.singletonList(theSummaryMode.getCode()));
+		} else if (mySummary != null) {
+			params.put(Constants.PARAM_SUMMARY, Collections.singletonList(mySummary.getCode()));
+		}
 
-			HookParams requestParams = new HookParams();
-			requestParams.add(IHttpRequest.class, httpRequest);
-			requestParams.add(IRestfulClient.class, this);
-			getInterceptorService().callHooks(Pointcut.CLIENT_REQUEST, requestParams);
+		if (thePrettyPrint == Boolean.TRUE) {
+			params.put(Constants.PARAM_PRETTY, Collections.singletonList(Constants.PARAM_PRETTY_VALUE_TRUE));
+		}
 
-			response = httpRequest.execute();
+		if (theSubsetElements != null && theSubsetElements.isEmpty() == false) {
+			params.put(Constants.PARAM_ELEMENTS, Collections.singletonList(StringUtils.join(theSubsetElements, ',')));
+		}
 
-			HookParams responseParams = new HookParams();
-			responseParams.add(IHttpRequest.class, httpRequest);
-			responseParams.add(IHttpResponse.class, response);
-			responseParams.add(IRestfulClient.class, this);
-			getInterceptorService().callHooks(Pointcut.CLIENT_RESPONSE, responseParams);
+		EncodingEnum encoding = getEncoding();
+		if (theEncoding != null) {
+			encoding = theEncoding;
+		}
 
-			String mimeType;
-			if (Constants.STATUS_HTTP_204_NO_CONTENT == response.getStatus()) {
-				mimeType = null;
-			} else {
-				mimeType = response.getMimeType();
+		IHttpRequest httpRequest = clientInvocation.asHttpRequest(myUrlBase, params, encoding, thePrettyPrint);
+
+		if (isNotBlank(theCustomAcceptHeader)) {
+			httpRequest.removeHeaders(Constants.HEADER_ACCEPT);
+			httpRequest.addHeader(Constants.HEADER_ACCEPT, theCustomAcceptHeader);
+		}
+
+		if (theCacheControlDirective != null) {
+			StringBuilder b = new StringBuilder();
+			addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_CACHE, theCacheControlDirective.isNoCache());
+			addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_STORE, theCacheControlDirective.isNoStore());
+			if (theCacheControlDirective.getMaxResults() != null) {
+				addToCacheControlHeader(b, Constants.CACHE_CONTROL_MAX_RESULTS + "=" + theCacheControlDirective.getMaxResults().intValue(), true);
 			}
+			if (b.length() > 0) {
+				httpRequest.addHeader(Constants.HEADER_CACHE_CONTROL, b.toString());
+			}
+		}
 
-			Map<String, List<String>> headers = response.getAllHeaders();
+		if (theLogRequestAndResponse) {
+			ourLog.info("Client invoking: {}", httpRequest);
+			String body = httpRequest.getRequestBodyFromStream();
+			if (body != null) {
+				ourLog.info("Client request body: {}", body);
+			}
+		}
 
-			if (response.getStatus() < 200 || response.getStatus() > 299) {
-				String body = null;
-				try (Reader reader = response.createReader()) {
-					body = IOUtils.toString(reader);
-				} catch (Exception e) {
-					ourLog.debug("Failed to read input stream", e);
-				}
+		if (theCustomHeaders != null) {
+			AdditionalRequestHeadersInterceptor interceptor = new AdditionalRequestHeadersInterceptor(theCustomHeaders);
+			interceptor.interceptRequest(httpRequest);
+		}
 
-				String message = "HTTP " + response.getStatus() + " " + response.getStatusInfo();
-				IBaseOperationOutcome oo = null;
-				if (Constants.CT_TEXT.equals(mimeType)) {
-					message = message + ": " + body;
-				} else {
-					EncodingEnum enc = EncodingEnum.forContentType(mimeType);
-					if (enc != null) {
-						IParser p = enc.newParser(theContext);
-						try {
-							// TODO: handle if something other than OO comes back
-							oo = (IBaseOperationOutcome) p.parseResource(body);
-							String details = OperationOutcomeUtil.getFirstIssueDetails(getFhirContext(), oo);
-							if (isNotBlank(details)) {
-								message = message + ": " + details;
-							}
-						} catch (Exception e) {
-							ourLog.debug("Failed to process OperationOutcome response");
-						}
-					}
-				}
+		HookParams requestParams = new HookParams();
+		requestParams.add(IHttpRequest.class, httpRequest);
+		requestParams.add(IRestfulClient.class, this);
+		getInterceptorService().callHooks(Pointcut.CLIENT_REQUEST, requestParams);
 
-				keepResponseAndLogIt(theLogRequestAndResponse, response, body);
+		return httpRequest;
+	}
+
+	private <T> T handleResponse(FhirContext theContext, IClientResponseHandler<T> binding, IHttpRequest httpRequest, IHttpResponse theResponse, boolean theLogRequestAndResponse) throws IOException {
+		ClientResponseContext responseContext = new ClientResponseContext(httpRequest, theResponse, this);
+		HookParams responseParams = new HookParams();
+		responseParams.add(IHttpRequest.class, httpRequest);
+		responseParams.add(IHttpResponse.class, theResponse);
+		responseParams.add(IRestfulClient.class, this);
+		responseParams.add(ClientResponseContext.class, responseContext);
+		getInterceptorService().callHooks(Pointcut.CLIENT_RESPONSE, responseParams);
+
+		IHttpResponse response = responseContext.getHttpResponse();
+		if (response != theResponse) {
+			// The caller only closes the original response
+			try {
+				return processResponse(theContext, binding, response, theLogRequestAndResponse);
+			} finally {
+				response.close();
+			}
+		}
+		return processResponse(theContext, binding, response, theLogRequestAndResponse);
+	}
 
-				BaseServerResponseException exception = BaseServerResponseException.newInstance(response.getStatus(), message);
-				exception.setOperationOutcome(oo);
+	private <T> T processResponse(FhirContext theContext, IClientResponseHandler<T> binding, IHttpResponse response, boolean theLogRequestAndResponse) throws IOException {
+		String mimeType;
+		if (Constants.STATUS_HTTP_204_NO_CONTENT == response.getStatus()) {
+			mimeType = null;
+		} else {
+			mimeType = response.getMimeType();
+		}
 
-				if (body != null) {
-					exception.setResponseBody(body);
-				}
+		Map<String, List<String>> headers = response.getAllHeaders();
 
-				throw exception;
+		if (response.getStatus() < 200 || response.getStatus() > 299) {
+			String body = null;
+			try (Reader reader = response.createReader()) {
+				body = IOUtils.toString(reader);
+			} catch (Exception e) {
+				ourLog.debug("Failed to read input stream", e);
 			}
-			if (binding instanceof IClientResponseHandlerHandlesBinary) {
-				IClientResponseHandlerHandlesBinary<T> handlesBinary = (IClientResponseHandlerHandlesBinary<T>) binding;
-				if (handlesBinary.isBinary()) {
-					try (InputStream reader = response.readEntity()) {
-						return handlesBinary.invokeClientForBinary(mimeType, reader, response.getStatus(), headers);
+
+			String message = "HTTP " + response.getStatus() + " " + response.getStatusInfo();
+			IBaseOperationOutcome oo = null;
+			if (Constants.CT_TEXT.equals(mimeType)) {
+				message = message + ": " + body;
+			} else {
+				EncodingEnum enc = EncodingEnum.forContentType(mimeType);
+				if (enc != null) {
+					IParser p = enc.newParser(theContext);
+					try {
+						// TODO: handle if something other than OO comes back
+						oo = (IBaseOperationOutcome) p.parseResource(body);
+						String details = OperationOutcomeUtil.getFirstIssueDetails(getFhirContext(), oo);
+						if (isNotBlank(details)) {
+							message = message + ": " + details;
+						}
+					} catch (Exception e) {
+						ourLog.debug("Failed to process OperationOutcome response");
 					}
 				}
 			}
 
-			try (InputStream inputStream = response.readEntity()) {
-				InputStream inputStreamToReturn = inputStream;
+			keepResponseAndLogIt(theLogRequestAndResponse, response, body);
 
-				if (ourLog.isTraceEnabled() || myKeepResponses || theLogRequestAndResponse) {
-					if (inputStream != null) {
-						String responseString = IOUtils.toString(inputStream, Charsets.UTF_8);
-						keepResponseAndLogIt(theLogRequestAndResponse, response, responseString);
-						inputStreamToReturn = new ByteArrayInputStream(responseString.getBytes(Charsets.UTF_8));
-					}
-				}
+			BaseServerResponseException exception = BaseServerResponseException.newInstance(response.getStatus(), message);
+			exception.setOperationOutcome(oo);
 
-				if (inputStreamToReturn == null) {
-					inputStreamToReturn = new ByteArrayInputStream(new byte[]{});
-				}
+			if (body != null) {
+				exception.setResponseBody(body);
+			}
 
-				return binding.invokeClient(mimeType, inputStreamToReturn, response.getStatus(), headers);
+			throw exception;
+		}
+		if (binding instanceof IClientResponseHandlerHandlesBinary) {
+			IClientResponseHandlerHandlesBinary<T> handlesBinary = (IClientResponseHandlerHandlesBinary<T>) binding;
+			if (handlesBinary.isBinary()) {
+				try (InputStream reader = response.readEntity()) {
+					return handlesBinary.invokeClientForBinary(mimeType, reader, response.getStatus(), headers);
+				}
 			}
+		}
 
-		} catch (DataFormatException e) {
-			String msg;
-			if (httpRequest != null) {
-				msg = getFhirContext().getLocalizer().getMessage(BaseClient.class, "failedToParseResponse", httpRequest.getHttpVerbName(), httpRequest.getUri(), e.toString());
-			} else {
-				msg = getFhirContext().getLocalizer().getMessage(BaseClient.class, "failedToParseResponse", "UNKNOWN", "UNKNOWN", e.toString());
+		try (InputStream inputStream = response.readEntity()) {
+			InputStream inputStreamToReturn = inputStream;
+
+			if (ourLog.isTraceEnabled() || myKeepResponses || theLogRequestAndResponse) {
+				if (inputStream != null) {
+					String responseString = IOUtils.toString(inputStream, Charsets.UTF_8);
+					keepResponseAndLogIt(theLogRequestAndResponse, response, responseString);
+					inputStreamToReturn = new ByteArrayInputStream(responseString.getBytes(Charsets.UTF_8));
+				}
 			}
-			throw new FhirClientConnectionException(Msg.code(1359) + msg, e);
-		} catch (IllegalStateException e) {
-			throw new FhirClientConnectionException(Msg.code(1360) + e);
-		} catch (IOException e) {
-			String msg;
-			msg = getFhirContext().getLocalizer().getMessage(BaseClient.class, "failedToParseResponse", httpRequest.getHttpVerbName(), httpRequest.getUri(), e.toString());
-			throw new FhirClientConnectionException(Msg.code(1361) + msg, e);
-		} catch (RuntimeException e) {
-			throw e;
-		} catch (Exception e) {
-			throw new FhirClientConnectionException(Msg.code(1362) + e);
-		} finally {
-			if (response != null) {
-				response.close();
+
+			if (inputStreamToReturn == null) {
+				inputStreamToReturn = new ByteArrayInputStream(new byte[]{});
 			}
+
+			return binding.invokeClient(mimeType, inputStreamToReturn, response.getStatus(), headers);
+		}
+	}
+
+	private RuntimeException toClientException(Exception theException, IHttpRequest httpRequest) {
+		String verb = httpRequest != null ? httpRequest.getHttpVerbName() : "UNKNOWN";
+		String uri = httpRequest != null ? httpRequest.getUri() : "UNKNOWN";
+		if (theException instanceof DataFormatException) {
+			String msg = getFhirContext().getLocalizer().getMessage(BaseClient.class, "failedToParseResponse", verb, uri, theException.toString());
+			return new FhirClientConnectionException(Msg.code(1359) + msg, theException);
+		} else if (theException instanceof IllegalStateException) {
+			return new FhirClientConnectionException(Msg.code(1360) + theException);
+		} else if (theException instanceof IOException) {
+			String msg = getFhirContext().getLocalizer().getMessage(BaseClient.class, "failedToParseResponse", verb, uri, theException.toString());
+			return new FhirClientConnectionException(Msg.code(1361) + msg, theException);
+		} else if (theException instanceof RuntimeException) {
+			return (RuntimeException) theException;
 		}
+		return new FhirClientConnectionException(Msg.code(1362) + theException);
 	}
 
 	private void addToCacheControlHeader(StringBuilder theBuilder, String theDirective, boolean theActive) {
@@ -494,6 +570,38 @@ public abstract class BaseClient implements IRestfulClient {
 		getInterceptorService().registerInterceptor(theInterceptor);
 	}
 
+	/**
+	 * Returns the executor used to handle and parse responses for asynchronous invocations
+	 * (e.g. {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()}). Defaults to
+	 * the {@link RestfulClientFactory#getAsyncExecutor() executor} of the factory which created this client.
+	 *
+	 * @since 6.3.0
+	 */
+	public Executor getAsyncResponseExecutor() {
+		Executor retVal = myAsyncResponseExecutor;
+		if (retVal == null && myFactory != null) {
+			retVal = myFactory.getAsyncExecutor();
+		}
+		if (retVal == null) {
+			retVal = Runnable::run;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Sets the executor used to handle and parse responses for asynchronous invocations
+	 * (e.g. {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()}). Response handling
+	 * includes the {@link Pointcut#CLIENT_RESPONSE} hooks, so interceptors which rely on
+	 * thread-local state will not see the state of the calling thread. Defaults to
+	 * the {@link RestfulClientFactory#getAsyncExecutor() executor} of the factory which created this client.
+	 *
+	 * @since 6.3.0
+	 */
+	public void setAsyncResponseExecutor(@Nonnull Executor theAsyncResponseExecutor) {
+		Validate.notNull(theAsyncResponseExecutor, "theAsyncResponseExecutor must not be null");
+		myAsyncResponseExecutor = theAsyncResponseExecutor;
+	}
+
 	/**
 	 * This method is an internal part of the HAPI API and may change, use with caution. If you want to disable the
 	 * loading of conformance statements, use
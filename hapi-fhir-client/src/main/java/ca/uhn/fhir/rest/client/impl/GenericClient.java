@@ -164,6 +164,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -182,6 +188,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 	private FhirContext myContext;
 	private IHttpRequest myLastRequest;
 	private boolean myLogRequestAndResponse;
+	private volatile ReadBatcher myReadBatcher;
 
 	/**
 	 * For now, this is a part of the internal API of HAPI - Use with caution as this method may change!
@@ -209,6 +216,43 @@ public class GenericClient extends BaseClient implements IGenericClient {
 	private <T extends IBaseResource> T doReadOrVRead(final Class<T> theType, IIdType theId, boolean theVRead, ICallable<T> theNotModifiedHandler, String theIfVersionMatches, Boolean thePrettyPrint,
 																	  SummaryEnum theSummary, EncodingEnum theEncoding, Set<String> theSubsetElements, String theCustomAcceptHeaderValue,
 																	  Map<String, List<String>> theCustomHeaders) {
+		PreparedInvocation<T> prepared = prepareReadOrVRead(theType, theId, theVRead, theIfVersionMatches, theSummary, theCustomAcceptHeaderValue);
+		IClientResponseHandler<T> binding = prepared.getHandler();
+		BaseHttpClientInvocation invocation = prepared.getInvocation();
+
+		if (theNotModifiedHandler == null) {
+			return invokeClient(myContext, binding, invocation, theEncoding, thePrettyPrint, myLogRequestAndResponse, theSummary, theSubsetElements, null, theCustomAcceptHeaderValue, theCustomHeaders);
+		}
+		try {
+			return invokeClient(myContext, binding, invocation, theEncoding, thePrettyPrint, myLogRequestAndResponse, theSummary, theSubsetElements, null, theCustomAcceptHeaderValue, theCustomHeaders);
+		} catch (NotModifiedException e) {
+			return theNotModifiedHandler.call();
+		}
+
+	}
+
+	private <T extends IBaseResource> CompletableFuture<T> doReadOrVReadAsync(final Class<T> theType, IIdType theId, boolean theVRead, ICallable<T> theNotModifiedHandler, String theIfVersionMatches, Boolean thePrettyPrint,
+																							SummaryEnum theSummary, EncodingEnum theEncoding, Set<String> theSubsetElements, String theCustomAcceptHeaderValue,
+																							Map<String, List<String>> theCustomHeaders) {
+		PreparedInvocation<T> prepared = prepareReadOrVRead(theType, theId, theVRead, theIfVersionMatches, theSummary, theCustomAcceptHeaderValue);
+		CompletableFuture<T> retVal = invokeClientAsync(myContext, prepared.getHandler(), prepared.getInvocation(), theEncoding, thePrettyPrint, myLogRequestAndResponse, theSummary, theSubsetElements, null, theCustomAcceptHeaderValue, theCustomHeaders);
+
+		if (theNotModifiedHandler == null) {
+			return retVal;
+		}
+		return retVal.handle((theResource, theFailure) -> {
+			if (theFailure == null) {
+				return theResource;
+			}
+			Throwable cause = theFailure instanceof CompletionException ? theFailure.getCause() : theFailure;
+			if (cause instanceof NotModifiedException) {
+				return theNotModifiedHandler.call();
+			}
+			throw theFailure instanceof CompletionException ? (CompletionException) theFailure : new CompletionException(theFailure);
+		});
+	}
+
+	private <T extends IBaseResource> PreparedInvocation<T> prepareReadOrVRead(final Class<T> theType, IIdType theId, boolean theVRead, String theIfVersionMatches, SummaryEnum theSummary, String theCustomAcceptHeaderValue) {
 		String resName = toResourceName(theType);
 		IIdType id = theId;
 		if (!id.hasBaseUrl()) {
@@ -239,16 +283,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 		boolean allowHtmlResponse = SummaryEnum.TEXT.equals(theSummary);
 		ResourceResponseHandler<T> binding = new ResourceResponseHandler<>(theType, (Class<? extends IBaseResource>) null, id, allowHtmlResponse);
-
-		if (theNotModifiedHandler == null) {
-			return invokeClient(myContext, binding, invocation, theEncoding, thePrettyPrint, myLogRequestAndResponse, theSummary, theSubsetElements, null, theCustomAcceptHeaderValue, theCustomHeaders);
-		}
-		try {
-			return invokeClient(myContext, binding, invocation, theEncoding, thePrettyPrint, myLogRequestAndResponse, theSummary, theSubsetElements, null, theCustomAcceptHeaderValue, theCustomHeaders);
-		} catch (NotModifiedException e) {
-			return theNotModifiedHandler.call();
-		}
-
+		return new PreparedInvocation<>(null, binding, invocation);
 	}
 
 	@Override
@@ -305,6 +340,22 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		myLogRequestAndResponse = theLogRequestAndResponse;
 	}
 
+	@Override
+	public void setAutoBatching(int theMaxBatchSize, int theMaxDelayMillis) {
+		Validate.isTrue(theMaxDelayMillis >= 0, "theMaxDelayMillis must not be negative");
+		if (theMaxBatchSize > 1) {
+			// Resolved on each use, since the async response executor may be changed after batching is enabled
+			myReadBatcher = new ReadBatcher(this, theMaxBatchSize, theMaxDelayMillis, theCommand -> getAsyncResponseExecutor().execute(theCommand));
+		} else {
+			myReadBatcher = null;
+		}
+	}
+
+	private boolean isDefaultImplementingClass(Class<? extends IBaseResource> theType) {
+		// Batch responses are parsed using the default model classes, so custom types can't be batched
+		return myContext.getResourceDefinition(myContext.getResourceType(theType)).getImplementingClass() == theType;
+	}
+
 	@Override
 	public IGetPage loadPage() {
 		return new LoadPageInternal();
@@ -514,6 +565,15 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return (T) this;
 		}
 
+		/**
+		 * Invocations which do not have a non-blocking implementation run {@link #execute()}
+		 * on the {@link #getAsyncResponseExecutor() async response executor} of the client.
+		 */
+		@Override
+		public CompletableFuture<Y> executeAsync() {
+			return CompletableFuture.supplyAsync(this::execute, getAsyncResponseExecutor());
+		}
+
 		protected EncodingEnum getParamEncoding() {
 			return myParamEncoding;
 		}
@@ -542,6 +602,38 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return resp;
 		}
 
+		/**
+		 * Can this invocation be combined with others into a batch? Only invocations
+		 * which use the client defaults are batched.
+		 *
+		 * @see #setAutoBatching(int, int)
+		 */
+		boolean isBatchable() {
+			return myReadBatcher != null
+				&& myParamEncoding == null
+				&& myPrettyPrint == null
+				&& mySummaryMode == null
+				&& myCacheControlDirective == null
+				&& myCustomHeaderValues.isEmpty()
+				&& myCustomAcceptHeaderValue == null
+				&& myPreferResponseTypes == null
+				&& mySubsetElements == null
+				&& !myQueryLogRequestAndResponse
+				&& !myLogRequestAndResponse;
+		}
+
+		protected <Z> Z invoke(PreparedInvocation<Z> thePrepared) {
+			return invoke(thePrepared.getParams(), thePrepared.getHandler(), thePrepared.getInvocation());
+		}
+
+		protected <Z> CompletableFuture<Z> invokeAsync(PreparedInvocation<Z> thePrepared) {
+			if (isKeepResponses()) {
+				myLastRequest = thePrepared.getInvocation().asHttpRequest(getServerBase(), thePrepared.getParams(), getEncoding(), myPrettyPrint);
+			}
+
+			return invokeClientAsync(myContext, thePrepared.getHandler(), thePrepared.getInvocation(), myParamEncoding, myPrettyPrint, myQueryLogRequestAndResponse || myLogRequestAndResponse, mySummaryMode, mySubsetElements, myCacheControlDirective, myCustomAcceptHeaderValue, myCustomHeaderValues);
+		}
+
 		protected IBaseResource parseResourceBody(String theResourceBody) {
 			EncodingEnum encoding = EncodingEnum.detectEncodingNoDefault(theResourceBody);
 			if (encoding == null) {
@@ -858,13 +950,22 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 		@Override
 		public Object execute() {
+			return invoke(prepareInvocation());
+		}
+
+		@Override
+		public CompletableFuture<Object> executeAsync() {
+			return invokeAsync(prepareInvocation());
+		}
+
+		private PreparedInvocation<Object> prepareInvocation() {
 			IClientResponseHandler binding;
 			binding = new ResourceResponseHandler(myBundleType, getPreferResponseTypes());
 			HttpSimpleGetClientInvocation invocation = new HttpSimpleGetClientInvocation(myContext, myUrl);
 			invocation.setUrlSource(UrlSourceEnum.EXPLICIT);
 
 			Map<String, List<String>> params = null;
-			return invoke(params, binding, invocation);
+			return new PreparedInvocation<>(params, binding, invocation);
 		}
 
 	}
@@ -1261,10 +1362,23 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
-		@SuppressWarnings("unchecked")
 		@Override
 		public Object execute() {
-			if (myOperationName != null && myOperationName.equals(Constants.EXTOP_PROCESS_MESSAGE) && myMsgBundle != null) {
+			return wrapResponseIfNeeded(invoke(prepareInvocation()));
+		}
+
+		@Override
+		public CompletableFuture executeAsync() {
+			return invokeAsync(prepareInvocation()).thenApply(this::wrapResponseIfNeeded);
+		}
+
+		private boolean isProcessMessage() {
+			return myOperationName != null && myOperationName.equals(Constants.EXTOP_PROCESS_MESSAGE) && myMsgBundle != null;
+		}
+
+		@SuppressWarnings("unchecked")
+		private PreparedInvocation prepareInvocation() {
+			if (isProcessMessage()) {
 				Map<String, List<String>> urlParams = new LinkedHashMap<String, List<String>>();
 				// Set Url parameter Async and Response-Url
 				if (myIsAsync != null) {
@@ -1280,8 +1394,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 				ResourceResponseHandler handler = new ResourceResponseHandler();
 				handler.setPreferResponseTypes(getPreferResponseTypes(myType));
 
-				Object retVal = invoke(null, handler, invocation);
-				return retVal;
+				return new PreparedInvocation(null, handler, invocation);
 			}
 
 			String resourceName;
@@ -1307,8 +1420,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			if (myReturnResourceType != null) {
 				ResourceResponseHandler handler;
 				handler = new ResourceResponseHandler(myReturnResourceType);
-				Object retVal = invoke(null, handler, invocation);
-				return retVal;
+				return new PreparedInvocation(null, handler, invocation);
 			}
 			IClientResponseHandler handler = new ResourceOrBinaryResponseHandler()
 				.setPreferResponseTypes(getPreferResponseTypes(myType));
@@ -1317,9 +1429,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 				handler = new MethodOutcomeResponseHandler(handler);
 			}
 
-			Object retVal = invoke(null, handler, invocation);
+			return new PreparedInvocation(null, handler, invocation);
+		}
 
-			if (myReturnMethodOutcome) {
+		private Object wrapResponseIfNeeded(Object retVal) {
+			if (isProcessMessage() || myReturnResourceType != null || myReturnMethodOutcome) {
 				return retVal;
 			}
 
@@ -1686,6 +1800,32 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return doReadOrVRead(myType.getImplementingClass(), myId, false, myNotModifiedHandler, myIfVersionMatches, myPrettyPrint, mySummaryMode, myParamEncoding, getSubsetElements(), getCustomAcceptHeaderValue(), myCustomHeaderValues);
 		}
 
+		@Override
+		public CompletableFuture executeAsync() {
+			if (isBatchableRead()) {
+				return executeBatched();
+			}
+			return doReadOrVReadAsync(myType.getImplementingClass(), myId, myId.hasVersionIdPart(), myNotModifiedHandler, myIfVersionMatches, myPrettyPrint, mySummaryMode, myParamEncoding, getSubsetElements(), getCustomAcceptHeaderValue(), myCustomHeaderValues);
+		}
+
+		private boolean isBatchableRead() {
+			return isBatchable()
+				&& myIfVersionMatches == null
+				&& myNotModifiedHandler == null
+				&& myId.hasIdPart()
+				&& !myId.hasBaseUrl()
+				&& isDefaultImplementingClass(myType.getImplementingClass());
+		}
+
+		private CompletableFuture<IBaseResource> executeBatched() {
+			String url = myType.getName() + "/" + myId.getIdPart();
+			if (myId.hasVersionIdPart()) {
+				url = url + "/" + Constants.PARAM_HISTORY + "/" + myId.getVersionIdPart();
+			}
+			Class<IBaseResource> type = (Class<IBaseResource>) myType.getImplementingClass();
+			return myReadBatcher.submit(url, type, () -> doReadOrVReadAsync(type, myId, myId.hasVersionIdPart(), null, null, myPrettyPrint, mySummaryMode, myParamEncoding, getSubsetElements(), getCustomAcceptHeaderValue(), myCustomHeaderValues));
+		}
+
 		@Override
 		public IReadIfNoneMatch ifVersionMatches(String theVersion) {
 			myIfVersionMatches = theVersion;
@@ -1825,6 +1965,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		private DateRangeParam myLastUpdated;
 		private Integer myParamLimit;
 		private Integer myParamOffset;
+		private int myPrefetchPages = 1;
 		private List<Collection<String>> myProfiles = new ArrayList<>();
 		private String myResourceId;
 		private String myResourceName;
@@ -1892,8 +2033,72 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
+		@Override
+		public IQuery prefetchPages(int thePageCount) {
+			Validate.isTrue(thePageCount >= 0, "thePageCount must not be negative");
+			myPrefetchPages = thePageCount;
+			return this;
+		}
+
+		@Override
+		public Iterator<IBaseResource> iterator() {
+			return newPagingIterator();
+		}
+
+		@Override
+		public Stream<IBaseResource> stream() {
+			PagingResourceIterator iterator = newPagingIterator();
+			Spliterator<IBaseResource> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+			return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+		}
+
+		private PagingResourceIterator newPagingIterator() {
+			CompletableFuture<IBaseBundle> firstPage = executeAsync().thenApply(t -> (IBaseBundle) t);
+			return new PagingResourceIterator(GenericClient.this, firstPage, myPrefetchPages);
+		}
+
 		@Override
 		public OUTPUT execute() {
+			PreparedInvocation prepared = prepareInvocation();
+			return (OUTPUT) invoke(prepared);
+		}
+
+		@Override
+		public CompletableFuture<OUTPUT> executeAsync() {
+			PreparedInvocation prepared = prepareInvocation();
+			String batchUrl = getBatchUrl(prepared);
+			if (batchUrl != null) {
+				return (CompletableFuture<OUTPUT>) myReadBatcher.submit(batchUrl, myReturnBundleType, () -> invokeAsync(prepared));
+			}
+			return invokeAsync(prepared);
+		}
+
+		/**
+		 * Returns the URL to use for this search within a batch Bundle, or <code>null</code>
+		 * if this search can't be batched (e.g. because it uses POST or an absolute search URL)
+		 */
+		private String getBatchUrl(PreparedInvocation thePrepared) {
+			if (!isBatchable() || !(thePrepared.getInvocation() instanceof HttpGetClientInvocation)) {
+				return null;
+			}
+			if (myReturnBundleType == null || !isDefaultImplementingClass(myReturnBundleType)) {
+				return null;
+			}
+			if (myResourceType != null && !isDefaultImplementingClass(myResourceType)) {
+				return null;
+			}
+
+			HttpGetClientInvocation invocation = (HttpGetClientInvocation) thePrepared.getInvocation();
+			if (isBlank(invocation.getUrlPath()) || invocation.getUrlPath().contains("://")) {
+				return null;
+			}
+
+			StringBuilder b = new StringBuilder(StringUtils.removeStart(invocation.getUrlPath(), "/"));
+			BaseHttpClientInvocation.appendExtraParamsWithQuestionMark(invocation.getParameters(), b, b.indexOf("?") == -1);
+			return b.toString();
+		}
+
+		private PreparedInvocation prepareInvocation() {
 
 			Map<String, List<String>> params = getParamMap();
 
@@ -1993,7 +2198,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 				invocation = SearchMethodBinding.createSearchInvocation(myContext, myResourceName, params, resourceId, myCompartmentName, mySearchStyle);
 			}
 
-			return (OUTPUT) invoke(params, binding, invocation);
+			return new PreparedInvocation(params, binding, invocation);
 
 		}
 
@@ -2124,6 +2329,36 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 	}
 
+	/**
+	 * A request which has been fully built but not yet sent, allowing the same preparation
+	 * logic to back both {@link IClientExecutable#execute()} and {@link IClientExecutable#executeAsync()}
+	 */
+	private static final class PreparedInvocation<Z> {
+
+		private final Map<String, List<String>> myParams;
+		private final IClientResponseHandler<Z> myHandler;
+		private final BaseHttpClientInvocation myInvocation;
+
+		PreparedInvocation(Map<String, List<String>> theParams, IClientResponseHandler<Z> theHandler, BaseHttpClientInvocation theInvocation) {
+			myParams = theParams;
+			myHandler = theHandler;
+			myInvocation = theInvocation;
+		}
+
+		Map<String, List<String>> getParams() {
+			return myParams;
+		}
+
+		IClientResponseHandler<Z> getHandler() {
+			return myHandler;
+		}
+
+		BaseHttpClientInvocation getInvocation() {
+			return myInvocation;
+		}
+
+	}
+
 	private final class StringResponseHandler implements IClientResponseHandler<String> {
 
 		@Override
@@ -2156,18 +2391,29 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			}
 		}
 
-		@SuppressWarnings({"unchecked", "rawtypes"})
+		@SuppressWarnings("unchecked")
 		@Override
 		public T execute() {
+			return (T) invoke(prepareInvocation());
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public CompletableFuture<T> executeAsync() {
+			return invokeAsync(prepareInvocation());
+		}
+
+		@SuppressWarnings("rawtypes")
+		private PreparedInvocation prepareInvocation() {
 			Map<String, List<String>> params = new HashMap<String, List<String>>();
 			if (myResources != null) {
 				ResourceListResponseHandler binding = new ResourceListResponseHandler();
 				BaseHttpClientInvocation invocation = TransactionMethodBinding.createTransactionInvocation(myResources, myContext);
-				return (T) invoke(params, binding, invocation);
+				return new PreparedInvocation(params, binding, invocation);
 			} else if (myBaseBundle != null) {
 				ResourceResponseHandler binding = new ResourceResponseHandler(myBaseBundle.getClass(), getPreferResponseTypes());
 				BaseHttpClientInvocation invocation = TransactionMethodBinding.createTransactionInvocation(myBaseBundle, myContext);
-				return (T) invoke(params, binding, invocation);
+				return new PreparedInvocation(params, binding, invocation);
 				// } else if (myRawBundle != null) {
 			} else {
 				StringResponseHandler binding = new StringResponseHandler();
@@ -2181,7 +2427,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 					}
 				}
 				BaseHttpClientInvocation invocation = TransactionMethodBinding.createTransactionInvocation(myRawBundle, myContext);
-				return (T) invoke(params, binding, invocation);
+				return new PreparedInvocation(params, binding, invocation);
 			}
 		}
 
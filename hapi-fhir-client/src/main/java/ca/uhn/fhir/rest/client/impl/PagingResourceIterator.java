@@ -0,0 +1,142 @@
+package ca.uhn.fhir.rest.client.impl;
+
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.util.BundleUtil;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Iterates over the resources in every page of a search result, following the <code>next</code>
+ * link of each page. While one page is being consumed, up to the configured number of following
+ * pages are requested in the background. Because each page's URL is only known once the previous
+ * page has arrived, prefetched pages are requested one after another, each as soon as its
+ * predecessor completes.
+ *
+ * @see ca.uhn.fhir.rest.gclient.IQuery#iterator()
+ */
+class PagingResourceIterator implements Iterator<IBaseResource> {
+
+	private final IGenericClient myClient;
+	private final FhirContext myContext;
+	private final int myPrefetchPages;
+	private final Deque<CompletableFuture<IBaseBundle>> myRequestedPages = new ArrayDeque<>();
+	private CompletableFuture<IBaseBundle> myLastRequestedPage;
+	private Iterator<IBaseResource> myCurrentPage = Collections.emptyIterator();
+	private boolean myFinished;
+
+	PagingResourceIterator(IGenericClient theClient, CompletableFuture<IBaseBundle> theFirstPage, int thePrefetchPages) {
+		myClient = theClient;
+		myContext = theClient.getFhirContext();
+		myPrefetchPages = thePrefetchPages;
+		myLastRequestedPage = theFirstPage;
+		myRequestedPages.add(theFirstPage);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!myCurrentPage.hasNext()) {
+			if (myFinished) {
+				return false;
+			}
+			if (myRequestedPages.isEmpty()) {
+				requestNextPage();
+			}
+
+			IBaseBundle page = getResult(myRequestedPages.removeFirst());
+			if (page == null) {
+				close();
+				return false;
+			}
+			myCurrentPage = BundleUtil.toListOfResources(myContext, page).iterator();
+
+			while (myRequestedPages.size() < myPrefetchPages) {
+				requestNextPage();
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public IBaseResource next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException(Msg.code(2242) + " Nothing to fetch");
+		}
+		return myCurrentPage.next();
+	}
+
+	/**
+	 * Stops any further pages from being requested. A page which is already being
+	 * fetched will complete, but is discarded.
+	 */
+	void close() {
+		myFinished = true;
+		myCurrentPage = Collections.emptyIterator();
+		for (CompletableFuture<IBaseBundle> next : myRequestedPages) {
+			next.cancel(false);
+		}
+		myRequestedPages.clear();
+	}
+
+	private void requestNextPage() {
+		myLastRequestedPage = myLastRequestedPage.thenCompose(this::loadNextPage);
+		myRequestedPages.add(myLastRequestedPage);
+	}
+
+	/**
+	 * Returns a future for the page following the given one, or a future for <code>null</code>
+	 * if there are no more pages
+	 */
+	private CompletableFuture<IBaseBundle> loadNextPage(IBaseBundle thePreviousPage) {
+		if (thePreviousPage == null || isBlank(BundleUtil.getLinkUrlOfType(myContext, thePreviousPage, Constants.LINK_NEXT))) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return myClient.loadPage().next(thePreviousPage).executeAsync();
+	}
+
+	private IBaseBundle getResult(CompletableFuture<IBaseBundle> thePage) {
+		try {
+			return thePage.join();
+		} catch (CompletionException e) {
+			close();
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+}
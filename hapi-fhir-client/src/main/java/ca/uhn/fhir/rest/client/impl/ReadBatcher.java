@@ -0,0 +1,247 @@
+package ca.uhn.fhir.rest.client.impl;
+
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.exceptions.InvalidResponseException;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import ca.uhn.fhir.util.BundleBuilder;
+import ca.uhn.fhir.util.FhirTerser;
+import ca.uhn.fhir.util.OperationOutcomeUtil;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Collects reads and searches issued by a {@link GenericClient} within a short window and sends
+ * them to the server as a single <code>batch</code> Bundle, completing each caller's future with
+ * the matching entry from the batch response.
+ *
+ * @see IGenericClient#setAutoBatching(int, int)
+ */
+class ReadBatcher {
+
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ReadBatcher.class);
+
+	private final IGenericClient myClient;
+	private final FhirContext myContext;
+	private final int myMaxBatchSize;
+	private final int myMaxDelayMillis;
+	private final Executor myExecutor;
+	private List<PendingEntry<?>> myPending = new ArrayList<>();
+
+	/**
+	 * @param theExecutor The executor used to send a batch once its delay has elapsed
+	 */
+	ReadBatcher(IGenericClient theClient, int theMaxBatchSize, int theMaxDelayMillis, Executor theExecutor) {
+		myClient = theClient;
+		myContext = theClient.getFhirContext();
+		myMaxBatchSize = theMaxBatchSize;
+		myMaxDelayMillis = theMaxDelayMillis;
+		myExecutor = theExecutor;
+	}
+
+	/**
+	 * Queues a GET request for inclusion in the next batch
+	 *
+	 * @param theUrl                The request URL, relative to the server base
+	 * @param theResultType         The resource type the caller expects the entry to contain
+	 * @param theDirectInvocation   Used to send the request on its own if it turns out to be the only
+	 *                              request in its batch
+	 */
+	<T extends IBaseResource> CompletableFuture<T> submit(String theUrl, Class<T> theResultType, Supplier<CompletableFuture<T>> theDirectInvocation) {
+		PendingEntry<T> entry = new PendingEntry<>(theUrl, theResultType, theDirectInvocation);
+
+		List<PendingEntry<?>> fullBatch = null;
+		List<PendingEntry<?>> newBatch = null;
+		synchronized (this) {
+			myPending.add(entry);
+			if (myPending.size() >= myMaxBatchSize) {
+				fullBatch = myPending;
+				myPending = new ArrayList<>();
+			} else if (myPending.size() == 1) {
+				newBatch = myPending;
+			}
+		}
+
+		if (fullBatch != null) {
+			send(fullBatch);
+		} else if (newBatch != null) {
+			List<PendingEntry<?>> batch = newBatch;
+			CompletableFuture
+				.delayedExecutor(myMaxDelayMillis, TimeUnit.MILLISECONDS, myExecutor)
+				.execute(() -> flushIfStillPending(batch));
+		}
+
+		return entry.myFuture;
+	}
+
+	private void flushIfStillPending(List<PendingEntry<?>> theBatch) {
+		synchronized (this) {
+			if (myPending != theBatch) {
+				// Already sent because it filled up
+				return;
+			}
+			myPending = new ArrayList<>();
+		}
+		send(theBatch);
+	}
+
+	private void send(List<PendingEntry<?>> theBatch) {
+		if (theBatch.size() == 1) {
+			theBatch.get(0).sendDirectly();
+			return;
+		}
+
+		ourLog.debug("Sending batch of {} requests", theBatch.size());
+		BundleBuilder builder = new BundleBuilder(myContext);
+		builder.setType("batch");
+		for (PendingEntry<?> next : theBatch) {
+			builder.addGetEntry(next.myUrl);
+		}
+
+		CompletableFuture<IBaseBundle> response;
+		try {
+			response = myClient.transaction().withBundle(builder.getBundle()).executeAsync();
+		} catch (RuntimeException e) {
+			response = CompletableFuture.failedFuture(e);
+		}
+
+		response.whenComplete((theResponse, theFailure) -> {
+			if (theFailure != null) {
+				Throwable cause = theFailure instanceof CompletionException && theFailure.getCause() != null ? theFailure.getCause() : theFailure;
+				theBatch.forEach(t -> t.myFuture.completeExceptionally(cause));
+			} else {
+				demultiplex(theBatch, theResponse);
+			}
+		});
+	}
+
+	private void demultiplex(List<PendingEntry<?>> theBatch, IBaseBundle theResponse) {
+		FhirTerser terser = myContext.newTerser();
+		List<IBase> responseEntries = terser.getValues(theResponse, "entry");
+
+		for (int i = 0; i < theBatch.size(); i++) {
+			PendingEntry<?> next = theBatch.get(i);
+			if (i >= responseEntries.size()) {
+				String msg = Msg.code(2226) + "Batch response contained " + responseEntries.size() + " entries but " + theBatch.size() + " were requested";
+				next.myFuture.completeExceptionally(new InvalidResponseException(msg, Constants.STATUS_HTTP_200_OK));
+				continue;
+			}
+
+			try {
+				next.complete(terser, responseEntries.get(i));
+			} catch (RuntimeException e) {
+				next.myFuture.completeExceptionally(e);
+			}
+		}
+	}
+
+	private static int parseStatusCode(String theStatus) {
+		String code = theStatus.trim();
+		int spaceIdx = code.indexOf(' ');
+		if (spaceIdx != -1) {
+			code = code.substring(0, spaceIdx);
+		}
+		try {
+			return Integer.parseInt(code);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private class PendingEntry<T extends IBaseResource> {
+
+		private final String myUrl;
+		private final Class<T> myResultType;
+		private final Supplier<CompletableFuture<T>> myDirectInvocation;
+		private final CompletableFuture<T> myFuture = new CompletableFuture<>();
+
+		PendingEntry(String theUrl, Class<T> theResultType, Supplier<CompletableFuture<T>> theDirectInvocation) {
+			myUrl = theUrl;
+			myResultType = theResultType;
+			myDirectInvocation = theDirectInvocation;
+		}
+
+		void sendDirectly() {
+			CompletableFuture<T> direct;
+			try {
+				direct = myDirectInvocation.get();
+			} catch (RuntimeException e) {
+				direct = CompletableFuture.failedFuture(e);
+			}
+			direct.whenComplete((theResult, theFailure) -> {
+				if (theFailure != null) {
+					myFuture.completeExceptionally(theFailure instanceof CompletionException && theFailure.getCause() != null ? theFailure.getCause() : theFailure);
+				} else {
+					myFuture.complete(theResult);
+				}
+			});
+		}
+
+		void complete(FhirTerser theTerser, IBase theResponseEntry) {
+			IPrimitiveType<?> statusElement = theTerser.getSingleValueOrNull(theResponseEntry, "response.status", IPrimitiveType.class);
+			String status = statusElement != null ? statusElement.getValueAsString() : null;
+			int statusCode = status != null ? parseStatusCode(status) : -1;
+
+			if (statusCode >= 200 && statusCode <= 299) {
+				IBaseResource resource = theTerser.getSingleValueOrNull(theResponseEntry, "resource", IBaseResource.class);
+				if (!myResultType.isInstance(resource)) {
+					String actualType = resource != null ? myContext.getResourceType(resource) : null;
+					throw new InvalidResponseException(Msg.code(2227) + "Batch response entry for " + myUrl + " contained " + actualType + " but " + myContext.getResourceType(myResultType) + " was expected", statusCode);
+				}
+				myFuture.complete(myResultType.cast(resource));
+				return;
+			}
+
+			String message = "HTTP " + status;
+			IBaseOperationOutcome outcome = theTerser.getSingleValueOrNull(theResponseEntry, "response.outcome", IBaseOperationOutcome.class);
+			if (outcome != null) {
+				String details = OperationOutcomeUtil.getFirstIssueDetails(myContext, outcome);
+				if (isNotBlank(details)) {
+					message = message + ": " + details;
+				}
+			}
+
+			BaseServerResponseException exception = BaseServerResponseException.newInstance(statusCode, message);
+			exception.setOperationOutcome(outcome);
+			throw exception;
+		}
+
+	}
+
+}
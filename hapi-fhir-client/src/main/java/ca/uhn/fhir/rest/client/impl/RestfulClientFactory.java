@@ -37,9 +37,12 @@ import ca.uhn.fhir.rest.client.method.BaseMethodBinding;
 import ca.uhn.fhir.util.FhirTerser;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
+import javax.annotation.Nonnull;
+
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -48,6 +51,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base class for a REST client factory implementation
@@ -66,6 +73,7 @@ public abstract class RestfulClientFactory implements IRestfulClientFactory {
 	private String myProxyPassword;
 	private int myPoolMaxTotal = DEFAULT_POOL_MAX;
 	private int myPoolMaxPerRoute = DEFAULT_POOL_MAX_PER_ROUTE;
+	private Executor myAsyncExecutor;
 
 	/**
 	 * Constructor
@@ -253,6 +261,45 @@ public abstract class RestfulClientFactory implements IRestfulClientFactory {
 		resetHttpClient();
 	}
 
+	/**
+	 * Returns the executor shared by all clients created by this factory to run blocking work for
+	 * asynchronous invocations (e.g. {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()}),
+	 * such as sending the request on a blocking transport and parsing the response.
+	 * <p>
+	 * If no executor has been set using {@link #setAsyncExecutor(Executor)}, a pool of daemon threads
+	 * is created on first use, bounded by the {@link #getPoolMaxTotal() maximum connection pool size}.
+	 * Work submitted while all threads are busy is queued.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public synchronized Executor getAsyncExecutor() {
+		if (myAsyncExecutor == null) {
+			int poolSize = Math.max(1, getPoolMaxTotal());
+			BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+				.namingPattern("hapi-fhir-client-async-%d")
+				.daemon(true)
+				.priority(Thread.NORM_PRIORITY)
+				.build();
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+			executor.allowCoreThreadTimeOut(true);
+			myAsyncExecutor = executor;
+		}
+		return myAsyncExecutor;
+	}
+
+	/**
+	 * Sets the executor shared by all clients created by this factory to run blocking work for
+	 * asynchronous invocations. The executor is not shut down by this factory.
+	 *
+	 * @see #getAsyncExecutor()
+	 * @since 6.3.0
+	 */
+	public synchronized void setAsyncExecutor(@Nonnull Executor theAsyncExecutor) {
+		Validate.notNull(theAsyncExecutor, "theAsyncExecutor must not be null");
+		myAsyncExecutor = theAsyncExecutor;
+	}
+
 	@Deprecated // override deprecated method
 	@Override
 	public synchronized ServerValidationModeEnum getServerValidationModeEnum() {
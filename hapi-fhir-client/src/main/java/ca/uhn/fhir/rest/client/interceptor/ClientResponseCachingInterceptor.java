@@ -0,0 +1,499 @@
+package ca.uhn.fhir.rest.client.interceptor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.client.api.ClientResponseContext;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.rest.client.impl.BaseHttpResponse;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Client interceptor which caches the bodies of successful GET responses which carry an
+ * <code>ETag</code> or <code>Last-Modified</code> header, and revalidates them with the server
+ * using <code>If-None-Match</code> / <code>If-Modified-Since</code> when the same URL is requested
+ * again. If the server responds with <code>304 Not Modified</code>, the cached body is processed
+ * by the client as though it had been returned by the server, saving the cost of downloading it.
+ * <p>
+ * This is useful for repeatedly reading reference data such as ValueSets, StructureDefinitions
+ * or Organizations. Entries are keyed by the request URL, the <code>Accept</code> header and the
+ * caller identity, and the least recently used entries are evicted once the total size of the cached
+ * bodies exceeds {@link #setMaximumCacheSizeBytes(long) the maximum cache size}.
+ * </p>
+ * <p>
+ * A revalidation only tells the client whether the response has changed, not whether the caller is
+ * still allowed to see it, so a cached body must never be replayed to a different caller. By default
+ * the caller identity is the value of the <code>Authorization</code> and <code>Cookie</code> headers,
+ * so clients sharing an instance of this interceptor but using different credentials never share
+ * a cached response. A different identity can be supplied using {@link #setIdentityFunction(Function)}.
+ * Note that credentials added by other client interceptors are only seen if those interceptors
+ * run before this one (which is the case for the built-in authentication interceptors).
+ * </p>
+ * <p>
+ * The raw response bodies are cached rather than parsed resources, since the resources returned
+ * by the client are mutable and are owned by the calling code. Requests which already carry
+ * conditional headers (e.g. a read using <code>ifVersionMatches(..)</code>) or a
+ * <code>Cache-Control: no-store</code> directive are not cached, nor are responses carrying
+ * <code>Cache-Control: no-store</code> or <code>Cache-Control: private</code>.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+@Interceptor
+public class ClientResponseCachingInterceptor {
+
+	public static final long DEFAULT_MAXIMUM_CACHE_SIZE_BYTES = 10 * FileUtils.ONE_MB;
+	private static final Set<String> HEADERS_NOT_CACHED = Set.of(
+		Constants.HEADER_CONTENT_ENCODING.toLowerCase(Locale.ROOT),
+		"content-length",
+		"transfer-encoding"
+	);
+
+	private final LinkedHashMap<String, CacheEntry> myCache = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<IHttpRequest, PendingRequest> myPendingRequests = Collections.synchronizedMap(new WeakHashMap<>());
+	private final AtomicLong myHitCount = new AtomicLong();
+	private final AtomicLong myMissCount = new AtomicLong();
+	private final AtomicLong myEvictionCount = new AtomicLong();
+	private long myMaximumCacheSizeBytes = DEFAULT_MAXIMUM_CACHE_SIZE_BYTES;
+	private Function<IHttpRequest, String> myIdentityFunction = ClientResponseCachingInterceptor::defaultIdentity;
+	private long myCacheSizeBytes;
+
+	/**
+	 * Constructor
+	 */
+	public ClientResponseCachingInterceptor() {
+		super();
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaximumCacheSizeBytes The maximum total size of the cached response bodies
+	 */
+	public ClientResponseCachingInterceptor(long theMaximumCacheSizeBytes) {
+		setMaximumCacheSizeBytes(theMaximumCacheSizeBytes);
+	}
+
+	@Hook(value = Pointcut.CLIENT_REQUEST, order = InterceptorOrders.RESPONSE_CACHING_INTERCEPTOR_REQUEST)
+	public void interceptRequest(IHttpRequest theRequest) {
+		String key = toCacheKey(theRequest);
+		if (key == null) {
+			return;
+		}
+
+		CacheEntry entry;
+		synchronized (myCache) {
+			entry = myCache.get(key);
+		}
+		if (entry != null) {
+			// Servers are supposed to ignore If-Modified-Since when If-None-Match is present, but
+			// not all do and a last modified date only has a resolution of one second
+			if (entry.myETag != null) {
+				theRequest.addHeader(Constants.HEADER_IF_NONE_MATCH, entry.myETag);
+			} else {
+				theRequest.addHeader(Constants.HEADER_IF_MODIFIED_SINCE, entry.myLastModified);
+			}
+		}
+
+		myPendingRequests.put(theRequest, new PendingRequest(key, entry));
+	}
+
+	@Hook(value = Pointcut.CLIENT_RESPONSE, order = InterceptorOrders.RESPONSE_CACHING_INTERCEPTOR_RESPONSE)
+	public void interceptResponse(IHttpRequest theRequest, IHttpResponse theResponse, ClientResponseContext theResponseContext) {
+		PendingRequest pending = myPendingRequests.remove(theRequest);
+		if (pending == null) {
+			return;
+		}
+
+		if (theResponse.getStatus() == Constants.STATUS_HTTP_304_NOT_MODIFIED && pending.myEntry != null) {
+			myHitCount.incrementAndGet();
+			theResponseContext.setHttpResponse(new CachedHttpResponse(pending.myEntry, theResponse));
+			return;
+		}
+
+		myMissCount.incrementAndGet();
+		if (theResponse.getStatus() == Constants.STATUS_HTTP_200_OK) {
+			Map<String, List<String>> headers = theResponse.getAllHeaders();
+			String eTag = getFirstHeader(headers, Constants.HEADER_ETAG);
+			String lastModified = getFirstHeader(headers, Constants.HEADER_LAST_MODIFIED);
+			if ((eTag != null || lastModified != null) && !hasCacheControlDirective(headers, Constants.CACHE_CONTROL_NO_STORE) && !hasCacheControlDirective(headers, Constants.CACHE_CONTROL_PRIVATE)) {
+				store(pending.myKey, eTag, lastModified, theResponse);
+			} else if (pending.myEntry != null) {
+				// The previously cached response is stale and the new one can't replace it
+				synchronized (myCache) {
+					removeEntry(pending.myKey);
+				}
+			}
+		}
+	}
+
+	private void store(String theKey, String theETag, String theLastModified, IHttpResponse theResponse) {
+		byte[] body;
+		try {
+			// Buffer the entity so that the client can still read it after we do
+			theResponse.bufferEntity();
+			try (InputStream inputStream = theResponse.readEntity()) {
+				body = inputStream != null ? IOUtils.toByteArray(inputStream) : new byte[0];
+			}
+		} catch (IOException e) {
+			throw new InternalErrorException(Msg.code(2228) + "Unable to buffer the response entity for caching", e);
+		}
+
+		Map<String, List<String>> headers = new HashMap<>();
+		for (Map.Entry<String, List<String>> next : theResponse.getAllHeaders().entrySet()) {
+			String name = next.getKey().toLowerCase(Locale.ROOT);
+			if (!HEADERS_NOT_CACHED.contains(name)) {
+				headers.put(name, next.getValue());
+			}
+		}
+
+		CacheEntry entry = new CacheEntry(theETag, theLastModified, theResponse.getStatusInfo(), headers, body);
+		synchronized (myCache) {
+			if (body.length > myMaximumCacheSizeBytes) {
+				removeEntry(theKey);
+				return;
+			}
+			removeEntry(theKey);
+			myCache.put(theKey, entry);
+			myCacheSizeBytes += body.length;
+			evictIfNeeded();
+		}
+	}
+
+	private void removeEntry(String theKey) {
+		CacheEntry previous = myCache.remove(theKey);
+		if (previous != null) {
+			myCacheSizeBytes -= previous.myBody.length;
+		}
+	}
+
+	private void evictIfNeeded() {
+		Iterator<CacheEntry> iterator = myCache.values().iterator();
+		while (myCacheSizeBytes > myMaximumCacheSizeBytes && iterator.hasNext()) {
+			CacheEntry eldest = iterator.next();
+			iterator.remove();
+			myCacheSizeBytes -= eldest.myBody.length;
+			myEvictionCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Removes all cached responses. The hit/miss statistics are not reset.
+	 */
+	public void clear() {
+		synchronized (myCache) {
+			myCache.clear();
+			myCacheSizeBytes = 0;
+		}
+	}
+
+	/**
+	 * Returns the number of requests which were answered from the cache after the server
+	 * responded with <code>304 Not Modified</code>
+	 */
+	public long getHitCount() {
+		return myHitCount.get();
+	}
+
+	/**
+	 * Returns the number of cacheable requests which were not answered from the cache, either
+	 * because no cached response was available or because the server returned a new response
+	 */
+	public long getMissCount() {
+		return myMissCount.get();
+	}
+
+	/**
+	 * Returns the fraction of cacheable requests which were answered from the cache,
+	 * or 0 if no cacheable requests have been made
+	 */
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return total > 0 ? (double) hits / total : 0;
+	}
+
+	/**
+	 * Returns the number of cached responses which have been evicted to keep the cache
+	 * within its maximum size
+	 */
+	public long getEvictionCount() {
+		return myEvictionCount.get();
+	}
+
+	/**
+	 * Returns the number of responses currently cached
+	 */
+	public int getCacheEntryCount() {
+		synchronized (myCache) {
+			return myCache.size();
+		}
+	}
+
+	/**
+	 * Returns the total size of the response bodies currently cached
+	 */
+	public long getCacheSizeBytes() {
+		synchronized (myCache) {
+			return myCacheSizeBytes;
+		}
+	}
+
+	public long getMaximumCacheSizeBytes() {
+		return myMaximumCacheSizeBytes;
+	}
+
+	/**
+	 * Sets the maximum total size of the cached response bodies. Once this is exceeded, the
+	 * least recently used responses are evicted. Defaults to {@link #DEFAULT_MAXIMUM_CACHE_SIZE_BYTES}.
+	 */
+	public void setMaximumCacheSizeBytes(long theMaximumCacheSizeBytes) {
+		Validate.isTrue(theMaximumCacheSizeBytes > 0, "theMaximumCacheSizeBytes must be greater than 0");
+		synchronized (myCache) {
+			myMaximumCacheSizeBytes = theMaximumCacheSizeBytes;
+			evictIfNeeded();
+		}
+	}
+
+	/**
+	 * Sets the function used to determine the identity of the caller. Cached responses are only
+	 * replayed to requests having the same identity. The function may return <code>null</code> to
+	 * indicate that a request must not be cached. By default, the identity is made up of the values
+	 * of the <code>Authorization</code> and <code>Cookie</code> headers.
+	 */
+	public void setIdentityFunction(@Nonnull Function<IHttpRequest, String> theIdentityFunction) {
+		Validate.notNull(theIdentityFunction, "theIdentityFunction must not be null");
+		myIdentityFunction = theIdentityFunction;
+	}
+
+	private String toCacheKey(IHttpRequest theRequest) {
+		if (!RequestTypeEnum.GET.name().equals(theRequest.getHttpVerbName())) {
+			return null;
+		}
+
+		Map<String, List<String>> headers = theRequest.getAllHeaders();
+		if (getFirstHeader(headers, Constants.HEADER_IF_NONE_MATCH) != null || getFirstHeader(headers, Constants.HEADER_IF_MODIFIED_SINCE) != null) {
+			// The caller is handling conditional requests itself
+			return null;
+		}
+		if (hasCacheControlDirective(headers, Constants.CACHE_CONTROL_NO_STORE)) {
+			return null;
+		}
+
+		String identity = myIdentityFunction.apply(theRequest);
+		if (identity == null) {
+			return null;
+		}
+
+		String accept = StringUtils.defaultString(getFirstHeader(headers, Constants.HEADER_ACCEPT));
+		return theRequest.getUri() + " " + accept + " " + identity;
+	}
+
+	private static String defaultIdentity(IHttpRequest theRequest) {
+		Map<String, List<String>> headers = theRequest.getAllHeaders();
+		return getHeaders(headers, Constants.HEADER_AUTHORIZATION) + "|" + getHeaders(headers, Constants.HEADER_COOKIE);
+	}
+
+	private static boolean hasCacheControlDirective(Map<String, List<String>> theHeaders, String theDirective) {
+		for (String next : getHeaders(theHeaders, Constants.HEADER_CACHE_CONTROL)) {
+			for (String nextDirective : next.split(",")) {
+				if (StringUtils.substringBefore(nextDirective, "=").trim().equalsIgnoreCase(theDirective)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static List<String> getHeaders(Map<String, List<String>> theHeaders, String theName) {
+		List<String> retVal = new ArrayList<>();
+		for (Map.Entry<String, List<String>> next : theHeaders.entrySet()) {
+			if (next.getKey().equalsIgnoreCase(theName) && next.getValue() != null) {
+				retVal.addAll(next.getValue());
+			}
+		}
+		return retVal;
+	}
+
+	private static String getFirstHeader(Map<String, List<String>> theHeaders, String theName) {
+		for (Map.Entry<String, List<String>> next : theHeaders.entrySet()) {
+			if (next.getKey().equalsIgnoreCase(theName) && next.getValue() != null && !next.getValue().isEmpty()) {
+				return next.getValue().get(0);
+			}
+		}
+		return null;
+	}
+
+	private static class PendingRequest {
+
+		private final String myKey;
+		private final CacheEntry myEntry;
+
+		private PendingRequest(String theKey, CacheEntry theEntry) {
+			myKey = theKey;
+			myEntry = theEntry;
+		}
+
+	}
+
+	private static class CacheEntry {
+
+		private final String myETag;
+		private final String myLastModified;
+		private final String myStatusInfo;
+		private final Map<String, List<String>> myHeaders;
+		private final byte[] myBody;
+
+		private CacheEntry(String theETag, String theLastModified, String theStatusInfo, Map<String, List<String>> theHeaders, byte[] theBody) {
+			myETag = theETag;
+			myLastModified = theLastModified;
+			myStatusInfo = theStatusInfo;
+			myHeaders = theHeaders;
+			myBody = theBody;
+		}
+
+	}
+
+	/**
+	 * Replays a cached <code>200 OK</code> response in place of a <code>304 Not Modified</code>
+	 */
+	private static class CachedHttpResponse extends BaseHttpResponse {
+
+		private final CacheEntry myEntry;
+		private final IHttpResponse myNotModifiedResponse;
+
+		private CachedHttpResponse(CacheEntry theEntry, IHttpResponse theNotModifiedResponse) {
+			super(theNotModifiedResponse.getRequestStopWatch());
+			myEntry = theEntry;
+			myNotModifiedResponse = theNotModifiedResponse;
+		}
+
+		@Override
+		public void bufferEntity() {
+			// already buffered
+		}
+
+		@Override
+		public void close() {
+			// nothing to release
+		}
+
+		@Override
+		public Reader createReader() {
+			return new InputStreamReader(readEntity(), getCharset());
+		}
+
+		@Override
+		public Map<String, List<String>> getAllHeaders() {
+			return new HashMap<>(myEntry.myHeaders);
+		}
+
+		@Override
+		public List<String> getHeaders(String theName) {
+			return myEntry.myHeaders.getOrDefault(theName.toLowerCase(Locale.ROOT), Collections.emptyList());
+		}
+
+		@Override
+		public String getMimeType() {
+			String contentType = getFirstHeader(myEntry.myHeaders, Constants.HEADER_CONTENT_TYPE);
+			if (isBlank(contentType)) {
+				return null;
+			}
+			return StringUtils.substringBefore(contentType, ";").trim().toLowerCase(Locale.ROOT);
+		}
+
+		/**
+		 * Returns the native <code>304 Not Modified</code> response received from the server
+		 */
+		@Override
+		public Object getResponse() {
+			return myNotModifiedResponse.getResponse();
+		}
+
+		@Override
+		public int getStatus() {
+			return Constants.STATUS_HTTP_200_OK;
+		}
+
+		@Override
+		public String getStatusInfo() {
+			return myEntry.myStatusInfo;
+		}
+
+		@Override
+		public InputStream readEntity() {
+			return new ByteArrayInputStream(myEntry.myBody);
+		}
+
+		private Charset getCharset() {
+			String contentType = getFirstHeader(myEntry.myHeaders, Constants.HEADER_CONTENT_TYPE);
+			if (contentType != null) {
+				for (String next : contentType.split(";")) {
+					String param = next.trim();
+					if (param.regionMatches(true, 0, "charset=", 0, "charset=".length())) {
+						try {
+							return Charset.forName(param.substring("charset=".length()).replace("\"", "").trim());
+						} catch (IllegalArgumentException e) {
+							break;
+						}
+					}
+				}
+			}
+			return StandardCharsets.UTF_8;
+		}
+
+	}
+
+}
@@ -25,7 +25,9 @@ public interface InterceptorOrders {
 	int LOGGING_INTERCEPTOR_REQUEST = -2;
 	int URL_TENANT_SELECTION_INTERCEPTOR_REQUEST = 100;
 	int CAPTURING_INTERCEPTOR_REQUEST = 1000;
+	int RESPONSE_CACHING_INTERCEPTOR_REQUEST = 2000;
 
+	int RESPONSE_CACHING_INTERCEPTOR_RESPONSE = -100;
 	int CAPTURING_INTERCEPTOR_RESPONSE = -1;
 	int LOGGING_INTERCEPTOR_RESPONSE = 1001;
 }
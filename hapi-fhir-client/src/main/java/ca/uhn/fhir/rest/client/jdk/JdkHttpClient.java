@@ -0,0 +1,93 @@
+package ca.uhn.fhir.rest.client.jdk;
+
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.client.api.Header;
+import ca.uhn.fhir.rest.client.api.IHttpClient;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.apache.BaseHttpClient;
+
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A HTTP Client implementation based on the JDK {@link HttpClient java.net.http.HttpClient}
+ *
+ * @since 6.3.0
+ */
+public class JdkHttpClient extends BaseHttpClient implements IHttpClient {
+
+	private final HttpClient myClient;
+	private final Duration myTimeout;
+
+	public JdkHttpClient(HttpClient theClient, Duration theTimeout, StringBuilder theUrl, Map<String, List<String>> theIfNoneExistParams, String theIfNoneExistString, RequestTypeEnum theRequestType, List<Header> theHeaders) {
+		super(theUrl, theIfNoneExistParams, theIfNoneExistString, theRequestType, theHeaders);
+		myClient = theClient;
+		myTimeout = theTimeout;
+	}
+
+	@Override
+	protected IHttpRequest createHttpRequest() {
+		return createHttpRequest((byte[]) null);
+	}
+
+	@Override
+	protected IHttpRequest createHttpRequest(byte[] theContent) {
+		return new JdkHttpRequest(myClient, myTimeout, myUrl.toString(), myRequestType, theContent);
+	}
+
+	@Override
+	protected IHttpRequest createHttpRequest(Map<String, List<String>> theParams) {
+		StringBuilder b = new StringBuilder();
+		for (Map.Entry<String, List<String>> nextParam : theParams.entrySet()) {
+			for (String nextValue : nextParam.getValue()) {
+				if (b.length() > 0) {
+					b.append('&');
+				}
+				b.append(URLEncoder.encode(nextParam.getKey(), StandardCharsets.UTF_8));
+				b.append('=');
+				b.append(URLEncoder.encode(nextValue, StandardCharsets.UTF_8));
+			}
+		}
+
+		IHttpRequest retVal = createHttpRequest(b.toString().getBytes(StandardCharsets.UTF_8));
+		retVal.addHeader(Constants.HEADER_CONTENT_TYPE, Constants.CT_X_FORM_URLENCODED);
+		return retVal;
+	}
+
+	@Override
+	protected IHttpRequest createHttpRequest(String theContents) {
+		return createHttpRequest(theContents.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	protected String getUserAgentClientType() {
+		return "jdk";
+	}
+
+}
@@ -0,0 +1,176 @@
+package ca.uhn.fhir.rest.client.jdk;
+
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.client.api.BaseHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.util.StopWatch;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A HTTP request backed by the JDK {@link HttpClient java.net.http.HttpClient}. Responses are
+ * always consumed as a stream, so the client parses directly from the response body rather
+ * than buffering it first.
+ *
+ * @since 6.3.0
+ */
+public class JdkHttpRequest extends BaseHttpRequest implements IHttpRequest {
+
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(JdkHttpRequest.class);
+
+	/**
+	 * Headers which are managed by the JDK client itself and may not be set by the caller
+	 */
+	private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+	private final HttpClient myClient;
+	private final Duration myTimeout;
+	private final RequestTypeEnum myRequestType;
+	private final byte[] myContent;
+	private final Map<String, List<String>> myHeaders = new LinkedHashMap<>();
+	private String myUri;
+
+	public JdkHttpRequest(HttpClient theClient, Duration theTimeout, String theUri, RequestTypeEnum theRequestType, byte[] theContent) {
+		myClient = theClient;
+		myTimeout = theTimeout;
+		myUri = theUri;
+		myRequestType = theRequestType;
+		myContent = theContent;
+	}
+
+	@Override
+	public void addHeader(String theName, String theValue) {
+		myHeaders.computeIfAbsent(theName, t -> new ArrayList<>()).add(theValue);
+	}
+
+	@Override
+	public IHttpResponse execute() throws IOException {
+		StopWatch responseStopWatch = new StopWatch();
+		try {
+			HttpResponse<InputStream> response = myClient.send(toJdkRequest(), HttpResponse.BodyHandlers.ofInputStream());
+			return new JdkHttpResponse(response, responseStopWatch);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(Msg.code(2241) + e);
+		}
+	}
+
+	/**
+	 * Sends the request without blocking the calling thread. The returned future completes
+	 * as soon as the response headers have arrived. Reading the body blocks, so the caller
+	 * is expected to consume the response on the given executor rather than on the threads
+	 * of the HTTP transport.
+	 */
+	@Override
+	public CompletableFuture<IHttpResponse> executeAsync(Executor theExecutor) {
+		StopWatch responseStopWatch = new StopWatch();
+		return myClient
+			.sendAsync(toJdkRequest(), HttpResponse.BodyHandlers.ofInputStream())
+			.thenApply(response -> new JdkHttpResponse(response, responseStopWatch));
+	}
+
+	@Override
+	public Map<String, List<String>> getAllHeaders() {
+		Map<String, List<String>> retVal = new LinkedHashMap<>();
+		for (Map.Entry<String, List<String>> next : myHeaders.entrySet()) {
+			retVal.put(next.getKey(), Collections.unmodifiableList(new ArrayList<>(next.getValue())));
+		}
+		return Collections.unmodifiableMap(retVal);
+	}
+
+	@Override
+	public String getRequestBodyFromStream() {
+		if (myContent == null) {
+			return null;
+		}
+		return new String(myContent, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String getUri() {
+		return myUri;
+	}
+
+	@Override
+	public void setUri(String theUrl) {
+		myUri = theUrl;
+	}
+
+	@Override
+	public String getHttpVerbName() {
+		return myRequestType.name();
+	}
+
+	@Override
+	public void removeHeaders(String theHeaderName) {
+		Validate.notBlank(theHeaderName, "theHeaderName must not be null or blank");
+		myHeaders.keySet().removeIf(t -> t.equalsIgnoreCase(theHeaderName));
+	}
+
+	private HttpRequest toJdkRequest() {
+		HttpRequest.BodyPublisher body = myContent != null ? HttpRequest.BodyPublishers.ofByteArray(myContent) : HttpRequest.BodyPublishers.noBody();
+		HttpRequest.Builder builder = HttpRequest
+			.newBuilder(URI.create(myUri))
+			.method(getHttpVerbName(), body);
+		if (myTimeout != null) {
+			builder.timeout(myTimeout);
+		}
+		for (Map.Entry<String, List<String>> next : myHeaders.entrySet()) {
+			if (RESTRICTED_HEADERS.contains(next.getKey().toLowerCase(Locale.ROOT))) {
+				ourLog.debug("Ignoring header {} which is managed by the HTTP client", next.getKey());
+				continue;
+			}
+			for (String nextValue : next.getValue()) {
+				builder.header(next.getKey(), nextValue);
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public String toString() {
+		return getHttpVerbName() + " " + getUri();
+	}
+
+}
@@ -0,0 +1,193 @@
+package ca.uhn.fhir.rest.client.jdk;
+
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.rest.client.impl.BaseHttpResponse;
+import ca.uhn.fhir.util.StopWatch;
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * A HTTP response backed by the JDK {@link java.net.http.HttpClient}
+ *
+ * @since 6.3.0
+ */
+public class JdkHttpResponse extends BaseHttpResponse implements IHttpResponse {
+
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(JdkHttpResponse.class);
+
+	private final HttpResponse<InputStream> myResponse;
+	private boolean myEntityBuffered = false;
+	private byte[] myEntityBytes;
+	private InputStream myEntity;
+
+	public JdkHttpResponse(HttpResponse<InputStream> theResponse, StopWatch theResponseStopWatch) {
+		super(theResponseStopWatch);
+		myResponse = theResponse;
+	}
+
+	@Override
+	public void bufferEntity() throws IOException {
+		if (myEntityBuffered) {
+			return;
+		}
+		try (InputStream respEntity = readEntity()) {
+			if (respEntity != null) {
+				myEntityBytes = IOUtils.toByteArray(respEntity);
+				myEntityBuffered = true;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			// Closing the body releases the underlying stream even if it was not fully read
+			myResponse.body().close();
+		} catch (IOException e) {
+			ourLog.debug("Failed to close response", e);
+		}
+	}
+
+	@Override
+	public Reader createReader() throws IOException {
+		InputStream entity = readEntity();
+		if (entity == null) {
+			return new StringReader("");
+		}
+		Charset charset = getCharset();
+		if (charset == null) {
+			if (Constants.STATUS_HTTP_204_NO_CONTENT != getStatus()) {
+				ourLog.debug("Response did not specify a charset, defaulting to utf-8");
+			}
+			charset = StandardCharsets.UTF_8;
+		}
+		return new InputStreamReader(entity, charset);
+	}
+
+	@Override
+	public Map<String, List<String>> getAllHeaders() {
+		Map<String, List<String>> headers = new HashMap<>();
+		for (Map.Entry<String, List<String>> next : myResponse.headers().map().entrySet()) {
+			String name = next.getKey().toLowerCase(Locale.ROOT);
+			headers.computeIfAbsent(name, k -> new ArrayList<>()).addAll(next.getValue());
+		}
+		return headers;
+	}
+
+	@Override
+	public List<String> getHeaders(String theName) {
+		return myResponse.headers().allValues(theName);
+	}
+
+	@Override
+	public String getMimeType() {
+		String contentType = myResponse.headers().firstValue(Constants.HEADER_CONTENT_TYPE).orElse(null);
+		if (isBlank(contentType)) {
+			return null;
+		}
+		int semicolonIdx = contentType.indexOf(';');
+		if (semicolonIdx != -1) {
+			contentType = contentType.substring(0, semicolonIdx);
+		}
+		return contentType.trim().toLowerCase(Locale.ROOT);
+	}
+
+	@Override
+	public HttpResponse<InputStream> getResponse() {
+		return myResponse;
+	}
+
+	@Override
+	public int getStatus() {
+		return myResponse.statusCode();
+	}
+
+	@Override
+	public String getStatusInfo() {
+		// HTTP/2 has no reason phrase, and the JDK client does not expose the HTTP/1.1 one
+		return Constants.HTTP_STATUS_NAMES.getOrDefault(getStatus(), "");
+	}
+
+	@Override
+	public InputStream readEntity() throws IOException {
+		if (myEntityBuffered) {
+			return new ByteArrayInputStream(myEntityBytes);
+		}
+		if (myEntity == null) {
+			myEntity = myResponse.body();
+			String contentEncoding = myResponse.headers().firstValue(Constants.HEADER_CONTENT_ENCODING).orElse(null);
+			if (Constants.ENCODING_GZIP.equalsIgnoreCase(contentEncoding)) {
+				// The JDK client does not decompress responses itself
+				BufferedInputStream bufferedEntity = new BufferedInputStream(myEntity);
+				bufferedEntity.mark(1);
+				if (bufferedEntity.read() == -1) {
+					myEntity = bufferedEntity;
+				} else {
+					bufferedEntity.reset();
+					myEntity = new GZIPInputStream(bufferedEntity);
+				}
+			}
+		}
+		return myEntity;
+	}
+
+	private Charset getCharset() {
+		String contentType = myResponse.headers().firstValue(Constants.HEADER_CONTENT_TYPE).orElse(null);
+		if (contentType == null) {
+			return null;
+		}
+		for (String next : contentType.split(";")) {
+			String param = next.trim();
+			if (param.regionMatches(true, 0, "charset=", 0, "charset=".length())) {
+				String charsetName = param.substring("charset=".length()).replace("\"", "").trim();
+				try {
+					return Charset.forName(charsetName);
+				} catch (IllegalArgumentException e) {
+					ourLog.debug("Unknown charset in response: {}", charsetName);
+				}
+			}
+		}
+		return null;
+	}
+
+}
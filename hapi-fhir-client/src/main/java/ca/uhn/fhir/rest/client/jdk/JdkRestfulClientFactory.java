@@ -0,0 +1,192 @@
+package ca.uhn.fhir.rest.client.jdk;
+
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.client.api.Header;
+import ca.uhn.fhir.rest.client.api.IHttpClient;
+import ca.uhn.fhir.rest.client.impl.RestfulClientFactory;
+
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * A Restful Client Factory, based on the JDK {@link HttpClient java.net.http.HttpClient}.
+ * <p>
+ * Clients created by this factory multiplex concurrent requests to the same server over a
+ * single HTTP/2 connection where the server supports it (falling back to HTTP/1.1 otherwise),
+ * and implement {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()} without
+ * holding a thread while waiting for the server to respond. This makes them well suited to
+ * fanning out many concurrent requests, e.g. from a reactive or virtual thread based application.
+ * </p>
+ * <p>
+ * For asynchronous invocations, responses are handled (including the
+ * {@link ca.uhn.fhir.interceptor.api.Pointcut#CLIENT_RESPONSE} hooks and parsing) on the client's
+ * {@link ca.uhn.fhir.rest.client.impl.BaseClient#setAsyncResponseExecutor(Executor) async response executor}
+ * (by default the {@link #getAsyncExecutor() executor of this factory}) rather than on the HTTP client's
+ * {@link #setExecutor(Executor) executor}, so interceptors which rely on thread-local state will not see
+ * the state of the calling thread.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+public class JdkRestfulClientFactory extends RestfulClientFactory {
+
+	private HttpClient myHttpClient;
+	private InetSocketAddress myProxy;
+	private Executor myExecutor;
+	private HttpClient.Version myVersion = HttpClient.Version.HTTP_2;
+
+	/**
+	 * Constructor
+	 */
+	public JdkRestfulClientFactory() {
+		super();
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theContext The context
+	 */
+	public JdkRestfulClientFactory(FhirContext theContext) {
+		super(theContext);
+	}
+
+	@Override
+	protected synchronized IHttpClient getHttpClient(String theServerBase) {
+		return getHttpClient(new StringBuilder(theServerBase), null, null, null, null);
+	}
+
+	@Override
+	public synchronized IHttpClient getHttpClient(StringBuilder theUrl, Map<String, List<String>> theIfNoneExistParams,
+																 String theIfNoneExistString, RequestTypeEnum theRequestType, List<Header> theHeaders) {
+		return new JdkHttpClient(getNativeHttpClient(), toDuration(getSocketTimeout()), theUrl, theIfNoneExistParams, theIfNoneExistString, theRequestType, theHeaders);
+	}
+
+	public synchronized HttpClient getNativeHttpClient() {
+		if (myHttpClient == null) {
+			HttpClient.Builder builder = HttpClient
+				.newBuilder()
+				.version(myVersion)
+				.followRedirects(HttpClient.Redirect.NORMAL);
+
+			Duration connectTimeout = toDuration(getConnectTimeout());
+			if (connectTimeout != null) {
+				builder.connectTimeout(connectTimeout);
+			}
+
+			if (myExecutor != null) {
+				builder.executor(myExecutor);
+			}
+
+			if (myProxy != null) {
+				builder.proxy(ProxySelector.of(myProxy));
+				if (isNotBlank(getProxyUsername()) && isNotBlank(getProxyPassword())) {
+					PasswordAuthentication credentials = new PasswordAuthentication(getProxyUsername(), getProxyPassword().toCharArray());
+					builder.authenticator(new Authenticator() {
+						@Override
+						protected PasswordAuthentication getPasswordAuthentication() {
+							if (getRequestorType() == RequestorType.PROXY) {
+								return credentials;
+							}
+							return null;
+						}
+					});
+				}
+			}
+
+			myHttpClient = builder.build();
+		}
+
+		return myHttpClient;
+	}
+
+	/**
+	 * Sets the executor used by the HTTP client to complete asynchronous requests. Response
+	 * handling and parsing is handed off to the client's
+	 * {@link ca.uhn.fhir.rest.client.impl.BaseClient#setAsyncResponseExecutor(Executor) async response executor},
+	 * so this executor is not blocked by parsing. If not set (the default), the JDK client's
+	 * own default executor is used.
+	 */
+	public synchronized void setExecutor(Executor theExecutor) {
+		myExecutor = theExecutor;
+		resetHttpClient();
+	}
+
+	/**
+	 * Sets the preferred HTTP protocol version. Defaults to {@link HttpClient.Version#HTTP_2}, which
+	 * allows concurrent requests to share a single connection. The client falls back to HTTP/1.1
+	 * automatically if the server does not support HTTP/2.
+	 */
+	public synchronized void setVersion(HttpClient.Version theVersion) {
+		myVersion = theVersion;
+		resetHttpClient();
+	}
+
+	/**
+	 * The JDK client rejects zero and negative timeouts, which other transports treat as
+	 * "no timeout", so these are mapped to <code>null</code> (unset)
+	 */
+	private static Duration toDuration(int theTimeoutMillis) {
+		if (theTimeoutMillis <= 0) {
+			return null;
+		}
+		return Duration.ofMillis(theTimeoutMillis);
+	}
+
+	@Override
+	protected synchronized void resetHttpClient() {
+		myHttpClient = null;
+	}
+
+	/**
+	 * Only allows to set an instance of type java.net.http.HttpClient
+	 *
+	 * @see ca.uhn.fhir.rest.client.api.IRestfulClientFactory#setHttpClient(Object)
+	 */
+	@Override
+	public synchronized void setHttpClient(Object theHttpClient) {
+		myHttpClient = (HttpClient) theHttpClient;
+	}
+
+	@Override
+	public synchronized void setProxy(String theHost, Integer thePort) {
+		if (theHost != null) {
+			myProxy = InetSocketAddress.createUnresolved(theHost, thePort);
+		} else {
+			myProxy = null;
+		}
+		resetHttpClient();
+	}
+
+}
@@ -32,11 +32,20 @@ import ca.uhn.fhir.rest.client.api.IRestfulClientFactory;
 import ca.uhn.fhir.rest.client.interceptor.AdditionalRequestHeadersInterceptor;
 import ca.uhn.fhir.rest.client.interceptor.BasicAuthInterceptor;
 import ca.uhn.fhir.rest.client.interceptor.BearerTokenAuthInterceptor;
+import ca.uhn.fhir.rest.client.interceptor.ClientResponseCachingInterceptor;
 import ca.uhn.fhir.rest.client.interceptor.CookieInterceptor;
 import ca.uhn.fhir.rest.client.interceptor.LoggingInterceptor;
 import ca.uhn.fhir.rest.client.interceptor.UrlTenantSelectionInterceptor;
+import ca.uhn.fhir.rest.client.jdk.JdkRestfulClientFactory;
+import org.apache.commons.io.FileUtils;
 import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.ValueSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ClientExamples {
 
@@ -137,6 +146,70 @@ public class ClientExamples {
       // END SNIPPET: okhttp
    }
 
+   @SuppressWarnings("unused")
+   public void jdkAsync() throws Exception {
+      // START SNIPPET: jdkAsync
+      FhirContext ctx = FhirContext.forR4();
+
+      // Use the JDK HttpClient
+      ctx.setRestfulClientFactory(new JdkRestfulClientFactory(ctx));
+      IGenericClient client = ctx.newRestfulGenericClient("http://localhost:9999/fhir");
+
+      // Both requests are in flight at the same time, without a thread waiting on either
+      CompletableFuture<Patient> patientFuture = client
+         .read()
+         .resource(Patient.class)
+         .withId("123")
+         .executeAsync();
+      CompletableFuture<Bundle> observationsFuture = client
+         .search()
+         .byUrl("Observation?subject=Patient/123")
+         .returnBundle(Bundle.class)
+         .executeAsync();
+
+      Patient patient = patientFuture.get();
+      Bundle observations = observationsFuture.get();
+      // END SNIPPET: jdkAsync
+   }
+
+   @SuppressWarnings("unused")
+   public void autoBatching() throws Exception {
+      // START SNIPPET: autoBatching
+      FhirContext ctx = FhirContext.forR4();
+      ctx.setRestfulClientFactory(new JdkRestfulClientFactory(ctx));
+      IGenericClient client = ctx.newRestfulGenericClient("http://localhost:9999/fhir");
+
+      // Combine up to 50 requests issued within 10ms of each other into one batch
+      client.setAutoBatching(50, 10);
+
+      // These reads are sent to the server as a single batch Bundle
+      List<CompletableFuture<Patient>> futures = new ArrayList<>();
+      for (String id : Arrays.asList("1", "2", "3")) {
+         futures.add(client.read().resource(Patient.class).withId(id).executeAsync());
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+      // END SNIPPET: autoBatching
+   }
+
+   @SuppressWarnings("unused")
+   public void responseCaching() {
+      // START SNIPPET: responseCaching
+      FhirContext ctx = FhirContext.forR4();
+      IGenericClient client = ctx.newRestfulGenericClient("http://localhost:9999/fhir");
+
+      // Cache up to 50MB of response bodies
+      ClientResponseCachingInterceptor cachingInterceptor = new ClientResponseCachingInterceptor(50 * FileUtils.ONE_MB);
+      client.registerInterceptor(cachingInterceptor);
+
+      // The second read is revalidated using If-None-Match, and the cached
+      // copy is used if the server responds with 304 Not Modified
+      client.read().resource(ValueSet.class).withId("administrative-gender").execute();
+      client.read().resource(ValueSet.class).withId("administrative-gender").execute();
+
+      double hitRatio = cachingInterceptor.getHitRatio();
+      // END SNIPPET: responseCaching
+   }
+
    @SuppressWarnings("unused")
    public void createTimeouts() {
       // START SNIPPET: timeouts
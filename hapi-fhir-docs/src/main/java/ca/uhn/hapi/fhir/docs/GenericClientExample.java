@@ -51,6 +51,7 @@ import org.hl7.fhir.r4.model.StringType;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class GenericClientExample {
 	public static void deferModelScanning() {
@@ -570,6 +571,26 @@ public class GenericClientExample {
 			}
 			// END SNIPPET: searchPaging
 		}
+		{
+			// START SNIPPET: searchStream
+			FhirContext ctx = FhirContext.forR4();
+			IGenericClient client = ctx.newRestfulGenericClient("http://hapi.fhir.org/baseR4");
+
+			// Walk every page of the results, keeping two pages in flight
+			// ahead of the one being processed
+			try (Stream<IBaseResource> results = client.search()
+				.forResource(Observation.class)
+				.where(Observation.SUBJECT.hasId("Patient/123"))
+				.count(100)
+				.returnBundle(Bundle.class)
+				.prefetchPages(2)
+				.stream()) {
+				results.forEach(resource -> {
+					// process each resource
+				});
+			}
+			// END SNIPPET: searchStream
+		}
 	}
 
 	@SuppressWarnings("unused")
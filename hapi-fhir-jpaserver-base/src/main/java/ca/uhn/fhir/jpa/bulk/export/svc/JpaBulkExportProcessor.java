@@ -564,7 +564,7 @@ public class JpaBulkExportProcessor implements IBulkExportProcessor {
 	}
 
 	private Optional<String> getPatientReference(IBaseResource iBaseResource) {
-		String fhirPath;
+		IFhirPath.IParsedExpression fhirPath;
 
 		RuntimeSearchParam runtimeSearchParam = getRuntimeSearchParam(iBaseResource);
 		fhirPath = getPatientFhirPath(runtimeSearchParam);
@@ -600,7 +600,7 @@ public class JpaBulkExportProcessor implements IBulkExportProcessor {
 		return myFhirPath;
 	}
 
-	private String getPatientFhirPath(RuntimeSearchParam theRuntimeParam) {
+	private IFhirPath.IParsedExpression getPatientFhirPath(RuntimeSearchParam theRuntimeParam) {
 		String path = theRuntimeParam.getPath();
 		// GGG: Yes this is a stupid hack, but by default this runtime search param will return stuff like
 		// Observation.subject.where(resolve() is Patient) which unfortunately our FHIRpath evaluator doesn't play nicely with
@@ -608,6 +608,12 @@ public class JpaBulkExportProcessor implements IBulkExportProcessor {
 		if (path.contains(".where")) {
 			path = path.substring(0, path.indexOf(".where"));
 		}
-		return path;
+
+		// Parsed expressions are cached, so this is cheap for every resource after the first of a given type
+		try {
+			return getFhirParser().parseExpression(path);
+		} catch (Exception e) {
+			throw new IllegalStateException(Msg.code(2219) + "Unable to parse patient FHIRPath expression \"" + path + "\": " + e.getMessage(), e);
+		}
 	}
 }
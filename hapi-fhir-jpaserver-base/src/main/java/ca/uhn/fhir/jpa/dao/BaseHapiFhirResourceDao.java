@@ -112,6 +112,7 @@ import ca.uhn.fhir.validation.ValidationOptions;
 import ca.uhn.fhir.validation.ValidationResult;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBaseBinary;
 import org.hl7.fhir.instance.model.api.IBaseCoding;
 import org.hl7.fhir.instance.model.api.IBaseMetaType;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
@@ -1183,7 +1184,13 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 		BaseHasResource entity = readEntity(theId, theRequest);
 		validateResourceType(entity);
 
-		T retVal = myJpaStorageResourceParser.toResource(myResourceType, entity, null, false);
+		T retVal = null;
+		if (isRawJsonReadPossible(theId, theRequest)) {
+			retVal = myJpaStorageResourceParser.toResourceWithRawJson(myResourceType, entity);
+		}
+		if (retVal == null) {
+			retVal = myJpaStorageResourceParser.toResource(myResourceType, entity, null, false);
+		}
 
 		if (theDeletedOk == false) {
 			if (isDeleted(entity)) {
@@ -1220,6 +1227,37 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 		return retVal;
 	}
 
+	/**
+	 * Can the resource being read be returned to the client using the stored JSON as-is?
+	 * This requires that the read is the one the client actually asked for, and that
+	 * nothing is going to look at or modify the resource before it is returned. The caller
+	 * must confirm the latter using {@link JpaConstants#RAW_JSON_READ_PASSTHROUGH_PERMITTED},
+	 * since a resource provider could otherwise change the returned shell resource without
+	 * those changes reaching the client. Binary resources are never eligible, since they
+	 * are usually streamed to the client as raw content instead of going through the
+	 * JSON serializer.
+	 */
+	private boolean isRawJsonReadPossible(IIdType theId, RequestDetails theRequest) {
+		if (!getConfig().isRawJsonReadPassthroughEnabled() || theRequest == null) {
+			return false;
+		}
+		if (!Boolean.TRUE.equals(theRequest.getUserData().get(JpaConstants.RAW_JSON_READ_PASSTHROUGH_PERMITTED))) {
+			return false;
+		}
+		if (IBaseBinary.class.isAssignableFrom(getResourceType())) {
+			return false;
+		}
+		if (!RestfulServerUtils.isRawJsonPassthroughPossible(theRequest)) {
+			return false;
+		}
+		IIdType requestId = theRequest.getId();
+		if (!getResourceName().equals(theRequest.getResourceName()) || requestId == null || !theId.getIdPart().equals(requestId.getIdPart())) {
+			return false;
+		}
+		return !CompositeInterceptorBroadcaster.hasHooks(Pointcut.STORAGE_PREACCESS_RESOURCES, myInterceptorBroadcaster, theRequest)
+			&& !CompositeInterceptorBroadcaster.hasHooks(Pointcut.STORAGE_PRESHOW_RESOURCES, myInterceptorBroadcaster, theRequest);
+	}
+
 	@Override
 	@Transactional
 	public BaseHasResource readEntity(IIdType theId, RequestDetails theRequest) {
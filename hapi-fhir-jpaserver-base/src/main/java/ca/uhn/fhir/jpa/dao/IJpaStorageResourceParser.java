@@ -35,6 +35,22 @@ public interface IJpaStorageResourceParser extends IStorageResourceParser {
 	 */
 	<R extends IBaseResource> R toResource(Class<R> theResourceType, IBaseResourceEntity theEntity, Collection<ResourceTag> theTagList, boolean theForHistoryOperation);
 
+	/**
+	 * Convert a storage entity into a FHIR resource model instance which contains only the
+	 * resource ID and metadata, and which carries the complete JSON for the resource (including
+	 * that metadata) in the {@link ca.uhn.fhir.rest.server.RestfulServerUtils#USER_DATA_RAW_JSON}
+	 * user data key. This avoids parsing the stored resource when it will only be written
+	 * back out to a client as-is.
+	 *
+	 * @return The resource, or <code>null</code> if the stored resource can not be served this way, in
+	 * which case {@link #toResource(Class, IBaseResourceEntity, Collection, boolean)} should be used instead
+	 * @since 6.3.0
+	 */
+	@Nullable
+	default <R extends IBaseResource> R toResourceWithRawJson(Class<R> theResourceType, IBaseResourceEntity theEntity) {
+		return null;
+	}
+
 	/**
 	 * Populate the metadata (Resource.meta.*) from a storage entity and other related
 	 * objects pulled from the database
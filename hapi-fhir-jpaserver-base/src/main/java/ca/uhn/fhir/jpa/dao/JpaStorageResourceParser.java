@@ -52,6 +52,7 @@ import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.parser.LenientErrorHandler;
 import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
 import ca.uhn.fhir.util.MetaUtil;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IAnyResource;
@@ -99,6 +100,16 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 
 	@Override
 	public <R extends IBaseResource> R toResource(Class<R> theResourceType, IBaseResourceEntity theEntity, Collection<ResourceTag> theTagList, boolean theForHistoryOperation) {
+		return toResource(theResourceType, theEntity, theTagList, theForHistoryOperation, false);
+	}
+
+	@Nullable
+	@Override
+	public <R extends IBaseResource> R toResourceWithRawJson(Class<R> theResourceType, IBaseResourceEntity theEntity) {
+		return toResource(theResourceType, theEntity, null, false, true);
+	}
+
+	private <R extends IBaseResource> R toResource(Class<R> theResourceType, IBaseResourceEntity theEntity, Collection<ResourceTag> theTagList, boolean theForHistoryOperation, boolean theRawJson) {
 
 		// 1. get resource, it's encoding and the tags if any
 		byte[] resourceBytes;
@@ -205,8 +216,16 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		// 3. Use the appropriate custom type if one is specified in the context
 		Class<R> resourceType = determineTypeToParse(theResourceType, tagList);
 
-		// 4. parse the text to FHIR
-		R retVal = parseResource(theEntity, resourceEncoding, decodedResourceText, resourceType);
+		// 4. parse the text to FHIR, or create an empty shell if the stored text will be used as-is
+		R retVal;
+		if (theRawJson) {
+			if (!isRawJsonPossible(theResourceType, theEntity, resourceEncoding, tagList, resourceType)) {
+				return null;
+			}
+			retVal = resourceType.cast(myContext.getResourceDefinition(resourceType).newInstance());
+		} else {
+			retVal = parseResource(theEntity, resourceEncoding, decodedResourceText, resourceType);
+		}
 
 		// 5. fill MetaData
 		retVal = populateResourceMetadata(theEntity, theForHistoryOperation, tagList, version, retVal);
@@ -217,9 +236,37 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		// 7. Add partition information
 		populateResourcePartitionInformation(theEntity, retVal);
 
+		// 8. Splice the metadata into the stored text
+		if (theRawJson) {
+			String metadataJson = myContext.newJsonParser().encodeResourceToString(retVal);
+			String rawJson = spliceMetadataIntoStoredJson(metadataJson, myContext.getResourceType(resourceType), decodedResourceText);
+			if (rawJson == null) {
+				return null;
+			}
+			retVal.setUserData(RestfulServerUtils.USER_DATA_RAW_JSON, rawJson);
+		}
+
 		return retVal;
 	}
 
+	private <R extends IBaseResource> boolean isRawJsonPossible(Class<R> theResourceType, IBaseResourceEntity theEntity, ResourceEncodingEnum theResourceEncoding, @Nullable Collection<? extends BaseTag> theTagList, Class<R> theTypeToParse) {
+		if (theResourceEncoding != ResourceEncodingEnum.JSON && theResourceEncoding != ResourceEncodingEnum.JSONC) {
+			return false;
+		}
+		if (theEntity.getDeleted() != null) {
+			return false;
+		}
+		// Inline tag storage mode keeps the tags in the stored text, so we can't splice in our own meta
+		if (theTagList == null) {
+			return false;
+		}
+		// Custom types might populate or modify fields during parsing
+		if (!theTypeToParse.equals(theResourceType)) {
+			return false;
+		}
+		return theEntity.getFhirVersion() == myContext.getVersion().getVersion();
+	}
+
 	private <R extends IBaseResource> void populateResourcePartitionInformation(IBaseResourceEntity theEntity, R retVal) {
 		if (myPartitionSettings.isPartitioningEnabled()) {
 			PartitionablePartitionId partitionId = theEntity.getPartitionId();
@@ -276,6 +323,39 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		return retVal;
 	}
 
+	/**
+	 * Combines the JSON encoding of a resource containing only <code>Resource.id</code> and
+	 * <code>Resource.meta</code> with the JSON text stored in the database for the same resource
+	 * (which never contains the ID, and normally does not contain any metadata). Because the JSON
+	 * parser always encodes <code>resourceType</code>, <code>id</code> and <code>meta</code> ahead of
+	 * any other element, this is just a matter of joining the two strings.
+	 *
+	 * @return The combined JSON, or <code>null</code> if the stored text can not be combined safely
+	 */
+	@Nullable
+	static String spliceMetadataIntoStoredJson(String theMetadataJson, String theResourceType, String theStoredJson) {
+		String prefix = "{\"resourceType\":\"" + theResourceType + "\"";
+		if (theMetadataJson == null || theStoredJson == null) {
+			return null;
+		}
+		if (!theMetadataJson.startsWith(prefix) || !theMetadataJson.endsWith("}") || !theStoredJson.startsWith(prefix)) {
+			return null;
+		}
+
+		String remainder = theStoredJson.substring(prefix.length());
+		if (remainder.startsWith(",\"id\"") || remainder.startsWith(",\"meta\"")) {
+			return null;
+		}
+		if (remainder.equals("}")) {
+			return theMetadataJson;
+		}
+		if (!remainder.startsWith(",")) {
+			return null;
+		}
+
+		return theMetadataJson.substring(0, theMetadataJson.length() - 1) + remainder;
+	}
+
 	@SuppressWarnings("unchecked")
 	private <R extends IBaseResource> Class<R> determineTypeToParse(Class<R> theResourceType, @Nullable Collection<? extends BaseTag> tagList) {
 		Class<R> resourceType = theResourceType;
@@ -87,6 +87,7 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import org.springframework.transaction.annotation.Transactional;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -324,7 +325,14 @@ public class JpaPackageCache extends BasePackageCacheManager implements IHapiPac
 					 */
 					String contentType = Constants.CT_FHIR_JSON_NEW;
 					ResourceUtil.removeNarrative(packageContext, resource);
-					byte[] minimizedContents = packageContext.newJsonParser().encodeResourceToString(resource).getBytes(StandardCharsets.UTF_8);
+					byte[] minimizedContents;
+					try {
+						ByteArrayOutputStream minimizedOutputStream = new ByteArrayOutputStream(contents.length);
+						packageContext.newJsonParser().encodeResourceToOutputStream(resource, minimizedOutputStream);
+						minimizedContents = minimizedOutputStream.toByteArray();
+					} catch (IOException e) {
+						throw new InternalErrorException(Msg.code(2214) + e);
+					}
 
 					IBaseBinary resourceBinary = createPackageResourceBinary(nextFile, minimizedContents, contentType);
 					ResourceTable persistedResource = createResourceBinary(resourceBinary);
@@ -0,0 +1,49 @@
+package ca.uhn.fhir.jpa.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JpaStorageResourceParserTest {
+
+	private static final String METADATA = "{\"resourceType\":\"Patient\",\"id\":\"123\",\"meta\":{\"versionId\":\"1\"}}";
+
+	@Test
+	public void testSplice() {
+		String stored = "{\"resourceType\":\"Patient\",\"active\":true}";
+		String outcome = JpaStorageResourceParser.spliceMetadataIntoStoredJson(METADATA, "Patient", stored);
+		assertEquals("{\"resourceType\":\"Patient\",\"id\":\"123\",\"meta\":{\"versionId\":\"1\"},\"active\":true}", outcome);
+	}
+
+	@Test
+	public void testSpliceEmptyStoredResource() {
+		String stored = "{\"resourceType\":\"Patient\"}";
+		assertEquals(METADATA, JpaStorageResourceParser.spliceMetadataIntoStoredJson(METADATA, "Patient", stored));
+	}
+
+	@Test
+	public void testSpliceStoredResourceHasMeta() {
+		String stored = "{\"resourceType\":\"Patient\",\"meta\":{\"extension\":[]},\"active\":true}";
+		assertNull(JpaStorageResourceParser.spliceMetadataIntoStoredJson(METADATA, "Patient", stored));
+	}
+
+	@Test
+	public void testSpliceStoredResourceHasId() {
+		String stored = "{\"resourceType\":\"Patient\",\"id\":\"123\",\"active\":true}";
+		assertNull(JpaStorageResourceParser.spliceMetadataIntoStoredJson(METADATA, "Patient", stored));
+	}
+
+	@Test
+	public void testSpliceWrongResourceType() {
+		String stored = "{\"resourceType\":\"Observation\",\"status\":\"final\"}";
+		assertNull(JpaStorageResourceParser.spliceMetadataIntoStoredJson(METADATA, "Patient", stored));
+	}
+
+	@Test
+	public void testSpliceUnexpectedFormatting() {
+		String stored = "{\"resourceType\":\"Patient\" , \"active\":true}";
+		assertNull(JpaStorageResourceParser.spliceMetadataIntoStoredJson(METADATA, "Patient", stored));
+	}
+
+}
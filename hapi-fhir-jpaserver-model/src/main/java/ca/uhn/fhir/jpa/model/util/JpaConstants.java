@@ -278,6 +278,16 @@ public class JpaConstants {
 
 	public static final String SKIP_REINDEX_ON_UPDATE = "SKIP-REINDEX-ON-UPDATE";
 
+	/**
+	 * {@link ca.uhn.fhir.rest.api.server.RequestDetails#getUserData() Request user data} key. A caller of
+	 * <code>IFhirResourceDao#read</code> which returns the resource to the client without inspecting or modifying
+	 * it may set this to {@link Boolean#TRUE} in order to allow the DAO to return an empty shell resource
+	 * backed by the stored JSON, when <code>DaoConfig#isRawJsonReadPassthroughEnabled()</code> is enabled.
+	 *
+	 * @since 6.3.0
+	 */
+	public static final String RAW_JSON_READ_PASSTHROUGH_PERMITTED = "RAW-JSON-READ-PASSTHROUGH-PERMITTED";
+
 	/**
 	 * Non-instantiable
 	 */
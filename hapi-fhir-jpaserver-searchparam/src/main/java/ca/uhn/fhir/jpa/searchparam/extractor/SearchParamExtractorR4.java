@@ -93,7 +93,7 @@ public class SearchParamExtractorR4 extends BaseSearchParamExtractor implements
 		myFhirPathEngine = new FHIRPathEngine(worker);
 		myFhirPathEngine.setHostServices(new SearchParamExtractorR4HostServices());
 
-		myParsedFhirPathCache = CacheFactory.build(TimeUnit.MINUTES.toMillis(10));
+		myParsedFhirPathCache = CacheFactory.build(TimeUnit.MINUTES.toMillis(10), 1000);
 	}
 
 
@@ -93,7 +93,7 @@ public class SearchParamExtractorR4B extends BaseSearchParamExtractor implements
 		myFhirPathEngine = new FHIRPathEngine(worker);
 		myFhirPathEngine.setHostServices(new SearchParamExtractorR4BHostServices());
 
-		myParsedFhirPathCache = CacheFactory.build(TimeUnit.MINUTES.toMillis(10));
+		myParsedFhirPathCache = CacheFactory.build(TimeUnit.MINUTES.toMillis(10), 1000);
 	}
 
 
@@ -81,7 +81,7 @@ public class SearchParamExtractorR5 extends BaseSearchParamExtractor implements
 		myFhirPathEngine = new FHIRPathEngine(worker);
 		myFhirPathEngine.setHostServices(new SearchParamExtractorR5HostServices());
 		
-		myParsedFhirPathCache = CacheFactory.build(TimeUnit.MINUTES.toMillis(10));
+		myParsedFhirPathCache = CacheFactory.build(TimeUnit.MINUTES.toMillis(10), 1000);
 	}
 
 	@Override
@@ -0,0 +1,215 @@
+package ca.uhn.fhir.jpa.provider.r4;
+
+import ca.uhn.fhir.interceptor.api.IAnonymousInterceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.jpa.api.config.DaoConfig;
+import ca.uhn.fhir.jpa.dao.GZipUtil;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
+import ca.uhn.fhir.jpa.model.util.JpaConstants;
+import ca.uhn.fhir.jpa.provider.BaseResourceProviderR4Test;
+import ca.uhn.fhir.narrative.INarrativeGenerator;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.r4.model.Binary;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceProviderRawJsonReadR4Test extends BaseResourceProviderR4Test {
+
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ResourceProviderRawJsonReadR4Test.class);
+	private INarrativeGenerator myNarrativeGenerator;
+
+	@Override
+	@BeforeEach
+	public void before() throws Exception {
+		super.before();
+		myDaoConfig.setRawJsonReadPassthroughEnabled(true);
+		myNarrativeGenerator = myFhirContext.getNarrativeGenerator();
+		myFhirContext.setNarrativeGenerator(null);
+	}
+
+	@Override
+	@AfterEach
+	public void after() throws Exception {
+		super.after();
+		myDaoConfig.setRawJsonReadPassthroughEnabled(new DaoConfig().isRawJsonReadPassthroughEnabled());
+		myFhirContext.setNarrativeGenerator(myNarrativeGenerator);
+	}
+
+	@Test
+	public void testReadUsesStoredJson() throws IOException {
+		Long id = createPatientWithMarkerInStoredJson();
+
+		String responseContent = read("/Patient/" + id);
+		assertThat(responseContent, startsWith("{\"resourceType\":\"Patient\",\"id\":\"" + id + "\",\"meta\":{\"versionId\":\"1\",\"lastUpdated\":\""));
+		assertThat(responseContent, containsString("\"active\":true,\"unknownElement\":\"marker\""));
+	}
+
+	@Test
+	public void testVreadUsesStoredJson() throws IOException {
+		Long id = createPatientWithMarkerInStoredJson();
+
+		String responseContent = read("/Patient/" + id + "/_history/1");
+		assertThat(responseContent, containsString("\"versionId\":\"1\""));
+		assertThat(responseContent, containsString("\"unknownElement\":\"marker\""));
+	}
+
+	@Test
+	public void testReadMatchesParsedResource() throws IOException {
+		Patient patient = new Patient();
+		patient.addIdentifier().setSystem("http://foo").setValue("123");
+		patient.addName().setFamily("Simpson").addGiven("Homer");
+		patient.getMeta().addTag("http://tags", "tag0", null);
+		patient.getMeta().addProfile("http://profile");
+		Long id = myPatientDao.create(patient, mySrd).getId().getIdPartAsLong();
+
+		String rawContent = read("/Patient/" + id);
+
+		myDaoConfig.setRawJsonReadPassthroughEnabled(false);
+		String parsedContent = read("/Patient/" + id);
+
+		assertEquals(parsedContent, rawContent);
+	}
+
+	@Test
+	public void testStoredJsonNotUsedWhenDisabled() throws IOException {
+		myDaoConfig.setRawJsonReadPassthroughEnabled(false);
+		Long id = createPatientWithMarkerInStoredJson();
+
+		String responseContent = read("/Patient/" + id);
+		assertThat(responseContent, not(containsString("marker")));
+	}
+
+	@Test
+	public void testStoredJsonNotUsedWithElementsFilter() throws IOException {
+		Long id = createPatientWithMarkerInStoredJson();
+
+		String responseContent = read("/Patient/" + id + "?_elements=active");
+		assertThat(responseContent, not(containsString("marker")));
+	}
+
+	@Test
+	public void testStoredJsonNotUsedForXml() throws IOException {
+		Long id = createPatientWithMarkerInStoredJson();
+
+		String responseContent = read("/Patient/" + id + "?_format=xml");
+		assertThat(responseContent, not(containsString("marker")));
+	}
+
+	@Test
+	public void testStoredJsonNotUsedWithPreShowInterceptor() throws IOException {
+		Long id = createPatientWithMarkerInStoredJson();
+
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> {
+		};
+		myInterceptorRegistry.registerAnonymousInterceptor(Pointcut.STORAGE_PRESHOW_RESOURCES, interceptor);
+		try {
+			String responseContent = read("/Patient/" + id);
+			assertThat(responseContent, not(containsString("marker")));
+		} finally {
+			myInterceptorRegistry.unregisterInterceptor(interceptor);
+		}
+	}
+
+	@Test
+	public void testDaoReadWithoutPassthroughPermittedReturnsFullResource() {
+		Long id = createPatientWithMarkerInStoredJson();
+		IdType resourceId = new IdType("Patient/" + id);
+
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+		servletRequest.addHeader(Constants.HEADER_ACCEPT, Constants.CT_FHIR_JSON_NEW);
+		ServletRequestDetails requestDetails = new ServletRequestDetails(myInterceptorRegistry);
+		requestDetails.setServletRequest(servletRequest);
+		requestDetails.setServer(myServer.getRestfulServer());
+		requestDetails.setRestOperationType(RestOperationTypeEnum.READ);
+		requestDetails.setResourceName("Patient");
+		requestDetails.setId(resourceId);
+		requestDetails.setParameters(new HashMap<>());
+
+		// A provider which calls the DAO itself may modify the resource, so it gets the parsed resource
+		Patient patient = myPatientDao.read(resourceId, requestDetails);
+		assertTrue(patient.getActive());
+		assertNull(patient.getUserData(RestfulServerUtils.USER_DATA_RAW_JSON));
+
+		requestDetails.getUserData().put(JpaConstants.RAW_JSON_READ_PASSTHROUGH_PERMITTED, Boolean.TRUE);
+		patient = myPatientDao.read(resourceId, requestDetails);
+		assertThat((String) patient.getUserData(RestfulServerUtils.USER_DATA_RAW_JSON), containsString("marker"));
+	}
+
+	@Test
+	public void testBinaryReadWithoutAcceptHeaderReturnsContents() throws IOException {
+		Binary binary = new Binary();
+		binary.setContentType("text/plain");
+		binary.setData("HELLO WORLD".getBytes(StandardCharsets.UTF_8));
+		binary.getSecurityContext().setReference("DocumentReference/123");
+		Long id = myBinaryDao.create(binary, mySrd).getId().getIdPartAsLong();
+
+		HttpGet httpGet = new HttpGet(myServerBase + "/Binary/" + id);
+		try (CloseableHttpResponse status = ourHttpClient.execute(httpGet)) {
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			assertEquals("HELLO WORLD", responseContent);
+			assertEquals("DocumentReference/123", status.getFirstHeader(Constants.HEADER_X_SECURITY_CONTEXT).getValue());
+		}
+	}
+
+	/**
+	 * Creates a Patient and then adds an element to the stored JSON which is not
+	 * valid FHIR. The lenient parser used to load stored resources drops this element,
+	 * so its presence in the response shows that the stored JSON was used as-is.
+	 */
+	private Long createPatientWithMarkerInStoredJson() {
+		Patient patient = new Patient();
+		patient.setActive(true);
+		Long id = myPatientDao.create(patient, mySrd).getId().getIdPartAsLong();
+
+		runInTransaction(() -> {
+			ResourceHistoryTable resVer = myResourceHistoryTableDao.findForIdAndVersionAndFetchProvenance(id, 1);
+			String resourceText = resVer.getResourceTextVc();
+			if (resVer.getEncoding() == ResourceEncodingEnum.JSONC) {
+				resourceText = GZipUtil.decompress(resVer.getResource());
+			}
+			resourceText = resourceText.replace("\"active\":true", "\"active\":true,\"unknownElement\":\"marker\"");
+			resVer.setEncoding(ResourceEncodingEnum.JSON);
+			resVer.setResourceTextVc(resourceText);
+			resVer.setResource(null);
+			myResourceHistoryTableDao.save(resVer);
+		});
+
+		return id;
+	}
+
+	private String read(String thePath) throws IOException {
+		HttpGet httpGet = new HttpGet(myServerBase + thePath);
+		httpGet.addHeader("Accept", "application/fhir+json");
+		try (CloseableHttpResponse status = ourHttpClient.execute(httpGet)) {
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			ourLog.info("Response content: {}", responseContent);
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			return responseContent;
+		}
+	}
+
+}
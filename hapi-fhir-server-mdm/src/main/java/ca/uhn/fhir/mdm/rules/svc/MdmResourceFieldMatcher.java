@@ -21,11 +21,14 @@ package ca.uhn.fhir.mdm.rules.svc;
  */
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.fhirpath.FhirPathExecutionException;
 import ca.uhn.fhir.fhirpath.IFhirPath;
+import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.mdm.api.MdmMatchEvaluation;
 import ca.uhn.fhir.mdm.rules.json.MdmFieldMatchJson;
 import ca.uhn.fhir.mdm.rules.json.MdmRulesJson;
 import ca.uhn.fhir.util.FhirTerser;
+import ca.uhn.fhir.util.TerserPath;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -34,6 +37,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.mdm.api.MdmConstants.ALL_RESOURCE_SEARCH_PARAM_TYPE;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 /**
  * This class is responsible for performing matching between raw-typed values of a left record and a right record.
@@ -44,16 +48,19 @@ public class MdmResourceFieldMatcher {
 	private final MdmFieldMatchJson myMdmFieldMatchJson;
 	private final String myResourceType;
 	private final String myResourcePath;
+	private final TerserPath myCompiledResourcePath;
 	private final String myFhirPath;
 	private final MdmRulesJson myMdmRulesJson;
 	private final String myName;
 	private final boolean myIsFhirPathExpression;
+	private IFhirPath.IParsedExpression myParsedFhirPath;
 
 	public MdmResourceFieldMatcher(FhirContext theFhirContext, MdmFieldMatchJson theMdmFieldMatchJson, MdmRulesJson theMdmRulesJson) {
 		myFhirContext = theFhirContext;
 		myMdmFieldMatchJson = theMdmFieldMatchJson;
 		myResourceType = theMdmFieldMatchJson.getResourceType();
 		myResourcePath = theMdmFieldMatchJson.getResourcePath();
+		myCompiledResourcePath = isNotBlank(myResourcePath) ? TerserPath.compile(myResourcePath) : null;
 		myFhirPath = theMdmFieldMatchJson.getFhirPath();
 		myName = theMdmFieldMatchJson.getName();
 		myMdmRulesJson = theMdmRulesJson;
@@ -81,16 +88,30 @@ public class MdmResourceFieldMatcher {
 
 		if (myIsFhirPathExpression) {
 			IFhirPath fhirPath = myFhirContext.newFhirPath();
-			leftValues = fhirPath.evaluate(theLeftResource, myFhirPath, IBase.class);
-			rightValues = fhirPath.evaluate(theRightResource, myFhirPath, IBase.class);
+			IFhirPath.IParsedExpression parsedFhirPath = getParsedFhirPath(fhirPath);
+			leftValues = fhirPath.evaluate(theLeftResource, parsedFhirPath, IBase.class);
+			rightValues = fhirPath.evaluate(theRightResource, parsedFhirPath, IBase.class);
 		} else {
 			FhirTerser fhirTerser = myFhirContext.newTerser();
-			leftValues = fhirTerser.getValues(theLeftResource, myResourcePath, IBase.class);
-			rightValues = fhirTerser.getValues(theRightResource, myResourcePath, IBase.class);
+			leftValues = fhirTerser.getValues(theLeftResource, myCompiledResourcePath, IBase.class);
+			rightValues = fhirTerser.getValues(theRightResource, myCompiledResourcePath, IBase.class);
 		}
 		return match(leftValues, rightValues);
 	}
 
+	private IFhirPath.IParsedExpression getParsedFhirPath(IFhirPath theFhirPath) {
+		IFhirPath.IParsedExpression retVal = myParsedFhirPath;
+		if (retVal == null) {
+			try {
+				retVal = theFhirPath.parseExpression(myFhirPath);
+			} catch (Exception e) {
+				throw new FhirPathExecutionException(Msg.code(2218) + "MatchField [" + myName + "] has an invalid FHIRPath expression \"" + myFhirPath + "\": " + e.getMessage());
+			}
+			myParsedFhirPath = retVal;
+		}
+		return retVal;
+	}
+
 	@SuppressWarnings("rawtypes")
 	private MdmMatchEvaluation match(List<IBase> theLeftValues, List<IBase> theRightValues) {
 		MdmMatchEvaluation retval = new MdmMatchEvaluation(false, 0.0);
@@ -1,21 +1,27 @@
 package ca.uhn.fhir.rest.api.server;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.server.IRestfulServerDefaults;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.interceptor.IServerInterceptor;
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import ca.uhn.fhir.util.StopWatch;
 import ca.uhn.fhir.util.UrlUtil;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -62,6 +68,10 @@ public abstract class RequestDetails {
 	private String myOperation;
 	private Map<String, String[]> myParameters;
 	private byte[] myRequestContents;
+	private boolean myRequestContentsStreamed;
+	private boolean myRetainRequestContents;
+	private InputStream myRetainedRequestContentsStream;
+	private ByteArrayOutputStream myRetainedRequestContents;
 	private String myRequestPath;
 	private RequestTypeEnum myRequestType;
 	private String myResourceName;
@@ -167,6 +177,19 @@ public abstract class RequestDetails {
 
 	protected abstract byte[] getByteStreamRequestContents();
 
+	/**
+	 * Subclasses may override this method to supply the request body as a stream which is read directly
+	 * from the underlying request (see {@link #loadRequestContentsAsStream()}). The default implementation
+	 * returns <code>null</code>, meaning that the request body is always loaded using
+	 * {@link #getByteStreamRequestContents()}.
+	 *
+	 * @return The request body (uncompressed), or <code>null</code> if the body can not be streamed
+	 * @since 6.3.0
+	 */
+	protected InputStream getRequestContentsStream() {
+		return null;
+	}
+
 	/**
 	 * Return the charset as defined by the header contenttype. Return null if it is not set.
 	 */
@@ -493,11 +516,85 @@ public abstract class RequestDetails {
 
 	public final byte[] loadRequestContents() {
 		if (myRequestContents == null) {
-			myRequestContents = getByteStreamRequestContents();
+			if (myRequestContentsStreamed) {
+				myRequestContents = drainRetainedRequestContents();
+			} else {
+				myRequestContents = getByteStreamRequestContents();
+			}
 		}
 		return getRequestContentsIfLoaded();
 	}
 
+	/**
+	 * Returns the request body as a stream. If the request contents have already been loaded
+	 * (e.g. by an interceptor calling {@link #loadRequestContents()}), the stream reads the
+	 * loaded contents. Otherwise, if the request supports it, the stream reads directly from the
+	 * underlying request so that the body never needs to be held in memory in its entirety.
+	 * <p>
+	 * The body can only be streamed once. If {@link #loadRequestContents()} will be needed after the
+	 * body has been streamed (e.g. by an interceptor which logs the request body after the request
+	 * has been processed), call {@link #setRetainRequestContents(boolean)} before the body is read.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public final InputStream loadRequestContentsAsStream() {
+		if (myRequestContents == null && !myRequestContentsStreamed) {
+			InputStream stream = getRequestContentsStream();
+			if (stream != null) {
+				myRequestContentsStreamed = true;
+				if (myRetainRequestContents) {
+					myRetainedRequestContents = new ByteArrayOutputStream();
+					stream = new TeeInputStream(stream, myRetainedRequestContents);
+					myRetainedRequestContentsStream = stream;
+				}
+				return stream;
+			}
+		}
+		return new ByteArrayInputStream(loadRequestContents());
+	}
+
+	private byte[] drainRetainedRequestContents() {
+		if (myRetainedRequestContents == null) {
+			throw new InternalErrorException(Msg.code(2221) + "The request body has already been streamed and was not retained. Call RequestDetails#setRetainRequestContents(true) before the body is read in order to access it afterwards.");
+		}
+		try {
+			IOUtils.consume(myRetainedRequestContentsStream);
+		} catch (IOException e) {
+			// Ignore - the stream has normally been read to the end and closed by the parser
+		}
+		byte[] retVal = myRetainedRequestContents.toByteArray();
+		myRetainedRequestContents = null;
+		myRetainedRequestContentsStream = null;
+		return retVal;
+	}
+
+	/**
+	 * Should the request body be retained if it is streamed using {@link #loadRequestContentsAsStream()},
+	 * so that {@link #loadRequestContents()} can still be used afterwards? Default is <code>false</code>.
+	 *
+	 * @since 6.3.0
+	 */
+	public boolean isRetainRequestContents() {
+		return myRetainRequestContents;
+	}
+
+	/**
+	 * Should the request body be retained if it is streamed using {@link #loadRequestContentsAsStream()},
+	 * so that {@link #loadRequestContents()} can still be used afterwards? Default is <code>false</code>.
+	 * <p>
+	 * Interceptors which need access to the raw request body after it has been parsed should set this
+	 * to <code>true</code> in a hook which is invoked before the body is parsed (e.g.
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#SERVER_INCOMING_REQUEST_POST_PROCESSED}). The body is
+	 * then copied into a buffer as it is read, rather than being loaded up front.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public void setRetainRequestContents(boolean theRetainRequestContents) {
+		myRetainRequestContents = theRetainRequestContents;
+	}
+
 	/**
 	 * Returns the request contents if they were loaded, returns <code>null</code> otherwise
 	 *
@@ -0,0 +1,734 @@
+package ca.uhn.fhir.rest.server;
+
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Processes a single request on an {@link Executor} after the servlet container thread has been
+ * released using {@link AsyncContext}. See {@link RestfulServer#setAsyncRequestExecutor(Executor)}.
+ * <p>
+ * Whichever of the worker thread, the timeout callback and the error (disconnect) callback finishes
+ * the request first is responsible for completing the {@link AsyncContext}. Once the request has been
+ * finished by a timeout or a disconnect, the request and response seen by the worker are closed, so
+ * that a worker which is still running can not read from a request or write into a response which the
+ * container may already have recycled. The worker is interrupted, any further attempt to write to the
+ * response fails with an {@link IOException}, and any further attempt to read from the request fails
+ * with an {@link IllegalStateException}.
+ * </p>
+ * <p>
+ * Closing never waits for the worker, and no lock is held while the worker performs I/O, so a worker
+ * blocked writing to a slow client can not delay the timeout or error callbacks.
+ * </p>
+ */
+class AsyncRequestTask implements Runnable, AsyncListener {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(AsyncRequestTask.class);
+
+	private final RestfulServer myServer;
+	private final RequestTypeEnum myRequestType;
+	private final String myRequestUri;
+	private final AsyncContext myAsyncContext;
+	private final AtomicBoolean myClosed = new AtomicBoolean();
+	private final GuardedRequest myRequest;
+	private final GuardedResponse myResponse;
+	private final AtomicReference<StateEnum> myState = new AtomicReference<>(StateEnum.QUEUED);
+	private Thread myWorkerThread;
+
+	private AsyncRequestTask(RestfulServer theServer, RequestTypeEnum theRequestType, HttpServletRequest theRequest, HttpServletResponse theResponse, AsyncContext theAsyncContext) {
+		myServer = theServer;
+		myRequestType = theRequestType;
+		myRequestUri = theRequest.getRequestURI();
+		myAsyncContext = theAsyncContext;
+		myRequest = new GuardedRequest(theRequest, myClosed);
+		myResponse = new GuardedResponse(theResponse, myClosed);
+	}
+
+	@Override
+	public void run() {
+		if (!myState.compareAndSet(StateEnum.QUEUED, StateEnum.RUNNING)) {
+			// Timed out or disconnected before we got a chance to start
+			return;
+		}
+
+		synchronized (this) {
+			myWorkerThread = Thread.currentThread();
+		}
+		try {
+			myServer.dispatchRequest(myRequestType, myRequest, myResponse);
+		} catch (Exception e) {
+			if (myResponse.isClosed()) {
+				ourLog.debug("Failure processing request after it was finished by a timeout or disconnect: {}", e.toString());
+			} else {
+				ourLog.error("Failure processing asynchronous request", e);
+				sendInternalError();
+			}
+		} finally {
+			synchronized (this) {
+				myWorkerThread = null;
+				// Don't leak an interrupt from a timeout into the next task on this thread
+				Thread.interrupted();
+			}
+			if (myState.compareAndSet(StateEnum.RUNNING, StateEnum.FINISHED)) {
+				myAsyncContext.complete();
+			}
+		}
+	}
+
+	/**
+	 * Called by the worker if dispatching the request failed with an exception which was not
+	 * turned into a response, so that the client does not receive an empty 200 response
+	 */
+	private void sendInternalError() {
+		try {
+			if (!myResponse.isCommitted()) {
+				myResponse.reset();
+				myResponse.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+				myResponse.setContentType(Constants.CT_TEXT_WITH_UTF8);
+				myResponse.getOutputStream().write("Failed to process request".getBytes(StandardCharsets.UTF_8));
+			}
+		} catch (IOException | IllegalStateException e) {
+			ourLog.debug("Unable to send error response: {}", e.toString());
+		}
+	}
+
+	@Override
+	public void onTimeout(AsyncEvent theEvent) throws IOException {
+		if (abort()) {
+			long timeout = myAsyncContext.getTimeout();
+			ourLog.warn("Request to {} did not complete within {}ms, aborting", myRequestUri, timeout);
+			HttpServletResponse response = myResponse.getDelegate();
+			if (!response.isCommitted() && myResponse.isIdle()) {
+				response.reset();
+				response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+				response.setContentType(Constants.CT_TEXT_WITH_UTF8);
+				response.getOutputStream().write(("Request did not complete within " + timeout + "ms").getBytes(StandardCharsets.UTF_8));
+			}
+			myAsyncContext.complete();
+		}
+	}
+
+	@Override
+	public void onError(AsyncEvent theEvent) {
+		if (abort()) {
+			ourLog.debug("Request to {} failed, probably because the client disconnected: {}", myRequestUri, String.valueOf(theEvent.getThrowable()));
+			myAsyncContext.complete();
+		}
+	}
+
+	@Override
+	public void onComplete(AsyncEvent theEvent) {
+		// nothing
+	}
+
+	@Override
+	public void onStartAsync(AsyncEvent theEvent) {
+		// nothing
+	}
+
+	/**
+	 * @return Returns <code>true</code> if the caller is now responsible for completing the request
+	 */
+	private boolean abort() {
+		StateEnum previous = myState.getAndSet(StateEnum.FINISHED);
+		if (previous == StateEnum.FINISHED) {
+			return false;
+		}
+
+		myClosed.set(true);
+		synchronized (this) {
+			if (myWorkerThread != null) {
+				myWorkerThread.interrupt();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Starts asynchronous processing of the given request. If the executor rejects the request, it is
+	 * processed on the calling thread instead.
+	 */
+	static void start(RestfulServer theServer, RequestTypeEnum theRequestType, HttpServletRequest theRequest, HttpServletResponse theResponse, Executor theExecutor, long theTimeoutMillis) {
+		AsyncContext asyncContext = theRequest.startAsync(theRequest, theResponse);
+		asyncContext.setTimeout(theTimeoutMillis);
+
+		AsyncRequestTask task = new AsyncRequestTask(theServer, theRequestType, theRequest, theResponse, asyncContext);
+		asyncContext.addListener(task);
+
+		try {
+			theExecutor.execute(task);
+		} catch (RejectedExecutionException e) {
+			ourLog.debug("Asynchronous request executor rejected request, processing on the container thread");
+			task.run();
+		}
+	}
+
+	private enum StateEnum {
+		QUEUED,
+		RUNNING,
+		FINISHED
+	}
+
+	/**
+	 * Request wrapper which stops passing calls to the underlying request once closed, since
+	 * the container may have recycled it
+	 */
+	private static class GuardedRequest extends HttpServletRequestWrapper {
+
+		private final AtomicBoolean myClosed;
+
+		GuardedRequest(HttpServletRequest theDelegate, AtomicBoolean theClosed) {
+			super(theDelegate);
+			myClosed = theClosed;
+		}
+
+		private void checkOpen() {
+			if (myClosed.get()) {
+				throw new IllegalStateException(Msg.code(2229) + "Request has already been finished because it timed out or the client disconnected");
+			}
+		}
+
+		private <T> T ifOpen(Supplier<T> theSupplier) {
+			checkOpen();
+			return theSupplier.get();
+		}
+
+		@Override
+		public String getHeader(String theName) {
+			return ifOpen(() -> super.getHeader(theName));
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String theName) {
+			return ifOpen(() -> super.getHeaders(theName));
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames() {
+			return ifOpen(super::getHeaderNames);
+		}
+
+		@Override
+		public String getParameter(String theName) {
+			return ifOpen(() -> super.getParameter(theName));
+		}
+
+		@Override
+		public Map<String, String[]> getParameterMap() {
+			return ifOpen(super::getParameterMap);
+		}
+
+		@Override
+		public Enumeration<String> getParameterNames() {
+			return ifOpen(super::getParameterNames);
+		}
+
+		@Override
+		public String[] getParameterValues(String theName) {
+			return ifOpen(() -> super.getParameterValues(theName));
+		}
+
+		@Override
+		public String getQueryString() {
+			return ifOpen(super::getQueryString);
+		}
+
+		@Override
+		public String getRequestURI() {
+			return ifOpen(super::getRequestURI);
+		}
+
+		@Override
+		public StringBuffer getRequestURL() {
+			return ifOpen(super::getRequestURL);
+		}
+
+		@Override
+		public String getPathInfo() {
+			return ifOpen(super::getPathInfo);
+		}
+
+		@Override
+		public String getServletPath() {
+			return ifOpen(super::getServletPath);
+		}
+
+		@Override
+		public String getContextPath() {
+			return ifOpen(super::getContextPath);
+		}
+
+		@Override
+		public String getContentType() {
+			return ifOpen(super::getContentType);
+		}
+
+		@Override
+		public String getCharacterEncoding() {
+			return ifOpen(super::getCharacterEncoding);
+		}
+
+		@Override
+		public Object getAttribute(String theName) {
+			return ifOpen(() -> super.getAttribute(theName));
+		}
+
+		@Override
+		public void setAttribute(String theName, Object theValue) {
+			checkOpen();
+			super.setAttribute(theName, theValue);
+		}
+
+		@Override
+		public String getRemoteAddr() {
+			return ifOpen(super::getRemoteAddr);
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			checkOpen();
+			return new GuardedInputStream(this, super.getInputStream());
+		}
+
+		@Override
+		public BufferedReader getReader() throws IOException {
+			checkOpen();
+			return new BufferedReader(new GuardedReader(this, super.getReader()));
+		}
+
+	}
+
+	private static class GuardedInputStream extends ServletInputStream {
+
+		private final GuardedRequest myRequest;
+		private final ServletInputStream myDelegate;
+
+		GuardedInputStream(GuardedRequest theRequest, ServletInputStream theDelegate) {
+			myRequest = theRequest;
+			myDelegate = theDelegate;
+		}
+
+		@Override
+		public int read() throws IOException {
+			myRequest.checkOpen();
+			return myDelegate.read();
+		}
+
+		@Override
+		public int read(byte[] theBytes, int theOffset, int theLength) throws IOException {
+			myRequest.checkOpen();
+			return myDelegate.read(theBytes, theOffset, theLength);
+		}
+
+		@Override
+		public boolean isFinished() {
+			return myDelegate.isFinished();
+		}
+
+		@Override
+		public boolean isReady() {
+			return myDelegate.isReady();
+		}
+
+		@Override
+		public void setReadListener(ReadListener theReadListener) {
+			myDelegate.setReadListener(theReadListener);
+		}
+
+	}
+
+	private static class GuardedReader extends Reader {
+
+		private final GuardedRequest myRequest;
+		private final Reader myDelegate;
+
+		GuardedReader(GuardedRequest theRequest, Reader theDelegate) {
+			myRequest = theRequest;
+			myDelegate = theDelegate;
+		}
+
+		@Override
+		public int read(char[] theChars, int theOffset, int theLength) throws IOException {
+			myRequest.checkOpen();
+			return myDelegate.read(theChars, theOffset, theLength);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!myRequest.myClosed.get()) {
+				myDelegate.close();
+			}
+		}
+
+	}
+
+	/**
+	 * Response wrapper which stops passing calls to the underlying response once closed. Calls
+	 * into the underlying response are counted rather than locked, so that closing never has to
+	 * wait for a worker which is blocked on I/O.
+	 */
+	private static class GuardedResponse extends HttpServletResponseWrapper {
+
+		private final HttpServletResponse myDelegate;
+		private final AtomicBoolean myClosed;
+		private final AtomicInteger myActiveCalls = new AtomicInteger();
+		private ServletOutputStream myOutputStream;
+		private PrintWriter myWriter;
+
+		GuardedResponse(HttpServletResponse theDelegate, AtomicBoolean theClosed) {
+			super(theDelegate);
+			myDelegate = theDelegate;
+			myClosed = theClosed;
+		}
+
+		HttpServletResponse getDelegate() {
+			return myDelegate;
+		}
+
+		boolean isClosed() {
+			return myClosed.get();
+		}
+
+		/**
+		 * Returns <code>true</code> if the worker is not currently calling into the underlying
+		 * response. Once the response is closed and this returns <code>true</code>, the worker
+		 * will not call into the underlying response again.
+		 */
+		boolean isIdle() {
+			return myActiveCalls.get() == 0;
+		}
+
+		private boolean tryEnter() {
+			myActiveCalls.incrementAndGet();
+			if (myClosed.get()) {
+				myActiveCalls.decrementAndGet();
+				return false;
+			}
+			return true;
+		}
+
+		void enter() throws IOException {
+			if (!tryEnter()) {
+				throw new IOException(Msg.code(2220) + "Request has already been finished because it timed out or the client disconnected");
+			}
+		}
+
+		void exit() {
+			myActiveCalls.decrementAndGet();
+		}
+
+		private void ifOpen(Runnable theAction) {
+			if (tryEnter()) {
+				try {
+					theAction.run();
+				} finally {
+					exit();
+				}
+			}
+		}
+
+		@Override
+		public synchronized ServletOutputStream getOutputStream() throws IOException {
+			enter();
+			try {
+				if (myOutputStream == null) {
+					myOutputStream = new GuardedOutputStream(this, myDelegate.getOutputStream());
+				}
+				return myOutputStream;
+			} finally {
+				exit();
+			}
+		}
+
+		@Override
+		public synchronized PrintWriter getWriter() throws IOException {
+			enter();
+			try {
+				if (myWriter == null) {
+					myWriter = new PrintWriter(new GuardedWriter(this, myDelegate.getWriter()));
+				}
+				return myWriter;
+			} finally {
+				exit();
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			enter();
+			try {
+				myDelegate.flushBuffer();
+			} finally {
+				exit();
+			}
+		}
+
+		@Override
+		public void sendError(int theStatusCode) throws IOException {
+			enter();
+			try {
+				myDelegate.sendError(theStatusCode);
+			} finally {
+				exit();
+			}
+		}
+
+		@Override
+		public void sendError(int theStatusCode, String theMessage) throws IOException {
+			enter();
+			try {
+				myDelegate.sendError(theStatusCode, theMessage);
+			} finally {
+				exit();
+			}
+		}
+
+		@Override
+		public void sendRedirect(String theLocation) throws IOException {
+			enter();
+			try {
+				myDelegate.sendRedirect(theLocation);
+			} finally {
+				exit();
+			}
+		}
+
+		@Override
+		public void setStatus(int theStatusCode) {
+			ifOpen(() -> myDelegate.setStatus(theStatusCode));
+		}
+
+		@Override
+		public void setHeader(String theName, String theValue) {
+			ifOpen(() -> myDelegate.setHeader(theName, theValue));
+		}
+
+		@Override
+		public void addHeader(String theName, String theValue) {
+			ifOpen(() -> myDelegate.addHeader(theName, theValue));
+		}
+
+		@Override
+		public void setIntHeader(String theName, int theValue) {
+			ifOpen(() -> myDelegate.setIntHeader(theName, theValue));
+		}
+
+		@Override
+		public void addIntHeader(String theName, int theValue) {
+			ifOpen(() -> myDelegate.addIntHeader(theName, theValue));
+		}
+
+		@Override
+		public void setDateHeader(String theName, long theValue) {
+			ifOpen(() -> myDelegate.setDateHeader(theName, theValue));
+		}
+
+		@Override
+		public void addDateHeader(String theName, long theValue) {
+			ifOpen(() -> myDelegate.addDateHeader(theName, theValue));
+		}
+
+		@Override
+		public void addCookie(Cookie theCookie) {
+			ifOpen(() -> myDelegate.addCookie(theCookie));
+		}
+
+		@Override
+		public void setContentType(String theContentType) {
+			ifOpen(() -> myDelegate.setContentType(theContentType));
+		}
+
+		@Override
+		public void setCharacterEncoding(String theCharacterEncoding) {
+			ifOpen(() -> myDelegate.setCharacterEncoding(theCharacterEncoding));
+		}
+
+		@Override
+		public void setContentLength(int theLength) {
+			ifOpen(() -> myDelegate.setContentLength(theLength));
+		}
+
+		@Override
+		public void setContentLengthLong(long theLength) {
+			ifOpen(() -> myDelegate.setContentLengthLong(theLength));
+		}
+
+		@Override
+		public void setLocale(Locale theLocale) {
+			ifOpen(() -> myDelegate.setLocale(theLocale));
+		}
+
+		@Override
+		public void setBufferSize(int theSize) {
+			ifOpen(() -> myDelegate.setBufferSize(theSize));
+		}
+
+		@Override
+		public void reset() {
+			ifOpen(myDelegate::reset);
+		}
+
+		@Override
+		public void resetBuffer() {
+			ifOpen(myDelegate::resetBuffer);
+		}
+
+	}
+
+	private static class GuardedOutputStream extends ServletOutputStream {
+
+		private final GuardedResponse myResponse;
+		private final ServletOutputStream myDelegate;
+
+		GuardedOutputStream(GuardedResponse theResponse, ServletOutputStream theDelegate) {
+			myResponse = theResponse;
+			myDelegate = theDelegate;
+		}
+
+		@Override
+		public void write(int theByte) throws IOException {
+			myResponse.enter();
+			try {
+				myDelegate.write(theByte);
+			} finally {
+				myResponse.exit();
+			}
+		}
+
+		@Override
+		public void write(byte[] theBytes, int theOffset, int theLength) throws IOException {
+			myResponse.enter();
+			try {
+				myDelegate.write(theBytes, theOffset, theLength);
+			} finally {
+				myResponse.exit();
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			myResponse.enter();
+			try {
+				myDelegate.flush();
+			} finally {
+				myResponse.exit();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (myResponse.tryEnter()) {
+				try {
+					myDelegate.close();
+				} finally {
+					myResponse.exit();
+				}
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return myDelegate.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener theWriteListener) {
+			myDelegate.setWriteListener(theWriteListener);
+		}
+
+	}
+
+	private static class GuardedWriter extends Writer {
+
+		private final GuardedResponse myResponse;
+		private final Writer myDelegate;
+
+		GuardedWriter(GuardedResponse theResponse, Writer theDelegate) {
+			myResponse = theResponse;
+			myDelegate = theDelegate;
+		}
+
+		@Override
+		public void write(char[] theChars, int theOffset, int theLength) throws IOException {
+			myResponse.enter();
+			try {
+				myDelegate.write(theChars, theOffset, theLength);
+			} finally {
+				myResponse.exit();
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			myResponse.enter();
+			try {
+				myDelegate.flush();
+			} finally {
+				myResponse.exit();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (myResponse.tryEnter()) {
+				try {
+					myDelegate.close();
+				} finally {
+					myResponse.exit();
+				}
+			}
+		}
+
+	}
+
+}
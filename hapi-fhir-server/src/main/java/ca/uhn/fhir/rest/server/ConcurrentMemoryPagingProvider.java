@@ -0,0 +1,403 @@
+package ca.uhn.fhir.rest.server;
+
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.Validate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * An in-memory paging provider which is safe for heavy concurrent use. Unlike
+ * {@link FifoMemoryPagingProvider}, retrieving and storing result lists does not
+ * require a global lock, and the capacity is expressed as an estimated number of bytes
+ * rather than a number of result lists.
+ * <p>
+ * The weight of each stored result list is estimated using a configurable
+ * {@link #setWeigher(ToLongFunction) weigher}. By default, this is the number of resources
+ * in the list multiplied by {@link #setEstimatedBytesPerResource(long) an estimated resource size}.
+ * When the total weight exceeds the {@link #setMaximumWeightBytes(long) maximum}, the least
+ * recently accessed result lists are evicted.
+ * </p>
+ * <p>
+ * Result lists also expire once they reach a {@link #setTimeToLiveMillis(long) maximum age},
+ * or once they have not been accessed for a {@link #setTimeToIdleMillis(long) maximum idle time}.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+public class ConcurrentMemoryPagingProvider extends BasePagingProvider {
+
+	public static final long DEFAULT_MAXIMUM_WEIGHT_BYTES = 128 * 1024 * 1024;
+	public static final long DEFAULT_ESTIMATED_BYTES_PER_RESOURCE = 4 * 1024;
+	public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60 * 60 * 1000;
+	public static final long DEFAULT_TIME_TO_IDLE_MILLIS = 10 * 60 * 1000;
+
+	/**
+	 * Estimated fixed cost of each entry, regardless of the number of resources
+	 */
+	static final long ENTRY_OVERHEAD_BYTES = 512;
+	private static final long SWEEP_INTERVAL_MILLIS = 10 * 1000;
+	/**
+	 * When evicting, free up a bit more space than is strictly needed so that
+	 * every subsequent store doesn't trigger another eviction pass
+	 */
+	private static final double EVICTION_TARGET_RATIO = 0.9;
+
+	private final Map<String, Entry> myEntries = new ConcurrentHashMap<>();
+	private final ReentrantLock myMaintenanceLock = new ReentrantLock();
+	private final AtomicLong myTotalWeight = new AtomicLong();
+	private final AtomicLong myHitCount = new AtomicLong();
+	private final AtomicLong myMissCount = new AtomicLong();
+	private final AtomicLong myEvictionCount = new AtomicLong();
+	private final AtomicLong myExpiryCount = new AtomicLong();
+	private final AtomicLong myRejectedCount = new AtomicLong();
+	private volatile long myMaximumWeightBytes;
+	private volatile long myEstimatedBytesPerResource = DEFAULT_ESTIMATED_BYTES_PER_RESOURCE;
+	private volatile long myTimeToLiveMillis = DEFAULT_TIME_TO_LIVE_MILLIS;
+	private volatile long myTimeToIdleMillis = DEFAULT_TIME_TO_IDLE_MILLIS;
+	private volatile ToLongFunction<IBundleProvider> myWeigher = this::estimateWeight;
+	private volatile long myNextSweep;
+	private Long myNowForUnitTest;
+
+	/**
+	 * Constructor which uses a maximum weight of {@link #DEFAULT_MAXIMUM_WEIGHT_BYTES}
+	 */
+	public ConcurrentMemoryPagingProvider() {
+		this(DEFAULT_MAXIMUM_WEIGHT_BYTES);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaximumWeightBytes The maximum total estimated size of all stored result lists, in bytes
+	 */
+	public ConcurrentMemoryPagingProvider(long theMaximumWeightBytes) {
+		setMaximumWeightBytes(theMaximumWeightBytes);
+	}
+
+	@Override
+	public IBundleProvider retrieveResultList(@Nullable RequestDetails theRequestDetails, @Nonnull String theSearchId) {
+		Entry entry = myEntries.get(theSearchId);
+		if (entry == null) {
+			myMissCount.incrementAndGet();
+			return null;
+		}
+
+		long now = now();
+		if (isExpired(entry, now)) {
+			if (remove(theSearchId, entry)) {
+				myExpiryCount.incrementAndGet();
+			}
+			myMissCount.incrementAndGet();
+			return null;
+		}
+
+		entry.myLastAccessed = now;
+		myHitCount.incrementAndGet();
+		return entry.myBundleProvider;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * A result list whose estimated weight exceeds the {@link #setMaximumWeightBytes(long) maximum}
+	 * on its own is not stored, since storing it would evict every other result list and then the
+	 * list itself. In that case <code>null</code> is returned and the search is answered without paging
+	 * links.
+	 * </p>
+	 */
+	@Override
+	public String storeResultList(@Nullable RequestDetails theRequestDetails, IBundleProvider theList) {
+		long weight = Math.max(0, myWeigher.applyAsLong(theList)) + ENTRY_OVERHEAD_BYTES;
+		if (weight > myMaximumWeightBytes) {
+			myRejectedCount.incrementAndGet();
+			return null;
+		}
+		long now = now();
+
+		String key = UUID.randomUUID().toString();
+		myEntries.put(key, new Entry(theList, weight, now));
+		myTotalWeight.addAndGet(weight);
+
+		maintain(now);
+		return key;
+	}
+
+	/**
+	 * Removes expired entries, and evicts the least recently accessed entries if the
+	 * total weight exceeds the maximum. Only one thread performs maintenance at a time,
+	 * and other threads never wait for it.
+	 */
+	private void maintain(long theNow) {
+		boolean sweepDue = theNow >= myNextSweep;
+		if (!sweepDue && myTotalWeight.get() <= myMaximumWeightBytes) {
+			return;
+		}
+		if (!myMaintenanceLock.tryLock()) {
+			return;
+		}
+		try {
+			if (sweepDue) {
+				myNextSweep = theNow + SWEEP_INTERVAL_MILLIS;
+				myEntries.forEach((key, entry) -> {
+					if (isExpired(entry, theNow) && remove(key, entry)) {
+						myExpiryCount.incrementAndGet();
+					}
+				});
+			}
+
+			if (myTotalWeight.get() > myMaximumWeightBytes) {
+				long target = (long) (myMaximumWeightBytes * EVICTION_TARGET_RATIO);
+
+				// The last accessed time of an entry can change while we sort, so sort on a
+				// snapshot of it or the sort could see an inconsistent ordering and fail
+				List<EvictionCandidate> candidates = new ArrayList<>(myEntries.size());
+				myEntries.forEach((key, entry) -> candidates.add(new EvictionCandidate(key, entry)));
+				candidates.sort(Comparator.comparingLong(t -> t.myLastAccessed));
+				for (EvictionCandidate next : candidates) {
+					if (myTotalWeight.get() <= target) {
+						break;
+					}
+					if (remove(next.myKey, next.myEntry)) {
+						myEvictionCount.incrementAndGet();
+					}
+				}
+			}
+		} finally {
+			myMaintenanceLock.unlock();
+		}
+	}
+
+	private boolean remove(String theKey, Entry theEntry) {
+		if (myEntries.remove(theKey, theEntry)) {
+			myTotalWeight.addAndGet(-theEntry.myWeight);
+			return true;
+		}
+		return false;
+	}
+
+	private boolean isExpired(Entry theEntry, long theNow) {
+		return theNow - theEntry.myCreated > myTimeToLiveMillis || theNow - theEntry.myLastAccessed > myTimeToIdleMillis;
+	}
+
+	private long estimateWeight(IBundleProvider theBundleProvider) {
+		Integer size = theBundleProvider.size();
+		if (size == null) {
+			return 0;
+		}
+		return size * myEstimatedBytesPerResource;
+	}
+
+	private long now() {
+		Long retVal = myNowForUnitTest;
+		if (retVal != null) {
+			return retVal;
+		}
+		return System.currentTimeMillis();
+	}
+
+	@VisibleForTesting
+	void setNowForUnitTest(Long theNowForUnitTest) {
+		myNowForUnitTest = theNowForUnitTest;
+	}
+
+	/**
+	 * Removes all stored result lists
+	 */
+	public void clear() {
+		myEntries.forEach(this::remove);
+	}
+
+	/**
+	 * Returns the maximum total estimated size of all stored result lists, in bytes
+	 */
+	public long getMaximumWeightBytes() {
+		return myMaximumWeightBytes;
+	}
+
+	/**
+	 * Sets the maximum total estimated size of all stored result lists, in bytes. When this is
+	 * exceeded, the least recently accessed result lists are evicted.
+	 */
+	public ConcurrentMemoryPagingProvider setMaximumWeightBytes(long theMaximumWeightBytes) {
+		Validate.isTrue(theMaximumWeightBytes > 0, "theMaximumWeightBytes must be greater than 0");
+		myMaximumWeightBytes = theMaximumWeightBytes;
+		return this;
+	}
+
+	/**
+	 * Returns the estimated size of a single resource, used by the default weigher.
+	 * Default is {@link #DEFAULT_ESTIMATED_BYTES_PER_RESOURCE}.
+	 */
+	public long getEstimatedBytesPerResource() {
+		return myEstimatedBytesPerResource;
+	}
+
+	/**
+	 * Sets the estimated size of a single resource, used by the default weigher.
+	 * Default is {@link #DEFAULT_ESTIMATED_BYTES_PER_RESOURCE}.
+	 */
+	public ConcurrentMemoryPagingProvider setEstimatedBytesPerResource(long theEstimatedBytesPerResource) {
+		Validate.isTrue(theEstimatedBytesPerResource >= 0, "theEstimatedBytesPerResource must not be negative");
+		myEstimatedBytesPerResource = theEstimatedBytesPerResource;
+		return this;
+	}
+
+	/**
+	 * Replaces the function used to estimate the size (in bytes) of a stored result list. The
+	 * default multiplies {@link IBundleProvider#size()} by the
+	 * {@link #setEstimatedBytesPerResource(long) estimated resource size}, which is a good fit for
+	 * result lists held entirely in memory but overestimates lazily loaded ones.
+	 */
+	public ConcurrentMemoryPagingProvider setWeigher(@Nonnull ToLongFunction<IBundleProvider> theWeigher) {
+		Validate.notNull(theWeigher, "theWeigher must not be null");
+		myWeigher = theWeigher;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum age of a stored result list. Default is {@link #DEFAULT_TIME_TO_LIVE_MILLIS}.
+	 */
+	public long getTimeToLiveMillis() {
+		return myTimeToLiveMillis;
+	}
+
+	/**
+	 * Sets the maximum age of a stored result list, after which it expires regardless of how
+	 * recently it was accessed. Default is {@link #DEFAULT_TIME_TO_LIVE_MILLIS}.
+	 */
+	public ConcurrentMemoryPagingProvider setTimeToLiveMillis(long theTimeToLiveMillis) {
+		Validate.isTrue(theTimeToLiveMillis > 0, "theTimeToLiveMillis must be greater than 0");
+		myTimeToLiveMillis = theTimeToLiveMillis;
+		return this;
+	}
+
+	/**
+	 * Returns the amount of time a stored result list may go without being accessed before it
+	 * expires. Default is {@link #DEFAULT_TIME_TO_IDLE_MILLIS}.
+	 */
+	public long getTimeToIdleMillis() {
+		return myTimeToIdleMillis;
+	}
+
+	/**
+	 * Sets the amount of time a stored result list may go without being accessed before it
+	 * expires. Default is {@link #DEFAULT_TIME_TO_IDLE_MILLIS}.
+	 */
+	public ConcurrentMemoryPagingProvider setTimeToIdleMillis(long theTimeToIdleMillis) {
+		Validate.isTrue(theTimeToIdleMillis > 0, "theTimeToIdleMillis must be greater than 0");
+		myTimeToIdleMillis = theTimeToIdleMillis;
+		return this;
+	}
+
+	/**
+	 * Returns the number of result lists currently stored
+	 */
+	public int getEntryCount() {
+		return myEntries.size();
+	}
+
+	/**
+	 * Returns the total estimated size of all result lists currently stored, in bytes
+	 */
+	public long getTotalWeightBytes() {
+		return myTotalWeight.get();
+	}
+
+	/**
+	 * Returns the number of times a stored result list was successfully retrieved
+	 */
+	public long getHitCount() {
+		return myHitCount.get();
+	}
+
+	/**
+	 * Returns the number of times a result list could not be retrieved because it was
+	 * unknown, evicted or expired
+	 */
+	public long getMissCount() {
+		return myMissCount.get();
+	}
+
+	/**
+	 * Returns the number of result lists which have been evicted because the maximum weight was exceeded
+	 */
+	public long getEvictionCount() {
+		return myEvictionCount.get();
+	}
+
+	/**
+	 * Returns the number of result lists which have been removed because they expired
+	 */
+	public long getExpiryCount() {
+		return myExpiryCount.get();
+	}
+
+	/**
+	 * Returns the number of result lists which were not stored because their estimated weight
+	 * exceeded the maximum weight on its own
+	 */
+	public long getRejectedCount() {
+		return myRejectedCount.get();
+	}
+
+	private static class EvictionCandidate {
+
+		private final String myKey;
+		private final Entry myEntry;
+		private final long myLastAccessed;
+
+		private EvictionCandidate(String theKey, Entry theEntry) {
+			myKey = theKey;
+			myEntry = theEntry;
+			myLastAccessed = theEntry.myLastAccessed;
+		}
+	}
+
+	private static class Entry {
+
+		private final IBundleProvider myBundleProvider;
+		private final long myWeight;
+		private final long myCreated;
+		private volatile long myLastAccessed;
+
+		private Entry(IBundleProvider theBundleProvider, long theWeight, long theNow) {
+			myBundleProvider = theBundleProvider;
+			myWeight = theWeight;
+			myCreated = theNow;
+			myLastAccessed = theNow;
+		}
+	}
+
+}
@@ -20,13 +20,22 @@ package ca.uhn.fhir.rest.server;
  * #L%
  */
 
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.server.method.BaseMethodBinding;
-import ca.uhn.fhir.rest.server.method.BaseMethodBinding;
 import ca.uhn.fhir.rest.server.method.MethodMatchEnum;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
 
 /**
  * Holds all method bindings for an individual resource type
@@ -36,7 +45,12 @@ public class ResourceBinding {
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ResourceBinding.class);
 
 	private String resourceName;
-	private LinkedList<BaseMethodBinding> myMethodBindings = new LinkedList<>();
+	private final MethodBindingList myMethodBindings = new MethodBindingList();
+	/**
+	 * Lazily built index of the method bindings which could match a given request type and
+	 * operation. This is rebuilt whenever the version of {@link #myMethodBindings} changes.
+	 */
+	private volatile MethodBindingIndex myIndex;
 
 	/**
 	 * Constructor
@@ -60,7 +74,7 @@ public class ResourceBinding {
 		BaseMethodBinding matchedMethod = null;
 		MethodMatchEnum matchedMethodStrength = null;
 
-		for (BaseMethodBinding rm : myMethodBindings) {
+		for (BaseMethodBinding rm : getCandidateMethodBindings(theRequest)) {
 			MethodMatchEnum nextMethodMatch = rm.incomingServerRequestMatchesMethod(theRequest);
 			if (nextMethodMatch != MethodMatchEnum.NONE) {
 				if (matchedMethodStrength == null || matchedMethodStrength.ordinal() < nextMethodMatch.ordinal()) {
@@ -76,6 +90,20 @@ public class ResourceBinding {
 		return matchedMethod;
 	}
 
+	/**
+	 * Returns the method bindings which could possibly match the given request, in the same
+	 * order as {@link #getMethodBindings()}
+	 */
+	List<BaseMethodBinding> getCandidateMethodBindings(RequestDetails theRequest) {
+		MethodBindingIndex index = myIndex;
+		int version = myMethodBindings.getVersion();
+		if (index == null || index.myVersion != version) {
+			index = new MethodBindingIndex(version, new ArrayList<>(myMethodBindings));
+			myIndex = index;
+		}
+		return index.getCandidates(theRequest.getRequestType(), theRequest.getOperation());
+	}
+
 	public String getResourceName() {
 		return resourceName;
 	}
@@ -84,12 +112,15 @@ public class ResourceBinding {
 		this.resourceName = resourceName;
 	}
 
+	/**
+	 * Returns the method bindings for this resource type. The returned list may be modified.
+	 */
 	public List<BaseMethodBinding> getMethodBindings() {
 		return myMethodBindings;
 	}
 
 	public void addMethod(BaseMethodBinding method) {
-		this.myMethodBindings.push(method);
+		this.myMethodBindings.add(0, method);
 	}
 
 	@Override
@@ -104,4 +135,122 @@ public class ResourceBinding {
 		return 0;
 	}
 
+	/**
+	 * Groups method bindings by the request types and operations they can match (see
+	 * {@link BaseMethodBinding#getMatchableRequestTypes()} and
+	 * {@link BaseMethodBinding#getMatchableOperationNames()}), so that only a handful of
+	 * bindings need to be tested for any given request.
+	 */
+	private static class MethodBindingIndex {
+
+		private final int myVersion;
+		private final List<BaseMethodBinding> myAllBindings;
+		private final Map<RequestTypeEnum, Map<String, List<BaseMethodBinding>>> myRequestTypeToOperationToBindings = new EnumMap<>(RequestTypeEnum.class);
+		private final Map<RequestTypeEnum, List<BaseMethodBinding>> myRequestTypeToAnyOperationBindings = new EnumMap<>(RequestTypeEnum.class);
+
+		MethodBindingIndex(int theVersion, List<BaseMethodBinding> theBindings) {
+			myVersion = theVersion;
+			myAllBindings = Collections.unmodifiableList(theBindings);
+
+			Set<String> operationNames = new HashSet<>();
+			for (BaseMethodBinding next : theBindings) {
+				Set<String> nextOperationNames = next.getMatchableOperationNames();
+				if (nextOperationNames != null) {
+					operationNames.addAll(nextOperationNames);
+				}
+			}
+
+			for (RequestTypeEnum nextRequestType : RequestTypeEnum.values()) {
+				List<BaseMethodBinding> anyOperationBindings = new ArrayList<>();
+				Map<String, List<BaseMethodBinding>> operationToBindings = new HashMap<>();
+				for (String nextOperationName : operationNames) {
+					operationToBindings.put(nextOperationName, new ArrayList<>());
+				}
+
+				for (BaseMethodBinding next : theBindings) {
+					Set<RequestTypeEnum> requestTypes = next.getMatchableRequestTypes();
+					if (requestTypes != null && !requestTypes.contains(nextRequestType)) {
+						continue;
+					}
+					Set<String> nextOperationNames = next.getMatchableOperationNames();
+					if (nextOperationNames == null) {
+						anyOperationBindings.add(next);
+					}
+					for (Map.Entry<String, List<BaseMethodBinding>> nextEntry : operationToBindings.entrySet()) {
+						if (nextOperationNames == null || nextOperationNames.contains(nextEntry.getKey())) {
+							nextEntry.getValue().add(next);
+						}
+					}
+				}
+
+				myRequestTypeToAnyOperationBindings.put(nextRequestType, anyOperationBindings);
+				myRequestTypeToOperationToBindings.put(nextRequestType, operationToBindings);
+			}
+		}
+
+		List<BaseMethodBinding> getCandidates(RequestTypeEnum theRequestType, String theOperation) {
+			if (theRequestType == null) {
+				return myAllBindings;
+			}
+
+			String operation = isBlank(theOperation) ? "" : theOperation;
+			List<BaseMethodBinding> retVal = myRequestTypeToOperationToBindings.get(theRequestType).get(operation);
+			if (retVal == null) {
+				retVal = myRequestTypeToAnyOperationBindings.get(theRequestType);
+			}
+			return retVal;
+		}
+
+	}
+
+	/**
+	 * The list of method bindings, which tracks a version number that changes on every
+	 * modification. All of the mutating operations inherited from {@link AbstractList}
+	 * (including those made through iterators and sublists) go through {@link #set(int, Object)},
+	 * {@link #add(int, Object)} or {@link #remove(int)}, so the index can never be used
+	 * after the bindings have changed, even if the size of the list stays the same.
+	 */
+	private static class MethodBindingList extends AbstractList<BaseMethodBinding> {
+
+		private final List<BaseMethodBinding> myBindings = new ArrayList<>();
+		private volatile int myVersion;
+
+		int getVersion() {
+			return myVersion;
+		}
+
+		@Override
+		public BaseMethodBinding get(int theIndex) {
+			return myBindings.get(theIndex);
+		}
+
+		@Override
+		public int size() {
+			return myBindings.size();
+		}
+
+		@Override
+		public BaseMethodBinding set(int theIndex, BaseMethodBinding theBinding) {
+			BaseMethodBinding retVal = myBindings.set(theIndex, theBinding);
+			myVersion++;
+			return retVal;
+		}
+
+		@Override
+		public void add(int theIndex, BaseMethodBinding theBinding) {
+			myBindings.add(theIndex, theBinding);
+			modCount++;
+			myVersion++;
+		}
+
+		@Override
+		public BaseMethodBinding remove(int theIndex) {
+			BaseMethodBinding retVal = myBindings.remove(theIndex);
+			modCount++;
+			myVersion++;
+			return retVal;
+		}
+
+	}
+
 }
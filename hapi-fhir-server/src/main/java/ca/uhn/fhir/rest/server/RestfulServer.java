@@ -103,6 +103,7 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.Manifest;
@@ -139,6 +140,10 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	 * Default value for {@link #setDefaultPreferReturn(PreferReturnEnum)}
 	 */
 	public static final PreferReturnEnum DEFAULT_PREFER_RETURN = PreferReturnEnum.REPRESENTATION;
+	/**
+	 * Default value for {@link #setAsyncRequestTimeoutMillis(long)} (no timeout)
+	 */
+	public static final long DEFAULT_ASYNC_REQUEST_TIMEOUT_MILLIS = 0;
 	private static final ExceptionHandlingInterceptor DEFAULT_EXCEPTION_HANDLER = new ExceptionHandlingInterceptor();
 	private static final Logger ourLog = LoggerFactory.getLogger(RestfulServer.class);
 	private static final long serialVersionUID = 1L;
@@ -171,9 +176,13 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	private String myServerVersion = createPoweredByHeaderProductVersion();
 	private boolean myStarted;
 	private boolean myUncompressIncomingContents = true;
+	private boolean myStreamIncomingContents = false;
 	private ITenantIdentificationStrategy myTenantIdentificationStrategy;
 	private PreferReturnEnum myDefaultPreferReturn = DEFAULT_PREFER_RETURN;
 	private ElementsSupportEnum myElementsSupport = ElementsSupportEnum.EXTENDED;
+	private Executor myAsyncRequestExecutor;
+	private long myAsyncRequestTimeoutMillis = DEFAULT_ASYNC_REQUEST_TIMEOUT_MILLIS;
+	private boolean myWarnedAsyncNotSupported;
 
 	/**
 	 * Constructor. Note that if no {@link FhirContext} is passed in to the server (either through the constructor, or
@@ -607,6 +616,76 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 		myDefaultResponseEncoding = theDefaultResponseEncoding;
 	}
 
+	/**
+	 * Returns the executor used to process requests asynchronously, or <code>null</code> (the default)
+	 * if requests are processed on the servlet container thread.
+	 *
+	 * @see #setAsyncRequestExecutor(Executor)
+	 * @since 6.3.0
+	 */
+	@Nullable
+	public Executor getAsyncRequestExecutor() {
+		return myAsyncRequestExecutor;
+	}
+
+	/**
+	 * If set to a non-null value, incoming requests are placed into asynchronous mode using
+	 * {@link javax.servlet.AsyncContext Servlet 3.0+ asynchronous processing} and processed using the
+	 * given executor, so that the servlet container thread is returned to the container while the
+	 * request is being processed. This is useful for servers with long running requests (e.g. large
+	 * searches) since blocked requests no longer exhaust the container thread pool. On JDK 21+ a
+	 * virtual thread executor (<code>Executors.newVirtualThreadPerTaskExecutor()</code>) is a good
+	 * choice.
+	 * <p>
+	 * Request processing is otherwise unchanged: the same {@link ServletRequestDetails} is created and
+	 * the same interceptor pointcuts are invoked, but on an executor thread. Anything stored in
+	 * thread-local state by a servlet filter (e.g. a security context or logging MDC) is not visible
+	 * to providers and interceptors unless the executor propagates it.
+	 * </p>
+	 * <p>
+	 * The servlet must be registered as supporting asynchronous processing (e.g. using
+	 * <code>&lt;async-supported&gt;true&lt;/async-supported&gt;</code>, as must any filters in front
+	 * of it), otherwise requests are processed on the container thread as usual. If the executor
+	 * rejects a request, it is processed on the container thread. The server does not shut down the
+	 * executor.
+	 * </p>
+	 *
+	 * @param theAsyncRequestExecutor The executor, or <code>null</code> (the default) to process requests on the servlet container thread
+	 * @see #setAsyncRequestTimeoutMillis(long)
+	 * @since 6.3.0
+	 */
+	public void setAsyncRequestExecutor(@Nullable Executor theAsyncRequestExecutor) {
+		myAsyncRequestExecutor = theAsyncRequestExecutor;
+	}
+
+	/**
+	 * Returns the maximum time that a request processed using the {@link #setAsyncRequestExecutor(Executor) asynchronous request executor}
+	 * may take. Default is {@link #DEFAULT_ASYNC_REQUEST_TIMEOUT_MILLIS}.
+	 *
+	 * @since 6.3.0
+	 */
+	public long getAsyncRequestTimeoutMillis() {
+		return myAsyncRequestTimeoutMillis;
+	}
+
+	/**
+	 * Sets the maximum time that a request processed using the {@link #setAsyncRequestExecutor(Executor) asynchronous request executor}
+	 * may take, including any time spent waiting for an executor thread. A value of <code>0</code> (the default)
+	 * means no timeout, which overrides the container's own default asynchronous timeout.
+	 * <p>
+	 * When a request times out the client receives an HTTP 503 response (if no response has been written
+	 * yet), the thread processing the request is interrupted, and any further attempt by that thread to
+	 * write to the response fails. If the client disconnects while the request is being processed, the
+	 * processing thread is interrupted in the same way.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public void setAsyncRequestTimeoutMillis(long theAsyncRequestTimeoutMillis) {
+		Validate.isTrue(theAsyncRequestTimeoutMillis >= 0, "theAsyncRequestTimeoutMillis must not be negative");
+		myAsyncRequestTimeoutMillis = theAsyncRequestTimeoutMillis;
+	}
+
 	@Override
 	public ETagSupportEnum getETagSupport() {
 		return myETagSupport;
@@ -1572,6 +1651,37 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 		myUncompressIncomingContents = theUncompressIncomingContents;
 	}
 
+	/**
+	 * Should request bodies containing FHIR resources be parsed directly from the incoming request stream
+	 * (default is <code>false</code>)?
+	 *
+	 * @see #setStreamIncomingContents(boolean)
+	 * @since 6.3.0
+	 */
+	public boolean isStreamIncomingContents() {
+		return myStreamIncomingContents;
+	}
+
+	/**
+	 * Should request bodies containing FHIR resources be parsed directly from the incoming request stream
+	 * (default is <code>false</code>)? By default, the request body is loaded into memory in its entirety
+	 * (and decompressed into a second copy if it is compressed) before being parsed. When this setting is
+	 * enabled, resources and transaction bundles are parsed (and decompressed) as the body is read, which
+	 * considerably reduces memory use for large requests.
+	 * <p>
+	 * When enabled, {@link RequestDetails#loadRequestContents()} can only be used after the body has been
+	 * parsed if {@link RequestDetails#setRetainRequestContents(boolean)} was enabled for the request before it
+	 * was parsed. Calling {@link RequestDetails#loadRequestContents()} before the body is parsed (e.g. in a
+	 * {@link Pointcut#SERVER_INCOMING_REQUEST_POST_PROCESSED} hook) continues to work as before, and the
+	 * loaded contents are then used for parsing.
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public void setStreamIncomingContents(boolean theStreamIncomingContents) {
+		myStreamIncomingContents = theStreamIncomingContents;
+	}
+
 
 	public void populateRequestDetailsFromRequestPath(RequestDetails theRequestDetails, String theRequestPath) {
 		UrlPathTokenizer tok = new UrlPathTokenizer(theRequestPath);
@@ -1863,7 +1973,26 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 			return;
 		}
 
-		switch (method) {
+		Executor asyncRequestExecutor = myAsyncRequestExecutor;
+		if (asyncRequestExecutor != null) {
+			if (theReq.isAsyncSupported()) {
+				AsyncRequestTask.start(this, method, theReq, theResp, asyncRequestExecutor, myAsyncRequestTimeoutMillis);
+				return;
+			}
+			if (!myWarnedAsyncNotSupported) {
+				myWarnedAsyncNotSupported = true;
+				ourLog.warn("An asynchronous request executor is configured but the servlet container does not support asynchronous processing for this request, processing synchronously. Is the servlet registered with async-supported?");
+			}
+		}
+
+		dispatchRequest(method, theReq, theResp);
+	}
+
+	/**
+	 * Passes the request to the handler for the given request type
+	 */
+	void dispatchRequest(RequestTypeEnum theMethod, HttpServletRequest theReq, HttpServletResponse theResp) throws ServletException, IOException {
+		switch (theMethod) {
 			case DELETE:
 				doDelete(theReq, theResp);
 				break;
@@ -1885,7 +2014,7 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 			case HEAD:
 			case CONNECT:
 			default:
-				handleRequest(method, theReq, theResp);
+				handleRequest(theMethod, theReq, theResp);
 				break;
 		}
 	}
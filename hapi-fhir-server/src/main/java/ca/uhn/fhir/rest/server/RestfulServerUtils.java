@@ -90,6 +90,17 @@ import static org.apache.commons.lang3.StringUtils.replace;
 import static org.apache.commons.lang3.StringUtils.trim;
 
 public class RestfulServerUtils {
+	/**
+	 * Resource user data key. If a resource returned by a read or vread method has a {@link String} value stored
+	 * in {@link IBaseResource#getUserData(String) user data} with this key, and
+	 * {@link #isRawJsonPassthroughPossible(RequestDetails)} returns <code>true</code> for the request, the value
+	 * is written to the response as the response body instead of encoding the resource. The value must be
+	 * exactly what the JSON parser would produce for the resource, and the resource must still have its
+	 * ID and <code>Resource.meta</code> populated since these are used for the response headers.
+	 *
+	 * @since 6.3.0
+	 */
+	public static final String USER_DATA_RAW_JSON = RestfulServerUtils.class.getName() + "_RAW_JSON";
 	static final Pattern ACCEPT_HEADER_PATTERN = Pattern.compile("\\s*([a-zA-Z0-9+.*/-]+)\\s*(;\\s*([a-zA-Z]+)\\s*=\\s*([a-zA-Z0-9.]+)\\s*)?(,?)");
 
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(RestfulServerUtils.class);
@@ -865,6 +876,42 @@ public class RestfulServerUtils {
 	}
 
 
+	/**
+	 * Can the response to the given request be produced by writing a stored JSON representation of the
+	 * resource directly to the response (see {@link #USER_DATA_RAW_JSON})? This is only the case for
+	 * read and vread requests which will be served as compact JSON with no <code>_summary</code> or
+	 * <code>_elements</code> filtering, where no narrative generator is configured and no interceptor is
+	 * registered against {@link Pointcut#SERVER_OUTGOING_RESPONSE} (which may modify the response resource).
+	 *
+	 * @since 6.3.0
+	 */
+	public static boolean isRawJsonPassthroughPossible(RequestDetails theRequestDetails) {
+		if (theRequestDetails.getServer() == null || theRequestDetails.isSubRequest()) {
+			return false;
+		}
+		RestOperationTypeEnum operationType = theRequestDetails.getRestOperationType();
+		if (operationType != RestOperationTypeEnum.READ && operationType != RestOperationTypeEnum.VREAD) {
+			return false;
+		}
+		if (theRequestDetails.getFhirContext().getNarrativeGenerator() != null) {
+			return false;
+		}
+		if (theRequestDetails.getInterceptorBroadcaster() != null && theRequestDetails.getInterceptorBroadcaster().hasHooks(Pointcut.SERVER_OUTGOING_RESPONSE)) {
+			return false;
+		}
+		if (determineResponseEncodingWithDefault(theRequestDetails).getEncoding() != EncodingEnum.JSON) {
+			return false;
+		}
+		if (prettyPrintResponse(theRequestDetails.getServer(), theRequestDetails)) {
+			return false;
+		}
+		if (!determineSummaryMode(theRequestDetails).equals(Collections.singleton(SummaryEnum.FALSE))) {
+			return false;
+		}
+		return ElementsParameter.getElementsValueOrNull(theRequestDetails, false) == null
+			&& ElementsParameter.getElementsValueOrNull(theRequestDetails, true) == null;
+	}
+
 	public static boolean prettyPrintResponse(IRestfulServerDefaults theServer, RequestDetails theRequest) {
 		Map<String, String[]> requestParams = theRequest.getParameters();
 		String[] pretty = requestParams.get(Constants.PARAM_PRETTY);
@@ -1030,6 +1077,8 @@ public class RestfulServerUtils {
 			} catch (Exception e) {
 				throw new InternalErrorException(Msg.code(305) + e);
 			}
+		} else if (theResource.getUserData(USER_DATA_RAW_JSON) instanceof String && isRawJsonPassthroughPossible(theRequestDetails)) {
+			writer.append((String) theResource.getUserData(USER_DATA_RAW_JSON));
 		} else {
 			FhirVersionEnum forVersion = theResource.getStructureFhirVersionEnum();
 			IParser parser = getNewParser(theServer.getFhirContext(), forVersion, theRequestDetails);
@@ -0,0 +1,703 @@
+package ca.uhn.fhir.rest.server.interceptor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.UnclassifiedServerFailureException;
+import org.apache.commons.lang3.Validate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * This interceptor limits the number of requests which are processed concurrently, in order to
+ * prevent a burst of expensive requests (e.g. <code>$everything</code> or searches using
+ * <code>_revinclude</code>) from consuming all available container threads and database
+ * connections, and starving cheaper requests.
+ * <p>
+ * Requests are divided into classes according to their {@link RestOperationTypeEnum operation type}
+ * (and the operation name for extended operations, so that for example <code>$everything</code>
+ * is limited separately from <code>$validate</code>) and, optionally, their tenant. Each class acts as a
+ * bulkhead with its own concurrency limit and its own queue, so that saturating one class does not
+ * affect the others.
+ * </p>
+ * <p>
+ * The limit for each class is adjusted continuously based on the observed latency. Two exponentially
+ * weighted moving averages of the latency of successful requests are kept: a short-term average which
+ * reflects current conditions, and a long-term average which is used as the baseline. The limit is
+ * only adjusted while the class is making use of its full limit (or requests are queued for it), since
+ * latency says nothing about the right limit otherwise. At those times, if the short-term average
+ * exceeds the baseline multiplied by the {@link #setLatencyTolerance(double) latency tolerance}, the
+ * limit is reduced in proportion to how far the latency exceeds this value (but never by more than the
+ * {@link #setBackoffRatio(double) backoff ratio}), and otherwise the limit is increased additively.
+ * Requests which fail are not used as latency samples. This allows each class to find the concurrency
+ * which its backing resources can sustain without queueing inside the database, without reacting to
+ * the normal variation in latency between individual requests.
+ * </p>
+ * <p>
+ * Requests which arrive when a class is at its limit wait in the queue for that class. If the queue is
+ * full, the request is rejected immediately with an HTTP 429 Too Many Requests. If the request can
+ * not be started within the {@link #setMaximumQueueWaitMillis(long) maximum queue wait}, it is rejected
+ * with an HTTP 503 Service Unavailable. Both responses include a <code>Retry-After</code> header.
+ * </p>
+ * <p>
+ * The current limits, and the number of requests accepted and rejected for each class, are available
+ * from {@link #getLimiterMetrics()}.
+ * </p>
+ * <p>
+ * Since the tenant ID is supplied by the client, the number of classes which are tracked is bounded by
+ * {@link #setMaximumLimiterCount(int)}. When this number is reached, the classes which have no requests in
+ * progress are discarded, and if that does not free up any room, requests for tenants which do not already have
+ * their own limits share the limits for all tenants.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+@Interceptor
+public class AdaptiveConcurrencyLimitingInterceptor {
+
+	public static final int DEFAULT_INITIAL_LIMIT = 20;
+	public static final int DEFAULT_MINIMUM_LIMIT = 1;
+	public static final int DEFAULT_MAXIMUM_LIMIT = 200;
+	public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+	public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+	public static final int DEFAULT_MAXIMUM_QUEUE_SIZE = 50;
+	public static final long DEFAULT_MAXIMUM_QUEUE_WAIT_MILLIS = 5 * 1000;
+	public static final int DEFAULT_RETRY_AFTER_SECONDS = 5;
+	public static final int DEFAULT_MAXIMUM_LIMITER_COUNT = 1000;
+	/**
+	 * The number of requests which the short-term latency average approximately covers
+	 */
+	static final int SHORT_WINDOW_SIZE = 10;
+	/**
+	 * The number of requests which the long-term (baseline) latency average approximately covers,
+	 * so that the baseline can rise if the cost of the requests in a class legitimately changes
+	 */
+	static final int BASELINE_WINDOW_SIZE = 500;
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(AdaptiveConcurrencyLimitingInterceptor.class);
+	private static final String PERMIT_KEY = AdaptiveConcurrencyLimitingInterceptor.class.getName() + "_PERMIT";
+	private static final double SHORT_SMOOTHING = 2.0 / (SHORT_WINDOW_SIZE + 1);
+	private static final double BASELINE_SMOOTHING = 2.0 / (BASELINE_WINDOW_SIZE + 1);
+
+	private final Map<String, Limiter> myLimiters = new ConcurrentHashMap<>();
+	private final Map<RestOperationTypeEnum, Integer> myMaximumLimitForOperationType = new EnumMap<>(RestOperationTypeEnum.class);
+	private int myInitialLimit = DEFAULT_INITIAL_LIMIT;
+	private int myMinimumLimit = DEFAULT_MINIMUM_LIMIT;
+	private int myMaximumLimit = DEFAULT_MAXIMUM_LIMIT;
+	private double myLatencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+	private double myBackoffRatio = DEFAULT_BACKOFF_RATIO;
+	private int myMaximumQueueSize = DEFAULT_MAXIMUM_QUEUE_SIZE;
+	private long myMaximumQueueWaitMillis = DEFAULT_MAXIMUM_QUEUE_WAIT_MILLIS;
+	private int myRetryAfterSeconds = DEFAULT_RETRY_AFTER_SECONDS;
+	private boolean myLimitPerTenant = true;
+	private int myMaximumLimiterCount = DEFAULT_MAXIMUM_LIMITER_COUNT;
+
+	/**
+	 * Constructor
+	 */
+	public AdaptiveConcurrencyLimitingInterceptor() {
+		super();
+	}
+
+	/**
+	 * Returns the concurrency limit that each class of requests starts with. Default is {@link #DEFAULT_INITIAL_LIMIT}.
+	 */
+	public int getInitialLimit() {
+		return myInitialLimit;
+	}
+
+	/**
+	 * Sets the concurrency limit that each class of requests starts with. Default is {@link #DEFAULT_INITIAL_LIMIT}.
+	 * This only affects classes which have not yet received any requests.
+	 */
+	public void setInitialLimit(int theInitialLimit) {
+		Validate.isTrue(theInitialLimit > 0, "theInitialLimit must be > 0");
+		myInitialLimit = theInitialLimit;
+	}
+
+	/**
+	 * Returns the lowest value that the concurrency limit for a class of requests can be reduced to.
+	 * Default is {@link #DEFAULT_MINIMUM_LIMIT}.
+	 */
+	public int getMinimumLimit() {
+		return myMinimumLimit;
+	}
+
+	/**
+	 * Sets the lowest value that the concurrency limit for a class of requests can be reduced to.
+	 * Default is {@link #DEFAULT_MINIMUM_LIMIT}.
+	 */
+	public void setMinimumLimit(int theMinimumLimit) {
+		Validate.isTrue(theMinimumLimit > 0, "theMinimumLimit must be > 0");
+		myMinimumLimit = theMinimumLimit;
+	}
+
+	/**
+	 * Returns the highest value that the concurrency limit for a class of requests can be increased to.
+	 * Default is {@link #DEFAULT_MAXIMUM_LIMIT}.
+	 */
+	public int getMaximumLimit() {
+		return myMaximumLimit;
+	}
+
+	/**
+	 * Sets the highest value that the concurrency limit for a class of requests can be increased to.
+	 * Default is {@link #DEFAULT_MAXIMUM_LIMIT}.
+	 */
+	public void setMaximumLimit(int theMaximumLimit) {
+		Validate.isTrue(theMaximumLimit > 0, "theMaximumLimit must be > 0");
+		myMaximumLimit = theMaximumLimit;
+	}
+
+	/**
+	 * Sets the highest value that the concurrency limit can be increased to for requests with the given
+	 * operation type. This can be used to keep a hard cap on expensive operations (e.g.
+	 * {@link RestOperationTypeEnum#EXTENDED_OPERATION_INSTANCE}) regardless of the observed latency.
+	 * This only affects classes which have not yet received any requests.
+	 *
+	 * @param theMaximumLimit The maximum limit, or <code>null</code> to use the {@link #setMaximumLimit(int) default maximum}
+	 */
+	public void setMaximumLimitForOperationType(@Nonnull RestOperationTypeEnum theOperationType, @Nullable Integer theMaximumLimit) {
+		Validate.notNull(theOperationType, "theOperationType must not be null");
+		synchronized (myMaximumLimitForOperationType) {
+			if (theMaximumLimit == null) {
+				myMaximumLimitForOperationType.remove(theOperationType);
+			} else {
+				Validate.isTrue(theMaximumLimit > 0, "theMaximumLimit must be > 0");
+				myMaximumLimitForOperationType.put(theOperationType, theMaximumLimit);
+			}
+		}
+	}
+
+	/**
+	 * Returns the factor by which a request's latency may exceed the baseline latency before the limit
+	 * is reduced. Default is {@link #DEFAULT_LATENCY_TOLERANCE}.
+	 */
+	public double getLatencyTolerance() {
+		return myLatencyTolerance;
+	}
+
+	/**
+	 * Sets the factor by which a request's latency may exceed the baseline latency before the limit
+	 * is reduced. Default is {@link #DEFAULT_LATENCY_TOLERANCE}.
+	 */
+	public void setLatencyTolerance(double theLatencyTolerance) {
+		Validate.isTrue(theLatencyTolerance >= 1.0, "theLatencyTolerance must be >= 1.0");
+		myLatencyTolerance = theLatencyTolerance;
+	}
+
+	/**
+	 * Returns the largest reduction applied to the limit for a single slow request, as a multiplier.
+	 * Default is {@link #DEFAULT_BACKOFF_RATIO}.
+	 */
+	public double getBackoffRatio() {
+		return myBackoffRatio;
+	}
+
+	/**
+	 * Sets the largest reduction applied to the limit for a single slow request, as a multiplier
+	 * (e.g. a value of <code>0.9</code> means the limit is reduced by at most 10%). Default is
+	 * {@link #DEFAULT_BACKOFF_RATIO}.
+	 */
+	public void setBackoffRatio(double theBackoffRatio) {
+		Validate.isTrue(theBackoffRatio > 0.0 && theBackoffRatio < 1.0, "theBackoffRatio must be > 0.0 and < 1.0");
+		myBackoffRatio = theBackoffRatio;
+	}
+
+	/**
+	 * Returns the maximum number of requests which may wait for each class of requests. Default is {@link #DEFAULT_MAXIMUM_QUEUE_SIZE}.
+	 */
+	public int getMaximumQueueSize() {
+		return myMaximumQueueSize;
+	}
+
+	/**
+	 * Sets the maximum number of requests which may wait for each class of requests. Requests which
+	 * arrive when the queue is full are rejected with an HTTP 429. A value of <code>0</code> means that
+	 * requests are rejected immediately whenever the class is at its limit. Default is {@link #DEFAULT_MAXIMUM_QUEUE_SIZE}.
+	 */
+	public void setMaximumQueueSize(int theMaximumQueueSize) {
+		Validate.isTrue(theMaximumQueueSize >= 0, "theMaximumQueueSize must be >= 0");
+		myMaximumQueueSize = theMaximumQueueSize;
+	}
+
+	/**
+	 * Returns the maximum amount of time that a request will wait in the queue. Default is {@link #DEFAULT_MAXIMUM_QUEUE_WAIT_MILLIS}.
+	 */
+	public long getMaximumQueueWaitMillis() {
+		return myMaximumQueueWaitMillis;
+	}
+
+	/**
+	 * Sets the maximum amount of time that a request will wait in the queue. Requests which can not be started
+	 * within this time are rejected with an HTTP 503. Default is {@link #DEFAULT_MAXIMUM_QUEUE_WAIT_MILLIS}.
+	 */
+	public void setMaximumQueueWaitMillis(long theMaximumQueueWaitMillis) {
+		Validate.isTrue(theMaximumQueueWaitMillis >= 0, "theMaximumQueueWaitMillis must be >= 0");
+		myMaximumQueueWaitMillis = theMaximumQueueWaitMillis;
+	}
+
+	/**
+	 * Returns the value of the <code>Retry-After</code> header returned with rejected requests. Default is {@link #DEFAULT_RETRY_AFTER_SECONDS}.
+	 */
+	public int getRetryAfterSeconds() {
+		return myRetryAfterSeconds;
+	}
+
+	/**
+	 * Sets the value of the <code>Retry-After</code> header returned with rejected requests. Default is {@link #DEFAULT_RETRY_AFTER_SECONDS}.
+	 */
+	public void setRetryAfterSeconds(int theRetryAfterSeconds) {
+		Validate.isTrue(theRetryAfterSeconds >= 0, "theRetryAfterSeconds must be >= 0");
+		myRetryAfterSeconds = theRetryAfterSeconds;
+	}
+
+	/**
+	 * Should each tenant have its own limit and queue for each class of requests (default is <code>true</code>)?
+	 */
+	public boolean isLimitPerTenant() {
+		return myLimitPerTenant;
+	}
+
+	/**
+	 * Should each tenant have its own limit and queue for each class of requests (default is <code>true</code>)?
+	 * If set to <code>false</code>, requests for all tenants share the same limits.
+	 */
+	public void setLimitPerTenant(boolean theLimitPerTenant) {
+		myLimitPerTenant = theLimitPerTenant;
+	}
+
+	/**
+	 * Returns the maximum number of classes of requests which will have their own limits. Default is
+	 * {@link #DEFAULT_MAXIMUM_LIMITER_COUNT}.
+	 */
+	public int getMaximumLimiterCount() {
+		return myMaximumLimiterCount;
+	}
+
+	/**
+	 * Sets the maximum number of classes of requests which will have their own limits. Once this number is
+	 * reached, classes with no requests in progress are discarded (losing their learned limit), and if none can
+	 * be discarded, requests for a new tenant share the limits for all tenants. Default is
+	 * {@link #DEFAULT_MAXIMUM_LIMITER_COUNT}.
+	 */
+	public void setMaximumLimiterCount(int theMaximumLimiterCount) {
+		Validate.isTrue(theMaximumLimiterCount > 0, "theMaximumLimiterCount must be > 0");
+		myMaximumLimiterCount = theMaximumLimiterCount;
+	}
+
+	/**
+	 * Returns a snapshot of the current state of the limiter for each class of requests which has been seen
+	 */
+	public List<LimiterMetrics> getLimiterMetrics() {
+		List<LimiterMetrics> retVal = new ArrayList<>(myLimiters.size());
+		for (Limiter next : myLimiters.values()) {
+			retVal.add(next.toMetrics());
+		}
+		return retVal;
+	}
+
+	@Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+	public boolean incomingRequestPostProcessed(RequestDetails theRequestDetails) {
+		RestOperationTypeEnum operationType = theRequestDetails.getRestOperationType();
+		if (operationType == null || theRequestDetails.isSubRequest()) {
+			return true;
+		}
+
+		String operationName = isExtendedOperation(operationType) ? theRequestDetails.getOperation() : null;
+		String tenantId = myLimitPerTenant ? theRequestDetails.getTenantId() : null;
+		String key = createKey(operationType, operationName, tenantId);
+		Limiter limiter;
+		Limiter.AcquireOutcome outcome;
+		do {
+			limiter = myLimiters.get(key);
+			if (limiter == null) {
+				limiter = getOrCreateLimiter(key, operationType, operationName, tenantId);
+			}
+			// A limiter which was discarded after it was looked up refuses the request, so that
+			// the request is admitted by the limiter which replaces it instead
+			outcome = limiter.acquire(myMaximumQueueSize, myMaximumQueueWaitMillis);
+		} while (outcome == Limiter.AcquireOutcome.RETIRED);
+
+		switch (outcome) {
+			case ACQUIRED:
+				theRequestDetails.getUserData().put(PERMIT_KEY, new Permit(limiter, System.nanoTime()));
+				return true;
+			case QUEUE_FULL:
+				ourLog.debug("Rejecting request for {} because the queue is full", key);
+				throw newRejection(Constants.STATUS_HTTP_429_TOO_MANY_REQUESTS, Msg.code(2224) + "Too many concurrent requests, please retry later");
+			case TIMED_OUT:
+			default:
+				ourLog.debug("Rejecting request for {} because it could not be started within {}ms", key, myMaximumQueueWaitMillis);
+				throw newRejection(Constants.STATUS_HTTP_503_SERVICE_UNAVAILABLE, Msg.code(2225) + "Server is too busy to process this request, please retry later");
+		}
+	}
+
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY)
+	public void processingCompletedNormally(RequestDetails theRequestDetails) {
+		Permit permit = (Permit) theRequestDetails.getUserData().get(PERMIT_KEY);
+		if (permit != null) {
+			permit.setSuccessful();
+		}
+	}
+
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED)
+	public void processingCompleted(RequestDetails theRequestDetails) {
+		Permit permit = (Permit) theRequestDetails.getUserData().remove(PERMIT_KEY);
+		if (permit != null) {
+			permit.getLimiter().release(System.nanoTime() - permit.getStartNanos(), permit.isSuccessful(), myLatencyTolerance, myBackoffRatio);
+		}
+	}
+
+	private Limiter getOrCreateLimiter(String theKey, RestOperationTypeEnum theOperationType, @Nullable String theOperationName, @Nullable String theTenantId) {
+		synchronized (myLimiters) {
+			Limiter retVal = myLimiters.get(theKey);
+			if (retVal != null) {
+				return retVal;
+			}
+
+			if (myLimiters.size() >= myMaximumLimiterCount) {
+				myLimiters.values().removeIf(Limiter::retireIfIdle);
+			}
+			if (myLimiters.size() >= myMaximumLimiterCount && theTenantId != null) {
+				ourLog.debug("Maximum number of limiters ({}) reached, using the shared limits for tenant {}", myMaximumLimiterCount, theTenantId);
+				return getOrCreateLimiter(createKey(theOperationType, theOperationName, null), theOperationType, theOperationName, null);
+			}
+
+			retVal = newLimiter(theOperationType, theOperationName, theTenantId);
+			myLimiters.put(theKey, retVal);
+			return retVal;
+		}
+	}
+
+	private Limiter newLimiter(RestOperationTypeEnum theOperationType, @Nullable String theOperationName, @Nullable String theTenantId) {
+		int maximumLimit = myMaximumLimit;
+		synchronized (myMaximumLimitForOperationType) {
+			maximumLimit = myMaximumLimitForOperationType.getOrDefault(theOperationType, maximumLimit);
+		}
+		int minimumLimit = Math.min(myMinimumLimit, maximumLimit);
+		int initialLimit = Math.max(minimumLimit, Math.min(myInitialLimit, maximumLimit));
+		return new Limiter(theOperationType, theOperationName, theTenantId, initialLimit, minimumLimit, maximumLimit);
+	}
+
+	private UnclassifiedServerFailureException newRejection(int theStatusCode, String theMessage) {
+		UnclassifiedServerFailureException retVal = new UnclassifiedServerFailureException(theStatusCode, theMessage);
+		retVal.addResponseHeader(Constants.HEADER_RETRY_AFTER, Integer.toString(myRetryAfterSeconds));
+		return retVal;
+	}
+
+	private static String createKey(RestOperationTypeEnum theOperationType, @Nullable String theOperationName, @Nullable String theTenantId) {
+		return theOperationType.name() + "|" + defaultString(theOperationName) + "|" + defaultString(theTenantId);
+	}
+
+	private static boolean isExtendedOperation(RestOperationTypeEnum theOperationType) {
+		return theOperationType == RestOperationTypeEnum.EXTENDED_OPERATION_SERVER
+			|| theOperationType == RestOperationTypeEnum.EXTENDED_OPERATION_TYPE
+			|| theOperationType == RestOperationTypeEnum.EXTENDED_OPERATION_INSTANCE;
+	}
+
+	/**
+	 * A snapshot of the state of the limiter for one class of requests
+	 */
+	public static class LimiterMetrics {
+
+		private final RestOperationTypeEnum myOperationType;
+		private final String myOperationName;
+		private final String myTenantId;
+		private final int myLimit;
+		private final int myInFlight;
+		private final int myQueued;
+		private final long myBaselineLatencyMillis;
+		private final long myAcceptedCount;
+		private final long myRejectedQueueFullCount;
+		private final long myRejectedTimedOutCount;
+
+		LimiterMetrics(RestOperationTypeEnum theOperationType, String theOperationName, String theTenantId, int theLimit, int theInFlight, int theQueued, long theBaselineLatencyMillis, long theAcceptedCount, long theRejectedQueueFullCount, long theRejectedTimedOutCount) {
+			myOperationType = theOperationType;
+			myOperationName = theOperationName;
+			myTenantId = theTenantId;
+			myLimit = theLimit;
+			myInFlight = theInFlight;
+			myQueued = theQueued;
+			myBaselineLatencyMillis = theBaselineLatencyMillis;
+			myAcceptedCount = theAcceptedCount;
+			myRejectedQueueFullCount = theRejectedQueueFullCount;
+			myRejectedTimedOutCount = theRejectedTimedOutCount;
+		}
+
+		public RestOperationTypeEnum getOperationType() {
+			return myOperationType;
+		}
+
+		/**
+		 * Returns the operation name (e.g. <code>$everything</code>) if this class is for an extended operation
+		 */
+		@Nullable
+		public String getOperationName() {
+			return myOperationName;
+		}
+
+		/**
+		 * Returns the tenant ID if limits are {@link #setLimitPerTenant(boolean) per tenant}
+		 */
+		@Nullable
+		public String getTenantId() {
+			return myTenantId;
+		}
+
+		/**
+		 * Returns the current concurrency limit
+		 */
+		public int getLimit() {
+			return myLimit;
+		}
+
+		/**
+		 * Returns the number of requests currently being processed
+		 */
+		public int getInFlight() {
+			return myInFlight;
+		}
+
+		/**
+		 * Returns the number of requests currently waiting in the queue
+		 */
+		public int getQueued() {
+			return myQueued;
+		}
+
+		/**
+		 * Returns the baseline (long-term average) latency which the recent latency is compared to, or <code>-1</code>
+		 * if no requests have completed successfully yet
+		 */
+		public long getBaselineLatencyMillis() {
+			return myBaselineLatencyMillis;
+		}
+
+		/**
+		 * Returns the number of requests which were allowed to proceed
+		 */
+		public long getAcceptedCount() {
+			return myAcceptedCount;
+		}
+
+		/**
+		 * Returns the number of requests which were rejected with an HTTP 429 because the queue was full
+		 */
+		public long getRejectedQueueFullCount() {
+			return myRejectedQueueFullCount;
+		}
+
+		/**
+		 * Returns the number of requests which were rejected with an HTTP 503 because they waited too long in the queue
+		 */
+		public long getRejectedTimedOutCount() {
+			return myRejectedTimedOutCount;
+		}
+
+		@Override
+		public String toString() {
+			return myOperationType + (isNotBlank(myOperationName) ? " " + myOperationName : "") + (isNotBlank(myTenantId) ? " (tenant " + myTenantId + ")" : "")
+				+ ": limit=" + myLimit + ", inFlight=" + myInFlight + ", queued=" + myQueued + ", baselineLatencyMillis=" + myBaselineLatencyMillis
+				+ ", accepted=" + myAcceptedCount + ", rejectedQueueFull=" + myRejectedQueueFullCount + ", rejectedTimedOut=" + myRejectedTimedOutCount;
+		}
+	}
+
+	private static class Permit {
+
+		private final Limiter myLimiter;
+		private final long myStartNanos;
+		private boolean mySuccessful;
+
+		private Permit(Limiter theLimiter, long theStartNanos) {
+			myLimiter = theLimiter;
+			myStartNanos = theStartNanos;
+		}
+
+		public Limiter getLimiter() {
+			return myLimiter;
+		}
+
+		public long getStartNanos() {
+			return myStartNanos;
+		}
+
+		public boolean isSuccessful() {
+			return mySuccessful;
+		}
+
+		public void setSuccessful() {
+			mySuccessful = true;
+		}
+	}
+
+	static class Limiter {
+
+		private final RestOperationTypeEnum myOperationType;
+		private final String myOperationName;
+		private final String myTenantId;
+		private final int myMinimumLimit;
+		private final int myMaximumLimit;
+		private double myLimit;
+		private int myInFlight;
+		private int myQueued;
+		private long mySampleCount;
+		private double myShortLatencyNanos;
+		private double myBaselineNanos;
+		private long myAcceptedCount;
+		private long myRejectedQueueFullCount;
+		private long myRejectedTimedOutCount;
+		private boolean myRetired;
+
+		Limiter(RestOperationTypeEnum theOperationType, String theOperationName, String theTenantId, int theInitialLimit, int theMinimumLimit, int theMaximumLimit) {
+			myOperationType = theOperationType;
+			myOperationName = theOperationName;
+			myTenantId = theTenantId;
+			myLimit = theInitialLimit;
+			myMinimumLimit = theMinimumLimit;
+			myMaximumLimit = theMaximumLimit;
+		}
+
+		synchronized AcquireOutcome acquire(int theMaximumQueueSize, long theMaximumQueueWaitMillis) {
+			if (myRetired) {
+				return AcquireOutcome.RETIRED;
+			}
+			if (myInFlight < getLimit()) {
+				myInFlight++;
+				myAcceptedCount++;
+				return AcquireOutcome.ACQUIRED;
+			}
+			if (myQueued >= theMaximumQueueSize) {
+				myRejectedQueueFullCount++;
+				return AcquireOutcome.QUEUE_FULL;
+			}
+
+			myQueued++;
+			try {
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(theMaximumQueueWaitMillis);
+				while (myInFlight >= getLimit()) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						myRejectedTimedOutCount++;
+						return AcquireOutcome.TIMED_OUT;
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				myRejectedTimedOutCount++;
+				return AcquireOutcome.TIMED_OUT;
+			} finally {
+				myQueued--;
+			}
+
+			myInFlight++;
+			myAcceptedCount++;
+			return AcquireOutcome.ACQUIRED;
+		}
+
+		/**
+		 * @param theLatencyNanos   The time taken to process the request
+		 * @param theSuccessful     Did the request complete successfully? Failed requests are not used
+		 *                          as latency samples, since they often fail fast (or slowly) for reasons
+		 *                          which have nothing to do with load.
+		 */
+		synchronized void release(long theLatencyNanos, boolean theSuccessful, double theLatencyTolerance, double theBackoffRatio) {
+			boolean wasSaturated = myInFlight >= getLimit() || myQueued > 0;
+			myInFlight--;
+
+			if (theSuccessful) {
+				updateLatencies(theLatencyNanos);
+
+				// The latency only says something about the limit when the limit is actually being used
+				if (wasSaturated) {
+					double threshold = myBaselineNanos * theLatencyTolerance;
+					if (myShortLatencyNanos > threshold) {
+						// Latency gradient: scale the limit down in proportion to how much latency has grown
+						double gradient = Math.max(theBackoffRatio, threshold / myShortLatencyNanos);
+						myLimit = Math.max(myMinimumLimit, myLimit * gradient);
+					} else {
+						// Additive increase, amounting to roughly one per limit's worth of requests
+						myLimit = Math.min(myMaximumLimit, myLimit + 1.0 / myLimit);
+					}
+				}
+			}
+
+			notifyAll();
+		}
+
+		private void updateLatencies(long theLatencyNanos) {
+			// Until enough samples have been seen, use the plain average of all samples so that
+			// the averages are not dominated by the first few requests
+			mySampleCount++;
+			double shortSmoothing = Math.max(SHORT_SMOOTHING, 1.0 / mySampleCount);
+			double baselineSmoothing = Math.max(BASELINE_SMOOTHING, 1.0 / mySampleCount);
+			myShortLatencyNanos += (theLatencyNanos - myShortLatencyNanos) * shortSmoothing;
+			myBaselineNanos += (theLatencyNanos - myBaselineNanos) * baselineSmoothing;
+		}
+
+		/**
+		 * Marks this limiter as discarded if it has no requests in progress or queued. Once retired,
+		 * {@link #acquire(int, long)} returns {@link AcquireOutcome#RETIRED} so that the caller looks
+		 * up the current limiter again.
+		 *
+		 * @return Returns <code>true</code> if the limiter was retired
+		 */
+		synchronized boolean retireIfIdle() {
+			if (myInFlight == 0 && myQueued == 0) {
+				myRetired = true;
+			}
+			return myRetired;
+		}
+
+		synchronized int getLimit() {
+			return (int) myLimit;
+		}
+
+		synchronized LimiterMetrics toMetrics() {
+			long baselineMillis = mySampleCount == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis((long) myBaselineNanos);
+			return new LimiterMetrics(myOperationType, myOperationName, myTenantId, getLimit(), myInFlight, myQueued, baselineMillis, myAcceptedCount, myRejectedQueueFullCount, myRejectedTimedOutCount);
+		}
+
+		enum AcquireOutcome {
+			ACQUIRED,
+			QUEUE_FULL,
+			TIMED_OUT,
+			RETIRED
+		}
+	}
+
+}
@@ -164,6 +164,15 @@ public class LoggingInterceptor {
 	}
 
 
+	@Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+	public boolean incomingRequestPostProcessed(RequestDetails theRequestDetails) {
+		// The request body may be streamed while it is parsed, so ask for it to be kept if we are going to log it
+		if (myMessageFormat.contains("${requestBodyFhir}") || (myLogExceptions && myErrorMessageFormat.contains("${requestBodyFhir}"))) {
+			theRequestDetails.setRetainRequestContents(true);
+		}
+		return true;
+	}
+
 	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY)
 	public void processingCompletedNormally(ServletRequestDetails theRequestDetails) {
 		// Perform any string substitutions from the message format
@@ -0,0 +1,481 @@
+package ca.uhn.fhir.rest.server.interceptor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import ca.uhn.fhir.rest.server.util.CompositeInterceptorBroadcaster;
+import org.apache.commons.lang3.Validate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+/**
+ * This interceptor coalesces identical concurrent requests, so that when several clients issue the
+ * same idempotent <code>GET</code> request at the same time (e.g. a dashboard being refreshed by many
+ * users), only the first request is actually processed. Requests which arrive while it is in flight
+ * wait for it to finish and are then answered with a copy of its encoded response. Nothing is kept once
+ * the first request completes, so this interceptor never serves a response which was produced before the
+ * request arrived (see {@link ResponseCachingInterceptor} for that).
+ * <p>
+ * Requests are only coalesced if they are a FHIR read, vread or search, and if everything which might
+ * affect the response is identical: the normalized request URL and parameters, the tenant, the headers
+ * which affect the response format, and the caller identity. By default the caller identity is the value
+ * of the <code>Authorization</code> and <code>Cookie</code> headers, so clients using different credentials
+ * never share a response. A different identity (e.g. a user ID extracted from a token) can be supplied using
+ * {@link #setIdentityFunction(Function)}, and any additional headers which affect the response (such as
+ * a header used to select a partition) can be added using {@link #setAdditionalKeyHeaders(Collection)}.
+ * </p>
+ * <p>
+ * Authorization and consent interceptors are handled as follows:
+ * </p>
+ * <ul>
+ *    <li>
+ *       Requests which are answered with a shared response still have the {@link Pointcut#SERVER_INCOMING_REQUEST_PRE_HANDLED}
+ *       pointcut invoked for them, so that interceptors which reject requests at that point (e.g.
+ *       <code>AuthorizationInterceptor</code> and <code>ConsentInterceptor</code>) apply to each caller.
+ *    </li>
+ *    <li>
+ *       Interceptors which examine or filter the resources being returned (i.e. hooks on
+ *       {@link Pointcut#STORAGE_PREACCESS_RESOURCES}, {@link Pointcut#STORAGE_PRESHOW_RESOURCES} or
+ *       {@link Pointcut#SERVER_OUTGOING_RESPONSE}) can not be applied to a shared response, so by default
+ *       no requests are coalesced if any such hook is registered. If these interceptors only depend on the
+ *       caller identity and the request itself, this can be relaxed using
+ *       {@link #setCoalesceWithResourceFilteringInterceptors(boolean)}.
+ *    </li>
+ * </ul>
+ * <p>
+ * The {@link Pointcut#SERVER_PROCESSING_COMPLETED_NORMALLY} pointcut is also invoked for requests which are
+ * answered with a shared response, so logging and metrics interceptors continue to see every caller.
+ * </p>
+ * <p>
+ * Only successful responses are shared. If the first request fails, produces a non-textual response
+ * (e.g. a Binary), produces a response larger than {@link #setMaximumResponseSizeBytes(int)}, or doesn't
+ * finish within {@link #setMaximumWaitMillis(long)}, the waiting requests are processed normally.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+@Interceptor
+public class RequestCoalescingInterceptor {
+
+	public static final long DEFAULT_MAXIMUM_WAIT_MILLIS = 10 * 1000;
+	public static final int DEFAULT_MAXIMUM_RESPONSE_SIZE_BYTES = 10 * 1024 * 1024;
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(RequestCoalescingInterceptor.class);
+	private static final String FLIGHT_KEY = RequestCoalescingInterceptor.class.getName() + "_FLIGHT";
+	private static final Set<RestOperationTypeEnum> COALESCED_OPERATIONS = Collections.unmodifiableSet(EnumSet.of(RestOperationTypeEnum.READ, RestOperationTypeEnum.VREAD, RestOperationTypeEnum.SEARCH_TYPE, RestOperationTypeEnum.SEARCH_SYSTEM));
+	private static final List<String> KEY_HEADERS = List.of(Constants.HEADER_ACCEPT, Constants.HEADER_PREFER, Constants.HEADER_IF_NONE_MATCH, Constants.HEADER_IF_MODIFIED_SINCE);
+	private static final List<String> SHARED_HEADERS = List.of(Constants.HEADER_CONTENT_LOCATION, Constants.HEADER_ETAG, Constants.HEADER_LAST_MODIFIED, Constants.HEADER_LOCATION);
+	private static final List<Pointcut> RESOURCE_FILTERING_POINTCUTS = List.of(Pointcut.STORAGE_PREACCESS_RESOURCES, Pointcut.STORAGE_PRESHOW_RESOURCES, Pointcut.SERVER_OUTGOING_RESPONSE);
+
+	private final Map<String, Flight> myFlights = new ConcurrentHashMap<>();
+	private final AtomicLong myExecutedCount = new AtomicLong();
+	private final AtomicLong myCoalescedCount = new AtomicLong();
+	private final AtomicInteger myWaitingCount = new AtomicInteger();
+	private Function<RequestDetails, String> myIdentityFunction = RequestCoalescingInterceptor::defaultIdentity;
+	private List<String> myAdditionalKeyHeaders = Collections.emptyList();
+	private long myMaximumWaitMillis = DEFAULT_MAXIMUM_WAIT_MILLIS;
+	private int myMaximumResponseSizeBytes = DEFAULT_MAXIMUM_RESPONSE_SIZE_BYTES;
+	private boolean myCoalesceWithResourceFilteringInterceptors;
+
+	/**
+	 * Constructor
+	 */
+	public RequestCoalescingInterceptor() {
+		super();
+	}
+
+	/**
+	 * Sets the function used to determine the identity of the caller. Requests are only coalesced with
+	 * other requests having the same identity. The function may return <code>null</code> to indicate
+	 * that a request must not be coalesced. By default, the identity is made up of the values of the
+	 * <code>Authorization</code> and <code>Cookie</code> headers.
+	 */
+	public void setIdentityFunction(@Nonnull Function<RequestDetails, String> theIdentityFunction) {
+		Validate.notNull(theIdentityFunction, "theIdentityFunction must not be null");
+		myIdentityFunction = theIdentityFunction;
+	}
+
+	/**
+	 * Returns any additional headers which must be identical for two requests to be coalesced
+	 */
+	public List<String> getAdditionalKeyHeaders() {
+		return myAdditionalKeyHeaders;
+	}
+
+	/**
+	 * Sets any additional headers which must be identical for two requests to be coalesced (e.g. a header used
+	 * to select the partition or to customize the response). The tenant and the headers which affect the
+	 * response format are always included.
+	 */
+	public void setAdditionalKeyHeaders(@Nullable Collection<String> theAdditionalKeyHeaders) {
+		myAdditionalKeyHeaders = theAdditionalKeyHeaders != null ? List.copyOf(theAdditionalKeyHeaders) : Collections.emptyList();
+	}
+
+	/**
+	 * Returns the maximum amount of time that a request will wait for an identical in-flight request before
+	 * being processed on its own. Default is {@link #DEFAULT_MAXIMUM_WAIT_MILLIS}.
+	 */
+	public long getMaximumWaitMillis() {
+		return myMaximumWaitMillis;
+	}
+
+	/**
+	 * Sets the maximum amount of time that a request will wait for an identical in-flight request before
+	 * being processed on its own. Default is {@link #DEFAULT_MAXIMUM_WAIT_MILLIS}.
+	 */
+	public void setMaximumWaitMillis(long theMaximumWaitMillis) {
+		Validate.isTrue(theMaximumWaitMillis > 0, "theMaximumWaitMillis must be > 0");
+		myMaximumWaitMillis = theMaximumWaitMillis;
+	}
+
+	/**
+	 * Returns the size of the largest response which will be shared. Default is {@link #DEFAULT_MAXIMUM_RESPONSE_SIZE_BYTES}.
+	 */
+	public int getMaximumResponseSizeBytes() {
+		return myMaximumResponseSizeBytes;
+	}
+
+	/**
+	 * Sets the size of the largest response which will be shared. If the response to the first request
+	 * is larger than this, the waiting requests are processed on their own. Default is
+	 * {@link #DEFAULT_MAXIMUM_RESPONSE_SIZE_BYTES}.
+	 */
+	public void setMaximumResponseSizeBytes(int theMaximumResponseSizeBytes) {
+		Validate.isTrue(theMaximumResponseSizeBytes > 0, "theMaximumResponseSizeBytes must be > 0");
+		myMaximumResponseSizeBytes = theMaximumResponseSizeBytes;
+	}
+
+	/**
+	 * Should requests be coalesced even if interceptors which examine or filter the returned resources
+	 * are registered (default is <code>false</code>)?
+	 */
+	public boolean isCoalesceWithResourceFilteringInterceptors() {
+		return myCoalesceWithResourceFilteringInterceptors;
+	}
+
+	/**
+	 * Should requests be coalesced even if interceptors which examine or filter the returned resources
+	 * are registered (default is <code>false</code>)? This should only be enabled if the decisions made
+	 * by every such interceptor depend only on the request and on the caller identity, since
+	 * requests answered with a shared response are not seen by these interceptors.
+	 */
+	public void setCoalesceWithResourceFilteringInterceptors(boolean theCoalesceWithResourceFilteringInterceptors) {
+		myCoalesceWithResourceFilteringInterceptors = theCoalesceWithResourceFilteringInterceptors;
+	}
+
+	/**
+	 * Returns the number of coalescable requests which were actually processed
+	 */
+	public long getExecutedCount() {
+		return myExecutedCount.get();
+	}
+
+	/**
+	 * Returns the number of requests which were answered with the response to an identical in-flight request
+	 */
+	public long getCoalescedCount() {
+		return myCoalescedCount.get();
+	}
+
+	/**
+	 * Returns the number of requests currently waiting for an identical in-flight request to complete
+	 */
+	public int getWaitingCount() {
+		return myWaitingCount.get();
+	}
+
+	@Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+	public boolean incomingRequestPostProcessed(RequestDetails theRequestDetails, HttpServletResponse theServletResponse) throws IOException {
+		if (!isCoalescable(theRequestDetails)) {
+			return true;
+		}
+		String identity = myIdentityFunction.apply(theRequestDetails);
+		if (identity == null) {
+			return true;
+		}
+
+		String key = createKey(theRequestDetails, identity);
+		Flight flight = new Flight(key);
+		Flight existing = myFlights.putIfAbsent(key, flight);
+		if (existing == null) {
+			myExecutedCount.incrementAndGet();
+			theRequestDetails.getUserData().put(FLIGHT_KEY, flight);
+			return true;
+		}
+
+		SharedResponse response;
+		myWaitingCount.incrementAndGet();
+		try {
+			response = existing.await(myMaximumWaitMillis);
+		} finally {
+			myWaitingCount.decrementAndGet();
+		}
+		if (response == null) {
+			ourLog.debug("Identical in-flight request did not produce a shareable response, processing request normally");
+			return true;
+		}
+
+		// Interceptors which accept or reject requests must still see this caller
+		invokePreHandled(theRequestDetails);
+
+		myCoalescedCount.incrementAndGet();
+		writeSharedResponse(theRequestDetails, theServletResponse, response);
+		invokeProcessingCompletedNormally(theRequestDetails);
+		return false;
+	}
+
+	@Hook(Pointcut.SERVER_OUTGOING_WRITER_CREATED)
+	public Writer outgoingWriterCreated(RequestDetails theRequestDetails, Writer theWriter) {
+		Flight flight = (Flight) theRequestDetails.getUserData().get(FLIGHT_KEY);
+		if (flight == null) {
+			return theWriter;
+		}
+		return flight.capture(theWriter, myMaximumResponseSizeBytes);
+	}
+
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY)
+	public void processingCompletedNormally(RequestDetails theRequestDetails) {
+		Flight flight = (Flight) theRequestDetails.getUserData().get(FLIGHT_KEY);
+		if (flight == null) {
+			return;
+		}
+
+		HttpServletResponse servletResponse = ((ServletRequestDetails) theRequestDetails).getServletResponse();
+		String body = flight.getCapturedBody();
+		if (body == null || servletResponse.getStatus() != Constants.STATUS_HTTP_200_OK || servletResponse.getContentType() == null) {
+			return;
+		}
+
+		Map<String, String> headers = new LinkedHashMap<>();
+		for (String next : SHARED_HEADERS) {
+			String value = servletResponse.getHeader(next);
+			if (value != null) {
+				headers.put(next, value);
+			}
+		}
+
+		// Requests arriving from now on must not join this flight, since the response was produced before they arrived
+		myFlights.remove(flight.getKey(), flight);
+		flight.complete(new SharedResponse(servletResponse.getContentType(), headers, body.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED)
+	public void processingCompleted(RequestDetails theRequestDetails) {
+		Flight flight = (Flight) theRequestDetails.getUserData().remove(FLIGHT_KEY);
+		if (flight != null) {
+			myFlights.remove(flight.getKey(), flight);
+			// Releases any waiting requests if no response was shared
+			flight.complete(null);
+		}
+	}
+
+	private boolean isCoalescable(RequestDetails theRequestDetails) {
+		if (!(theRequestDetails instanceof ServletRequestDetails) || theRequestDetails.isSubRequest()) {
+			return false;
+		}
+		if (theRequestDetails.getRequestType() != RequestTypeEnum.GET) {
+			return false;
+		}
+		if (!COALESCED_OPERATIONS.contains(theRequestDetails.getRestOperationType())) {
+			return false;
+		}
+		String cacheControl = defaultString(theRequestDetails.getHeader(Constants.HEADER_CACHE_CONTROL));
+		if (cacheControl.contains(Constants.CACHE_CONTROL_NO_CACHE) || cacheControl.contains(Constants.CACHE_CONTROL_NO_STORE)) {
+			return false;
+		}
+		if (!myCoalesceWithResourceFilteringInterceptors) {
+			for (Pointcut next : RESOURCE_FILTERING_POINTCUTS) {
+				if (CompositeInterceptorBroadcaster.hasHooks(next, theRequestDetails.getInterceptorBroadcaster(), theRequestDetails)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Nonnull
+	private String createKey(RequestDetails theRequestDetails, String theIdentity) {
+		StringBuilder b = new StringBuilder();
+		b.append(theRequestDetails.getFhirServerBase());
+		b.append('|').append(defaultString(theRequestDetails.getTenantId()));
+		b.append('|').append(theRequestDetails.getRequestPath());
+
+		// Parameter order is not significant, but the order of repetitions of a parameter might be
+		Map<String, String[]> parameters = new TreeMap<>(theRequestDetails.getParameters());
+		for (Map.Entry<String, String[]> next : parameters.entrySet()) {
+			b.append('|').append(next.getKey());
+			for (String nextValue : next.getValue()) {
+				b.append('=').append(nextValue);
+			}
+		}
+
+		appendHeaders(b, theRequestDetails, KEY_HEADERS);
+		appendHeaders(b, theRequestDetails, myAdditionalKeyHeaders);
+		b.append('|').append(theIdentity);
+		return b.toString();
+	}
+
+	private static void appendHeaders(StringBuilder theBuilder, RequestDetails theRequestDetails, List<String> theHeaders) {
+		for (String next : theHeaders) {
+			theBuilder.append('|').append(next).append(':').append(theRequestDetails.getHeaders(next));
+		}
+	}
+
+	private static String defaultIdentity(RequestDetails theRequestDetails) {
+		List<String> authorization = theRequestDetails.getHeaders(Constants.HEADER_AUTHORIZATION);
+		List<String> cookie = theRequestDetails.getHeaders(Constants.HEADER_COOKIE);
+		return String.valueOf(authorization) + "|" + cookie;
+	}
+
+	private static void invokePreHandled(RequestDetails theRequestDetails) {
+		if (theRequestDetails.getInterceptorBroadcaster() != null) {
+			HookParams preHandledParams = new HookParams();
+			preHandledParams.add(RestOperationTypeEnum.class, theRequestDetails.getRestOperationType());
+			preHandledParams.add(RequestDetails.class, theRequestDetails);
+			preHandledParams.addIfMatchesType(ServletRequestDetails.class, theRequestDetails);
+			theRequestDetails
+				.getInterceptorBroadcaster()
+				.callHooks(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED, preHandledParams);
+		}
+	}
+
+	private static void invokeProcessingCompletedNormally(RequestDetails theRequestDetails) {
+		if (theRequestDetails.getInterceptorBroadcaster() != null) {
+			HookParams completedParams = new HookParams();
+			completedParams.add(RequestDetails.class, theRequestDetails);
+			completedParams.addIfMatchesType(ServletRequestDetails.class, theRequestDetails);
+			theRequestDetails
+				.getInterceptorBroadcaster()
+				.callHooks(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, completedParams);
+		}
+	}
+
+	private static void writeSharedResponse(RequestDetails theRequestDetails, HttpServletResponse theServletResponse, SharedResponse theResponse) throws IOException {
+		RestfulServer server = ((ServletRequestDetails) theRequestDetails).getServer();
+		server.addHeadersToResponse(theServletResponse);
+
+		theServletResponse.setStatus(Constants.STATUS_HTTP_200_OK);
+		theServletResponse.setContentType(theResponse.getContentType());
+		for (Map.Entry<String, String> next : theResponse.getHeaders().entrySet()) {
+			theServletResponse.setHeader(next.getKey(), next.getValue());
+		}
+
+		byte[] body = theResponse.getBytes();
+		theServletResponse.setContentLength(body.length);
+		ServletOutputStream outputStream = theServletResponse.getOutputStream();
+		outputStream.write(body);
+		outputStream.flush();
+	}
+
+	private static class SharedResponse {
+
+		private final String myContentType;
+		private final Map<String, String> myHeaders;
+		private final byte[] myBytes;
+
+		private SharedResponse(String theContentType, Map<String, String> theHeaders, byte[] theBytes) {
+			myContentType = theContentType;
+			myHeaders = theHeaders;
+			myBytes = theBytes;
+		}
+
+		public String getContentType() {
+			return myContentType;
+		}
+
+		public Map<String, String> getHeaders() {
+			return myHeaders;
+		}
+
+		public byte[] getBytes() {
+			return myBytes;
+		}
+	}
+
+	private static class Flight extends ResponseBodyCapture {
+
+		private final String myKey;
+		private final CountDownLatch myLatch = new CountDownLatch(1);
+		private volatile SharedResponse myResponse;
+
+		private Flight(String theKey) {
+			myKey = theKey;
+		}
+
+		public String getKey() {
+			return myKey;
+		}
+
+		/**
+		 * Only the first call has any effect
+		 */
+		public synchronized void complete(@Nullable SharedResponse theResponse) {
+			if (myLatch.getCount() > 0) {
+				myResponse = theResponse;
+				myLatch.countDown();
+			}
+		}
+
+		@Nullable
+		public SharedResponse await(long theMaximumWaitMillis) {
+			try {
+				if (!myLatch.await(theMaximumWaitMillis, TimeUnit.MILLISECONDS)) {
+					return null;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			return myResponse;
+		}
+	}
+
+}
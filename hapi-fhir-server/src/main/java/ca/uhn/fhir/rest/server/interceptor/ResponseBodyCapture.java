@@ -0,0 +1,98 @@
+package ca.uhn.fhir.rest.server.interceptor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Captures the body written to the response of a single request, so that it can be reused
+ * for other requests. This is shared by {@link ResponseCachingInterceptor} and
+ * {@link RequestCoalescingInterceptor}, which keep one instance per request being processed.
+ */
+class ResponseBodyCapture {
+
+	private CapturingWriter myWriter;
+
+	/**
+	 * Wraps the given response writer so that everything written to it is also captured,
+	 * up to the given number of characters
+	 */
+	Writer capture(Writer theWriter, int theMaximumChars) {
+		// Only the first response body written for a request can be reused
+		if (myWriter != null) {
+			myWriter.myOverflow = true;
+			return theWriter;
+		}
+		myWriter = new CapturingWriter(theWriter, theMaximumChars);
+		return myWriter;
+	}
+
+	/**
+	 * Returns the captured body, or <code>null</code> if nothing was captured or the
+	 * body can not be reused (because it was too large or more than one body was written)
+	 */
+	@Nullable
+	String getCapturedBody() {
+		if (myWriter == null || myWriter.myOverflow) {
+			return null;
+		}
+		return myWriter.myCapture.toString();
+	}
+
+	private static class CapturingWriter extends Writer {
+
+		private final Writer myWrap;
+		private final int myMaximumChars;
+		private final StringBuilder myCapture = new StringBuilder();
+		private boolean myOverflow;
+
+		private CapturingWriter(Writer theWrap, int theMaximumChars) {
+			myWrap = theWrap;
+			myMaximumChars = theMaximumChars;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			if (!myOverflow) {
+				if (myCapture.length() + len > myMaximumChars) {
+					myOverflow = true;
+					myCapture.setLength(0);
+				} else {
+					myCapture.append(cbuf, off, len);
+				}
+			}
+			myWrap.write(cbuf, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			myWrap.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			myWrap.close();
+		}
+	}
+
+}
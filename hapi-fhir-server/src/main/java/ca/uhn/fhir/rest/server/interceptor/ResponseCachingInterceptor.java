@@ -0,0 +1,701 @@
+package ca.uhn.fhir.rest.server.interceptor;
+
+/*-
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.ParameterUtil;
+import ca.uhn.fhir.rest.server.ETagSupportEnum;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
+import ca.uhn.fhir.rest.server.exceptions.NotModifiedException;
+import ca.uhn.fhir.rest.server.method.ElementsParameter;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import ca.uhn.fhir.rest.server.util.CompositeInterceptorBroadcaster;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * This interceptor keeps a cache of fully encoded responses for FHIR <code>read</code> and
+ * <code>vread</code> operations, so that repeated reads of the same resource can be answered
+ * without invoking the resource provider (and therefore without loading, parsing and encoding
+ * the resource again). If the client supplies an <code>If-None-Match</code> header matching
+ * the cached version, an HTTP 304 is returned directly.
+ * <p>
+ * Entries are keyed by the resource ID and version, along with everything in the request that
+ * affects the encoded response (e.g. the response encoding, <code>_summary</code>,
+ * <code>_elements</code> and <code>_pretty</code>). The cache is bounded by the total number
+ * of bytes held, with the least recently used entries evicted first.
+ * </p>
+ * <p>
+ * Cached entries are invalidated when this interceptor observes a change to the resource through the
+ * storage pointcuts (e.g. {@link Pointcut#STORAGE_PRECOMMIT_RESOURCE_UPDATED}), so it must be registered
+ * with the interceptor service used by the storage layer (which is normally the same one used
+ * by the server). Changes that are not visible to this interceptor, such as changes made by other servers
+ * sharing the same database, are only reflected once an entry reaches its {@link #setMaximumAgeMillis(long) maximum age}.
+ * Because the pre-commit pointcuts are invoked before the change is visible to other transactions, the versions
+ * replaced by each change are also remembered, and a <code>read</code> response is not cached if it returns one of those
+ * versions (i.e. if the read raced with a write that had not yet been committed).
+ * </p>
+ * <p>
+ * Cached responses are returned before any handler-level interceptor processing occurs, so the cache is
+ * bypassed entirely if any interceptor is registered against the {@link Pointcut#SERVER_INCOMING_REQUEST_PRE_HANDLED},
+ * {@link Pointcut#STORAGE_PREACCESS_RESOURCES} or {@link Pointcut#STORAGE_PRESHOW_RESOURCES} pointcuts (which
+ * includes the authorization and consent interceptors). This interceptor should not be used if other
+ * interceptors modify read responses in ways that vary between requests. The
+ * {@link Pointcut#SERVER_PROCESSING_COMPLETED_NORMALLY} pointcut is invoked for cached responses, so logging
+ * and metrics interceptors continue to see every request.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+@Interceptor
+public class ResponseCachingInterceptor {
+
+	public static final long DEFAULT_MAXIMUM_SIZE_BYTES = 64 * 1024 * 1024;
+	public static final int DEFAULT_MAXIMUM_ENTRY_SIZE_BYTES = 1024 * 1024;
+	public static final long DEFAULT_MAXIMUM_AGE_MILLIS = 60 * 1000;
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ResponseCachingInterceptor.class);
+	private static final String PENDING_ENTRY_KEY = ResponseCachingInterceptor.class.getName() + "_PENDING_ENTRY";
+	private static final int MAXIMUM_STALE_VERSIONS = 10000;
+	private static final List<String> CACHED_HEADERS = List.of(Constants.HEADER_CONTENT_LOCATION, Constants.HEADER_ETAG, Constants.HEADER_LAST_MODIFIED);
+
+	private final Map<String, Set<PendingEntry>> myInFlightEntries = new ConcurrentHashMap<>();
+	private final AtomicLong myHitCount = new AtomicLong();
+	private final AtomicLong myMissCount = new AtomicLong();
+	private final LinkedHashMap<String, CachedResponse> myEntries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<String, Set<String>> myResourceIdToKeys = new HashMap<>();
+	private final LinkedHashMap<String, Long> myStaleVersions = new LinkedHashMap<>(16, 0.75f, false) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Long> theEldest) {
+			return size() > MAXIMUM_STALE_VERSIONS;
+		}
+	};
+	private long myCachedBytes;
+	private long myMaximumSizeBytes = DEFAULT_MAXIMUM_SIZE_BYTES;
+	private int myMaximumEntrySizeBytes = DEFAULT_MAXIMUM_ENTRY_SIZE_BYTES;
+	private long myMaximumAgeMillis = DEFAULT_MAXIMUM_AGE_MILLIS;
+	private boolean myCompressEntries;
+
+	/**
+	 * Constructor
+	 */
+	public ResponseCachingInterceptor() {
+		super();
+	}
+
+	/**
+	 * Returns the maximum total number of bytes held by the cache. Default is {@link #DEFAULT_MAXIMUM_SIZE_BYTES}.
+	 */
+	public long getMaximumSizeBytes() {
+		return myMaximumSizeBytes;
+	}
+
+	/**
+	 * Sets the maximum total number of bytes held by the cache. Once this size is exceeded, the least
+	 * recently used entries are evicted. Default is {@link #DEFAULT_MAXIMUM_SIZE_BYTES}.
+	 */
+	public void setMaximumSizeBytes(long theMaximumSizeBytes) {
+		Validate.isTrue(theMaximumSizeBytes > 0, "theMaximumSizeBytes must be > 0");
+		synchronized (myEntries) {
+			myMaximumSizeBytes = theMaximumSizeBytes;
+			evictIfNeeded();
+		}
+	}
+
+	/**
+	 * Returns the size of the largest response which will be cached. Default is {@link #DEFAULT_MAXIMUM_ENTRY_SIZE_BYTES}.
+	 */
+	public int getMaximumEntrySizeBytes() {
+		return myMaximumEntrySizeBytes;
+	}
+
+	/**
+	 * Sets the size of the largest response which will be cached. Larger responses are returned normally
+	 * but are not stored. Default is {@link #DEFAULT_MAXIMUM_ENTRY_SIZE_BYTES}.
+	 */
+	public void setMaximumEntrySizeBytes(int theMaximumEntrySizeBytes) {
+		Validate.isTrue(theMaximumEntrySizeBytes > 0, "theMaximumEntrySizeBytes must be > 0");
+		myMaximumEntrySizeBytes = theMaximumEntrySizeBytes;
+	}
+
+	/**
+	 * Returns the maximum amount of time that an entry will be served from the cache. Default is
+	 * {@link #DEFAULT_MAXIMUM_AGE_MILLIS}.
+	 */
+	public long getMaximumAgeMillis() {
+		return myMaximumAgeMillis;
+	}
+
+	/**
+	 * Sets the maximum amount of time that an entry will be served from the cache. This bounds how
+	 * long a stale response can be returned if a resource is modified in a way that this interceptor
+	 * does not observe. Default is {@link #DEFAULT_MAXIMUM_AGE_MILLIS}.
+	 */
+	public void setMaximumAgeMillis(long theMaximumAgeMillis) {
+		Validate.isTrue(theMaximumAgeMillis > 0, "theMaximumAgeMillis must be > 0");
+		myMaximumAgeMillis = theMaximumAgeMillis;
+	}
+
+	/**
+	 * If set to <code>true</code>, a GZip compressed copy of each cached response is also stored, and is
+	 * returned to clients which accept GZip encoded responses. This avoids compressing popular responses
+	 * over and over, at the cost of additional memory. Default is <code>false</code>.
+	 */
+	public boolean isCompressEntries() {
+		return myCompressEntries;
+	}
+
+	/**
+	 * If set to <code>true</code>, a GZip compressed copy of each cached response is also stored, and is
+	 * returned to clients which accept GZip encoded responses. This avoids compressing popular responses
+	 * over and over, at the cost of additional memory. Default is <code>false</code>.
+	 */
+	public void setCompressEntries(boolean theCompressEntries) {
+		myCompressEntries = theCompressEntries;
+	}
+
+	/**
+	 * Returns the number of requests which were answered from the cache
+	 */
+	public long getHitCount() {
+		return myHitCount.get();
+	}
+
+	/**
+	 * Returns the number of cacheable requests which could not be answered from the cache
+	 */
+	public long getMissCount() {
+		return myMissCount.get();
+	}
+
+	/**
+	 * Returns the number of entries currently in the cache
+	 */
+	public int getEntryCount() {
+		synchronized (myEntries) {
+			return myEntries.size();
+		}
+	}
+
+	/**
+	 * Returns the total number of bytes currently held by the cache
+	 */
+	public long getCachedBytes() {
+		synchronized (myEntries) {
+			return myCachedBytes;
+		}
+	}
+
+	/**
+	 * Removes all entries from the cache
+	 */
+	public void clear() {
+		synchronized (myEntries) {
+			myEntries.clear();
+			myResourceIdToKeys.clear();
+			myCachedBytes = 0;
+		}
+	}
+
+	/**
+	 * Removes all cached responses for the given resource
+	 *
+	 * @param theResourceId The resource ID. Any version or base URL is ignored.
+	 */
+	public void invalidate(IIdType theResourceId) {
+		if (theResourceId == null || !theResourceId.hasResourceType() || !theResourceId.hasIdPart()) {
+			return;
+		}
+		String resourceId = toResourceId(theResourceId.getResourceType(), theResourceId.getIdPart());
+
+		Set<PendingEntry> inFlight = myInFlightEntries.get(resourceId);
+		if (inFlight != null) {
+			inFlight.forEach(PendingEntry::markStale);
+		}
+
+		synchronized (myEntries) {
+			Set<String> keys = myResourceIdToKeys.remove(resourceId);
+			if (keys != null) {
+				for (String next : keys) {
+					CachedResponse removed = myEntries.remove(next);
+					if (removed != null) {
+						myCachedBytes -= removed.getSizeBytes();
+					}
+				}
+			}
+		}
+	}
+
+	@Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+	public boolean incomingRequestPostProcessed(RequestDetails theRequestDetails, HttpServletResponse theServletResponse) throws IOException {
+		if (!isCacheable(theRequestDetails)) {
+			return true;
+		}
+
+		String key = createKey(theRequestDetails);
+		CachedResponse cachedResponse = get(key);
+		if (cachedResponse == null) {
+			myMissCount.incrementAndGet();
+			String resourceId = toResourceId(theRequestDetails.getResourceName(), theRequestDetails.getId().getIdPart());
+			PendingEntry pendingEntry = new PendingEntry(key, resourceId);
+			myInFlightEntries.computeIfAbsent(resourceId, t -> ConcurrentHashMap.newKeySet()).add(pendingEntry);
+			theRequestDetails.getUserData().put(PENDING_ENTRY_KEY, pendingEntry);
+			return true;
+		}
+
+		myHitCount.incrementAndGet();
+
+		// If-None-Match
+		String ifNoneMatch = theRequestDetails.getHeader(Constants.HEADER_IF_NONE_MATCH_LC);
+		String etag = cachedResponse.getHeaders().get(Constants.HEADER_ETAG);
+		if (isNotBlank(ifNoneMatch) && isNotBlank(etag) && theRequestDetails.getServer().getETagSupport() == ETagSupportEnum.ENABLED) {
+			if (ParameterUtil.parseETagValue(ifNoneMatch).equals(ParameterUtil.parseETagValue(etag))) {
+				ourLog.debug("Returning HTTP 304 from response cache because request specified {}={}", Constants.HEADER_IF_NONE_MATCH, ifNoneMatch);
+				throw new NotModifiedException(Msg.code(2223) + "Not Modified");
+			}
+		}
+
+		writeCachedResponse(theRequestDetails, theServletResponse, cachedResponse);
+		invokeProcessingCompletedNormally(theRequestDetails);
+		return false;
+	}
+
+	@Hook(Pointcut.SERVER_OUTGOING_WRITER_CREATED)
+	public Writer outgoingWriterCreated(RequestDetails theRequestDetails, Writer theWriter) {
+		PendingEntry pendingEntry = (PendingEntry) theRequestDetails.getUserData().get(PENDING_ENTRY_KEY);
+		if (pendingEntry == null) {
+			return theWriter;
+		}
+		return pendingEntry.capture(theWriter, myMaximumEntrySizeBytes);
+	}
+
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY)
+	public void processingCompletedNormally(RequestDetails theRequestDetails) {
+		PendingEntry pendingEntry = (PendingEntry) theRequestDetails.getUserData().get(PENDING_ENTRY_KEY);
+		if (pendingEntry == null) {
+			return;
+		}
+
+		HttpServletResponse servletResponse = ((ServletRequestDetails) theRequestDetails).getServletResponse();
+		String body = pendingEntry.getCapturedBody();
+		if (body == null || pendingEntry.isStale() || servletResponse.getStatus() != Constants.STATUS_HTTP_200_OK || servletResponse.getContentType() == null) {
+			return;
+		}
+
+		Map<String, String> headers = new LinkedHashMap<>();
+		for (String next : CACHED_HEADERS) {
+			String value = servletResponse.getHeader(next);
+			if (value != null) {
+				headers.put(next, value);
+			}
+		}
+
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		byte[] compressedBytes = null;
+		if (myCompressEntries) {
+			compressedBytes = gzip(bytes);
+		}
+
+		// A vread response is for a fixed version, but a read response must be checked against the versions which have been replaced
+		boolean checkVersion = theRequestDetails.getRestOperationType() == RestOperationTypeEnum.READ;
+		Long version = checkVersion ? determineVersion(headers) : null;
+
+		CachedResponse cachedResponse = new CachedResponse(pendingEntry.getResourceId(), servletResponse.getContentType(), headers, bytes, compressedBytes);
+		put(pendingEntry, cachedResponse, checkVersion, version);
+	}
+
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED)
+	public void processingCompleted(RequestDetails theRequestDetails) {
+		PendingEntry pendingEntry = (PendingEntry) theRequestDetails.getUserData().remove(PENDING_ENTRY_KEY);
+		if (pendingEntry != null) {
+			myInFlightEntries.computeIfPresent(pendingEntry.getResourceId(), (k, v) -> {
+				v.remove(pendingEntry);
+				return v.isEmpty() ? null : v;
+			});
+		}
+	}
+
+	@Hook(Pointcut.STORAGE_PRESTORAGE_RESOURCE_UPDATED)
+	public void resourcePreStorageUpdated(IBaseResource theOldResource, IBaseResource theNewResource) {
+		addStaleVersion(theOldResource);
+		invalidate(theOldResource);
+		invalidate(theNewResource);
+	}
+
+	@Hook(Pointcut.STORAGE_PRECOMMIT_RESOURCE_UPDATED)
+	public void resourcePreCommitUpdated(IBaseResource theOldResource, IBaseResource theNewResource) {
+		addStaleVersion(theOldResource);
+		invalidate(theOldResource);
+		invalidate(theNewResource);
+	}
+
+	@Hook(Pointcut.STORAGE_PRESTORAGE_RESOURCE_DELETED)
+	public void resourcePreStorageDeleted(IBaseResource theResource) {
+		addStaleVersion(theResource);
+		invalidate(theResource);
+	}
+
+	@Hook(Pointcut.STORAGE_PRECOMMIT_RESOURCE_DELETED)
+	public void resourcePreCommitDeleted(IBaseResource theResource) {
+		addStaleVersion(theResource);
+		invalidate(theResource);
+	}
+
+	@Hook(Pointcut.STORAGE_PRECOMMIT_RESOURCE_CREATED)
+	public void resourcePreCommitCreated(IBaseResource theResource) {
+		invalidate(theResource);
+	}
+
+	@Hook(Pointcut.STORAGE_PRESTORAGE_EXPUNGE_RESOURCE)
+	public void resourcePreStorageExpunge(IIdType theResourceId) {
+		invalidate(theResourceId);
+	}
+
+	@Hook(Pointcut.STORAGE_PRESTORAGE_EXPUNGE_EVERYTHING)
+	public void preStorageExpungeEverything() {
+		clear();
+	}
+
+	private void invalidate(@Nullable IBaseResource theResource) {
+		if (theResource != null) {
+			invalidate(theResource.getIdElement());
+		}
+	}
+
+	/**
+	 * Remembers that the current version of the given resource is being replaced, so that a read which
+	 * returns it after this point (but before the change is committed) is not cached
+	 */
+	private void addStaleVersion(@Nullable IBaseResource theResource) {
+		if (theResource == null) {
+			return;
+		}
+		IIdType id = theResource.getIdElement();
+		if (id == null || !id.hasResourceType() || !id.hasIdPart() || !id.isVersionIdPartValidLong()) {
+			return;
+		}
+		String resourceId = toResourceId(id.getResourceType(), id.getIdPart());
+		long version = id.getVersionIdPartAsLong();
+		synchronized (myEntries) {
+			Long existing = myStaleVersions.remove(resourceId);
+			myStaleVersions.put(resourceId, existing != null ? Math.max(existing, version) : version);
+		}
+	}
+
+	private boolean isCacheable(RequestDetails theRequestDetails) {
+		if (!(theRequestDetails instanceof ServletRequestDetails) || theRequestDetails.isSubRequest()) {
+			return false;
+		}
+		if (theRequestDetails.getRequestType() != RequestTypeEnum.GET) {
+			return false;
+		}
+		RestOperationTypeEnum operationType = theRequestDetails.getRestOperationType();
+		if (operationType != RestOperationTypeEnum.READ && operationType != RestOperationTypeEnum.VREAD) {
+			return false;
+		}
+		IIdType id = theRequestDetails.getId();
+		if (id == null || !id.hasIdPart() || theRequestDetails.getResourceName() == null) {
+			return false;
+		}
+		if (operationType == RestOperationTypeEnum.VREAD && !id.hasVersionIdPart()) {
+			return false;
+		}
+
+		// Conditional requests other than If-None-Match are handled by the provider
+		if (isNotBlank(theRequestDetails.getHeader(Constants.HEADER_IF_MODIFIED_SINCE_LC))) {
+			return false;
+		}
+		String cacheControl = defaultString(theRequestDetails.getHeader(Constants.HEADER_CACHE_CONTROL));
+		if (cacheControl.contains(Constants.CACHE_CONTROL_NO_CACHE) || cacheControl.contains(Constants.CACHE_CONTROL_NO_STORE)) {
+			return false;
+		}
+
+		// Interceptors which might block or modify the response must see every request
+		return !CompositeInterceptorBroadcaster.hasHooks(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED, theRequestDetails.getInterceptorBroadcaster(), theRequestDetails)
+			&& !CompositeInterceptorBroadcaster.hasHooks(Pointcut.STORAGE_PREACCESS_RESOURCES, theRequestDetails.getInterceptorBroadcaster(), theRequestDetails)
+			&& !CompositeInterceptorBroadcaster.hasHooks(Pointcut.STORAGE_PRESHOW_RESOURCES, theRequestDetails.getInterceptorBroadcaster(), theRequestDetails);
+	}
+
+	@Nullable
+	private CachedResponse get(String theKey) {
+		synchronized (myEntries) {
+			CachedResponse retVal = myEntries.get(theKey);
+			if (retVal != null && System.currentTimeMillis() - retVal.getCreated() > myMaximumAgeMillis) {
+				remove(theKey);
+				retVal = null;
+			}
+			return retVal;
+		}
+	}
+
+	private void put(PendingEntry thePendingEntry, CachedResponse theCachedResponse, boolean theCheckVersion, @Nullable Long theVersion) {
+		if (theCachedResponse.getSizeBytes() > myMaximumEntrySizeBytes) {
+			return;
+		}
+		synchronized (myEntries) {
+			// Checked while holding the lock, since invalidation marks in-flight entries before taking it
+			if (thePendingEntry.isStale()) {
+				return;
+			}
+			if (theCheckVersion) {
+				Long staleVersion = myStaleVersions.get(thePendingEntry.getResourceId());
+				if (staleVersion != null && (theVersion == null || theVersion <= staleVersion)) {
+					ourLog.debug("Not caching response for {} because version {} has been replaced", thePendingEntry.getResourceId(), theVersion);
+					return;
+				}
+			}
+			remove(thePendingEntry.getKey());
+			myEntries.put(thePendingEntry.getKey(), theCachedResponse);
+			myResourceIdToKeys.computeIfAbsent(thePendingEntry.getResourceId(), t -> new HashSet<>()).add(thePendingEntry.getKey());
+			myCachedBytes += theCachedResponse.getSizeBytes();
+			evictIfNeeded();
+		}
+	}
+
+	/**
+	 * Must be called while holding the lock on {@link #myEntries}
+	 */
+	private void remove(String theKey) {
+		CachedResponse removed = myEntries.remove(theKey);
+		if (removed != null) {
+			myCachedBytes -= removed.getSizeBytes();
+			Set<String> keys = myResourceIdToKeys.get(removed.getResourceId());
+			if (keys != null) {
+				keys.remove(theKey);
+				if (keys.isEmpty()) {
+					myResourceIdToKeys.remove(removed.getResourceId());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Must be called while holding the lock on {@link #myEntries}
+	 */
+	private void evictIfNeeded() {
+		while (myCachedBytes > myMaximumSizeBytes && !myEntries.isEmpty()) {
+			// The map is in access order, so the first key is the least recently used
+			String eldest = myEntries.keySet().iterator().next();
+			remove(eldest);
+		}
+	}
+
+	private static void invokeProcessingCompletedNormally(RequestDetails theRequestDetails) {
+		if (theRequestDetails.getInterceptorBroadcaster() != null) {
+			HookParams completedParams = new HookParams();
+			completedParams.add(RequestDetails.class, theRequestDetails);
+			completedParams.addIfMatchesType(ServletRequestDetails.class, theRequestDetails);
+			theRequestDetails
+				.getInterceptorBroadcaster()
+				.callHooks(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, completedParams);
+		}
+	}
+
+	private static void writeCachedResponse(RequestDetails theRequestDetails, HttpServletResponse theServletResponse, CachedResponse theCachedResponse) throws IOException {
+		RestfulServer server = ((ServletRequestDetails) theRequestDetails).getServer();
+		server.addHeadersToResponse(theServletResponse);
+
+		theServletResponse.setStatus(Constants.STATUS_HTTP_200_OK);
+		theServletResponse.setContentType(theCachedResponse.getContentType());
+		for (Map.Entry<String, String> next : theCachedResponse.getHeaders().entrySet()) {
+			theServletResponse.setHeader(next.getKey(), next.getValue());
+		}
+
+		byte[] body = theCachedResponse.getBytes();
+		if (theRequestDetails.isRespondGzip() && theCachedResponse.getCompressedBytes() != null) {
+			theServletResponse.addHeader(Constants.HEADER_CONTENT_ENCODING, Constants.ENCODING_GZIP);
+			body = theCachedResponse.getCompressedBytes();
+		}
+		theServletResponse.setContentLength(body.length);
+
+		ServletOutputStream outputStream = theServletResponse.getOutputStream();
+		outputStream.write(body);
+		outputStream.flush();
+	}
+
+	@Nonnull
+	private static String createKey(RequestDetails theRequestDetails) {
+		IIdType id = theRequestDetails.getId();
+		StringBuilder b = new StringBuilder();
+		b.append(theRequestDetails.getFhirServerBase());
+		b.append('|').append(defaultString(theRequestDetails.getTenantId()));
+		b.append('|').append(toResourceId(theRequestDetails.getResourceName(), id.getIdPart()));
+		b.append('|').append(defaultString(id.getVersionIdPart()));
+		b.append('|').append(RestfulServerUtils.determineResponseEncodingWithDefault(theRequestDetails).getResourceContentType());
+		b.append('|').append(defaultString(theRequestDetails.getHeader(Constants.HEADER_ACCEPT)));
+		b.append('|').append(RestfulServerUtils.prettyPrintResponse(theRequestDetails.getServer(), theRequestDetails));
+		b.append('|').append(new TreeSet<>(RestfulServerUtils.determineSummaryMode(theRequestDetails)));
+		b.append('|').append(sorted(ElementsParameter.getElementsValueOrNull(theRequestDetails, false)));
+		b.append('|').append(sorted(ElementsParameter.getElementsValueOrNull(theRequestDetails, true)));
+		return b.toString();
+	}
+
+	/**
+	 * Determines the version of the resource in a response from its ETag, or failing that its Content-Location
+	 */
+	@Nullable
+	private static Long determineVersion(Map<String, String> theHeaders) {
+		String etag = theHeaders.get(Constants.HEADER_ETAG);
+		if (isNotBlank(etag)) {
+			String version = ParameterUtil.parseETagValue(etag);
+			if (NumberUtils.isDigits(version)) {
+				return Long.parseLong(version);
+			}
+		}
+		String contentLocation = theHeaders.get(Constants.HEADER_CONTENT_LOCATION);
+		if (isNotBlank(contentLocation)) {
+			IdDt id = new IdDt(contentLocation);
+			if (id.isVersionIdPartValidLong()) {
+				return id.getVersionIdPartAsLong();
+			}
+		}
+		return null;
+	}
+
+	@Nullable
+	private static Set<String> sorted(@Nullable Set<String> theValues) {
+		return theValues != null ? new TreeSet<>(theValues) : null;
+	}
+
+	private static String toResourceId(String theResourceType, String theIdPart) {
+		return theResourceType + "/" + theIdPart;
+	}
+
+	private static byte[] gzip(byte[] theBytes) {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(theBytes.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+			gzip.write(theBytes);
+		} catch (IOException e) {
+			// Can't happen when writing to a byte array
+			throw new IllegalStateException(Msg.code(2236) + e.getMessage(), e);
+		}
+		return bos.toByteArray();
+	}
+
+	private static class CachedResponse {
+
+		private final String myResourceId;
+		private final String myContentType;
+		private final Map<String, String> myHeaders;
+		private final byte[] myBytes;
+		private final byte[] myCompressedBytes;
+		private final long myCreated = System.currentTimeMillis();
+
+		private CachedResponse(String theResourceId, String theContentType, Map<String, String> theHeaders, byte[] theBytes, @Nullable byte[] theCompressedBytes) {
+			myResourceId = theResourceId;
+			myContentType = theContentType;
+			myHeaders = theHeaders;
+			myBytes = theBytes;
+			myCompressedBytes = theCompressedBytes;
+		}
+
+		public String getResourceId() {
+			return myResourceId;
+		}
+
+		public String getContentType() {
+			return myContentType;
+		}
+
+		public Map<String, String> getHeaders() {
+			return myHeaders;
+		}
+
+		public byte[] getBytes() {
+			return myBytes;
+		}
+
+		@Nullable
+		public byte[] getCompressedBytes() {
+			return myCompressedBytes;
+		}
+
+		public long getCreated() {
+			return myCreated;
+		}
+
+		public long getSizeBytes() {
+			return myBytes.length + (myCompressedBytes != null ? myCompressedBytes.length : 0);
+		}
+	}
+
+	private static class PendingEntry extends ResponseBodyCapture {
+
+		private final String myKey;
+		private final String myResourceId;
+		private volatile boolean myStale;
+
+		private PendingEntry(String theKey, String theResourceId) {
+			myKey = theKey;
+			myResourceId = theResourceId;
+		}
+
+		public String getKey() {
+			return myKey;
+		}
+
+		public String getResourceId() {
+			return myResourceId;
+		}
+
+		public boolean isStale() {
+			return myStale;
+		}
+
+		public void markStale() {
+			myStale = true;
+		}
+	}
+
+}
@@ -30,6 +30,7 @@ import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.rest.annotation.*;
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.IRestfulServer;
@@ -45,6 +46,7 @@ import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -234,6 +236,33 @@ public abstract class BaseMethodBinding {
 
 	public abstract MethodMatchEnum incomingServerRequestMatchesMethod(RequestDetails theRequest);
 
+	/**
+	 * Returns the request types for which {@link #incomingServerRequestMatchesMethod(RequestDetails)} can
+	 * return anything other than {@link MethodMatchEnum#NONE}, or <code>null</code> (the default) if this
+	 * binding may match any request type. The server uses this to avoid testing bindings which can not
+	 * possibly match a request, so implementations must never leave out a request type they could match.
+	 *
+	 * @since 6.3.0
+	 */
+	@Nullable
+	public Set<RequestTypeEnum> getMatchableRequestTypes() {
+		return null;
+	}
+
+	/**
+	 * Returns the operation names (as returned by {@link RequestDetails#getOperation()}, e.g.
+	 * <code>$everything</code> or <code>_history</code>) for which {@link #incomingServerRequestMatchesMethod(RequestDetails)}
+	 * can return anything other than {@link MethodMatchEnum#NONE}, or <code>null</code> (the default) if this
+	 * binding may match any operation. Requests with no operation are represented by an empty string. As with
+	 * {@link #getMatchableRequestTypes()}, implementations must never leave out an operation they could match.
+	 *
+	 * @since 6.3.0
+	 */
+	@Nullable
+	public Set<String> getMatchableOperationNames() {
+		return null;
+	}
+
 	public abstract Object invokeServer(IRestfulServer<?> theServer, RequestDetails theRequest) throws BaseServerResponseException, IOException;
 
 	protected final Object invokeServerMethod(RequestDetails theRequest, Object[] theMethodParams) {
@@ -141,6 +141,17 @@ abstract class BaseOutcomeReturningMethodBinding extends BaseMethodBinding {
 		return MethodMatchEnum.EXACT;
 	}
 
+	@Override
+	public Set<RequestTypeEnum> getMatchableRequestTypes() {
+		return provideAllowableRequestTypes();
+	}
+
+	@Override
+	public Set<String> getMatchableOperationNames() {
+		String matchingOperation = getMatchingOperation();
+		return Collections.singleton(matchingOperation != null ? matchingOperation : "");
+	}
+
 	@Override
 	public Object invokeServer(IRestfulServer<?> theServer, RequestDetails theRequest) throws BaseServerResponseException, IOException {
 
@@ -107,6 +107,16 @@ public class GraphQLMethodBinding extends OperationMethodBinding {
 		return MethodMatchEnum.NONE;
 	}
 
+	@Override
+	public Set<RequestTypeEnum> getMatchableRequestTypes() {
+		return Collections.singleton(myMethodRequestType);
+	}
+
+	@Override
+	public Set<String> getMatchableOperationNames() {
+		return Collections.singleton(Constants.OPERATION_NAME_GRAPHQL);
+	}
+
 	private String getQueryValue(Object[] methodParams) {
 		switch (myMethodRequestType) {
 			case POST:
@@ -51,7 +51,9 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -275,6 +277,19 @@ public class OperationMethodBinding extends BaseResourceReturningMethodBinding {
 		return myCanOperateAtServerLevel ? MethodMatchEnum.EXACT : MethodMatchEnum.NONE;
 	}
 
+	@Override
+	public Set<RequestTypeEnum> getMatchableRequestTypes() {
+		return EnumSet.of(RequestTypeEnum.GET, RequestTypeEnum.POST, RequestTypeEnum.DELETE);
+	}
+
+	@Override
+	public Set<String> getMatchableOperationNames() {
+		if (myName.equals(WILDCARD_NAME)) {
+			return null;
+		}
+		return Collections.singleton(myName);
+	}
+
 	@Override
 	public RestOperationTypeEnum getRestOperationType(RequestDetails theRequestDetails) {
 		RestOperationTypeEnum retVal = super.getRestOperationType(theRequestDetails);
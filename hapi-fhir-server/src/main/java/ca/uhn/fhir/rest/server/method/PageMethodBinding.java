@@ -45,6 +45,7 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import javax.annotation.Nonnull;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -202,5 +203,10 @@ public class PageMethodBinding extends BaseResourceReturningMethodBinding {
 		return MethodMatchEnum.EXACT;
 	}
 
+	@Override
+	public Set<RequestTypeEnum> getMatchableRequestTypes() {
+		return Collections.singleton(RequestTypeEnum.GET);
+	}
+
 
 }
@@ -51,6 +51,7 @@ import javax.annotation.Nonnull;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
@@ -151,6 +152,16 @@ public class ReadMethodBinding extends BaseResourceReturningMethodBinding {
 		return MethodMatchEnum.EXACT;
 	}
 
+	@Override
+	public Set<RequestTypeEnum> getMatchableRequestTypes() {
+		return EnumSet.of(RequestTypeEnum.GET, RequestTypeEnum.HEAD);
+	}
+
+	@Override
+	public Set<String> getMatchableOperationNames() {
+		return Set.of("", Constants.PARAM_HISTORY);
+	}
+
 
 	@Override
 	public IBundleProvider invokeServer(IRestfulServer<?> theServer, RequestDetails theRequest, Object[] theMethodParams) throws InvalidRequestException, InternalErrorException {
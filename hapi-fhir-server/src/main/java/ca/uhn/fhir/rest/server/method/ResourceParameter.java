@@ -41,7 +41,6 @@ import org.hl7.fhir.instance.model.api.IBaseBinary;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import javax.annotation.Nonnull;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -99,7 +98,7 @@ public class ResourceParameter implements IParameter {
 				try {
 					return IOUtils.toString(createRequestReader(theRequest));
 				} catch (IOException e) {
-					// Shouldn't happen since we're reading from a byte array
+					// Can happen if the body is streamed and the client disconnects
 					throw new InternalErrorException(Msg.code(445) + "Failed to load request", e);
 				}
 			case BODY_BYTE_ARRAY:
@@ -123,7 +122,7 @@ public class ResourceParameter implements IParameter {
 	}
 
 	private static Reader createRequestReader(RequestDetails theRequest, Charset charset) {
-		return new InputStreamReader(new ByteArrayInputStream(theRequest.loadRequestContents()), charset);
+		return new InputStreamReader(theRequest.loadRequestContentsAsStream(), charset);
 	}
 
 	// Do not make private
@@ -163,7 +162,7 @@ public class ResourceParameter implements IParameter {
 				try {
 					body = IOUtils.toString(requestReader);
 				} catch (IOException e) {
-					// This shouldn't happen since we're reading from a byte array..
+					// Can happen if the body is streamed and the client disconnects
 					throw new InternalErrorException(Msg.code(447) + e);
 				}
 				if (isBlank(body)) {
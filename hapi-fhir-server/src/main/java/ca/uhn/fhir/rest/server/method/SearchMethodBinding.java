@@ -44,6 +44,7 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 import javax.annotation.Nonnull;
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -269,6 +270,16 @@ public class SearchMethodBinding extends BaseResourceReturningMethodBinding {
 		return mightBeSearchRequest(theRequest);
 	}
 
+	@Override
+	public Set<RequestTypeEnum> getMatchableRequestTypes() {
+		return EnumSet.of(RequestTypeEnum.GET, RequestTypeEnum.POST);
+	}
+
+	@Override
+	public Set<String> getMatchableOperationNames() {
+		return Set.of("", Constants.PARAM_SEARCH);
+	}
+
 	private static boolean mightBeSearchRequest(RequestDetails theRequest) {
 		if (theRequest.getRequestType() == RequestTypeEnum.GET && theRequest.getOperation() != null && !Constants.PARAM_SEARCH.equals(theRequest.getOperation())) {
 			return false;
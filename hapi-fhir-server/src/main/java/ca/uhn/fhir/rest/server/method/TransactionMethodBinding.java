@@ -39,7 +39,9 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import javax.annotation.Nonnull;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -102,6 +104,16 @@ public class TransactionMethodBinding extends BaseResourceReturningMethodBinding
 		return MethodMatchEnum.EXACT;
 	}
 
+	@Override
+	public Set<RequestTypeEnum> getMatchableRequestTypes() {
+		return Collections.singleton(RequestTypeEnum.POST);
+	}
+
+	@Override
+	public Set<String> getMatchableOperationNames() {
+		return Collections.singleton("");
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public Object invokeServer(IRestfulServer<?> theServer, RequestDetails theRequest, Object[] theMethodParams) throws InvalidRequestException, InternalErrorException {
@@ -0,0 +1,108 @@
+package ca.uhn.fhir.rest.server.provider;
+
+/*-
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2022 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.executor.IInterceptorMetricsMXBean;
+import ca.uhn.fhir.interceptor.executor.InMemoryInterceptorMetricsSink;
+import ca.uhn.fhir.interceptor.executor.InterceptorHookMetrics;
+import ca.uhn.fhir.model.api.annotation.Description;
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
+import ca.uhn.fhir.util.ParametersUtil;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseParameters;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Plain provider which exposes the hook metrics collected by an {@link InMemoryInterceptorMetricsSink}
+ * through a server-level <code>$interceptor-metrics</code> operation. To use it, register the sink with
+ * the server's interceptor service and register this provider with the server:
+ * <pre>
+ * InMemoryInterceptorMetricsSink sink = new InMemoryInterceptorMetricsSink();
+ * restfulServer.getInterceptorService().setMetricsSink(sink);
+ * restfulServer.registerProvider(new InterceptorMetricsProvider(fhirContext, sink));
+ * </pre>
+ * <p>
+ * The output contains one <code>hook</code> parameter per hook method which has been invoked, sorted by
+ * the total time spent in the hook (descending). Note that hook metrics can reveal details about the
+ * server configuration, so access to this operation should normally be restricted.
+ * </p>
+ *
+ * @since 6.3.0
+ */
+public class InterceptorMetricsProvider {
+
+	private final FhirContext myContext;
+	private final IInterceptorMetricsMXBean myMetrics;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theContext The FHIR context
+	 * @param theMetrics The metrics source, typically an {@link InMemoryInterceptorMetricsSink}
+	 */
+	public InterceptorMetricsProvider(FhirContext theContext, IInterceptorMetricsMXBean theMetrics) {
+		Validate.notNull(theContext, "theContext must not be null");
+		Validate.notNull(theMetrics, "theMetrics must not be null");
+		myContext = theContext;
+		myMetrics = theMetrics;
+	}
+
+	@Description("Returns invocation counts and latencies for the interceptor hooks registered with this server")
+	@Operation(name = ProviderConstants.OPERATION_INTERCEPTOR_METRICS, idempotent = true, returnParameters = {
+		@OperationParam(name = ProviderConstants.OPERATION_INTERCEPTOR_METRICS_OUTPUT_HOOK, min = 0, max = OperationParam.MAX_UNLIMITED)
+	})
+	public IBaseParameters interceptorMetrics(
+		@OperationParam(name = ProviderConstants.OPERATION_INTERCEPTOR_METRICS_PARAM_POINTCUT, typeName = "code", min = 0, max = 1) IPrimitiveType<String> thePointcut
+	) {
+		String pointcut = thePointcut != null ? thePointcut.getValueAsString() : null;
+
+		IBaseParameters retVal = ParametersUtil.newInstance(myContext);
+		for (InterceptorHookMetrics next : myMetrics.getHookMetrics()) {
+			if (isNotBlank(pointcut) && !pointcut.equals(next.getPointcut())) {
+				continue;
+			}
+
+			IBase hook = ParametersUtil.addParameterToParameters(myContext, retVal, ProviderConstants.OPERATION_INTERCEPTOR_METRICS_OUTPUT_HOOK);
+			ParametersUtil.addPartCode(myContext, hook, "pointcut", next.getPointcut());
+			ParametersUtil.addPartString(myContext, hook, "name", next.getHookName());
+			ParametersUtil.addPartInteger(myContext, hook, "count", toInt(next.getInvocationCount()));
+			ParametersUtil.addPartInteger(myContext, hook, "failureCount", toInt(next.getFailureCount()));
+			ParametersUtil.addPartDecimal(myContext, hook, "totalMillis", next.getTotalMillis());
+			ParametersUtil.addPartDecimal(myContext, hook, "meanMillis", next.getMeanMillis());
+			ParametersUtil.addPartDecimal(myContext, hook, "p50Millis", next.getP50Millis());
+			ParametersUtil.addPartDecimal(myContext, hook, "p95Millis", next.getP95Millis());
+			ParametersUtil.addPartDecimal(myContext, hook, "p99Millis", next.getP99Millis());
+			ParametersUtil.addPartDecimal(myContext, hook, "maxMillis", next.getMaxMillis());
+		}
+
+		return retVal;
+	}
+
+	private static int toInt(long theValue) {
+		return (int) Math.min(theValue, Integer.MAX_VALUE);
+	}
+
+}
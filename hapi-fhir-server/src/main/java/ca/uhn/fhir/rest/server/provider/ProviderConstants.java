@@ -198,6 +198,23 @@ public class ProviderConstants {
 	 */
 	public static final String OPERATION_REINDEX_TERMINOLOGY = "$reindex-terminology";
 
+	/**
+	 * Operation name for the $interceptor-metrics operation
+	 *
+	 * @since 6.3.0
+	 */
+	public static final String OPERATION_INTERCEPTOR_METRICS = "$interceptor-metrics";
+
+	/**
+	 * Optional input parameter for the $interceptor-metrics operation, restricting the output to a single pointcut
+	 */
+	public static final String OPERATION_INTERCEPTOR_METRICS_PARAM_POINTCUT = "pointcut";
+
+	/**
+	 * Output parameter for the $interceptor-metrics operation, repeated once per hook
+	 */
+	public static final String OPERATION_INTERCEPTOR_METRICS_OUTPUT_HOOK = "hook";
+
 	@Deprecated
 	public static final String MARK_ALL_RESOURCES_FOR_REINDEXING = "$mark-all-resources-for-reindexing";
 	/**
@@ -38,6 +38,7 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -110,6 +111,34 @@ public class ServletRequestDetails extends RequestDetails {
 		}
 	}
 
+	@Override
+	protected InputStream getRequestContentsStream() {
+		if (myServer == null || !myServer.isStreamIncomingContents()) {
+			return null;
+		}
+		try {
+			InputStream inputStream = getInputStream();
+
+			if (myServer.isUncompressIncomingContents()) {
+				String contentEncoding = myServletRequest.getHeader(Constants.HEADER_CONTENT_ENCODING);
+				if ("gzip".equals(contentEncoding)) {
+					ourLog.debug("Uncompressing (GZip) incoming content stream");
+					PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream);
+					int firstByte = pushbackInputStream.read();
+					if (firstByte == -1) {
+						return pushbackInputStream;
+					}
+					pushbackInputStream.unread(firstByte);
+					inputStream = new GZIPInputStream(pushbackInputStream);
+				}
+			}
+			return inputStream;
+		} catch (IOException e) {
+			ourLog.error("Could not load request resource", e);
+			throw new InvalidRequestException(Msg.code(2222) + String.format("Could not load request resource: %s", e.getMessage()));
+		}
+	}
+
 	@Override
 	public Charset getCharset() {
 		Charset charset = null;
@@ -0,0 +1,163 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentMemoryPagingProviderTest {
+
+	private static final long ENTRY_WEIGHT = 10 * 100 + ConcurrentMemoryPagingProvider.ENTRY_OVERHEAD_BYTES;
+	private ConcurrentMemoryPagingProvider mySvc;
+	private long myNow;
+
+	@BeforeEach
+	public void before() {
+		mySvc = new ConcurrentMemoryPagingProvider(ENTRY_WEIGHT * 10);
+		mySvc.setEstimatedBytesPerResource(100);
+		myNow = System.currentTimeMillis();
+		mySvc.setNowForUnitTest(myNow);
+	}
+
+	@Test
+	public void testStoreAndRetrieve() {
+		IBundleProvider list = new SimpleBundleProvider(10);
+		String id = mySvc.storeResultList(null, list);
+
+		assertSame(list, mySvc.retrieveResultList(null, id));
+		assertNull(mySvc.retrieveResultList(null, "unknown"));
+
+		assertEquals(1, mySvc.getHitCount());
+		assertEquals(1, mySvc.getMissCount());
+		assertEquals(1, mySvc.getEntryCount());
+		assertEquals(ENTRY_WEIGHT, mySvc.getTotalWeightBytes());
+	}
+
+	@Test
+	public void testEvictLeastRecentlyAccessed() {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			ids.add(mySvc.storeResultList(null, new SimpleBundleProvider(10)));
+			mySvc.setNowForUnitTest(++myNow);
+		}
+		assertEquals(0, mySvc.getEvictionCount());
+
+		// Touch the oldest entry so that it is no longer the least recently used
+		assertTrue(mySvc.retrieveResultList(null, ids.get(0)) != null);
+		mySvc.setNowForUnitTest(++myNow);
+
+		mySvc.storeResultList(null, new SimpleBundleProvider(10));
+
+		assertEquals(2, mySvc.getEvictionCount());
+		assertEquals(9, mySvc.getEntryCount());
+		assertTrue(mySvc.getTotalWeightBytes() <= mySvc.getMaximumWeightBytes() * 0.9);
+		assertTrue(mySvc.retrieveResultList(null, ids.get(0)) != null);
+		assertNull(mySvc.retrieveResultList(null, ids.get(1)));
+		assertNull(mySvc.retrieveResultList(null, ids.get(2)));
+		assertTrue(mySvc.retrieveResultList(null, ids.get(3)) != null);
+	}
+
+	@Test
+	public void testCustomWeigher() {
+		mySvc.setWeigher(t -> t.size() * 1000L);
+		String id = mySvc.storeResultList(null, new SimpleBundleProvider(2));
+
+		assertTrue(mySvc.retrieveResultList(null, id) != null);
+		assertEquals(2000 + ConcurrentMemoryPagingProvider.ENTRY_OVERHEAD_BYTES, mySvc.getTotalWeightBytes());
+	}
+
+	@Test
+	public void testOversizedResultListIsNotStored() {
+		String id = mySvc.storeResultList(null, new SimpleBundleProvider(10));
+
+		mySvc.setWeigher(t -> mySvc.getMaximumWeightBytes());
+		assertNull(mySvc.storeResultList(null, new SimpleBundleProvider(1)));
+
+		// The existing entry must not have been evicted to make room
+		assertTrue(mySvc.retrieveResultList(null, id) != null);
+		assertEquals(1, mySvc.getRejectedCount());
+		assertEquals(0, mySvc.getEvictionCount());
+		assertEquals(ENTRY_WEIGHT, mySvc.getTotalWeightBytes());
+	}
+
+	@Test
+	public void testTimeToIdle() {
+		mySvc.setTimeToIdleMillis(1000);
+		String id = mySvc.storeResultList(null, new SimpleBundleProvider(10));
+
+		mySvc.setNowForUnitTest(myNow + 900);
+		assertTrue(mySvc.retrieveResultList(null, id) != null);
+		mySvc.setNowForUnitTest(myNow + 1800);
+		assertTrue(mySvc.retrieveResultList(null, id) != null);
+		mySvc.setNowForUnitTest(myNow + 2801);
+		assertNull(mySvc.retrieveResultList(null, id));
+
+		assertEquals(1, mySvc.getExpiryCount());
+		assertEquals(0, mySvc.getEntryCount());
+		assertEquals(0, mySvc.getTotalWeightBytes());
+	}
+
+	@Test
+	public void testTimeToLive() {
+		mySvc.setTimeToLiveMillis(1000);
+		String id = mySvc.storeResultList(null, new SimpleBundleProvider(10));
+
+		mySvc.setNowForUnitTest(myNow + 600);
+		assertTrue(mySvc.retrieveResultList(null, id) != null);
+		mySvc.setNowForUnitTest(myNow + 1001);
+		assertNull(mySvc.retrieveResultList(null, id));
+		assertEquals(1, mySvc.getExpiryCount());
+	}
+
+	@Test
+	public void testExpiredEntriesSweptOnStore() {
+		mySvc.setTimeToIdleMillis(1000);
+		mySvc.storeResultList(null, new SimpleBundleProvider(10));
+		mySvc.storeResultList(null, new SimpleBundleProvider(10));
+
+		mySvc.setNowForUnitTest(myNow + 60 * 1000);
+		mySvc.storeResultList(null, new SimpleBundleProvider(10));
+
+		assertEquals(2, mySvc.getExpiryCount());
+		assertEquals(1, mySvc.getEntryCount());
+		assertEquals(ENTRY_WEIGHT, mySvc.getTotalWeightBytes());
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		mySvc.setNowForUnitTest(null);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						String id = mySvc.storeResultList(null, new SimpleBundleProvider(10));
+						mySvc.retrieveResultList(null, id);
+					}
+				}));
+			}
+			for (Future<?> next : futures) {
+				next.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(8000, mySvc.getHitCount() + mySvc.getMissCount());
+		assertEquals(mySvc.getEntryCount() * ENTRY_WEIGHT, mySvc.getTotalWeightBytes());
+		assertEquals(8000, mySvc.getEntryCount() + mySvc.getEvictionCount());
+	}
+
+}
@@ -1,18 +1,34 @@
 package ca.uhn.fhir.rest.server;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.server.method.BaseMethodBinding;
+import ca.uhn.fhir.rest.server.method.MethodMatchEnum;
 import ca.uhn.fhir.rest.server.method.PageMethodBinding;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import javax.annotation.Nullable;
 import java.lang.reflect.Method;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class ResourceBindingTest {
@@ -38,4 +54,93 @@ class ResourceBindingTest {
 		assertEquals(second, list.get(0));
 		assertEquals(first, list.get(1));
 	}
+
+	@Test
+	public void testCandidateMethodBindings() {
+		BaseMethodBinding everything = createBinding(EnumSet.of(RequestTypeEnum.GET, RequestTypeEnum.POST), Set.of("$everything"));
+		BaseMethodBinding read = createBinding(EnumSet.of(RequestTypeEnum.GET), Set.of("", "_history"));
+		BaseMethodBinding create = createBinding(EnumSet.of(RequestTypeEnum.POST), Set.of(""));
+		BaseMethodBinding history = createBinding(null, Set.of("_history"));
+		BaseMethodBinding anything = createBinding(null, null);
+		myResourceBinding.addMethod(anything);
+		myResourceBinding.addMethod(history);
+		myResourceBinding.addMethod(create);
+		myResourceBinding.addMethod(read);
+		myResourceBinding.addMethod(everything);
+
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, "$everything")), contains(everything, anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.POST, "$everything")), contains(everything, anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.DELETE, "$everything")), contains(anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, null)), contains(read, anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, "")), contains(read, anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.POST, null)), contains(create, anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, "_history")), contains(read, history, anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.PUT, "_history")), contains(history, anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, "$unknown")), contains(anything));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(null, "$everything")), contains(everything, read, create, history, anything));
+	}
+
+	@Test
+	public void testGetMethodOnlyTestsCandidates() {
+		BaseMethodBinding everything = createBinding(EnumSet.of(RequestTypeEnum.GET, RequestTypeEnum.POST), Set.of("$everything"));
+		BaseMethodBinding read = createBinding(EnumSet.of(RequestTypeEnum.GET), Set.of(""));
+		myResourceBinding.addMethod(read);
+		myResourceBinding.addMethod(everything);
+
+		ServletRequestDetails request = newRequest(RequestTypeEnum.GET, "$everything");
+		lenient().when(everything.incomingServerRequestMatchesMethod(any())).thenReturn(MethodMatchEnum.EXACT);
+		assertSame(everything, myResourceBinding.getMethod(request));
+		verify(read, never()).incomingServerRequestMatchesMethod(any());
+	}
+
+	@Test
+	public void testCandidateMethodBindingsUpdatedWhenBindingsChange() {
+		BaseMethodBinding first = createBinding(EnumSet.of(RequestTypeEnum.GET), Set.of(""));
+		BaseMethodBinding second = createBinding(EnumSet.of(RequestTypeEnum.GET), Set.of(""));
+		myResourceBinding.addMethod(first);
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, null)), contains(first));
+
+		myResourceBinding.addMethod(second);
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, null)), contains(second, first));
+
+		List<BaseMethodBinding> bindings = myResourceBinding.getMethodBindings();
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, null)), contains(second, first));
+		bindings.remove(second);
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, null)), contains(first));
+	}
+
+	@Test
+	public void testCandidateMethodBindingsUpdatedWhenBindingReplaced() {
+		BaseMethodBinding read = createBinding(EnumSet.of(RequestTypeEnum.GET), Set.of(""));
+		BaseMethodBinding create = createBinding(EnumSet.of(RequestTypeEnum.POST), Set.of(""));
+		BaseMethodBinding search = createBinding(EnumSet.of(RequestTypeEnum.GET), Set.of(""));
+		myResourceBinding.addMethod(read);
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, null)), contains(read));
+
+		List<BaseMethodBinding> bindings = myResourceBinding.getMethodBindings();
+		bindings.set(0, create);
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, null)), empty());
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.POST, null)), contains(create));
+
+		ListIterator<BaseMethodBinding> iterator = bindings.listIterator();
+		iterator.next();
+		iterator.set(search);
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.GET, null)), contains(search));
+		assertThat(myResourceBinding.getCandidateMethodBindings(newRequest(RequestTypeEnum.POST, null)), empty());
+	}
+
+	private static BaseMethodBinding createBinding(@Nullable Set<RequestTypeEnum> theRequestTypes, @Nullable Set<String> theOperationNames) {
+		BaseMethodBinding retVal = mock(BaseMethodBinding.class);
+		lenient().when(retVal.getMatchableRequestTypes()).thenReturn(theRequestTypes);
+		lenient().when(retVal.getMatchableOperationNames()).thenReturn(theOperationNames);
+		lenient().when(retVal.incomingServerRequestMatchesMethod(any())).thenReturn(MethodMatchEnum.NONE);
+		return retVal;
+	}
+
+	private static ServletRequestDetails newRequest(@Nullable RequestTypeEnum theRequestType, @Nullable String theOperation) {
+		ServletRequestDetails retVal = new ServletRequestDetails();
+		retVal.setRequestType(theRequestType);
+		retVal.setOperation(theOperation);
+		return retVal;
+	}
 }
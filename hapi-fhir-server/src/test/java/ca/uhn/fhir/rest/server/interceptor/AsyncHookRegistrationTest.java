@@ -0,0 +1,59 @@
+package ca.uhn.fhir.rest.server.interceptor;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.interceptor.executor.InterceptorService;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncHookRegistrationTest {
+
+	@Test
+	public void testAsyncHookWithRequestDetailsIsRejected() {
+		InterceptorService svc = new InterceptorService();
+
+		class AsyncInterceptor {
+			@Hook(value = Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, async = true)
+			public void completed(RequestDetails theRequestDetails) {
+				// nothing
+			}
+		}
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> svc.registerInterceptor(new AsyncInterceptor()));
+		assertTrue(e.getMessage().contains("Method can not be async because parameter type " + RequestDetails.class.getName() + " is tied to the request"), e.getMessage());
+	}
+
+	@Test
+	public void testAsyncHookWithServletRequestDetailsIsRejected() {
+		InterceptorService svc = new InterceptorService();
+
+		class AsyncInterceptor {
+			@Hook(value = Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, async = true)
+			public void completed(ServletRequestDetails theRequestDetails) {
+				// nothing
+			}
+		}
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> svc.registerInterceptor(new AsyncInterceptor()));
+		assertTrue(e.getMessage().contains("Method can not be async because parameter type " + ServletRequestDetails.class.getName() + " is tied to the request"), e.getMessage());
+	}
+
+	@Test
+	public void testAsyncHookWithoutRequestParametersIsAccepted() {
+		InterceptorService svc = new InterceptorService();
+
+		class AsyncInterceptor {
+			@Hook(value = Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, async = true)
+			public void completed() {
+				// nothing
+			}
+		}
+
+		assertTrue(svc.registerInterceptor(new AsyncInterceptor()));
+	}
+
+}
@@ -1,13 +1,30 @@
 package ca.uhn.fhir.rest.server.servlet;
 
 import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ServletRequestDetailsTest {
@@ -41,4 +58,113 @@ class ServletRequestDetailsTest {
 		assertFalse(servletRequestDetails.isRewriteHistory());
 	}
 
+	@Test
+	public void testStreamRequestContents() throws IOException {
+		ServletRequestDetails servletRequestDetails = newStreamingRequestDetails(true, "hello world".getBytes(StandardCharsets.UTF_8), null);
+
+		InputStream stream = servletRequestDetails.loadRequestContentsAsStream();
+		assertEquals("hello world", IOUtils.toString(stream, StandardCharsets.UTF_8));
+		assertNull(servletRequestDetails.getRequestContentsIfLoaded());
+
+		// Not retained
+		assertThrows(InternalErrorException.class, servletRequestDetails::loadRequestContents);
+	}
+
+	@Test
+	public void testStreamRequestContentsRetained() throws IOException {
+		ServletRequestDetails servletRequestDetails = newStreamingRequestDetails(true, "hello world".getBytes(StandardCharsets.UTF_8), null);
+		servletRequestDetails.setRetainRequestContents(true);
+
+		// Only read part of the body
+		InputStream stream = servletRequestDetails.loadRequestContentsAsStream();
+		assertEquals('h', stream.read());
+
+		assertEquals("hello world", new String(servletRequestDetails.loadRequestContents(), StandardCharsets.UTF_8));
+		assertEquals("hello world", new String(servletRequestDetails.loadRequestContents(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testStreamRequestContentsGzip() throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+			gzipOutputStream.write("hello world".getBytes(StandardCharsets.UTF_8));
+		}
+		ServletRequestDetails servletRequestDetails = newStreamingRequestDetails(true, compressed.toByteArray(), "gzip");
+
+		InputStream stream = servletRequestDetails.loadRequestContentsAsStream();
+		assertEquals("hello world", IOUtils.toString(stream, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testStreamRequestContentsGzipEmptyBody() throws IOException {
+		ServletRequestDetails servletRequestDetails = newStreamingRequestDetails(true, new byte[0], "gzip");
+
+		InputStream stream = servletRequestDetails.loadRequestContentsAsStream();
+		assertEquals(-1, stream.read());
+	}
+
+	@Test
+	public void testStreamRequestContentsAfterContentsLoaded() throws IOException {
+		ServletRequestDetails servletRequestDetails = newStreamingRequestDetails(true, "hello world".getBytes(StandardCharsets.UTF_8), null);
+		byte[] contents = servletRequestDetails.loadRequestContents();
+
+		InputStream stream = servletRequestDetails.loadRequestContentsAsStream();
+		assertArrayEquals(contents, IOUtils.toByteArray(stream));
+		verify(servletRequestDetails.getServletRequest(), times(1)).getInputStream();
+	}
+
+	@Test
+	public void testStreamRequestContentsDisabled() throws IOException {
+		ServletRequestDetails servletRequestDetails = newStreamingRequestDetails(false, "hello world".getBytes(StandardCharsets.UTF_8), null);
+
+		InputStream stream = servletRequestDetails.loadRequestContentsAsStream();
+		assertEquals("hello world", IOUtils.toString(stream, StandardCharsets.UTF_8));
+		assertEquals("hello world", new String(servletRequestDetails.getRequestContentsIfLoaded(), StandardCharsets.UTF_8));
+	}
+
+	private static ServletRequestDetails newStreamingRequestDetails(boolean theStreamIncomingContents, byte[] theBody, String theContentEncoding) throws IOException {
+		RestfulServer server = mock(RestfulServer.class);
+		when(server.isStreamIncomingContents()).thenReturn(theStreamIncomingContents);
+		when(server.isUncompressIncomingContents()).thenReturn(true);
+
+		HttpServletRequest httpRequest = mock(HttpServletRequest.class);
+		when(httpRequest.getInputStream()).thenReturn(new ByteArrayServletInputStream(theBody));
+		when(httpRequest.getHeader(Constants.HEADER_CONTENT_ENCODING)).thenReturn(theContentEncoding);
+
+		ServletRequestDetails servletRequestDetails = new ServletRequestDetails();
+		servletRequestDetails.setServer(server);
+		servletRequestDetails.setServletRequest(httpRequest);
+		return servletRequestDetails;
+	}
+
+	private static class ByteArrayServletInputStream extends ServletInputStream {
+
+		private final ByteArrayInputStream myDelegate;
+
+		private ByteArrayServletInputStream(byte[] theBytes) {
+			myDelegate = new ByteArrayInputStream(theBytes);
+		}
+
+		@Override
+		public boolean isFinished() {
+			return myDelegate.available() == 0;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener theReadListener) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int read() {
+			return myDelegate.read();
+		}
+
+	}
+
 }
@@ -36,13 +36,11 @@ import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
 import ca.uhn.fhir.jpa.dao.tx.HapiTransactionService;
 import ca.uhn.fhir.jpa.partition.SystemRequestDetails;
 import ca.uhn.fhir.parser.DataFormatException;
-import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.api.server.storage.ResourcePersistentId;
 import ca.uhn.fhir.rest.api.server.storage.TransactionDetails;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
-import org.apache.commons.io.LineIterator;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.slf4j.Logger;
@@ -53,10 +51,10 @@ import javax.annotation.Nonnull;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import java.util.stream.Stream;
 
 public class ConsumeFilesStep implements ILastJobStepWorker<BulkImportJobParameters, NdJsonFileJson> {
 
@@ -79,19 +77,12 @@ public class ConsumeFilesStep implements ILastJobStepWorker<BulkImportJobParamet
 		String ndjson = theStepExecutionDetails.getData().getNdJsonText();
 		String sourceName = theStepExecutionDetails.getData().getSourceName();
 
-		IParser jsonParser = myCtx.newJsonParser();
-		LineIterator lineIter = new LineIterator(new StringReader(ndjson));
+		// Each chunk is stored in a single transaction so that it either succeeds or fails as a whole
 		List<IBaseResource> resources = new ArrayList<>();
-		while (lineIter.hasNext()) {
-			String next = lineIter.next();
-			if (isNotBlank(next)) {
-				IBaseResource parsed;
-				try {
-					parsed = jsonParser.parseResource(next);
-				} catch (DataFormatException e) {
-					throw new JobExecutionFailedException(Msg.code(2052) + "Failed to parse resource: " + e, e);
-				}
-				resources.add(parsed);
+		try (Stream<IBaseResource> resourceStream = myCtx.newNDJsonParser().parseResourceStream(new StringReader(ndjson))) {
+			Iterator<IBaseResource> resourceIterator = resourceStream.iterator();
+			for (IBaseResource next = nextResourceOrNull(resourceIterator); next != null; next = nextResourceOrNull(resourceIterator)) {
+				resources.add(next);
 			}
 		}
 
@@ -102,6 +93,14 @@ public class ConsumeFilesStep implements ILastJobStepWorker<BulkImportJobParamet
 		return new RunOutcome(resources.size());
 	}
 
+	private IBaseResource nextResourceOrNull(Iterator<IBaseResource> theResourceIterator) {
+		try {
+			return theResourceIterator.hasNext() ? theResourceIterator.next() : null;
+		} catch (DataFormatException e) {
+			throw new JobExecutionFailedException(Msg.code(2052) + "Failed to parse resource: " + e, e);
+		}
+	}
+
 	public void storeResources(List<IBaseResource> resources) {
 		RequestDetails requestDetails = new SystemRequestDetails();
 		TransactionDetails transactionDetails = new TransactionDetails();
@@ -335,6 +335,11 @@ public class DaoConfig {
 	 */
 	private int myBulkExportFileMaximumCapacity = 1_000;
 
+	/**
+	 * Since 6.3.0
+	 */
+	private boolean myRawJsonReadPassthroughEnabled = false;
+
 	/**
 	 * Constructor
 	 */
@@ -2984,6 +2989,46 @@ public class DaoConfig {
 		myBulkExportFileMaximumCapacity = theBulkExportFileMaximumCapacity;
 	}
 
+	/**
+	 * If enabled, simple read and vread requests served as JSON are answered by writing the stored
+	 * JSON for the resource (with <code>Resource.id</code> and <code>Resource.meta</code> spliced in)
+	 * directly to the response, instead of parsing the stored resource and encoding it again. This
+	 * substantially reduces the CPU cost of reads.
+	 * <p>
+	 * This only applies when no <code>_summary</code>, <code>_elements</code> or pretty printing is
+	 * requested, no narrative generator is configured, and no interceptor is registered against the
+	 * <code>STORAGE_PREACCESS_RESOURCES</code>, <code>STORAGE_PRESHOW_RESOURCES</code> or
+	 * <code>SERVER_OUTGOING_RESPONSE</code> pointcuts. Note that stored resources are returned exactly as
+	 * stored, so any corrections that would be made by the lenient parser used to load stored resources
+	 * are not applied. Only reads made through the generic JPA resource providers are served this way,
+	 * since other callers of the DAO read method may inspect or modify the returned resource (see
+	 * <code>JpaConstants#RAW_JSON_READ_PASSTHROUGH_PERMITTED</code>).
+	 * </p>
+	 * <p>
+	 * Default is <code>false</code>
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public boolean isRawJsonReadPassthroughEnabled() {
+		return myRawJsonReadPassthroughEnabled;
+	}
+
+	/**
+	 * If enabled, simple read and vread requests served as JSON are answered by writing the stored
+	 * JSON for the resource (with <code>Resource.id</code> and <code>Resource.meta</code> spliced in)
+	 * directly to the response, instead of parsing the stored resource and encoding it again.
+	 * See {@link #isRawJsonReadPassthroughEnabled()} for the conditions under which this applies.
+	 * <p>
+	 * Default is <code>false</code>
+	 * </p>
+	 *
+	 * @since 6.3.0
+	 */
+	public void setRawJsonReadPassthroughEnabled(boolean theRawJsonReadPassthroughEnabled) {
+		myRawJsonReadPassthroughEnabled = theRawJsonReadPassthroughEnabled;
+	}
+
 	public enum StoreMetaSourceInformationEnum {
 		NONE(false, false),
 		SOURCE_URI(true, false),
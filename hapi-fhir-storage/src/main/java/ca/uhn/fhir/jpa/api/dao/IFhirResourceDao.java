@@ -204,6 +204,12 @@ public interface IFhirResourceDao<T extends IBaseResource> extends IDao {
 	}
 
 	/**
+	 * Note that if {@link ca.uhn.fhir.jpa.api.config.DaoConfig#isRawJsonReadPassthroughEnabled() raw JSON read passthrough}
+	 * is enabled, <code>theRequestDetails</code> is the details of the READ or VREAD request for this same resource,
+	 * and the caller has set the <code>JpaConstants#RAW_JSON_READ_PASSTHROUGH_PERMITTED</code> request user data flag,
+	 * the returned resource may be an empty shell containing only the ID and metadata. The stored JSON is attached
+	 * as user data and written directly to the response by the server.
+	 *
 	 * @param theRequestDetails The request details including permissions and partitioning information
 	 * @throws ResourceNotFoundException If the ID is not known to the server
 	 * @throws ResourceGoneException If the resource has been deleted
@@ -29,6 +29,7 @@ import ca.uhn.fhir.parser.path.EncodeContextPath;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.util.IModelVisitor2;
 import ca.uhn.fhir.util.ParametersUtil;
+import ca.uhn.fhir.util.TerserPath;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseEnumeration;
@@ -54,6 +55,10 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public class FhirPatch {
 
+	private static final TerserPath PART_PATH = TerserPath.compile("part");
+	private static final TerserPath PART_NAME_PATH = TerserPath.compile("name");
+	private static final TerserPath PART_VALUE_PATH = TerserPath.compile("value[x]");
+
 	private final FhirContext myContext;
 	private boolean myIncludePreviousValueInDiff;
 	private Set<EncodeContextPath> myIgnorePaths = Collections.emptySet();
@@ -191,13 +196,13 @@ public class FhirPatch {
 					newValue = childElement.newInstance();
 
 					if (valuePart.isPresent()) {
-						List<IBase> valuePartParts = myContext.newTerser().getValues(valuePart.get(), "part");
+						List<IBase> valuePartParts = myContext.newTerser().getValues(valuePart.get(), PART_PATH);
 						for (IBase nextValuePartPart : valuePartParts) {
 
-							String name = myContext.newTerser().getSingleValue(nextValuePartPart, "name", IPrimitiveType.class).map(t -> t.getValueAsString()).orElse(null);
+							String name = myContext.newTerser().getSingleValue(nextValuePartPart, PART_NAME_PATH, IPrimitiveType.class).map(t -> t.getValueAsString()).orElse(null);
 							if (isNotBlank(name)) {
 
-								Optional<IBase> value = myContext.newTerser().getSingleValue(nextValuePartPart, "value[x]", IBase.class);
+								Optional<IBase> value = myContext.newTerser().getSingleValue(nextValuePartPart, PART_VALUE_PATH, IBase.class);
 								if (value.isPresent()) {
 
 									BaseRuntimeChildDefinition partChildDef = childElement.getChildByName(name);
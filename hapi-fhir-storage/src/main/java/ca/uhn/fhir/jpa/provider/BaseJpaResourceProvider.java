@@ -159,9 +159,16 @@ public abstract class BaseJpaResourceProvider<T extends IBaseResource> extends B
 	@Read(version = true)
 	public T read(HttpServletRequest theRequest, @IdParam IIdType theId, RequestDetails theRequestDetails) {
 		startRequest(theRequest);
+		// The resource is returned as-is, so it may be served from the stored JSON
+		if (theRequestDetails != null) {
+			theRequestDetails.getUserData().put(JpaConstants.RAW_JSON_READ_PASSTHROUGH_PERMITTED, Boolean.TRUE);
+		}
 		try {
 			return myDao.read(theId, theRequestDetails);
 		} finally {
+			if (theRequestDetails != null) {
+				theRequestDetails.getUserData().remove(JpaConstants.RAW_JSON_READ_PASSTHROUGH_PERMITTED);
+			}
 			endRequest(theRequest);
 		}
 	}
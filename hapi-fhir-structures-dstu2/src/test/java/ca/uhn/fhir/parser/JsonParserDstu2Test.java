@@ -1283,6 +1283,25 @@ public class JsonParserDstu2Test {
 		assertThat(encoded, containsString("\"div\":\"" + expected.replace("\"", "\\\"") + "\""));
 	}
 
+	@Test
+	public void testParseNarrativeWithDstu2JsonLightweightNarrativeParsing() {
+		FhirContext ctx = FhirContext.forDstu2();
+		ctx.getParserOptions().setDstu2JsonLightweightNarrativeParsing(true);
+
+		// Single quotes and the self-closing tag would be rewritten by the default StAX based parsing
+		String input = "{\"resourceType\":\"Patient\",\"text\":{\"div\":\"<div xmlns=\\\"http://www.w3.org/1999/xhtml\\\"><p class='a'>Hello<br/></p></div>\"}}";
+		Patient parsed = ctx.newJsonParser().parseResource(Patient.class, input);
+		assertEquals("<div xmlns=\"http://www.w3.org/1999/xhtml\"><p class='a'>Hello<br/></p></div>", parsed.getText().getDiv().getValueAsString());
+		assertEquals(input, ctx.newJsonParser().encodeResourceToString(parsed));
+
+		try {
+			ctx.newJsonParser().parseResource(Patient.class, "{\"resourceType\":\"Patient\",\"text\":{\"div\":\"<div><p>Hello</div>\"}}");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), containsString("Hello"));
+		}
+	}
+
 	@Test
 	public void testNamespacePreservationParse() {
 		String input = "{\"resourceType\":\"Patient\",\"text\":{\"div\":\"<xhtml:div xmlns:xhtml=\\\"http://www.w3.org/1999/xhtml\\\"><xhtml:img src=\\\"foo\\\"/>@fhirabend</xhtml:div>\"}}";
@@ -5,17 +5,27 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.fhirpath.FhirPathExecutionException;
 import ca.uhn.fhir.fhirpath.IFhirPath;
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
 import org.hl7.fhir.dstu3.hapi.ctx.HapiWorkerContext;
 import org.hl7.fhir.dstu3.model.Base;
+import org.hl7.fhir.dstu3.model.ExpressionNode;
 import org.hl7.fhir.dstu3.utils.FHIRPathEngine;
 import org.hl7.fhir.exceptions.FHIRException;
 import org.hl7.fhir.instance.model.api.IBase;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 public class FhirPathDstu3 implements IFhirPath {
 
+	/**
+	 * Parsed expressions don't depend on the context they were parsed by, so the cache
+	 * is shared by all instances
+	 */
+	private static final Cache<String, ParsedExpression> ourParsedExpressionCache = CacheFactory.build(TimeUnit.HOURS.toMillis(1), 1000);
+
 	private FHIRPathEngine myEngine;
 
 	public FhirPathDstu3(FhirContext theCtx) {
@@ -23,19 +33,39 @@ public class FhirPathDstu3 implements IFhirPath {
 		myEngine = new FHIRPathEngine(new HapiWorkerContext(theCtx, validationSupport));
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends IBase> List<T> evaluate(IBase theInput, String thePath, Class<T> theReturnType) {
+		return doEvaluate(theInput, thePath, null, theReturnType);
+	}
+
+	@Override
+	public <T extends IBase> List<T> evaluate(IBase theInput, IParsedExpression theParsedExpression, Class<T> theReturnType) {
+		return doEvaluate(theInput, theParsedExpression.getExpression(), theParsedExpression, theReturnType);
+	}
+
+	/**
+	 * @param theParsedExpression The expression parsed by this class, or <code>null</code> if it
+	 *                            still needs to be parsed from the string form
+	 */
+	@SuppressWarnings("unchecked")
+	private <T extends IBase> List<T> doEvaluate(IBase theInput, String theExpression, IParsedExpression theParsedExpression, Class<T> theReturnType) {
 		List<Base> result;
 		try {
-			result = myEngine.evaluate((Base)theInput, thePath);
+			ExpressionNode expressionNode;
+			if (theParsedExpression instanceof ParsedExpression) {
+				expressionNode = ((ParsedExpression) theParsedExpression).myExpressionNode;
+			} else {
+				// Not parsed yet, or parsed by a different implementation, so only the string form can be used
+				expressionNode = ((ParsedExpression) parseExpression(theExpression)).myExpressionNode;
+			}
+			result = myEngine.evaluate((Base)theInput, expressionNode);
 		} catch (FHIRException e) {
 			throw new FhirPathExecutionException(Msg.code(607) + e);
 		}
 
 		for (Base next : result) {
 			if (!theReturnType.isAssignableFrom(next.getClass())) {
-				throw new FhirPathExecutionException(Msg.code(608) + "FluentPath expression \"" + thePath + "\" returned unexpected type " + next.getClass().getSimpleName() + " - Expected " + theReturnType.getName());
+				throw new FhirPathExecutionException(Msg.code(608) + "FluentPath expression \"" + theExpression + "\" returned unexpected type " + next.getClass().getSimpleName() + " - Expected " + theReturnType.getName());
 			}
 		}
 		
@@ -47,9 +77,35 @@ public class FhirPathDstu3 implements IFhirPath {
     return evaluate(theInput, thePath, theReturnType).stream().findFirst();
   }
 
+	@Override
+	public <T extends IBase> Optional<T> evaluateFirst(IBase theInput, IParsedExpression theParsedExpression, Class<T> theReturnType) {
+		return evaluate(theInput, theParsedExpression, theReturnType).stream().findFirst();
+	}
+
   @Override
   public void parse(String theExpression) {
-    myEngine.parse(theExpression);
+    parseExpression(theExpression);
   }
 
+	@Override
+	public IParsedExpression parseExpression(String theExpression) {
+		return ourParsedExpressionCache.get(theExpression, t -> new ParsedExpression(t, myEngine.parse(t)));
+	}
+
+	private static class ParsedExpression implements IParsedExpression {
+
+		private final String myExpression;
+		private final ExpressionNode myExpressionNode;
+
+		private ParsedExpression(String theExpression, ExpressionNode theExpressionNode) {
+			myExpression = theExpression;
+			myExpressionNode = theExpressionNode;
+		}
+
+		@Override
+		public String getExpression() {
+			return myExpression;
+		}
+	}
+
 }
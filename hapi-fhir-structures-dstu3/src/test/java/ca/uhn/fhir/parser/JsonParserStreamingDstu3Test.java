@@ -0,0 +1,68 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.apache.commons.io.IOUtils;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies that parsing with {@link ca.uhn.fhir.context.ParserOptions#setStreamingJsonParsing(boolean)}
+ * enabled produces the same resources as the default tree based parsing
+ */
+public class JsonParserStreamingDstu3Test {
+	private static final FhirContext ourCtx = FhirContext.forDstu3();
+	private static final FhirContext ourStreamingCtx;
+
+	static {
+		ourStreamingCtx = FhirContext.forDstu3();
+		ourStreamingCtx.getParserOptions().setStreamingJsonParsing(true);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/bug477.json",
+		"/json-edge-case-modified-335.json",
+		"/missing_array.json",
+		"/tara-test.json"
+	})
+	public void testParseMatchesTreeParser(String theClasspath) throws IOException {
+		String input = IOUtils.toString(JsonParserStreamingDstu3Test.class.getResourceAsStream(theClasspath), StandardCharsets.UTF_8);
+		assertParsesIdentically(input);
+	}
+
+	@Test
+	public void testParseComplexExtensionsAfterValue() {
+		String input = "{\n" +
+			"  \"resourceType\": \"Patient\",\n" +
+			"  \"name\": [ { \"family\": \"F1\" } ],\n" +
+			"  \"_name\": [ { \"id\": \"n1\", \"extension\": [ { \"url\": \"http://foo\", \"valueString\": \"A\" } ] } ],\n" +
+			"  \"birthDate\": \"2020-01-01\",\n" +
+			"  \"_birthDate\": { \"extension\": [ { \"url\": \"http://bar\", \"valueString\": \"B\" } ] }\n" +
+			"}";
+
+		Patient patient = assertParsesIdentically(input);
+		assertEquals("n1", patient.getNameFirstRep().getId());
+		assertEquals("http://foo", patient.getNameFirstRep().getExtensionFirstRep().getUrl());
+		assertEquals("http://bar", patient.getBirthDateElement().getExtensionFirstRep().getUrl());
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends IBaseResource> T assertParsesIdentically(String theInput) {
+		IBaseResource expected = ourCtx.newJsonParser().parseResource(theInput);
+		IBaseResource actual = ourStreamingCtx.newJsonParser().parseResource(theInput);
+
+		String expectedEncoded = ourCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(expected);
+		String actualEncoded = ourCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(actual);
+		assertEquals(expectedEncoded, actualEncoded);
+		return (T) actual;
+	}
+
+}
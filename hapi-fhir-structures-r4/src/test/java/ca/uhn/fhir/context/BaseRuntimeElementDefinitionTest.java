@@ -1,11 +1,17 @@
 package ca.uhn.fhir.context;
 
 import ca.uhn.fhir.i18n.Msg;
+import org.hl7.fhir.r4.model.BooleanType;
 import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.HumanName;
 import org.hl7.fhir.r4.model.Patient;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class BaseRuntimeElementDefinitionTest {
@@ -57,4 +63,41 @@ public class BaseRuntimeElementDefinitionTest {
 			assertEquals("HAPI-2142: Remove by index can only be called on a list-valued field.  'gender' is a single-valued field.", e.getMessage());
 		}
 	}
+
+	@Test
+	public void testAccessorAndMutatorPlainField() {
+		Patient patient = new Patient();
+
+		RuntimeResourceDefinition def = ourFhirContext.getResourceDefinition(patient);
+		BaseRuntimeChildDefinition child = def.getChildByName("active");
+		assertEquals(0, child.getAccessor().getValues(patient).size());
+		assertFalse(child.getAccessor().getFirstValueOrNull(patient).isPresent());
+
+		child.getMutator().setValue(patient, new BooleanType(true));
+		assertTrue(patient.getActive());
+		assertEquals(1, child.getAccessor().getValues(patient).size());
+		assertSame(patient.getActiveElement(), child.getAccessor().getFirstValueOrNull(patient).orElseThrow());
+
+		child.getMutator().setValue(patient, null);
+		assertEquals(0, child.getAccessor().getValues(patient).size());
+		assertNull(patient.getActiveElement().getValue());
+	}
+
+	@Test
+	public void testAccessorAndMutatorListField() {
+		Patient patient = new Patient();
+
+		RuntimeResourceDefinition def = ourFhirContext.getResourceDefinition(patient);
+		BaseRuntimeChildDefinition child = def.getChildByName("name");
+		assertEquals(0, child.getAccessor().getValues(patient).size());
+
+		child.getMutator().addValue(patient, new HumanName().setFamily("A1"));
+		child.getMutator().addValue(patient, new HumanName().setFamily("A2"));
+		assertEquals(2, patient.getName().size());
+		assertSame(patient.getName().get(1), child.getAccessor().getValues(patient).get(1));
+
+		child.getMutator().setValue(patient, new HumanName().setFamily("A3"));
+		assertEquals(1, patient.getName().size());
+		assertEquals("A3", patient.getName().get(0).getFamily());
+	}
 }
@@ -0,0 +1,108 @@
+package ca.uhn.fhir.context;
+
+import ca.uhn.fhir.util.StopWatch;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class ModelIndexR4Test {
+	private static final Logger ourLog = LoggerFactory.getLogger(ModelIndexR4Test.class);
+
+	/**
+	 * The index is generated during the process-classes phase of this module
+	 */
+	@Test
+	public void testIndexMatchesScannedModel() {
+		ModelIndex index = ModelIndex.forPackageOf(Patient.class);
+		assertFalse(index.isEmpty());
+
+		Map<String, Class<? extends IBaseResource>> nameToResourceType = new HashMap<>();
+		ModelScanner.scanVersionPropertyFile(null, nameToResourceType, FhirVersionEnum.R4, new HashMap<>());
+		for (Class<? extends IBaseResource> next : nameToResourceType.values()) {
+			List<ModelIndex.SearchParam> indexed = index.getSearchParams(next.getName());
+			assertNotNull(indexed, next.getName());
+			assertEquals(toStrings(ModelScanner.scanSearchParamDefinitions(next)), toStrings(indexed), next.getName());
+		}
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		Map<String, List<ModelIndex.SearchParam>> classNameToSearchParams = new TreeMap<>();
+		classNameToSearchParams.put(Patient.class.getName(), ModelScanner.scanSearchParamDefinitions(Patient.class));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		new ModelIndex(classNameToSearchParams).write(outputStream);
+		ModelIndex index = ModelIndex.read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+		assertEquals(toStrings(classNameToSearchParams.get(Patient.class.getName())), toStrings(index.getSearchParams(Patient.class.getName())));
+	}
+
+	@Test
+	public void testSearchParamsFromIndex() {
+		FhirContext ctx = FhirContext.forR4();
+		RuntimeSearchParam param = ctx.getResourceDefinition("Patient").getSearchParam("general-practitioner");
+		assertEquals("http://hl7.org/fhir/SearchParameter/Patient-general-practitioner", param.getUri());
+		assertEquals("Patient.generalPractitioner", param.getPath());
+		assertEquals(3, param.getTargets().size());
+	}
+
+	/**
+	 * Measures the time taken to create a context and scan the full R4 model, and
+	 * separately the part of that scan which the index replaces (reading the search
+	 * parameter definitions of every resource type)
+	 */
+	@Test
+	@Disabled
+	public void testTimingsStartup() {
+		Map<String, Class<? extends IBaseResource>> nameToResourceType = new HashMap<>();
+		ModelScanner.scanVersionPropertyFile(null, nameToResourceType, FhirVersionEnum.R4, new HashMap<>());
+		ModelIndex index = ModelIndex.forPackageOf(Patient.class);
+
+		for (int i = 0; i < 20; i++) {
+			StopWatch sw = new StopWatch();
+			FhirContext ctx = FhirContext.forR4();
+			for (String next : ctx.getResourceTypes()) {
+				ctx.getResourceDefinition(next);
+			}
+			ourLog.info("Pass {} - Created context and scanned model in {}", i, sw);
+
+			sw.restart();
+			for (Class<? extends IBaseResource> next : nameToResourceType.values()) {
+				ModelScanner.scanSearchParamDefinitions(next);
+			}
+			long scanMillis = sw.getMillis();
+
+			sw.restart();
+			for (Class<? extends IBaseResource> next : nameToResourceType.values()) {
+				index.getSearchParams(next.getName());
+			}
+			ourLog.info("Pass {} - Search parameters of {} resource types scanned in {}ms, read from index in {}ms", i, nameToResourceType.size(), scanMillis, sw.getMillis());
+		}
+	}
+
+	private static List<String> toStrings(List<ModelIndex.SearchParam> theSearchParams) {
+		return theSearchParams
+			.stream()
+			.map(t -> t.getName() + "|" + t.getDescription() + "|" + t.getPath() + "|" + t.getParamType() + "|" + new TreeSet<>(t.getTargets()) + "|" + new TreeSet<>(t.getProvidesMembershipInCompartments()) + "|" + t.getCompositeOf())
+			.sorted()
+			.collect(Collectors.toList());
+	}
+
+}
@@ -24,6 +24,7 @@ import org.hl7.fhir.r4.model.DateTimeType;
 import org.hl7.fhir.r4.model.Device;
 import org.hl7.fhir.r4.model.DocumentReference;
 import org.hl7.fhir.r4.model.Encounter;
+import org.hl7.fhir.r4.model.Enumerations;
 import org.hl7.fhir.r4.model.Extension;
 import org.hl7.fhir.r4.model.Medication;
 import org.hl7.fhir.r4.model.MedicationDispense;
@@ -49,7 +50,9 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
@@ -94,6 +97,7 @@ public class JsonParserR4Test extends BaseTest {
 	@AfterEach
 	public void afterEach() {
 		ourCtx.getParserOptions().setAutoContainReferenceTargetsWithNoId(true);
+		ourCtx.getParserOptions().setDstu2JsonLightweightNarrativeParsing(false);
 	}
 
 	@Test
@@ -117,6 +121,23 @@ public class JsonParserR4Test extends BaseTest {
 		assertThat(resourceType, is(equalTo("Observation")));
 	}
 
+	@Test
+	public void testEncodeResourceToOutputStream() throws IOException {
+		Patient p = new Patient();
+		p.setId("Patient/A");
+		p.addName().setFamily("M\u00fcller").addGiven("\u5f20\u4f1f");
+		p.getText().setDivAsString("<div>Hello</div>");
+
+		for (boolean prettyPrint : new boolean[]{false, true}) {
+			IParser parser = ourCtx.newJsonParser().setPrettyPrint(prettyPrint);
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			parser.encodeResourceToOutputStream(p, outputStream);
+
+			String expected = parser.encodeResourceToString(p);
+			assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+		}
+	}
+
 	@Test
 	public void testEntitiesNotConverted() throws IOException {
 		Device input = loadResource(ourCtx, Device.class, "/entities-from-cerner.json");
@@ -171,6 +192,32 @@ public class JsonParserR4Test extends BaseTest {
 	}
 
 
+	@Test
+	public void testParseNarrativeWithDstu2JsonLightweightNarrativeParsing() {
+		ourCtx.getParserOptions().setDstu2JsonLightweightNarrativeParsing(true);
+
+		String input = "{\"resourceType\":\"Patient\",\"text\":{\"status\":\"generated\",\"div\":\"<div xmlns=\\\"http://www.w3.org/1999/xhtml\\\"><p>Hello <b>World</b></p></div>\"}}";
+		Patient parsed = ourCtx.newJsonParser().parseResource(Patient.class, input);
+		assertEquals("<div xmlns=\"http://www.w3.org/1999/xhtml\"><p>Hello <b>World</b></p></div>", parsed.getText().getDiv().getValueAsString());
+		assertEquals(input, ourCtx.newJsonParser().encodeResourceToString(parsed));
+
+		parsed = ourCtx.newJsonParser().parseResource(Patient.class, "{\"resourceType\":\"Patient\",\"text\":{\"div\":\"Plain text\"}}");
+		assertEquals("<div xmlns=\"http://www.w3.org/1999/xhtml\">Plain text</div>", parsed.getText().getDiv().getValueAsString());
+	}
+
+	@Test
+	public void testParseInvalidNarrativeWithDstu2JsonLightweightNarrativeParsingIsStillValidated() {
+		ourCtx.getParserOptions().setDstu2JsonLightweightNarrativeParsing(true);
+
+		String input = "{\"resourceType\":\"Patient\",\"text\":{\"div\":\"<div xmlns=\\\"http://www.w3.org/1999/xhtml\\\"><p>Hello</div>\"}}";
+		try {
+			ourCtx.newJsonParser().parseResource(Patient.class, input);
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), containsString("Hello"));
+		}
+	}
+
 	@Test
 	public void testEncodeExtensionOnBinaryData() {
 		Binary b = new Binary();
@@ -434,6 +481,47 @@ public class JsonParserR4Test extends BaseTest {
 	}
 
 
+	@Test
+	public void testEncodeElementsWithCompiledFilterReusedAcrossParsers() {
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.SEARCHSET);
+		for (int i = 0; i < 2; i++) {
+			Patient patient = new Patient();
+			patient.setId("Patient/" + i);
+			patient.addName().setFamily("FAMILY" + i);
+			patient.setGender(Enumerations.AdministrativeGender.MALE);
+			patient.setActive(true);
+			bundle.addEntry().setResource(patient);
+		}
+
+		Set<String> elements = Sets.newHashSet("Patient.name");
+		String first = ourCtx.newJsonParser().setEncodeElements(elements).encodeResourceToString(bundle);
+		ourLog.info(first);
+		assertThat(first, stringContainsInOrder("FAMILY0", "SUBSETTED", "FAMILY1"));
+		assertThat(first, not(containsString("gender")));
+		assertThat(first, not(containsString("active")));
+
+		// A second parser with identical settings reuses the compiled filter
+		String second = ourCtx.newJsonParser().setEncodeElements(Sets.newHashSet("Patient.name")).encodeResourceToString(bundle);
+		assertEquals(first, second);
+
+		// Different settings must not see the decisions made for the first filter
+		IParser parser = ourCtx.newJsonParser().setEncodeElements(Sets.newHashSet("Patient.gender"));
+		String third = parser.encodeResourceToString(bundle);
+		assertThat(third, containsString("\"gender\":\"male\""));
+		assertThat(third, not(containsString("FAMILY0")));
+
+		// Changing a setting on an existing parser invalidates its compiled filter
+		parser.setEncodeElements(null);
+		String fourth = parser.encodeResourceToString(bundle);
+		assertThat(fourth, stringContainsInOrder("FAMILY0", "male", "FAMILY1", "male"));
+		assertThat(fourth, not(containsString("SUBSETTED")));
+		parser.setSummaryMode(true);
+		String fifth = parser.encodeResourceToString(bundle);
+		assertThat(fifth, containsString("FAMILY0"));
+		assertThat(fifth, containsString("SUBSETTED"));
+	}
+
 	@Test
 	public void testAlwaysUseUnixNewlines() {
 		Patient p = new Patient();
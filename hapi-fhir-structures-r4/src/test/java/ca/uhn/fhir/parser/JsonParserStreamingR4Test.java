@@ -0,0 +1,183 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.test.BaseTest;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Verifies that parsing with {@link ca.uhn.fhir.context.ParserOptions#setStreamingJsonParsing(boolean)}
+ * enabled produces the same resources as the default tree based parsing
+ */
+public class JsonParserStreamingR4Test extends BaseTest {
+	private static final Logger ourLog = LoggerFactory.getLogger(JsonParserStreamingR4Test.class);
+	private static final FhirContext ourCtx = FhirContext.forR4();
+	private static final FhirContext ourStreamingCtx;
+
+	static {
+		ourStreamingCtx = FhirContext.forR4();
+		ourStreamingCtx.getParserOptions().setStreamingJsonParsing(true);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/bundle-circ-ref.json",
+		"/bundle-with-two-patient-resources.json",
+		"/entities-from-cerner.json",
+		"/multi-thread-parsing-issue-bundle.json",
+		"/static-capabilitystatement.json"
+	})
+	public void testParseMatchesTreeParser(String theClasspath) throws IOException {
+		assertParsesIdentically(loadResource(theClasspath));
+	}
+
+	/**
+	 * Round trips every example from the specification (shared with the RDF parser tests)
+	 */
+	@ParameterizedTest
+	@MethodSource("getSpecExamples")
+	public void testParseSpecExampleMatchesTreeParser(String theClasspath) throws IOException {
+		assertParsesIdentically(loadResource(theClasspath));
+	}
+
+	private static Stream<String> getSpecExamples() throws IOException {
+		List<String> retVal = new ArrayList<>();
+		Resource[] resources = new PathMatchingResourcePatternResolver(JsonParserStreamingR4Test.class.getClassLoader()).getResources("classpath:rdf-test-input/*.json");
+		for (Resource next : resources) {
+			retVal.add("/rdf-test-input/" + next.getFilename());
+		}
+		return retVal.stream();
+	}
+
+	@Test
+	public void testParseComplexExtensionsAfterValue() {
+		String input = "{\n" +
+			"  \"resourceType\": \"Patient\",\n" +
+			"  \"maritalStatus\": { \"text\": \"Married\" },\n" +
+			"  \"_maritalStatus\": { \"id\": \"ms\", \"extension\": [ { \"url\": \"http://foo\", \"valueString\": \"A\" } ] },\n" +
+			"  \"name\": [ { \"family\": \"F1\" }, { \"family\": \"F2\" } ],\n" +
+			"  \"_name\": [ null, { \"extension\": [ { \"url\": \"http://bar\", \"valueString\": \"B\" } ] } ]\n" +
+			"}";
+
+		Patient patient = assertParsesIdentically(input);
+		assertEquals("ms", patient.getMaritalStatus().getId());
+		assertEquals("http://foo", patient.getMaritalStatus().getExtensionFirstRep().getUrl());
+		assertEquals(0, patient.getName().get(0).getExtension().size());
+		assertEquals("http://bar", patient.getName().get(1).getExtensionFirstRep().getUrl());
+	}
+
+	@Test
+	public void testParsePrimitiveExtensionsBeforeAndAfterValue() {
+		String input = "{\n" +
+			"  \"resourceType\": \"Patient\",\n" +
+			"  \"_birthDate\": { \"id\": \"bd\", \"extension\": [ { \"url\": \"http://foo\", \"valueString\": \"A\" } ] },\n" +
+			"  \"birthDate\": \"2020-01-01\",\n" +
+			"  \"name\": [ {\n" +
+			"    \"given\": [ \"G1\", \"G2\", \"G3\" ],\n" +
+			"    \"_given\": [ null, { \"extension\": [ { \"url\": \"http://bar\", \"valueString\": \"B\" } ] } ]\n" +
+			"  } ],\n" +
+			"  \"_gender\": { \"extension\": [ { \"url\": \"http://baz\", \"valueCode\": \"C\" } ] }\n" +
+			"}";
+
+		Patient patient = assertParsesIdentically(input);
+		assertEquals("bd", patient.getBirthDateElement().getId());
+		assertEquals("http://bar", patient.getNameFirstRep().getGiven().get(1).getExtensionFirstRep().getUrl());
+		assertEquals("http://baz", patient.getGenderElement().getExtensionFirstRep().getUrl());
+	}
+
+	@Test
+	public void testParseResourceTypeNotFirst() {
+		String input = "{\n" +
+			"  \"resourceType\": \"Bundle\",\n" +
+			"  \"id\": \"B\",\n" +
+			"  \"type\": \"collection\",\n" +
+			"  \"entry\": [ {\n" +
+			"    \"resource\": { \"active\": true, \"resourceType\": \"Patient\", \"id\": \"P\" }\n" +
+			"  }, {\n" +
+			"    \"resource\": { \"resourceType\": \"Observation\", \"status\": \"final\", \"valueQuantity\": { \"value\": 1.000 } }\n" +
+			"  } ]\n" +
+			"}";
+
+		Bundle bundle = assertParsesIdentically(input);
+		assertEquals(2, bundle.getEntry().size());
+		assertEquals(true, ((Patient) bundle.getEntry().get(0).getResource()).getActive());
+		assertEquals("1.000", ((Observation) bundle.getEntry().get(1).getResource()).getValueQuantity().getValueElement().getValueAsString());
+
+		Patient patient = assertParsesIdentically("{ \"id\": \"P\", \"active\": true, \"resourceType\": \"Patient\" }");
+		assertEquals("P", patient.getIdElement().getIdPart());
+	}
+
+	@Test
+	public void testParseContainedResource() {
+		String input = "{\n" +
+			"  \"resourceType\": \"Observation\",\n" +
+			"  \"contained\": [ { \"resourceType\": \"Patient\", \"id\": \"pat\", \"active\": true } ],\n" +
+			"  \"status\": \"final\",\n" +
+			"  \"subject\": { \"reference\": \"#pat\" }\n" +
+			"}";
+
+		Observation obs = assertParsesIdentically(input);
+		assertEquals(true, ((Patient) obs.getSubject().getResource()).getActive());
+	}
+
+	@Test
+	public void testParseMissingResourceType() {
+		try {
+			ourStreamingCtx.newJsonParser().parseResource("{ \"id\": \"A\" }");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), containsString(Msg.code(1838)));
+		}
+
+		try {
+			ourStreamingCtx.newJsonParser().parseResource("{ \"resourceType\": \"Bundle\", \"entry\": [ { \"resource\": { \"id\": \"A\" } } ] }");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), containsString(Msg.code(1843)));
+		}
+	}
+
+	@Test
+	public void testParseTrailingContent() {
+		try {
+			ourStreamingCtx.newJsonParser().parseResource("{ \"resourceType\": \"Patient\" } { \"resourceType\": \"Patient\" }");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), containsString(Msg.code(2209)));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends IBaseResource> T assertParsesIdentically(String theInput) {
+		IBaseResource expected = ourCtx.newJsonParser().parseResource(theInput);
+		IBaseResource actual = ourStreamingCtx.newJsonParser().parseResource(theInput);
+
+		String expectedEncoded = ourCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(expected);
+		String actualEncoded = ourCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(actual);
+		ourLog.debug("Encoded: {}", actualEncoded);
+		assertEquals(expectedEncoded, actualEncoded);
+		return (T) actual;
+	}
+
+}
@@ -1,6 +1,7 @@
 package ca.uhn.fhir.parser;
 
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -14,8 +15,20 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.util.BundleBuilder;
 import ca.uhn.fhir.util.TestUtil;
 
+import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Patient;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 public class NDJsonParserTest {
 	private static FhirContext ourCtx = FhirContext.forR4();
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(NDJsonParserTest.class);
@@ -121,6 +134,76 @@ public class NDJsonParserTest {
 		             ()->{parser.parseResource(Patient.class, myBundleJson);});
 	}
 	
+	@Test
+	public void testParseResourceStream() {
+		String ndjson = "{\"resourceType\":\"Patient\",\"id\":\"P1\"}\n" +
+			"\n" +
+			"  {\"resourceType\":\"Observation\",\"id\":\"O1\"}  \n";
+
+		IParser parser = ourCtx.newNDJsonParser();
+		List<IBaseResource> resources;
+		try (Stream<IBaseResource> stream = parser.parseResourceStream(new StringReader(ndjson))) {
+			resources = stream.collect(Collectors.toList());
+		}
+
+		assertEquals(2, resources.size());
+		assertEquals("P1", ((Patient) resources.get(0)).getIdElement().getIdPart());
+		assertEquals("O1", ((Observation) resources.get(1)).getIdElement().getIdPart());
+	}
+
+	@Test
+	public void testParseResourceStreamIsLazy() {
+		String ndjson = "{\"resourceType\":\"Patient\",\"id\":\"P1\"}\n" +
+			"this is not json\n";
+
+		IParser parser = ourCtx.newNDJsonParser();
+		try (Stream<IBaseResource> stream = parser.parseResourceStream(new StringReader(ndjson))) {
+			Iterator<IBaseResource> iterator = stream.iterator();
+			assertEquals("P1", iterator.next().getIdElement().getIdPart());
+			assertThrows(DataFormatException.class, iterator::next);
+		}
+	}
+
+	@Test
+	public void testParseResourceStreamWithSingleResourceParser() {
+		IParser parser = ourCtx.newJsonParser();
+		List<IBaseResource> resources;
+		try (Stream<IBaseResource> stream = parser.parseResourceStream(new StringReader("{\"resourceType\":\"Patient\",\"id\":\"P1\"}"))) {
+			resources = stream.collect(Collectors.toList());
+		}
+
+		assertEquals(1, resources.size());
+		assertEquals("P1", resources.get(0).getIdElement().getIdPart());
+	}
+
+	@Test
+	public void testEncodeResourcesToOutputStream() throws IOException {
+		Patient p1 = new Patient();
+		p1.setId("Patient/P1");
+		Patient p2 = new Patient();
+		p2.setId("Patient/P2");
+		p2.addAddress().setText("1 Place Street\r\nOn Earth");
+
+		NDJsonParser parser = (NDJsonParser) ourCtx.newNDJsonParser();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		parser.encodeResourcesToOutputStream(Arrays.asList(p1, p2).iterator(), outputStream);
+		String ndjson = outputStream.toString(StandardCharsets.UTF_8);
+		ourLog.info(ndjson);
+
+		// The output should be identical to encoding the same resources as a Bundle
+		BundleBuilder builder = new BundleBuilder(ourCtx);
+		builder.addCollectionEntry(p1);
+		builder.addCollectionEntry(p2);
+		assertEquals(toNDJson(builder.getBundle()), ndjson);
+
+		List<IBaseResource> resources;
+		try (Stream<IBaseResource> stream = parser.parseResourceStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			resources = stream.collect(Collectors.toList());
+		}
+		assertEquals(2, resources.size());
+		assertEquals("1 Place Street\r\nOn Earth", ((Patient) resources.get(1)).getAddressFirstRep().getText());
+	}
+
 	@AfterAll
 	public static void afterClassClearContext() {
 		TestUtil.randomizeLocaleAndTimezone();
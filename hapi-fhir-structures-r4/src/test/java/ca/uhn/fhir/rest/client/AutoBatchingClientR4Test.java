@@ -0,0 +1,275 @@
+package ca.uhn.fhir.rest.client;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.annotation.Transaction;
+import ca.uhn.fhir.rest.annotation.TransactionParam;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import ca.uhn.fhir.util.StopWatch;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AutoBatchingClientR4Test {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(AutoBatchingClientR4Test.class);
+
+	private static final MyPatientProvider ourPatientProvider = new MyPatientProvider();
+	private static final MySystemProvider ourSystemProvider = new MySystemProvider();
+	@RegisterExtension
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(FhirContext.forR4Cached())
+		.registerProvider(ourPatientProvider)
+		.registerProvider(ourSystemProvider);
+	private IGenericClient myClient;
+
+	@BeforeEach
+	public void before() {
+		ourPatientProvider.myPatients.clear();
+		ourPatientProvider.myReadCount.set(0);
+		ourPatientProvider.mySearchCount.set(0);
+		ourSystemProvider.myBatchCount.set(0);
+
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		myClient = ctx.newRestfulGenericClient(ourServer.getBaseUrl());
+		myClient.setAutoBatching(50, 100);
+	}
+
+	@Test
+	public void testConcurrentReadsAreBatched() throws Exception {
+		List<CompletableFuture<Patient>> reads = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			createPatient("P" + i, "Family" + i);
+			reads.add(myClient.read().resource(Patient.class).withId("P" + i).executeAsync());
+		}
+
+		CompletableFuture.allOf(reads.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		for (int i = 0; i < 20; i++) {
+			assertEquals("Family" + i, reads.get(i).get().getNameFirstRep().getFamily());
+		}
+		assertEquals(1, ourSystemProvider.myBatchCount.get());
+		assertEquals(0, ourPatientProvider.myReadCount.get());
+	}
+
+	@Test
+	public void testMissingEntryFailsOnlyThatRead() throws Exception {
+		createPatient("A", "Simpson");
+		createPatient("B", "Flanders");
+
+		CompletableFuture<Patient> first = myClient.read().resource(Patient.class).withId("A").executeAsync();
+		CompletableFuture<Patient> missing = myClient.read().resource(Patient.class).withId("DOES-NOT-EXIST").executeAsync();
+		CompletableFuture<Patient> second = myClient.read().resource(Patient.class).withId("B").executeAsync();
+
+		assertEquals("Simpson", first.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertEquals("Flanders", second.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		ExecutionException e = assertThrows(ExecutionException.class, () -> missing.get(10, TimeUnit.SECONDS));
+		assertThat(e.getCause(), instanceOf(ResourceNotFoundException.class));
+		assertThat(e.getCause().getMessage(), containsString("Patient/DOES-NOT-EXIST is not known"));
+		assertEquals(1, ourSystemProvider.myBatchCount.get());
+	}
+
+	@Test
+	public void testSynchronousReadIsNotBatched() {
+		// A blocking read must not wait for the batch delay
+		myClient.setAutoBatching(50, 60000);
+		createPatient("A", "Simpson");
+
+		Patient patient = myClient.read().resource(Patient.class).withId("A").execute();
+
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertEquals(1, ourPatientProvider.myReadCount.get());
+		assertEquals(0, ourSystemProvider.myBatchCount.get());
+	}
+
+	@Test
+	public void testReadsAndSearchesAreBatchedTogether() throws Exception {
+		createPatient("A", "Simpson");
+		createPatient("B", "Flanders");
+
+		CompletableFuture<Bundle> search = myClient.search().forResource(Patient.class).returnBundle(Bundle.class).executeAsync();
+		CompletableFuture<Patient> read = myClient.read().resource(Patient.class).withId("B").executeAsync();
+
+		assertEquals(2, search.get(10, TimeUnit.SECONDS).getEntry().size());
+		assertEquals("Flanders", read.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertEquals(1, ourSystemProvider.myBatchCount.get());
+		assertEquals(0, ourPatientProvider.mySearchCount.get());
+	}
+
+	@Test
+	public void testFullBatchIsSentWithoutWaiting() throws Exception {
+		myClient.setAutoBatching(5, 60000);
+		List<CompletableFuture<Patient>> reads = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			createPatient("P" + i, "Family" + i);
+			reads.add(myClient.read().resource(Patient.class).withId("P" + i).executeAsync());
+		}
+
+		CompletableFuture.allOf(reads.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		assertEquals(2, ourSystemProvider.myBatchCount.get());
+	}
+
+	@Test
+	public void testReadWithCustomHeaderIsNotBatched() throws Exception {
+		createPatient("A", "Simpson");
+		createPatient("B", "Flanders");
+
+		CompletableFuture<Patient> first = myClient.read().resource(Patient.class).withId("A").withAdditionalHeader("X-Foo", "bar").executeAsync();
+		CompletableFuture<Patient> second = myClient.read().resource(Patient.class).withId("B").withAdditionalHeader("X-Foo", "bar").executeAsync();
+
+		assertEquals("Simpson", first.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertEquals("Flanders", second.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertEquals(2, ourPatientProvider.myReadCount.get());
+		assertEquals(0, ourSystemProvider.myBatchCount.get());
+	}
+
+	/**
+	 * Compares bursts of concurrent reads sent individually against the same bursts
+	 * sent as auto-batched reads, against the local test server
+	 */
+	@Test
+	@Disabled
+	public void testTimingsBurstOfReads() throws Exception {
+		int burstSize = 50;
+		int passes = 200;
+		for (int i = 0; i < burstSize; i++) {
+			createPatient("P" + i, "Family" + i);
+		}
+
+		for (int maxBatchSize : new int[]{1, burstSize}) {
+			myClient.setAutoBatching(maxBatchSize, 10);
+
+			// Warm up
+			for (int pass = 0; pass < passes / 10; pass++) {
+				readBurst(burstSize);
+			}
+
+			StopWatch sw = new StopWatch();
+			for (int pass = 0; pass < passes; pass++) {
+				readBurst(burstSize);
+			}
+			ourLog.info("Max batch size {} - {} bursts of {} reads - {} / burst", maxBatchSize, passes, burstSize, sw.formatMillisPerOperation(passes));
+		}
+	}
+
+	private void readBurst(int theBurstSize) throws Exception {
+		List<CompletableFuture<Patient>> reads = new ArrayList<>();
+		for (int i = 0; i < theBurstSize; i++) {
+			reads.add(myClient.read().resource(Patient.class).withId("P" + i).executeAsync());
+		}
+		CompletableFuture.allOf(reads.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+	}
+
+	private static void createPatient(String theId, String theFamily) {
+		Patient patient = new Patient();
+		patient.setId("Patient/" + theId);
+		patient.addName().setFamily(theFamily);
+		ourPatientProvider.myPatients.put(theId, patient);
+	}
+
+	public static class MyPatientProvider implements IResourceProvider {
+
+		private final Map<String, Patient> myPatients = new ConcurrentHashMap<>();
+		private final AtomicInteger myReadCount = new AtomicInteger();
+		private final AtomicInteger mySearchCount = new AtomicInteger();
+
+		@Override
+		public Class<? extends IBaseResource> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) {
+			myReadCount.incrementAndGet();
+			return doRead(theId.getIdPart());
+		}
+
+		@Search
+		public List<Patient> search() {
+			mySearchCount.incrementAndGet();
+			return new ArrayList<>(myPatients.values());
+		}
+
+		private Patient doRead(String theIdPart) {
+			Patient retVal = myPatients.get(theIdPart);
+			if (retVal == null) {
+				throw new ResourceNotFoundException(new IdType("Patient", theIdPart));
+			}
+			return retVal;
+		}
+
+	}
+
+	/**
+	 * Answers batch GET entries using the patient provider, the way a real server
+	 * would process a batch Bundle
+	 */
+	public static class MySystemProvider {
+
+		private final AtomicInteger myBatchCount = new AtomicInteger();
+
+		@Transaction
+		public Bundle transaction(@TransactionParam Bundle theInput) {
+			myBatchCount.incrementAndGet();
+			assertEquals(Bundle.BundleType.BATCH, theInput.getType());
+
+			Bundle retVal = new Bundle();
+			retVal.setType(Bundle.BundleType.BATCHRESPONSE);
+			for (Bundle.BundleEntryComponent next : theInput.getEntry()) {
+				assertEquals(Bundle.HTTPVerb.GET, next.getRequest().getMethod());
+				String url = next.getRequest().getUrl();
+				Bundle.BundleEntryComponent entry = retVal.addEntry();
+
+				if (url.startsWith("Patient?") || url.equals("Patient")) {
+					Bundle searchSet = new Bundle();
+					searchSet.setType(Bundle.BundleType.SEARCHSET);
+					ourPatientProvider.myPatients.values().forEach(t -> searchSet.addEntry().setResource(t));
+					entry.setResource(searchSet);
+					entry.getResponse().setStatus("200 OK");
+					continue;
+				}
+
+				try {
+					entry.setResource(ourPatientProvider.doRead(url.substring("Patient/".length())));
+					entry.getResponse().setStatus("200 OK");
+				} catch (ResourceNotFoundException e) {
+					OperationOutcome outcome = new OperationOutcome();
+					outcome.addIssue().setSeverity(OperationOutcome.IssueSeverity.ERROR).setDiagnostics(e.getMessage());
+					entry.getResponse().setStatus("404 Not Found");
+					entry.getResponse().setOutcome(outcome);
+				}
+			}
+			return retVal;
+		}
+
+	}
+
+}
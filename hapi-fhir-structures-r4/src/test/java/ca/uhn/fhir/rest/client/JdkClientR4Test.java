@@ -0,0 +1,214 @@
+package ca.uhn.fhir.rest.client;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.client.api.IClientInterceptor;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.rest.client.impl.GenericClient;
+import ca.uhn.fhir.rest.client.jdk.JdkRestfulClientFactory;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.test.utilities.server.HashMapResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JdkClientR4Test {
+
+	@RegisterExtension
+	@Order(0)
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(FhirContext.forR4Cached())
+		.registerProvider(new MyOperationProvider());
+	@RegisterExtension
+	@Order(1)
+	public static HashMapResourceProviderExtension<Patient> ourPatientProvider = new HashMapResourceProviderExtension<>(ourServer, Patient.class);
+	private final CountingInterceptor myCountingInterceptor = new CountingInterceptor();
+	private IGenericClient myClient;
+
+	@BeforeEach
+	public void before() {
+		FhirContext ctx = FhirContext.forR4();
+		JdkRestfulClientFactory clientFactory = new JdkRestfulClientFactory(ctx);
+		clientFactory.setServerValidationMode(ServerValidationModeEnum.NEVER);
+		ctx.setRestfulClientFactory(clientFactory);
+		myClient = ctx.newRestfulGenericClient(ourServer.getBaseUrl());
+		myClient.registerInterceptor(myCountingInterceptor);
+	}
+
+	@Test
+	public void testRead() throws Exception {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+
+		Patient syncPatient = myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		Patient asyncPatient = myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).executeAsync().get(10, TimeUnit.SECONDS);
+
+		assertEquals("Simpson", syncPatient.getNameFirstRep().getFamily());
+		assertEquals("Simpson", asyncPatient.getNameFirstRep().getFamily());
+		assertEquals(2, myCountingInterceptor.myRequestCount.get());
+		assertEquals(2, myCountingInterceptor.myResponseCount.get());
+	}
+
+	@Test
+	public void testReadAsyncNotModified() throws Exception {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+
+		Patient patient = myClient
+			.read()
+			.resource(Patient.class)
+			.withId(id.toUnqualifiedVersionless())
+			.ifVersionMatches(id.getVersionIdPart())
+			.returnNull()
+			.executeAsync()
+			.get(10, TimeUnit.SECONDS);
+
+		assertNull(patient);
+	}
+
+	@Test
+	public void testReadAsyncNotFound() {
+		CompletableFuture<Patient> future = myClient.read().resource(Patient.class).withId("Patient/DOES-NOT-EXIST").executeAsync();
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+		assertThat(e.getCause(), instanceOf(ResourceNotFoundException.class));
+	}
+
+	@Test
+	public void testConcurrentAsyncReadsAndSearch() throws Exception {
+		List<CompletableFuture<Patient>> reads = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			IIdType id = ourPatientProvider.store(newPatient("Family" + i));
+			reads.add(myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).executeAsync());
+		}
+		CompletableFuture<Bundle> search = myClient.search().forResource(Patient.class).returnBundle(Bundle.class).executeAsync();
+
+		CompletableFuture.allOf(reads.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		for (int i = 0; i < 20; i++) {
+			assertEquals("Family" + i, reads.get(i).get().getNameFirstRep().getFamily());
+		}
+		assertEquals(20, search.get(10, TimeUnit.SECONDS).getEntry().size());
+		assertEquals(21, myCountingInterceptor.myResponseCount.get());
+	}
+
+	@Test
+	public void testAsyncResponseIsHandledOnResponseExecutor() throws Exception {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+
+		AtomicInteger executions = new AtomicInteger();
+		Executor delegate = ((GenericClient) myClient).getAsyncResponseExecutor();
+		Executor executor = t -> {
+			executions.incrementAndGet();
+			delegate.execute(t);
+		};
+		((GenericClient) myClient).setAsyncResponseExecutor(executor);
+
+		Patient patient = myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).executeAsync().get(10, TimeUnit.SECONDS);
+
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	public void testAsyncResponseExecutorDefaultsToFactoryExecutor() throws Exception {
+		JdkRestfulClientFactory clientFactory = (JdkRestfulClientFactory) myClient.getFhirContext().getRestfulClientFactory();
+		Executor executor = ((GenericClient) myClient).getAsyncResponseExecutor();
+		assertSame(clientFactory.getAsyncExecutor(), executor);
+
+		String threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor).get(10, TimeUnit.SECONDS);
+		assertThat(threadName, startsWith("hapi-fhir-client-async-"));
+	}
+
+	@Test
+	public void testZeroTimeoutsAreTreatedAsUnset() throws Exception {
+		FhirContext ctx = FhirContext.forR4();
+		JdkRestfulClientFactory clientFactory = new JdkRestfulClientFactory(ctx);
+		clientFactory.setServerValidationMode(ServerValidationModeEnum.NEVER);
+		clientFactory.setConnectTimeout(0);
+		clientFactory.setSocketTimeout(0);
+		ctx.setRestfulClientFactory(clientFactory);
+		IGenericClient client = ctx.newRestfulGenericClient(ourServer.getBaseUrl());
+
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+
+		Patient syncPatient = client.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		Patient asyncPatient = client.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).executeAsync().get(10, TimeUnit.SECONDS);
+
+		assertEquals("Simpson", syncPatient.getNameFirstRep().getFamily());
+		assertEquals("Simpson", asyncPatient.getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void testOperationAsync() throws Exception {
+		Parameters outcome = myClient
+			.operation()
+			.onInstance(new IdType("Patient/123"))
+			.named("$echo-patient")
+			.withNoParameters(Parameters.class)
+			.executeAsync()
+			.get(10, TimeUnit.SECONDS);
+
+		// A non-Parameters response is wrapped the same way as for a synchronous invocation
+		Patient patient = (Patient) outcome.getParameterFirstRep().getResource();
+		assertEquals("123", patient.getIdElement().getIdPart());
+	}
+
+	private static Patient newPatient(String theFamily) {
+		Patient retVal = new Patient();
+		retVal.addName().setFamily(theFamily);
+		return retVal;
+	}
+
+	private static class CountingInterceptor implements IClientInterceptor {
+
+		private final AtomicInteger myRequestCount = new AtomicInteger();
+		private final AtomicInteger myResponseCount = new AtomicInteger();
+
+		@Override
+		public void interceptRequest(IHttpRequest theRequest) {
+			myRequestCount.incrementAndGet();
+		}
+
+		@Override
+		public void interceptResponse(IHttpResponse theResponse) {
+			myResponseCount.incrementAndGet();
+		}
+
+	}
+
+	public static class MyOperationProvider {
+
+		@Operation(name = "$echo-patient", idempotent = true, type = Patient.class)
+		public Patient echoPatient(@IdParam IdType theId) {
+			Patient retVal = new Patient();
+			retVal.setId(theId.toUnqualifiedVersionless());
+			return retVal;
+		}
+
+	}
+
+}
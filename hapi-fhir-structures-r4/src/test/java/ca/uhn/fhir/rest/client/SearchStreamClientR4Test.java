@@ -0,0 +1,146 @@
+package ca.uhn.fhir.rest.client;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.client.api.IClientInterceptor;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
+import ca.uhn.fhir.test.utilities.server.HashMapResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class SearchStreamClientR4Test {
+
+	@RegisterExtension
+	@Order(0)
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(FhirContext.forR4Cached())
+		.withPagingProvider(new FifoMemoryPagingProvider(10));
+	@RegisterExtension
+	@Order(1)
+	public static HashMapResourceProviderExtension<Patient> ourPatientProvider = new HashMapResourceProviderExtension<>(ourServer, Patient.class);
+	private final CountingInterceptor myCountingInterceptor = new CountingInterceptor();
+	private IGenericClient myClient;
+
+	@BeforeEach
+	public void before() {
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		myClient = ctx.newRestfulGenericClient(ourServer.getBaseUrl());
+		myClient.registerInterceptor(myCountingInterceptor);
+	}
+
+	@Test
+	public void testStreamFollowsAllPages() {
+		createPatients(25);
+
+		Set<String> families;
+		try (Stream<IBaseResource> stream = myClient.search().forResource(Patient.class).count(10).returnBundle(Bundle.class).stream()) {
+			families = stream.map(t -> ((Patient) t).getNameFirstRep().getFamily()).collect(Collectors.toSet());
+		}
+
+		assertEquals(25, families.size());
+		assertEquals(3, myCountingInterceptor.myRequestCount.get());
+	}
+
+	@Test
+	public void testIteratorWithoutPrefetchLoadsPagesLazily() {
+		createPatients(25);
+
+		Iterator<IBaseResource> iterator = myClient.search().forResource(Patient.class).count(10).returnBundle(Bundle.class).prefetchPages(0).iterator();
+		for (int i = 0; i < 10; i++) {
+			iterator.next();
+		}
+		assertEquals(1, myCountingInterceptor.myRequestCount.get());
+
+		Set<String> ids = new HashSet<>();
+		iterator.forEachRemaining(t -> ids.add(t.getIdElement().getIdPart()));
+		assertEquals(15, ids.size());
+		assertEquals(3, myCountingInterceptor.myRequestCount.get());
+	}
+
+	@Test
+	public void testIteratorPrefetchesPagesAhead() {
+		createPatients(35);
+
+		Iterator<IBaseResource> iterator = myClient.search().forResource(Patient.class).count(10).returnBundle(Bundle.class).prefetchPages(2).iterator();
+		iterator.next();
+
+		// The first page and the two following it are requested without consuming any further
+		await().until(() -> myCountingInterceptor.myResponseCount.get() == 3);
+
+		int count = 1;
+		while (iterator.hasNext()) {
+			iterator.next();
+			count++;
+		}
+		assertEquals(35, count);
+		assertEquals(4, myCountingInterceptor.myRequestCount.get());
+	}
+
+	@Test
+	public void testClosingStreamStopsPaging() {
+		createPatients(25);
+
+		List<IBaseResource> firstFive;
+		try (Stream<IBaseResource> stream = myClient.search().forResource(Patient.class).count(10).returnBundle(Bundle.class).prefetchPages(0).stream()) {
+			firstFive = stream.limit(5).collect(Collectors.toList());
+		}
+
+		assertEquals(5, firstFive.size());
+		assertEquals(1, myCountingInterceptor.myRequestCount.get());
+	}
+
+	@Test
+	public void testEmptyResults() {
+		Iterator<IBaseResource> iterator = myClient.search().forResource(Patient.class).returnBundle(Bundle.class).iterator();
+
+		assertFalse(iterator.hasNext());
+		assertEquals(1, myCountingInterceptor.myRequestCount.get());
+	}
+
+	private static void createPatients(int theCount) {
+		for (int i = 0; i < theCount; i++) {
+			Patient patient = new Patient();
+			patient.addName().setFamily("Family" + i);
+			ourPatientProvider.store(patient);
+		}
+	}
+
+	private static class CountingInterceptor implements IClientInterceptor {
+
+		private final AtomicInteger myRequestCount = new AtomicInteger();
+		private final AtomicInteger myResponseCount = new AtomicInteger();
+
+		@Override
+		public void interceptRequest(IHttpRequest theRequest) {
+			myRequestCount.incrementAndGet();
+		}
+
+		@Override
+		public void interceptResponse(IHttpResponse theResponse) {
+			myResponseCount.incrementAndGet();
+		}
+
+	}
+
+}
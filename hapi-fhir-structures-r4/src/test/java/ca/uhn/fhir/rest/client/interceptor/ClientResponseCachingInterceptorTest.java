@@ -0,0 +1,227 @@
+package ca.uhn.fhir.rest.client.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.test.utilities.server.HashMapResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ClientResponseCachingInterceptorTest {
+
+	@RegisterExtension
+	@Order(0)
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(FhirContext.forR4Cached());
+	@RegisterExtension
+	@Order(1)
+	public static HashMapResourceProviderExtension<Patient> ourPatientProvider = new HashMapResourceProviderExtension<>(ourServer, Patient.class);
+	private final IfNoneMatchCapturingInterceptor myServerInterceptor = new IfNoneMatchCapturingInterceptor();
+	private ClientResponseCachingInterceptor myInterceptor;
+	private IGenericClient myClient;
+
+	@BeforeEach
+	public void before() {
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		myClient = ctx.newRestfulGenericClient(ourServer.getBaseUrl());
+		myInterceptor = new ClientResponseCachingInterceptor();
+		myClient.registerInterceptor(myInterceptor);
+		ourServer.registerInterceptor(myServerInterceptor);
+	}
+
+	@AfterEach
+	public void after() {
+		ourServer.unregisterInterceptor(myServerInterceptor);
+	}
+
+	@Test
+	public void testUnchangedResourceIsServedFromCache() {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+
+		Patient first = myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		Patient second = myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+
+		assertEquals("Simpson", first.getNameFirstRep().getFamily());
+		assertEquals("Simpson", second.getNameFirstRep().getFamily());
+		assertEquals(id.getIdPart(), second.getIdElement().getIdPart());
+		assertEquals("1", second.getIdElement().getVersionIdPart());
+		assertNull(myServerInterceptor.myIfNoneMatchValues.get(0));
+		assertEquals("W/\"1\"", myServerInterceptor.myIfNoneMatchValues.get(1));
+		assertEquals(1, myInterceptor.getHitCount());
+		assertEquals(1, myInterceptor.getMissCount());
+		assertEquals(0.5, myInterceptor.getHitRatio());
+		assertEquals(1, myInterceptor.getCacheEntryCount());
+	}
+
+	@Test
+	public void testUnchangedResourceIsServedFromCacheAsync() throws Exception {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+
+		myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		Patient patient = myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).executeAsync().get(10, TimeUnit.SECONDS);
+
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertEquals(1, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testModifiedResourceReplacesCachedResponse() {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+		myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+
+		Patient updated = newPatient("Flanders");
+		updated.setId(id.toUnqualifiedVersionless());
+		ourPatientProvider.store(updated);
+
+		Patient patient = myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		assertEquals("Flanders", patient.getNameFirstRep().getFamily());
+		assertEquals(0, myInterceptor.getHitCount());
+		assertEquals(2, myInterceptor.getMissCount());
+
+		patient = myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		assertEquals("Flanders", patient.getNameFirstRep().getFamily());
+		assertEquals("W/\"2\"", myServerInterceptor.myIfNoneMatchValues.get(2));
+		assertEquals(1, myInterceptor.getHitCount());
+		assertEquals(1, myInterceptor.getCacheEntryCount());
+	}
+
+	@Test
+	public void testCallerConditionalReadIsNotCached() {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+
+		Patient patient = myClient
+			.read()
+			.resource(Patient.class)
+			.withId(id.toUnqualifiedVersionless())
+			.ifVersionMatches(id.getVersionIdPart())
+			.returnNull()
+			.execute();
+
+		assertNull(patient);
+		assertEquals(0, myInterceptor.getHitCount());
+		assertEquals(0, myInterceptor.getMissCount());
+		assertEquals(0, myInterceptor.getCacheEntryCount());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedResponseIsEvicted() {
+		IIdType id1 = ourPatientProvider.store(newPatient("Simpson"));
+		IIdType id2 = ourPatientProvider.store(newPatient("Flanders"));
+
+		myClient.read().resource(Patient.class).withId(id1.toUnqualifiedVersionless()).execute();
+		long firstSize = myInterceptor.getCacheSizeBytes();
+		myInterceptor.setMaximumCacheSizeBytes(firstSize + 10);
+		myClient.read().resource(Patient.class).withId(id2.toUnqualifiedVersionless()).execute();
+
+		assertEquals(1, myInterceptor.getCacheEntryCount());
+		assertEquals(1, myInterceptor.getEvictionCount());
+
+		// The first response was evicted, so it is downloaded again
+		myClient.read().resource(Patient.class).withId(id1.toUnqualifiedVersionless()).execute();
+		assertEquals(0, myInterceptor.getHitCount());
+		assertEquals(3, myInterceptor.getMissCount());
+	}
+
+	@Test
+	public void testCachedResponseIsNotSharedBetweenCredentials() {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		IGenericClient clientA = ctx.newRestfulGenericClient(ourServer.getBaseUrl());
+		clientA.registerInterceptor(new BearerTokenAuthInterceptor("TOKEN-A"));
+		clientA.registerInterceptor(myInterceptor);
+		IGenericClient clientB = ctx.newRestfulGenericClient(ourServer.getBaseUrl());
+		clientB.registerInterceptor(new BearerTokenAuthInterceptor("TOKEN-B"));
+		clientB.registerInterceptor(myInterceptor);
+
+		clientA.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		clientB.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+
+		// The second caller is not revalidated against the first caller's response
+		assertNull(myServerInterceptor.myIfNoneMatchValues.get(1));
+		assertEquals(0, myInterceptor.getHitCount());
+		assertEquals(2, myInterceptor.getCacheEntryCount());
+
+		clientA.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		assertEquals("W/\"1\"", myServerInterceptor.myIfNoneMatchValues.get(2));
+		assertEquals(1, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testIdentityFunctionReturningNullDisablesCaching() {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+		myInterceptor.setIdentityFunction(t -> null);
+
+		myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+
+		assertNull(myServerInterceptor.myIfNoneMatchValues.get(1));
+		assertEquals(0, myInterceptor.getCacheEntryCount());
+	}
+
+	@Test
+	public void testPrivateResponseIsNotCached() {
+		IIdType id = ourPatientProvider.store(newPatient("Simpson"));
+		CacheControlPrivateInterceptor cacheControlInterceptor = new CacheControlPrivateInterceptor();
+		ourServer.registerInterceptor(cacheControlInterceptor);
+		try {
+			myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+			myClient.read().resource(Patient.class).withId(id.toUnqualifiedVersionless()).execute();
+		} finally {
+			ourServer.unregisterInterceptor(cacheControlInterceptor);
+		}
+
+		assertNull(myServerInterceptor.myIfNoneMatchValues.get(1));
+		assertEquals(0, myInterceptor.getHitCount());
+		assertEquals(0, myInterceptor.getCacheEntryCount());
+	}
+
+	private static Patient newPatient(String theFamily) {
+		Patient retVal = new Patient();
+		retVal.addName().setFamily(theFamily);
+		return retVal;
+	}
+
+	@Interceptor
+	public static class CacheControlPrivateInterceptor {
+
+		@Hook(Pointcut.SERVER_OUTGOING_RESPONSE)
+		public void outgoingResponse(HttpServletResponse theServletResponse) {
+			theServletResponse.setHeader(Constants.HEADER_CACHE_CONTROL, Constants.CACHE_CONTROL_PRIVATE);
+		}
+
+	}
+
+	@Interceptor
+	public static class IfNoneMatchCapturingInterceptor {
+
+		private final List<String> myIfNoneMatchValues = new ArrayList<>();
+
+		@Hook(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED)
+		public void incomingRequest(RequestDetails theRequestDetails) {
+			myIfNoneMatchValues.add(theRequestDetails.getHeader(Constants.HEADER_IF_NONE_MATCH));
+		}
+
+	}
+
+}
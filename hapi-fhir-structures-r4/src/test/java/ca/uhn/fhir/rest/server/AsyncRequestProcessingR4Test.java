@@ -0,0 +1,149 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.IAnonymousInterceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.test.utilities.server.ResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncRequestProcessingR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	@RegisterExtension
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx);
+	private final MyPatientProvider myPatientProvider = new MyPatientProvider();
+	@RegisterExtension
+	public ResourceProviderExtension<MyPatientProvider> myPatientProviderExtension = new ResourceProviderExtension<>(ourServer, myPatientProvider);
+	private ExecutorService myExecutor;
+
+	@BeforeEach
+	public void before() {
+		AtomicInteger counter = new AtomicInteger();
+		myExecutor = Executors.newFixedThreadPool(2, r -> new Thread(r, "async-request-test-" + counter.incrementAndGet()));
+		ourServer.getRestfulServer().setAsyncRequestExecutor(myExecutor);
+	}
+
+	@AfterEach
+	public void after() {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(null);
+		ourServer.getRestfulServer().setAsyncRequestTimeoutMillis(RestfulServer.DEFAULT_ASYNC_REQUEST_TIMEOUT_MILLIS);
+		myPatientProvider.myReleaseLatch.countDown();
+		myExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testReadProcessedOnExecutor() {
+		AtomicReference<String> completedThreadName = new AtomicReference<>();
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> completedThreadName.set(Thread.currentThread().getName());
+		ourServer.registerAnonymousInterceptor(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, interceptor);
+		try {
+			Patient patient = ourServer.getFhirClient().read().resource(Patient.class).withId("123").execute();
+			assertEquals("Patient/123", patient.getIdElement().toUnqualifiedVersionless().getValue());
+			assertThat(myPatientProvider.myReadThreadName.get(), startsWith("async-request-test-"));
+			await().until(() -> completedThreadName.get() != null);
+			assertThat(completedThreadName.get(), startsWith("async-request-test-"));
+		} finally {
+			ourServer.unregisterInterceptor(interceptor);
+		}
+	}
+
+	@Test
+	public void testExceptionProcessedOnExecutor() {
+		assertThrows(ResourceNotFoundException.class, () -> ourServer.getFhirClient().read().resource(Patient.class).withId("missing").execute());
+		assertThat(myPatientProvider.myReadThreadName.get(), startsWith("async-request-test-"));
+	}
+
+	@Test
+	public void testTimeout() {
+		ourServer.getRestfulServer().setAsyncRequestTimeoutMillis(500);
+
+		BaseServerResponseException e = assertThrows(BaseServerResponseException.class, () -> ourServer.getFhirClient().read().resource(Patient.class).withId("slow").execute());
+		assertEquals(503, e.getStatusCode());
+
+		// The thread processing the request should have been interrupted
+		await().until(() -> myPatientProvider.myInterrupted.get());
+	}
+
+	@Test
+	public void testRejectedRequestIsProcessedOnContainerThread() {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(r -> {
+			throw new RejectedExecutionException();
+		});
+
+		Patient patient = ourServer.getFhirClient().read().resource(Patient.class).withId("123").execute();
+		assertEquals("Patient/123", patient.getIdElement().toUnqualifiedVersionless().getValue());
+		assertFalse(myPatientProvider.myReadThreadName.get().startsWith("async-request-test-"));
+	}
+
+	@Test
+	public void testSynchronousWhenNoExecutor() {
+		ourServer.getRestfulServer().setAsyncRequestExecutor(null);
+
+		Patient patient = ourServer.getFhirClient().read().resource(Patient.class).withId("123").execute();
+		assertTrue(patient.hasId());
+		assertFalse(myPatientProvider.myReadThreadName.get().startsWith("async-request-test-"));
+	}
+
+	public static class MyPatientProvider implements IResourceProvider {
+
+		private final AtomicReference<String> myReadThreadName = new AtomicReference<>();
+		private final AtomicBoolean myInterrupted = new AtomicBoolean();
+		private final CountDownLatch myReleaseLatch = new CountDownLatch(1);
+
+		@Override
+		public Class<? extends IBaseResource> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) throws InterruptedException {
+			myReadThreadName.set(Thread.currentThread().getName());
+			switch (theId.getIdPart()) {
+				case "missing":
+					throw new ResourceNotFoundException(theId);
+				case "slow":
+					try {
+						myReleaseLatch.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						myInterrupted.set(true);
+						throw e;
+					}
+					break;
+			}
+			Patient retVal = new Patient();
+			retVal.setId(theId);
+			retVal.setActive(true);
+			return retVal;
+		}
+
+	}
+
+}
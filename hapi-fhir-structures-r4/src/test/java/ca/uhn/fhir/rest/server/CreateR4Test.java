@@ -15,6 +15,7 @@ import ca.uhn.fhir.test.utilities.JettyUtil;
 import ca.uhn.fhir.util.TestUtil;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
@@ -63,6 +64,7 @@ public class CreateR4Test {
 	@AfterEach
 	public void after() {
 		ourServlet.setDefaultPreferReturn(RestfulServer.DEFAULT_PREFER_RETURN);
+		ourServlet.setStreamIncomingContents(false);
 	}
 
 	@BeforeEach
@@ -90,6 +92,36 @@ public class CreateR4Test {
 
 	}
 
+	@Test
+	public void testCreateWithStreamedContents() throws Exception {
+		ourServlet.setStreamIncomingContents(true);
+
+		HttpPost httpPost = new HttpPost("http://localhost:" + ourPort + "/Patient");
+		httpPost.setEntity(new StringEntity("{\"resourceType\":\"Patient\", \"active\":true}", ContentType.parse("application/fhir+json; charset=utf-8")));
+		try (CloseableHttpResponse status = ourClient.execute(httpPost)) {
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			ourLog.info("Response was:\n{}", responseContent);
+
+			assertEquals(201, status.getStatusLine().getStatusCode());
+			assertThat(responseContent, containsString("\"active\":true"));
+		}
+	}
+
+	@Test
+	public void testCreateWithStreamedCompressedContents() throws Exception {
+		ourServlet.setStreamIncomingContents(true);
+
+		HttpPost httpPost = new HttpPost("http://localhost:" + ourPort + "/Patient");
+		httpPost.setEntity(new GzipCompressingEntity(new StringEntity("{\"resourceType\":\"Patient\", \"active\":true}", ContentType.parse("application/fhir+json; charset=utf-8"))));
+		try (CloseableHttpResponse status = ourClient.execute(httpPost)) {
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			ourLog.info("Response was:\n{}", responseContent);
+
+			assertEquals(201, status.getStatusLine().getStatusCode());
+			assertThat(responseContent, containsString("\"active\":true"));
+		}
+	}
+
 	@Test
 	public void testCreateFailsIfNoContentTypeProvided() throws Exception {
 
@@ -0,0 +1,297 @@
+package ca.uhn.fhir.rest.server.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import ca.uhn.fhir.test.utilities.server.ResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitingInterceptorTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	@RegisterExtension
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx);
+	private final MyPatientProvider myPatientProvider = new MyPatientProvider();
+	@RegisterExtension
+	public ResourceProviderExtension<MyPatientProvider> myPatientProviderExtension = new ResourceProviderExtension<>(ourServer, myPatientProvider);
+	private AdaptiveConcurrencyLimitingInterceptor myInterceptor;
+	private ExecutorService myExecutor;
+
+	@BeforeEach
+	public void before() {
+		myInterceptor = new AdaptiveConcurrencyLimitingInterceptor();
+		myInterceptor.setInitialLimit(1);
+		myInterceptor.setMaximumLimit(1);
+		ourServer.registerInterceptor(myInterceptor);
+		myExecutor = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterEach
+	public void after() {
+		ourServer.unregisterInterceptor(myInterceptor);
+		myPatientProvider.myReleaseLatch.countDown();
+		myExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testRejectWhenQueueFull() throws Exception {
+		myInterceptor.setMaximumQueueSize(0);
+
+		Future<Integer> first = myExecutor.submit(() -> get("Patient/slow"));
+		await().until(() -> myPatientProvider.myReadCount.get() == 1);
+
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient/slow");
+		try (CloseableHttpResponse status = ourServer.getHttpClient().execute(httpGet)) {
+			assertEquals(429, status.getStatusLine().getStatusCode());
+			assertEquals("5", status.getFirstHeader(Constants.HEADER_RETRY_AFTER).getValue());
+		}
+
+		myPatientProvider.myReleaseLatch.countDown();
+		assertEquals(200, first.get(10, TimeUnit.SECONDS));
+
+		AdaptiveConcurrencyLimitingInterceptor.LimiterMetrics metrics = getOnlyMetrics();
+		assertEquals(RestOperationTypeEnum.READ, metrics.getOperationType());
+		assertEquals(1, metrics.getAcceptedCount());
+		assertEquals(1, metrics.getRejectedQueueFullCount());
+		assertEquals(0, metrics.getInFlight());
+	}
+
+	@Test
+	public void testRejectWhenQueueWaitExpires() throws Exception {
+		myInterceptor.setMaximumQueueSize(1);
+		myInterceptor.setMaximumQueueWaitMillis(200);
+		myInterceptor.setRetryAfterSeconds(2);
+
+		Future<Integer> first = myExecutor.submit(() -> get("Patient/slow"));
+		await().until(() -> myPatientProvider.myReadCount.get() == 1);
+
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/Patient/slow");
+		try (CloseableHttpResponse status = ourServer.getHttpClient().execute(httpGet)) {
+			assertEquals(503, status.getStatusLine().getStatusCode());
+			assertEquals("2", status.getFirstHeader(Constants.HEADER_RETRY_AFTER).getValue());
+		}
+
+		myPatientProvider.myReleaseLatch.countDown();
+		assertEquals(200, first.get(10, TimeUnit.SECONDS));
+		assertEquals(1, getOnlyMetrics().getRejectedTimedOutCount());
+	}
+
+	@Test
+	public void testQueuedRequestProceedsWhenPermitReleased() throws Exception {
+		myInterceptor.setMaximumQueueSize(1);
+
+		Future<Integer> first = myExecutor.submit(() -> get("Patient/slow"));
+		await().until(() -> myPatientProvider.myReadCount.get() == 1);
+		Future<Integer> second = myExecutor.submit(() -> get("Patient/slow"));
+		await().until(() -> getOnlyMetrics().getQueued() == 1);
+		assertEquals(1, myPatientProvider.myReadCount.get());
+
+		myPatientProvider.myReleaseLatch.countDown();
+
+		assertEquals(200, first.get(10, TimeUnit.SECONDS));
+		assertEquals(200, second.get(10, TimeUnit.SECONDS));
+		assertEquals(2, myPatientProvider.myReadCount.get());
+		assertEquals(2, getOnlyMetrics().getAcceptedCount());
+	}
+
+	@Test
+	public void testEachOperationTypeHasItsOwnBulkhead() throws Exception {
+		myInterceptor.setMaximumQueueSize(0);
+
+		Future<Integer> first = myExecutor.submit(() -> get("Patient/slow"));
+		await().until(() -> myPatientProvider.myReadCount.get() == 1);
+
+		// The read class is full, but searches are limited separately
+		assertEquals(200, get("Patient"));
+
+		myPatientProvider.myReleaseLatch.countDown();
+		assertEquals(200, first.get(10, TimeUnit.SECONDS));
+		assertEquals(2, myInterceptor.getLimiterMetrics().size());
+	}
+
+	@Test
+	public void testNumberOfLimitersIsBounded() {
+		myInterceptor.setLimitPerTenant(true);
+		myInterceptor.setMaximumLimiterCount(2);
+
+		ServletRequestDetails requestA = newReadRequest("A");
+		ServletRequestDetails requestB = newReadRequest("B");
+		ServletRequestDetails requestC = newReadRequest("C");
+		myInterceptor.incomingRequestPostProcessed(requestA);
+		myInterceptor.incomingRequestPostProcessed(requestB);
+
+		// No limiter is idle, so tenant C shares the limits for all tenants
+		myInterceptor.incomingRequestPostProcessed(requestC);
+		List<AdaptiveConcurrencyLimitingInterceptor.LimiterMetrics> metrics = myInterceptor.getLimiterMetrics();
+		assertEquals(3, metrics.size());
+		assertThat(metrics.stream().map(AdaptiveConcurrencyLimitingInterceptor.LimiterMetrics::getTenantId).collect(Collectors.toList()), containsInAnyOrder("A", "B", null));
+
+		// Idle limiters are discarded to make room for a new tenant
+		myInterceptor.processingCompleted(requestA);
+		myInterceptor.processingCompleted(requestB);
+		myInterceptor.processingCompleted(requestC);
+		myInterceptor.incomingRequestPostProcessed(newReadRequest("D"));
+		metrics = myInterceptor.getLimiterMetrics();
+		assertEquals(1, metrics.size());
+		assertEquals("D", metrics.get(0).getTenantId());
+	}
+
+	@Test
+	public void testLimitAdaptsToLatency() {
+		AdaptiveConcurrencyLimitingInterceptor.Limiter limiter = new AdaptiveConcurrencyLimitingInterceptor.Limiter(RestOperationTypeEnum.READ, null, null, 10, 1, 100);
+
+		// Fast requests while the limit is fully used let the limit grow
+		for (int i = 0; i < 100; i++) {
+			fill(limiter);
+			limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true, 2.0, 0.5);
+		}
+		fill(limiter);
+		int limitAfterFastRequests = limiter.getLimit();
+		assertThat(limitAfterFastRequests, greaterThan(10));
+
+		// Sustained latency well above the baseline while saturated backs the limit off
+		for (int i = 0; i < 10; i++) {
+			fill(limiter);
+			limiter.release(TimeUnit.MILLISECONDS.toNanos(200), true, 2.0, 0.5);
+		}
+		assertThat(limiter.getLimit(), lessThan(limitAfterFastRequests));
+		assertEquals(1, limiter.getLimit());
+	}
+
+	@Test
+	public void testMixedLatenciesDoNotShrinkLimit() {
+		long[] latencies = {5, 50, 200, 10, 5, 120, 15, 8, 300, 20};
+
+		// At a concurrency of 1 the class is never saturated, so latency variance must not matter
+		AdaptiveConcurrencyLimitingInterceptor.Limiter limiter = new AdaptiveConcurrencyLimitingInterceptor.Limiter(RestOperationTypeEnum.READ, null, null, 10, 1, 100);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(AdaptiveConcurrencyLimitingInterceptor.Limiter.AcquireOutcome.ACQUIRED, limiter.acquire(0, 0));
+			limiter.release(TimeUnit.MILLISECONDS.toNanos(latencies[i % latencies.length]), true, 2.0, 0.9);
+		}
+		assertEquals(10, limiter.getLimit());
+
+		// While saturated, ordinary variance around a stable average must not shrink the limit either
+		long[] stableLatencies = {5, 10, 25, 15, 20, 10, 25, 5};
+		limiter = new AdaptiveConcurrencyLimitingInterceptor.Limiter(RestOperationTypeEnum.READ, null, null, 10, 1, 100);
+		for (int i = 0; i < 1000; i++) {
+			fill(limiter);
+			limiter.release(TimeUnit.MILLISECONDS.toNanos(stableLatencies[i % stableLatencies.length]), true, 2.0, 0.9);
+		}
+		assertThat(limiter.getLimit(), greaterThan(10));
+	}
+
+	@Test
+	public void testFailedRequestsAreNotLatencySamples() {
+		AdaptiveConcurrencyLimitingInterceptor.Limiter limiter = new AdaptiveConcurrencyLimitingInterceptor.Limiter(RestOperationTypeEnum.READ, null, null, 10, 1, 100);
+		fill(limiter);
+		limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true, 2.0, 0.5);
+
+		for (int i = 0; i < 10; i++) {
+			fill(limiter);
+			limiter.release(TimeUnit.SECONDS.toNanos(30), false, 2.0, 0.5);
+		}
+		assertEquals(10, limiter.getLimit());
+		assertEquals(10, limiter.toMetrics().getBaselineLatencyMillis());
+	}
+
+	@Test
+	public void testRetiredLimiterRefusesRequests() {
+		AdaptiveConcurrencyLimitingInterceptor.Limiter limiter = new AdaptiveConcurrencyLimitingInterceptor.Limiter(RestOperationTypeEnum.READ, null, null, 10, 1, 100);
+
+		// A limiter with a request in progress can not be retired
+		assertEquals(AdaptiveConcurrencyLimitingInterceptor.Limiter.AcquireOutcome.ACQUIRED, limiter.acquire(0, 0));
+		assertFalse(limiter.retireIfIdle());
+		limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true, 2.0, 0.9);
+
+		// Once retired, a request which looked the limiter up before it was discarded must not be admitted by it
+		assertTrue(limiter.retireIfIdle());
+		assertEquals(AdaptiveConcurrencyLimitingInterceptor.Limiter.AcquireOutcome.RETIRED, limiter.acquire(0, 0));
+		assertEquals(0, limiter.toMetrics().getInFlight());
+	}
+
+	private void fill(AdaptiveConcurrencyLimitingInterceptor.Limiter theLimiter) {
+		while (theLimiter.acquire(0, 0) == AdaptiveConcurrencyLimitingInterceptor.Limiter.AcquireOutcome.ACQUIRED) {
+			// keep acquiring until the limit is reached
+		}
+	}
+
+	private AdaptiveConcurrencyLimitingInterceptor.LimiterMetrics getOnlyMetrics() {
+		List<AdaptiveConcurrencyLimitingInterceptor.LimiterMetrics> metrics = myInterceptor.getLimiterMetrics();
+		assertEquals(1, metrics.size());
+		return metrics.get(0);
+	}
+
+	private static ServletRequestDetails newReadRequest(String theTenantId) {
+		ServletRequestDetails retVal = new ServletRequestDetails();
+		retVal.setRestOperationType(RestOperationTypeEnum.READ);
+		retVal.setTenantId(theTenantId);
+		return retVal;
+	}
+
+	private int get(String thePath) throws Exception {
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/" + thePath);
+		try (CloseableHttpResponse status = ourServer.getHttpClient().execute(httpGet)) {
+			return status.getStatusLine().getStatusCode();
+		}
+	}
+
+	public static class MyPatientProvider implements IResourceProvider {
+
+		private final AtomicInteger myReadCount = new AtomicInteger();
+		private final CountDownLatch myReleaseLatch = new CountDownLatch(1);
+
+		@Override
+		public Class<? extends IBaseResource> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) throws InterruptedException {
+			myReadCount.incrementAndGet();
+			myReleaseLatch.await(10, TimeUnit.SECONDS);
+			Patient retVal = new Patient();
+			retVal.setId(theId);
+			return retVal;
+		}
+
+		@Search
+		public List<Patient> search() {
+			return Collections.emptyList();
+		}
+
+	}
+
+}
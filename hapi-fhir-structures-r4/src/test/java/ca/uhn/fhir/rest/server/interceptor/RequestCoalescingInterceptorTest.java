@@ -0,0 +1,207 @@
+package ca.uhn.fhir.rest.server.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.IAnonymousInterceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.exceptions.ForbiddenOperationException;
+import ca.uhn.fhir.test.utilities.server.ResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RequestCoalescingInterceptorTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	@RegisterExtension
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx);
+	private final MyPatientProvider myPatientProvider = new MyPatientProvider();
+	@RegisterExtension
+	public ResourceProviderExtension<MyPatientProvider> myPatientProviderExtension = new ResourceProviderExtension<>(ourServer, myPatientProvider);
+	private RequestCoalescingInterceptor myInterceptor;
+	private ExecutorService myExecutor;
+
+	@BeforeEach
+	public void before() {
+		myInterceptor = new RequestCoalescingInterceptor();
+		ourServer.registerInterceptor(myInterceptor);
+		myExecutor = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterEach
+	public void after() {
+		ourServer.unregisterInterceptor(myInterceptor);
+		myPatientProvider.myReleaseLatch.countDown();
+		myExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testIdenticalConcurrentReadsAreCoalesced() throws Exception {
+		Future<Response> first = myExecutor.submit(() -> get("Patient/123", null));
+		await().until(() -> myPatientProvider.myReadCount.get() == 1);
+		Future<Response> second = myExecutor.submit(() -> get("Patient/123", null));
+		await().until(() -> myInterceptor.getWaitingCount() == 1);
+
+		myPatientProvider.myReleaseLatch.countDown();
+
+		Response firstResponse = first.get(10, TimeUnit.SECONDS);
+		Response secondResponse = second.get(10, TimeUnit.SECONDS);
+		assertEquals(200, firstResponse.myStatus);
+		assertEquals(200, secondResponse.myStatus);
+		assertEquals(firstResponse.myBody, secondResponse.myBody);
+		assertEquals(firstResponse.myContentType, secondResponse.myContentType);
+		assertThat(secondResponse.myBody, containsString("\"id\":\"123\""));
+		assertEquals(1, myPatientProvider.myReadCount.get());
+		assertEquals(1, myInterceptor.getExecutedCount());
+		assertEquals(1, myInterceptor.getCoalescedCount());
+	}
+
+	@Test
+	public void testDifferentIdentityIsNotCoalesced() throws Exception {
+		Future<Response> first = myExecutor.submit(() -> get("Patient/123", "Bearer A"));
+		Future<Response> second = myExecutor.submit(() -> get("Patient/123", "Bearer B"));
+		await().until(() -> myPatientProvider.myReadCount.get() == 2);
+
+		myPatientProvider.myReleaseLatch.countDown();
+
+		assertEquals(200, first.get(10, TimeUnit.SECONDS).myStatus);
+		assertEquals(200, second.get(10, TimeUnit.SECONDS).myStatus);
+		assertEquals(0, myInterceptor.getCoalescedCount());
+	}
+
+	@Test
+	public void testNotCoalescedWhenResourceFilteringInterceptorRegistered() throws Exception {
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> {
+		};
+		ourServer.registerAnonymousInterceptor(Pointcut.STORAGE_PRESHOW_RESOURCES, interceptor);
+		try {
+			Future<Response> first = myExecutor.submit(() -> get("Patient/123", null));
+			Future<Response> second = myExecutor.submit(() -> get("Patient/123", null));
+			await().until(() -> myPatientProvider.myReadCount.get() == 2);
+
+			myPatientProvider.myReleaseLatch.countDown();
+
+			assertEquals(200, first.get(10, TimeUnit.SECONDS).myStatus);
+			assertEquals(200, second.get(10, TimeUnit.SECONDS).myStatus);
+			assertEquals(0, myInterceptor.getCoalescedCount());
+		} finally {
+			ourServer.unregisterInterceptor(interceptor);
+		}
+	}
+
+	@Test
+	public void testPreHandledInvokedForCoalescedRequest() throws Exception {
+		AtomicInteger preHandledCount = new AtomicInteger();
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> {
+			// Reject the second caller only
+			if (preHandledCount.incrementAndGet() > 1) {
+				throw new ForbiddenOperationException("Access denied");
+			}
+		};
+		ourServer.registerAnonymousInterceptor(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED, interceptor);
+		try {
+			Future<Response> first = myExecutor.submit(() -> get("Patient/123", null));
+			await().until(() -> myPatientProvider.myReadCount.get() == 1);
+			Future<Response> second = myExecutor.submit(() -> get("Patient/123", null));
+			await().until(() -> myInterceptor.getWaitingCount() == 1);
+
+			myPatientProvider.myReleaseLatch.countDown();
+
+			assertEquals(200, first.get(10, TimeUnit.SECONDS).myStatus);
+			assertEquals(403, second.get(10, TimeUnit.SECONDS).myStatus);
+			assertEquals(2, preHandledCount.get());
+			assertEquals(1, myPatientProvider.myReadCount.get());
+		} finally {
+			ourServer.unregisterInterceptor(interceptor);
+		}
+	}
+
+	@Test
+	public void testProcessingCompletedNormallyInvokedForCoalescedRequest() throws Exception {
+		AtomicInteger completedCount = new AtomicInteger();
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> completedCount.incrementAndGet();
+		ourServer.registerAnonymousInterceptor(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, interceptor);
+		try {
+			Future<Response> first = myExecutor.submit(() -> get("Patient/123", null));
+			await().until(() -> myPatientProvider.myReadCount.get() == 1);
+			Future<Response> second = myExecutor.submit(() -> get("Patient/123", null));
+			await().until(() -> myInterceptor.getWaitingCount() == 1);
+
+			myPatientProvider.myReleaseLatch.countDown();
+
+			assertEquals(200, first.get(10, TimeUnit.SECONDS).myStatus);
+			assertEquals(200, second.get(10, TimeUnit.SECONDS).myStatus);
+			await().until(() -> completedCount.get() == 2);
+			assertEquals(1, myInterceptor.getCoalescedCount());
+		} finally {
+			ourServer.unregisterInterceptor(interceptor);
+		}
+	}
+
+	private Response get(String thePath, String theAuthorization) throws Exception {
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/" + thePath);
+		if (theAuthorization != null) {
+			httpGet.addHeader(Constants.HEADER_AUTHORIZATION, theAuthorization);
+		}
+		try (CloseableHttpResponse status = ourServer.getHttpClient().execute(httpGet)) {
+			Response retVal = new Response();
+			retVal.myStatus = status.getStatusLine().getStatusCode();
+			retVal.myContentType = status.getEntity().getContentType().getValue();
+			retVal.myBody = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			return retVal;
+		}
+	}
+
+	private static class Response {
+		private int myStatus;
+		private String myContentType;
+		private String myBody;
+	}
+
+	public static class MyPatientProvider implements IResourceProvider {
+
+		private final AtomicInteger myReadCount = new AtomicInteger();
+		private final CountDownLatch myReleaseLatch = new CountDownLatch(1);
+
+		@Override
+		public Class<? extends IBaseResource> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) throws InterruptedException {
+			myReadCount.incrementAndGet();
+			myReleaseLatch.await(10, TimeUnit.SECONDS);
+			Patient retVal = new Patient();
+			retVal.setId(theId);
+			retVal.setActive(true);
+			return retVal;
+		}
+
+	}
+
+}
@@ -0,0 +1,226 @@
+package ca.uhn.fhir.rest.server.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.IAnonymousInterceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.test.utilities.server.HashMapResourceProviderExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ResponseCachingInterceptorTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	@RegisterExtension
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx);
+	@RegisterExtension
+	public HashMapResourceProviderExtension<Patient> myPatientProvider = new HashMapResourceProviderExtension<>(ourServer, Patient.class);
+	private ResponseCachingInterceptor myInterceptor;
+	private IIdType myPatientId;
+
+	@BeforeEach
+	public void before() {
+		myInterceptor = new ResponseCachingInterceptor();
+		ourServer.registerInterceptor(myInterceptor);
+
+		Patient patient = new Patient();
+		patient.setActive(true);
+		patient.addName().setFamily("Simpson");
+		myPatientId = ourServer.getFhirClient().create().resource(patient).execute().getId().toUnqualifiedVersionless();
+		myPatientProvider.clearCounts();
+	}
+
+	@AfterEach
+	public void after() {
+		ourServer.unregisterInterceptor(myInterceptor);
+	}
+
+	@Test
+	public void testReadIsCached() throws IOException {
+		Response first = get("/" + myPatientId.getValue(), null);
+		Response second = get("/" + myPatientId.getValue(), null);
+
+		assertEquals(200, second.myStatus);
+		assertEquals(first.myBody, second.myBody);
+		assertEquals(first.myContentType, second.myContentType);
+		assertEquals(first.myETag, second.myETag);
+		assertEquals("W/\"1\"", second.myETag);
+		assertEquals(1, myPatientProvider.getCountRead());
+		assertEquals(1, myInterceptor.getMissCount());
+		assertEquals(1, myInterceptor.getHitCount());
+		assertEquals(1, myInterceptor.getEntryCount());
+	}
+
+	@Test
+	public void testIfNoneMatchReturnsNotModified() throws IOException {
+		get("/" + myPatientId.getValue(), null);
+
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + "/" + myPatientId.getValue());
+		httpGet.addHeader(Constants.HEADER_IF_NONE_MATCH, "W/\"1\"");
+		try (CloseableHttpResponse status = ourServer.getHttpClient().execute(httpGet)) {
+			assertEquals(304, status.getStatusLine().getStatusCode());
+		}
+
+		assertEquals(1, myPatientProvider.getCountRead());
+		assertEquals(1, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testUpdateInvalidatesCachedResponse() throws IOException {
+		get("/" + myPatientId.getValue(), null);
+
+		Patient patient = new Patient();
+		patient.setId(myPatientId);
+		patient.setActive(false);
+		ourServer.getFhirClient().update().resource(patient).execute();
+		assertEquals(0, myInterceptor.getEntryCount());
+
+		Response response = get("/" + myPatientId.getValue(), null);
+		assertEquals("W/\"2\"", response.myETag);
+		assertThat(response.myBody, containsString("\"active\":false"));
+		assertEquals(2, myPatientProvider.getCountRead());
+	}
+
+	@Test
+	public void testReadOfReplacedVersionIsNotCached() throws IOException {
+		// Simulate an update which has reached pre-commit but is not yet visible to readers
+		Patient oldPatient = new Patient();
+		oldPatient.setId(myPatientId.withVersion("1"));
+		Patient newPatient = new Patient();
+		newPatient.setId(myPatientId.withVersion("2"));
+		myInterceptor.resourcePreCommitUpdated(oldPatient, newPatient);
+
+		Response response = get("/" + myPatientId.getValue(), null);
+		assertEquals("W/\"1\"", response.myETag);
+		get("/" + myPatientId.getValue(), null);
+
+		assertEquals(2, myPatientProvider.getCountRead());
+		assertEquals(0, myInterceptor.getEntryCount());
+	}
+
+	@Test
+	public void testProcessingCompletedNormallyInvokedForCachedResponse() throws IOException {
+		AtomicInteger completedCount = new AtomicInteger();
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> completedCount.incrementAndGet();
+		ourServer.registerAnonymousInterceptor(Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY, interceptor);
+		try {
+			get("/" + myPatientId.getValue(), null);
+			get("/" + myPatientId.getValue(), null);
+		} finally {
+			ourServer.unregisterInterceptor(interceptor);
+		}
+
+		assertEquals(1, myPatientProvider.getCountRead());
+		assertEquals(1, myInterceptor.getHitCount());
+		assertEquals(2, completedCount.get());
+	}
+
+	@Test
+	public void testVersionedReadIsCachedSeparately() throws IOException {
+		get("/" + myPatientId.getValue(), null);
+		get("/" + myPatientId.getValue() + "/_history/1", null);
+		get("/" + myPatientId.getValue() + "/_history/1", null);
+
+		assertEquals(2, myPatientProvider.getCountRead());
+		assertEquals(2, myInterceptor.getEntryCount());
+	}
+
+	@Test
+	public void testParametersAffectingResponseAreIncludedInKey() throws IOException {
+		Response full = get("/" + myPatientId.getValue(), null);
+		Response filtered = get("/" + myPatientId.getValue() + "?_elements=active", null);
+		Response xml = get("/" + myPatientId.getValue() + "?_format=xml", null);
+
+		assertThat(full.myBody, containsString("Simpson"));
+		assertThat(filtered.myBody, not(containsString("Simpson")));
+		assertThat(xml.myBody, containsString("<Patient"));
+		assertEquals(3, myPatientProvider.getCountRead());
+		assertEquals(0, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testCompressedEntries() throws IOException {
+		myInterceptor.setCompressEntries(true);
+
+		Response first = get("/" + myPatientId.getValue(), "gzip");
+		Response second = get("/" + myPatientId.getValue(), "gzip");
+
+		assertEquals(first.myBody, second.myBody);
+		assertEquals(1, myInterceptor.getHitCount());
+		assertEquals(1, myPatientProvider.getCountRead());
+	}
+
+	@Test
+	public void testEvictionBySize() throws IOException {
+		Patient patient = new Patient();
+		patient.setActive(true);
+		IIdType otherId = ourServer.getFhirClient().create().resource(patient).execute().getId().toUnqualifiedVersionless();
+
+		String body = get("/" + myPatientId.getValue(), null).myBody;
+		myInterceptor.setMaximumSizeBytes(body.getBytes(StandardCharsets.UTF_8).length);
+		assertEquals(1, myInterceptor.getEntryCount());
+
+		get("/" + otherId.getValue(), null);
+		assertEquals(1, myInterceptor.getEntryCount());
+
+		get("/" + myPatientId.getValue(), null);
+		assertEquals(0, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testBypassedWhenPreHandledInterceptorRegistered() throws IOException {
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> {
+		};
+		ourServer.registerAnonymousInterceptor(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED, interceptor);
+		try {
+			get("/" + myPatientId.getValue(), null);
+			get("/" + myPatientId.getValue(), null);
+		} finally {
+			ourServer.unregisterInterceptor(interceptor);
+		}
+
+		assertEquals(2, myPatientProvider.getCountRead());
+		assertEquals(0, myInterceptor.getEntryCount());
+	}
+
+	private Response get(String thePath, String theAcceptEncoding) throws IOException {
+		HttpGet httpGet = new HttpGet(ourServer.getBaseUrl() + thePath);
+		httpGet.addHeader(Constants.HEADER_ACCEPT, Constants.CT_FHIR_JSON_NEW);
+		if (theAcceptEncoding != null) {
+			httpGet.addHeader(Constants.HEADER_ACCEPT_ENCODING, theAcceptEncoding);
+		}
+		try (CloseableHttpResponse status = ourServer.getHttpClient().execute(httpGet)) {
+			Response retVal = new Response();
+			retVal.myStatus = status.getStatusLine().getStatusCode();
+			retVal.myBody = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			retVal.myContentType = status.getEntity().getContentType().getValue();
+			retVal.myETag = status.getFirstHeader(Constants.HEADER_ETAG) != null ? status.getFirstHeader(Constants.HEADER_ETAG).getValue() : null;
+			return retVal;
+		}
+	}
+
+	private static class Response {
+		private int myStatus;
+		private String myBody;
+		private String myContentType;
+		private String myETag;
+	}
+
+}
@@ -0,0 +1,100 @@
+package ca.uhn.fhir.rest.server.provider;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.interceptor.executor.InMemoryInterceptorMetricsSink;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import ca.uhn.fhir.util.ParametersUtil;
+import org.hl7.fhir.r4.model.CodeType;
+import org.hl7.fhir.r4.model.Parameters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InterceptorMetricsProviderTest {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(InterceptorMetricsProviderTest.class);
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final InMemoryInterceptorMetricsSink ourSink = new InMemoryInterceptorMetricsSink();
+	@RegisterExtension
+	public static RestfulServerExtension ourServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new InterceptorMetricsProvider(ourCtx, ourSink));
+	private final MyInterceptor myInterceptor = new MyInterceptor();
+
+	@BeforeEach
+	public void before() {
+		ourSink.reset();
+		ourServer.getInterceptorService().setMetricsSink(ourSink);
+		ourServer.registerInterceptor(myInterceptor);
+	}
+
+	@AfterEach
+	public void after() {
+		ourServer.unregisterInterceptor(myInterceptor);
+		ourServer.getInterceptorService().setMetricsSink(null);
+	}
+
+	@Test
+	public void testInterceptorMetrics() {
+		Parameters outcome = ourServer
+			.getFhirClient()
+			.operation()
+			.onServer()
+			.named(ProviderConstants.OPERATION_INTERCEPTOR_METRICS)
+			.withNoParameters(Parameters.class)
+			.execute();
+		ourLog.info(ourCtx.newJsonParser().setPrettyPrint(true).encodeResourceToString(outcome));
+
+		String hookName = MyInterceptor.class.getName() + "#incomingRequestPreHandled";
+		List<String> hookNames = ParametersUtil.getNamedParameterPartAsString(ourCtx, outcome, ProviderConstants.OPERATION_INTERCEPTOR_METRICS_OUTPUT_HOOK, "name");
+		assertThat(hookNames, hasItem(hookName));
+
+		Parameters.ParametersParameterComponent hook = outcome
+			.getParameters(ProviderConstants.OPERATION_INTERCEPTOR_METRICS_OUTPUT_HOOK)
+			.stream()
+			.filter(t -> hookName.equals(t.getPart().stream().filter(p -> p.getName().equals("name")).findFirst().orElseThrow().getValue().primitiveValue()))
+			.findFirst()
+			.orElseThrow();
+		assertEquals("SERVER_INCOMING_REQUEST_PRE_HANDLED", hook.getPart().stream().filter(p -> p.getName().equals("pointcut")).findFirst().orElseThrow().getValue().primitiveValue());
+		assertEquals("1", hook.getPart().stream().filter(p -> p.getName().equals("count")).findFirst().orElseThrow().getValue().primitiveValue());
+		assertEquals("0", hook.getPart().stream().filter(p -> p.getName().equals("failureCount")).findFirst().orElseThrow().getValue().primitiveValue());
+	}
+
+	@Test
+	public void testInterceptorMetricsFilteredByPointcut() {
+		Parameters outcome = ourServer
+			.getFhirClient()
+			.operation()
+			.onServer()
+			.named(ProviderConstants.OPERATION_INTERCEPTOR_METRICS)
+			.withParameter(Parameters.class, ProviderConstants.OPERATION_INTERCEPTOR_METRICS_PARAM_POINTCUT, new CodeType("SERVER_OUTGOING_RESPONSE"))
+			.execute();
+
+		List<String> pointcuts = ParametersUtil.getNamedParameterPartAsString(ourCtx, outcome, ProviderConstants.OPERATION_INTERCEPTOR_METRICS_OUTPUT_HOOK, "pointcut");
+		assertTrue(pointcuts.stream().allMatch(t -> t.equals("SERVER_OUTGOING_RESPONSE")), pointcuts.toString());
+	}
+
+	@Interceptor
+	public static class MyInterceptor {
+
+		@Hook(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED)
+		public void incomingRequestPreHandled(RequestDetails theRequestDetails) {
+			// nothing
+		}
+
+	}
+
+}
@@ -236,6 +236,25 @@ public class BundleBuilderTest {
 
 	}
 
+	@Test
+	public void testAddEntryGet() {
+		BundleBuilder builder = new BundleBuilder(myFhirContext);
+		builder.setType("batch");
+		builder.addGetEntry("Patient/123");
+		builder.addGetEntry("Patient?identifier=http://foo|123");
+		Bundle bundle = (Bundle) builder.getBundle();
+
+		assertEquals(Bundle.BundleType.BATCH, bundle.getType());
+		assertEquals(2, bundle.getEntry().size());
+
+		assertNull(bundle.getEntry().get(0).getResource());
+		assertEquals("Patient/123", bundle.getEntry().get(0).getRequest().getUrl());
+		assertEquals(Bundle.HTTPVerb.GET, bundle.getEntry().get(0).getRequest().getMethod());
+
+		assertEquals("Patient?identifier=http://foo|123", bundle.getEntry().get(1).getRequest().getUrl());
+		assertEquals(Bundle.HTTPVerb.GET, bundle.getEntry().get(1).getRequest().getMethod());
+	}
+
 	@Test
 	public void testAddEntryCreateConditional() {
 		BundleBuilder builder = new BundleBuilder(myFhirContext);
@@ -40,6 +40,7 @@ import org.hl7.fhir.r4.model.StringType;
 import org.hl7.fhir.r4.model.Substance;
 import org.hl7.fhir.r4.model.ValueSet;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.slf4j.Logger;
@@ -650,6 +651,95 @@ public class FhirTerserR4Test {
 	}
 
 
+	@Test
+	public void testGetValuesWithTerserPath() {
+		TerserPath givenPath = TerserPath.compile("Patient.name.given");
+		TerserPath extensionPath = TerserPath.compile("extension('http://foo').value[x]");
+		TerserPath valuePath = TerserPath.compile("Observation.value[x]");
+		FhirTerser terser = myCtx.newTerser();
+
+		Patient p1 = new Patient();
+		p1.addName().addGiven("A1").addGiven("A2");
+		p1.addExtension("http://foo", new StringType("FOO"));
+		Patient p2 = new Patient();
+		p2.addName().addGiven("B1");
+		p2.addName().addGiven("B2");
+
+		assertEquals(Lists.newArrayList("A1", "A2"), toStrings(terser.getValues(p1, givenPath, StringType.class)));
+		assertEquals(Lists.newArrayList("B1", "B2"), toStrings(terser.getValues(p2, givenPath, StringType.class)));
+		assertEquals("FOO", terser.getSingleValueOrNull(p1, extensionPath, StringType.class).getValue());
+		assertFalse(terser.getSingleValue(p2, extensionPath, StringType.class).isPresent());
+
+		// A path for a different resource type matches nothing
+		assertTrue(terser.getValues(p1, valuePath).isEmpty());
+
+		Observation obs = new Observation();
+		obs.setValue(new Quantity(123));
+		assertEquals(1, terser.getValues(obs, valuePath, Quantity.class).size());
+		assertEquals(0, terser.getValues(obs, valuePath, StringType.class).size());
+		obs.setValue(new StringType("VALUE"));
+		assertEquals("VALUE", terser.getSingleValueOrNull(obs, valuePath, StringType.class).getValue());
+
+		// Compiled paths aren't tied to a specific context
+		assertEquals(2, FhirContext.forR4().newTerser().getValues(p1, givenPath).size());
+	}
+
+	@Test
+	public void testGetValuesWithTerserPath_InvalidPath() {
+		try {
+			myCtx.newTerser().getValues(new Patient(), TerserPath.compile("Patient.foo"));
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), Matchers.containsString(Msg.code(1700) + "Unknown child name 'foo' in element Patient"));
+		}
+	}
+
+	@Test
+	public void testAddElementWithTerserPath() {
+		TerserPath familyPath = TerserPath.compile("Patient.name.family");
+
+		Patient patient = new Patient();
+		IBase family = myCtx.newTerser().addElement(patient, familyPath);
+		assertSame(family, patient.getName().get(0).getFamilyElement());
+
+		try {
+			myCtx.newTerser().addElement(patient, familyPath);
+			fail();
+		} catch (DataFormatException e) {
+			assertEquals(Msg.code(1797) + "Element at path Patient.name.family is not repeatable and not empty", e.getMessage());
+		}
+	}
+
+	/**
+	 * Compares the cost of evaluating a path string on every call with
+	 * evaluating a compiled {@link TerserPath}
+	 */
+	@Test
+	@Disabled
+	public void testTimingsGetValuesWithTerserPath() {
+		FhirTerser terser = myCtx.newTerser();
+		TerserPath path = TerserPath.compile("Patient.name.given");
+		Patient patient = new Patient();
+		patient.addName().setFamily("FAMILY").addGiven("GIVEN1").addGiven("GIVEN2");
+		int count = 1000000;
+
+		for (int pass = 0; pass < 10; pass++) {
+			StopWatch sw = new StopWatch();
+			for (int i = 0; i < count; i++) {
+				terser.getValues(patient, "Patient.name.given", StringType.class);
+			}
+			long stringNanos = sw.getMillis() * 1000000L / count;
+
+			sw.restart();
+			for (int i = 0; i < count; i++) {
+				terser.getValues(patient, path, StringType.class);
+			}
+			long compiledNanos = sw.getMillis() * 1000000L / count;
+
+			ourLog.info("Pass {} - String path: {}ns/call - Compiled path: {}ns/call", pass, stringNanos, compiledNanos);
+		}
+	}
+
 	@Test
 	public void testGetValuesAndModify() {
 		Patient p = new Patient();
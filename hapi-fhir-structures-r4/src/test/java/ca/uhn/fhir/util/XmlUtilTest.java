@@ -1,6 +1,7 @@
 package ca.uhn.fhir.util;
 
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.DataFormatException;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import java.io.StringReader;
 import java.io.StringWriter;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -55,6 +58,21 @@ public class XmlUtilTest {
 		XmlUtil.createXmlStreamWriter(new StringWriter());
 	}
 
+	@Test
+	public void testValidateWellFormed() {
+		XmlUtil.validateWellFormed(null);
+		XmlUtil.validateWellFormed("");
+		XmlUtil.validateWellFormed("Some text");
+		XmlUtil.validateWellFormed("<div xmlns=\"http://www.w3.org/1999/xhtml\"><p>Hello &amp; goodbye</p></div>");
+
+		try {
+			XmlUtil.validateWellFormed("<div><p>Hello</div>");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), containsString(Msg.code(2215) + "String does not appear to be valid XML/XHTML"));
+		}
+	}
+
 	@AfterAll
 	public static void afterClassClearContext() {
 		TestUtil.randomizeLocaleAndTimezone();
@@ -0,0 +1,98 @@
+package org.hl7.fhir.r4.hapi.fluentpath;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.fhirpath.FhirPathExecutionException;
+import ca.uhn.fhir.fhirpath.IFhirPath;
+import ca.uhn.fhir.i18n.Msg;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class FhirPathR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@Test
+	public void testEvaluateParsedExpression() throws Exception {
+		IFhirPath fhirPath = ourCtx.newFhirPath();
+		IFhirPath.IParsedExpression parsed = fhirPath.parseExpression("Patient.name.given");
+
+		Patient p1 = new Patient();
+		p1.addName().addGiven("A1").addGiven("A2");
+		Patient p2 = new Patient();
+		p2.addName().addGiven("B1");
+
+		List<StringType> values = fhirPath.evaluate(p1, parsed, StringType.class);
+		assertEquals(2, values.size());
+		assertEquals("A1", values.get(0).getValue());
+		assertEquals("A2", values.get(1).getValue());
+
+		// Parsed expressions can be reused by other instances
+		Optional<StringType> first = ourCtx.newFhirPath().evaluateFirst(p2, parsed, StringType.class);
+		assertTrue(first.isPresent());
+		assertEquals("B1", first.get().getValue());
+
+		assertFalse(fhirPath.evaluateFirst(new Patient(), parsed, StringType.class).isPresent());
+	}
+
+	@Test
+	public void testParsedExpressionsAreCached() throws Exception {
+		IFhirPath.IParsedExpression parsed = ourCtx.newFhirPath().parseExpression("Patient.name.family");
+		assertSame(parsed, ourCtx.newFhirPath().parseExpression("Patient.name.family"));
+	}
+
+	@Test
+	public void testEvaluateExpressionParsedElsewhere() {
+		IFhirPath.IParsedExpression parsed = () -> "Patient.name.given";
+
+		Patient p = new Patient();
+		p.addName().addGiven("A1");
+
+		List<StringType> values = ourCtx.newFhirPath().evaluate(p, parsed, StringType.class);
+		assertEquals(1, values.size());
+		assertEquals("A1", values.get(0).getValue());
+	}
+
+	@Test
+	public void testEvaluateParsedExpressionWithWrongReturnType() throws Exception {
+		IFhirPath fhirPath = ourCtx.newFhirPath();
+		IFhirPath.IParsedExpression parsed = fhirPath.parseExpression("Patient.name");
+
+		Patient p = new Patient();
+		p.addName().setFamily("FAMILY");
+
+		List<HumanName> names = fhirPath.evaluate(p, parsed, HumanName.class);
+		assertEquals("FAMILY", names.get(0).getFamily());
+
+		try {
+			fhirPath.evaluate(p, parsed, StringType.class);
+			fail();
+		} catch (FhirPathExecutionException e) {
+			assertThat(e.getMessage(), containsString(Msg.code(256) + "FluentPath expression \"Patient.name\" returned unexpected type HumanName"));
+		}
+	}
+
+	@Test
+	public void testEvaluateInvalidExpression() {
+		try {
+			ourCtx.newFhirPath().evaluate(new Patient(), "Patient.name.(", IBase.class);
+			fail();
+		} catch (FhirPathExecutionException e) {
+			assertThat(e.getMessage(), containsString(Msg.code(255)));
+		}
+	}
+
+}
@@ -167,6 +167,7 @@ public abstract class BaseJettyServerExtension<T extends BaseJettyServerExtensio
 		});
 
 		ServletHolder servletHolder = new ServletHolder(provideServlet());
+		servletHolder.setAsyncSupported(true);
 
 		HandlerList handlerList = new HandlerList();
 